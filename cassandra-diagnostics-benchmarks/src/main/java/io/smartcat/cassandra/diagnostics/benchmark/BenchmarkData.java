@@ -0,0 +1,85 @@
+package io.smartcat.cassandra.diagnostics.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.smartcat.cassandra.diagnostics.Measurement;
+import io.smartcat.cassandra.diagnostics.Query;
+
+/**
+ * Queries and measurements shared by benchmarks, shaped like the ones produced by the connector and the modules.
+ */
+final class BenchmarkData {
+
+    /**
+     * Number of distinct queries, a power of two so that benchmarks can cycle through them with a mask.
+     */
+    static final int QUERIES = 16;
+
+    static final String KEYSPACE = "benchmark";
+
+    private static final Query.StatementType[] STATEMENT_TYPES = {Query.StatementType.SELECT,
+            Query.StatementType.UPDATE};
+
+    private static final Query.ConsistencyLevel[] CONSISTENCY_LEVELS = {Query.ConsistencyLevel.ONE,
+            Query.ConsistencyLevel.QUORUM, Query.ConsistencyLevel.LOCAL_QUORUM, Query.ConsistencyLevel.ALL};
+
+    private BenchmarkData() {
+
+    }
+
+    /**
+     * Queries of mixed statement types and consistency levels over four tables, with execution times ranging
+     * from sub-millisecond to above the default slow query threshold.
+     *
+     * @return array of {@link #QUERIES} queries
+     */
+    static Query[] queries() {
+        final Query[] queries = new Query[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = Query.create(System.currentTimeMillis(), 500000L + i * 3000000L, TimeUnit.NANOSECONDS,
+                    "/10.0.0.1:9042", STATEMENT_TYPES[i % STATEMENT_TYPES.length], KEYSPACE, "table_" + (i % 4),
+                    "SELECT * FROM benchmark.table_" + (i % 4) + " WHERE id = ?",
+                    CONSISTENCY_LEVELS[i % CONSISTENCY_LEVELS.length]);
+        }
+        return queries;
+    }
+
+    /**
+     * Simple measurement, as reported by the request rate module.
+     *
+     * @return simple measurement
+     */
+    static Measurement simpleMeasurement() {
+        final Map<String, String> tags = new HashMap<>(4);
+        tags.put("host", "benchmark-host");
+        tags.put("systemName", "benchmark-cluster");
+        tags.put("statementType", "SELECT");
+        tags.put("consistencyLevel", "QUORUM");
+        return Measurement.createSimple("request_rate", 1234.5, System.currentTimeMillis(), TimeUnit.MILLISECONDS,
+                tags, new HashMap<String, String>());
+    }
+
+    /**
+     * Complex measurement, as reported by the slow query module.
+     *
+     * @return complex measurement
+     */
+    static Measurement complexMeasurement() {
+        final Map<String, String> tags = new HashMap<>(4);
+        tags.put("host", "benchmark-host");
+        tags.put("systemName", "benchmark-cluster");
+        tags.put("id", "0d3c5ea4-3a6e-4a9c-bd2e-3a3c1a4d8b4f");
+        tags.put("statementType", "SELECT");
+
+        final Map<String, String> fields = new HashMap<>(4);
+        fields.put("client", "/10.0.0.1:9042");
+        fields.put("statement", "SELECT * FROM benchmark.table_0 WHERE id = ?");
+        fields.put("value", "27.5");
+        fields.put("consistencyLevel", "QUORUM");
+        return Measurement.createComplex("slow_query", System.currentTimeMillis(), TimeUnit.MILLISECONDS, tags,
+                fields);
+    }
+
+}
@@ -0,0 +1,91 @@
+package io.smartcat.cassandra.diagnostics.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.smartcat.cassandra.diagnostics.module.AtomicCounter;
+import io.smartcat.cassandra.diagnostics.module.CounterRegistry;
+
+/**
+ * Compares a single {@link AtomicCounter} with a striped counter of {@link CounterRegistry} incremented by
+ * 2, 8 and 32 concurrent threads, as module counters are incremented by connector worker and request threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CounterBenchmark {
+
+    private final AtomicCounter atomicCounter = new AtomicCounter();
+
+    private final CounterRegistry counterRegistry = new CounterRegistry();
+
+    private final int counterId = counterRegistry.register();
+
+    /**
+     * Increments atomic counter from 2 threads.
+     */
+    @Benchmark
+    @Threads(2)
+    public void atomicCounter02Threads() {
+        atomicCounter.increment();
+    }
+
+    /**
+     * Increments atomic counter from 8 threads.
+     */
+    @Benchmark
+    @Threads(8)
+    public void atomicCounter08Threads() {
+        atomicCounter.increment();
+    }
+
+    /**
+     * Increments atomic counter from 32 threads.
+     */
+    @Benchmark
+    @Threads(32)
+    public void atomicCounter32Threads() {
+        atomicCounter.increment();
+    }
+
+    /**
+     * Increments striped counter from 2 threads.
+     */
+    @Benchmark
+    @Threads(2)
+    public void stripedCounter02Threads() {
+        counterRegistry.increment(counterId);
+    }
+
+    /**
+     * Increments striped counter from 8 threads.
+     */
+    @Benchmark
+    @Threads(8)
+    public void stripedCounter08Threads() {
+        counterRegistry.increment(counterId);
+    }
+
+    /**
+     * Increments striped counter from 32 threads.
+     */
+    @Benchmark
+    @Threads(32)
+    public void stripedCounter32Threads() {
+        counterRegistry.increment(counterId);
+    }
+
+}
@@ -0,0 +1,99 @@
+package io.smartcat.cassandra.diagnostics.benchmark;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.smartcat.cassandra.diagnostics.DiagnosticsProcessor;
+import io.smartcat.cassandra.diagnostics.Query;
+import io.smartcat.cassandra.diagnostics.config.Configuration;
+import io.smartcat.cassandra.diagnostics.module.ModuleConfiguration;
+import io.smartcat.cassandra.diagnostics.module.latency.LatencyModule;
+import io.smartcat.cassandra.diagnostics.module.requestrate.RequestRateModule;
+import io.smartcat.cassandra.diagnostics.module.slowquery.SlowQueryModule;
+import io.smartcat.cassandra.diagnostics.reporter.ReporterConfiguration;
+
+/**
+ * Processes queries by {@link DiagnosticsProcessor} configured with a single stock module processing queries and
+ * a reporter discarding measurements. Queries are both counted, as done on request threads, and processed, as done
+ * on connector worker threads. Modules not processing queries are left out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DiagnosticsProcessorBenchmark {
+
+    @Param({"SlowQueryModule", "RequestRateModule", "LatencyModule"})
+    private String module;
+
+    private final Query[] queries = BenchmarkData.queries();
+
+    private DiagnosticsProcessor processor;
+
+    private int index;
+
+    /**
+     * Creates the processor with the benchmarked module.
+     */
+    @Setup
+    public void setUp() {
+        final ReporterConfiguration reporterConfiguration = new ReporterConfiguration();
+        reporterConfiguration.reporter = NullReporter.class.getName();
+
+        final ModuleConfiguration moduleConfiguration = new ModuleConfiguration();
+        switch (module) {
+        case "SlowQueryModule":
+            moduleConfiguration.module = SlowQueryModule.class.getName();
+            moduleConfiguration.options.put("slowQueryReportEnabled", true);
+            break;
+        case "RequestRateModule":
+            moduleConfiguration.module = RequestRateModule.class.getName();
+            moduleConfiguration.options.put("requestsToReport", Arrays.asList("*:*", "SELECT:ONE", "UPDATE:*"));
+            break;
+        case "LatencyModule":
+            moduleConfiguration.module = LatencyModule.class.getName();
+            break;
+        default:
+            throw new IllegalArgumentException("Unknown module " + module);
+        }
+
+        final Configuration configuration = new Configuration();
+        configuration.reporters.add(reporterConfiguration);
+        configuration.modules.add(moduleConfiguration);
+        processor = new DiagnosticsProcessor(configuration);
+    }
+
+    /**
+     * Stops the module.
+     */
+    @TearDown
+    public void tearDown() {
+        processor.shutdown();
+    }
+
+    /**
+     * Counts and processes the next query.
+     */
+    @Benchmark
+    public void process() {
+        final Query query = queries[index++ & (BenchmarkData.QUERIES - 1)];
+        processor.count(query.statementType(), query.consistencyLevel());
+        processor.process(query);
+    }
+
+}
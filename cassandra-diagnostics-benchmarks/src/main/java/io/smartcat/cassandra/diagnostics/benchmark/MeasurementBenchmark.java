@@ -0,0 +1,50 @@
+package io.smartcat.cassandra.diagnostics.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Serializes simple and complex measurements to JSON, as the Kafka reporter does for every measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MeasurementBenchmark {
+
+    private final io.smartcat.cassandra.diagnostics.Measurement simple = BenchmarkData.simpleMeasurement();
+
+    private final io.smartcat.cassandra.diagnostics.Measurement complex = BenchmarkData.complexMeasurement();
+
+    /**
+     * Serializes a simple measurement.
+     *
+     * @return measurement JSON
+     */
+    @Benchmark
+    public String simpleToJson() {
+        return simple.toJson();
+    }
+
+    /**
+     * Serializes a complex measurement.
+     *
+     * @return measurement JSON
+     */
+    @Benchmark
+    public String complexToJson() {
+        return complex.toJson();
+    }
+
+}
@@ -0,0 +1,127 @@
+package io.smartcat.cassandra.diagnostics.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.net.ServerSocket;
+import java.rmi.registry.LocateRegistry;
+import java.rmi.registry.Registry;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.remote.JMXConnectorServer;
+import javax.management.remote.JMXConnectorServerFactory;
+import javax.management.remote.JMXServiceURL;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.smartcat.cassandra.diagnostics.GlobalConfiguration;
+import io.smartcat.cassandra.diagnostics.module.metrics.MetricsCollector;
+import io.smartcat.cassandra.diagnostics.module.metrics.MetricsConfiguration;
+import io.smartcat.cassandra.diagnostics.utils.EmbeddedCassandraServerHelper;
+
+/**
+ * Collects metrics of an embedded Cassandra node by {@link MetricsCollector}, as done by the metrics module every
+ * period. Metrics are read either in process, from the platform MBean server, or over a loopback JMX connection to
+ * a connector server exposing the same MBean server, as Cassandra does on its JMX port.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsCollectorBenchmark {
+
+    private static final String JMX_URL_FORMAT = "service:jmx:rmi:///jndi/rmi://127.0.0.1:%d/jmxrmi";
+
+    private static final List<String> METRICS_PATTERNS = Arrays.asList(
+            "^org.apache.cassandra.metrics.Cache.+",
+            "^org.apache.cassandra.metrics.ClientRequest.+",
+            "^org.apache.cassandra.metrics.CommitLog.+",
+            "^org.apache.cassandra.metrics.Compaction.+",
+            "^org.apache.cassandra.metrics.Storage.+",
+            "^org.apache.cassandra.metrics.ThreadPools.+");
+
+    @Param({"true", "false"})
+    private boolean jmxInProcess;
+
+    private Registry registry;
+
+    private JMXConnectorServer connectorServer;
+
+    private MetricsCollector collector;
+
+    /**
+     * Starts the embedded Cassandra node and, for loopback collection, a JMX connector server.
+     *
+     * @throws Exception if Cassandra or the connector server fail to start
+     */
+    @Setup
+    public void setUp() throws Exception {
+        EmbeddedCassandraServerHelper.startEmbeddedCassandra();
+
+        final int port = freePort();
+        if (!jmxInProcess) {
+            registry = LocateRegistry.createRegistry(port);
+            connectorServer = JMXConnectorServerFactory.newJMXConnectorServer(
+                    new JMXServiceURL(String.format(JMX_URL_FORMAT, port)), null,
+                    ManagementFactory.getPlatformMBeanServer());
+            connectorServer.start();
+        }
+
+        final Map<String, Object> options = new HashMap<>();
+        options.put("jmxInProcess", jmxInProcess);
+        options.put("jmxPort", port);
+        options.put("metricsPatterns", METRICS_PATTERNS);
+        collector = new MetricsCollector("metrics", MetricsConfiguration.create(options),
+                GlobalConfiguration.getDefault());
+        if (!collector.connect()) {
+            throw new IllegalStateException("Metrics collector failed to connect.");
+        }
+    }
+
+    /**
+     * Closes the collector and stops the connector server.
+     *
+     * @throws Exception if the connector server fails to stop
+     */
+    @TearDown
+    public void tearDown() throws Exception {
+        collector.close();
+        if (connectorServer != null) {
+            connectorServer.stop();
+            UnicastRemoteObject.unexportObject(registry, true);
+        }
+    }
+
+    /**
+     * Collects all metrics once.
+     *
+     * @return collected measurements
+     */
+    @Benchmark
+    public Object collect() {
+        return collector.collectMeasurements();
+    }
+
+    private static int freePort() throws Exception {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+}
@@ -0,0 +1,30 @@
+package io.smartcat.cassandra.diagnostics.benchmark;
+
+import io.smartcat.cassandra.diagnostics.GlobalConfiguration;
+import io.smartcat.cassandra.diagnostics.Measurement;
+import io.smartcat.cassandra.diagnostics.reporter.Reporter;
+import io.smartcat.cassandra.diagnostics.reporter.ReporterConfiguration;
+
+/**
+ * Reporter discarding measurements, so that benchmarks of modules measure the modules only.
+ */
+public class NullReporter extends Reporter {
+
+    private volatile Measurement last;
+
+    /**
+     * Constructor.
+     *
+     * @param configuration       Reporter configuration
+     * @param globalConfiguration Global diagnostics configuration
+     */
+    public NullReporter(ReporterConfiguration configuration, GlobalConfiguration globalConfiguration) {
+        super(configuration, globalConfiguration);
+    }
+
+    @Override
+    public void report(Measurement measurement) {
+        last = measurement;
+    }
+
+}
@@ -0,0 +1,107 @@
+package io.smartcat.cassandra.diagnostics.benchmark;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.cassandra.config.Config;
+import org.apache.cassandra.cql3.QueryOptions;
+import org.apache.cassandra.cql3.statements.SelectStatement;
+import org.apache.cassandra.db.ConsistencyLevel;
+import org.apache.cassandra.service.ClientState;
+import org.apache.cassandra.service.QueryState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.smartcat.cassandra.diagnostics.Query;
+import io.smartcat.cassandra.diagnostics.connector.ConnectorConfiguration;
+import io.smartcat.cassandra.diagnostics.connector.QueryCounter;
+import io.smartcat.cassandra.diagnostics.connector.QueryProcessorWrapper;
+import io.smartcat.cassandra.diagnostics.connector.QueryReporter;
+
+/**
+ * Captures executed prepared statements by the Cassandra 3.0 {@link QueryProcessorWrapper}, which is what the
+ * agent adds to every request thread. Captured queries are reported on the wrapper's worker threads to a reporter
+ * discarding them. Cassandra runs in client mode, so that client state and query options can be created without
+ * a node configuration, while the prepared statement is mocked.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryProcessorWrapperBenchmark {
+
+    @Param({"1.0", "0.01"})
+    private double querySamplingRate;
+
+    private QueryProcessorWrapper wrapper;
+
+    private SelectStatement statement;
+
+    private QueryState queryState;
+
+    private QueryOptions options;
+
+    /**
+     * Creates the wrapper and the captured query.
+     */
+    @Setup
+    public void setUp() {
+        Config.setClientMode(true);
+
+        final ConnectorConfiguration configuration = new ConnectorConfiguration();
+        configuration.querySamplingRate = querySamplingRate;
+        wrapper = new QueryProcessorWrapper(new NullQueryReporter(), configuration);
+
+        statement = mock(SelectStatement.class, withSettings().stubOnly());
+        when(statement.keyspace()).thenReturn(BenchmarkData.KEYSPACE);
+        when(statement.columnFamily()).thenReturn("table_0");
+        queryState = new QueryState(ClientState.forExternalCalls(new InetSocketAddress("10.0.0.1", 9042)));
+        options = QueryOptions.forInternalCalls(ConsistencyLevel.QUORUM, Collections.<ByteBuffer>emptyList());
+    }
+
+    /**
+     * Captures an executed prepared statement.
+     */
+    @Benchmark
+    public void processPrepared() {
+        wrapper.processPrepared(statement, queryState, options, System.nanoTime(), null);
+    }
+
+    /**
+     * Query reporter and counter discarding queries.
+     */
+    private static class NullQueryReporter implements QueryReporter, QueryCounter {
+
+        private volatile Query last;
+
+        private long counted;
+
+        @Override
+        public void report(Query query) {
+            last = query;
+        }
+
+        @Override
+        public void count(Query.StatementType statementType, Query.ConsistencyLevel consistencyLevel) {
+            counted++;
+        }
+    }
+
+}
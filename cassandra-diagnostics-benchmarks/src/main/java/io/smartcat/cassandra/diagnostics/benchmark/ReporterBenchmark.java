@@ -0,0 +1,253 @@
+package io.smartcat.cassandra.diagnostics.benchmark;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.influxdb.InfluxDB;
+import org.influxdb.dto.Point;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.aphyr.riemann.Proto;
+import com.aphyr.riemann.client.EventDSL;
+import com.aphyr.riemann.client.IRiemannClient;
+import com.timgroup.statsd.StatsDClient;
+
+import io.smartcat.cassandra.diagnostics.GlobalConfiguration;
+import io.smartcat.cassandra.diagnostics.reporter.DatadogReporter;
+import io.smartcat.cassandra.diagnostics.reporter.InfluxReporter;
+import io.smartcat.cassandra.diagnostics.reporter.KafkaReporter;
+import io.smartcat.cassandra.diagnostics.reporter.PrometheusReporter;
+import io.smartcat.cassandra.diagnostics.reporter.Reporter;
+import io.smartcat.cassandra.diagnostics.reporter.ReporterConfiguration;
+import io.smartcat.cassandra.diagnostics.reporter.RiemannReporter;
+import io.smartcat.cassandra.diagnostics.reporter.TcpClient;
+import io.smartcat.cassandra.diagnostics.reporter.TelegrafReporter;
+
+/**
+ * Reports simple and complex measurements by each reporter. Reporters are created without their connection
+ * options, so they do not connect anywhere, and their clients are then replaced with in-memory sinks serializing
+ * measurements to the wire format, but not sending them. Prometheus reporter only updates in-memory gauges, it
+ * is benchmarked as is, with its HTTP server bound to an ephemeral local port.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReporterBenchmark {
+
+    @Param({"simple", "complex"})
+    private String measurementType;
+
+    private io.smartcat.cassandra.diagnostics.Measurement measurement;
+
+    private InfluxReporter influxReporter;
+
+    private KafkaReporter kafkaReporter;
+
+    private RiemannReporter riemannReporter;
+
+    private TelegrafReporter telegrafReporter;
+
+    private DatadogReporter datadogReporter;
+
+    private PrometheusReporter prometheusReporter;
+
+    /**
+     * Number of bytes serialized by the sinks.
+     */
+    private long serializedBytes;
+
+    /**
+     * Creates reporters and replaces their clients with in-memory sinks.
+     *
+     * @throws Exception in case reporters could not be created
+     */
+    @Setup
+    public void setUp() throws Exception {
+        measurement = "simple".equals(measurementType) ? BenchmarkData.simpleMeasurement()
+                : BenchmarkData.complexMeasurement();
+
+        final GlobalConfiguration globalConfiguration = new GlobalConfiguration();
+        globalConfiguration.hostname = "";
+
+        influxReporter = new InfluxReporter(new ReporterConfiguration(), globalConfiguration);
+        inject(influxReporter, "influx", proxy(InfluxDB.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                if (method.getName().equals("write") && args[args.length - 1] instanceof Point) {
+                    serializedBytes += ((Point) args[args.length - 1]).lineProtocol().length();
+                }
+                return null;
+            }
+        }));
+
+        kafkaReporter = new KafkaReporter(new ReporterConfiguration(), globalConfiguration);
+        inject(kafkaReporter, "topic", "measurements");
+        inject(kafkaReporter, "partitionKey", "benchmark-cluster_benchmark-host");
+        final StringSerializer serializer = new StringSerializer();
+        inject(kafkaReporter, "producer", proxy(Producer.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                if (method.getName().equals("send")) {
+                    final ProducerRecord<?, ?> record = (ProducerRecord<?, ?>) args[0];
+                    serializedBytes += serializer.serialize(record.topic(), (String) record.key()).length;
+                    serializedBytes += serializer.serialize(record.topic(), (String) record.value()).length;
+                }
+                return null;
+            }
+        }));
+
+        riemannReporter = new RiemannReporter(new ReporterConfiguration(), globalConfiguration);
+        inject(riemannReporter, "riemannClient", proxy(IRiemannClient.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                switch (method.getName()) {
+                case "isConnected":
+                    return true;
+                case "event":
+                    return new EventDSL((IRiemannClient) proxy);
+                case "sendEvent":
+                    serializedBytes += ((Proto.Event) args[0]).toByteArray().length;
+                    return null;
+                default:
+                    return null;
+                }
+            }
+        }));
+
+        telegrafReporter = new TelegrafReporter(new ReporterConfiguration(), globalConfiguration);
+        inject(telegrafReporter, "telegrafClient", new TcpClient(new InetSocketAddress("127.0.0.1", 8084)) {
+            @Override
+            public boolean isConnected() {
+                return true;
+            }
+
+            @Override
+            public void send(ByteBuffer buffer) {
+                serializedBytes += buffer.remaining();
+            }
+        });
+
+        datadogReporter = new DatadogReporter(new ReporterConfiguration(), globalConfiguration);
+        inject(datadogReporter, "client", proxy(StatsDClient.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                if (method.getName().equals("recordGaugeValue")) {
+                    serializedBytes += statsdGauge((String) args[0], ((Number) args[1]).doubleValue(),
+                            (String[]) args[args.length - 1]).length();
+                }
+                return null;
+            }
+        }));
+
+        final ReporterConfiguration prometheusConfiguration = new ReporterConfiguration();
+        prometheusConfiguration.options.put("httpServerHost", "127.0.0.1");
+        prometheusConfiguration.options.put("httpServerPort", 0);
+        prometheusReporter = new PrometheusReporter(prometheusConfiguration, globalConfiguration);
+    }
+
+    /**
+     * Stops the Prometheus reporter HTTP server.
+     */
+    @TearDown
+    public void tearDown() {
+        prometheusReporter.stop();
+    }
+
+    /**
+     * Reports a measurement as an InfluxDB point.
+     */
+    @Benchmark
+    public void influx() {
+        influxReporter.report(measurement);
+    }
+
+    /**
+     * Reports a measurement as a JSON Kafka record.
+     */
+    @Benchmark
+    public void kafka() {
+        kafkaReporter.report(measurement);
+    }
+
+    /**
+     * Reports a measurement as a Riemann event.
+     */
+    @Benchmark
+    public void riemann() {
+        riemannReporter.report(measurement);
+    }
+
+    /**
+     * Reports a measurement as an InfluxDB line protocol line sent to Telegraf.
+     */
+    @Benchmark
+    public void telegraf() {
+        telegrafReporter.report(measurement);
+    }
+
+    /**
+     * Reports a measurement as StatsD gauges.
+     */
+    @Benchmark
+    public void datadog() {
+        datadogReporter.report(measurement);
+    }
+
+    /**
+     * Reports a measurement as Prometheus gauges.
+     */
+    @Benchmark
+    public void prometheus() {
+        prometheusReporter.report(measurement);
+    }
+
+    /**
+     * Formats a gauge the way the DogStatsD client formats it before sending.
+     */
+    private static String statsdGauge(String aspect, double value, String[] tags) {
+        final StringBuilder builder = new StringBuilder(aspect).append(':').append(value).append("|g");
+        for (int i = 0; i < tags.length; i++) {
+            builder.append(i == 0 ? "|#" : ",").append(tags[i]);
+        }
+        return builder.toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, handler);
+    }
+
+    /**
+     * Sets a reporter field, either a static client field or an instance field the reporter initializes only
+     * when connecting.
+     */
+    private static void inject(Reporter reporter, String fieldName, Object value)
+            throws ReflectiveOperationException {
+        final Field field = reporter.getClass().getDeclaredField(fieldName);
+        field.setAccessible(true);
+        field.set(reporter, value);
+    }
+
+}
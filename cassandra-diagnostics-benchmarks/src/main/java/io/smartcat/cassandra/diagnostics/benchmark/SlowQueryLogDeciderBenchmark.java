@@ -0,0 +1,72 @@
+package io.smartcat.cassandra.diagnostics.benchmark;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.smartcat.cassandra.diagnostics.Query;
+import io.smartcat.cassandra.diagnostics.config.ConfigurationException;
+import io.smartcat.cassandra.diagnostics.module.slowquery.SlowQueryConfiguration;
+import io.smartcat.cassandra.diagnostics.module.slowquery.SlowQueryLogDecider;
+
+/**
+ * Decides whether queries are slow queries to report, with the default configuration and with a configuration
+ * filtering by statement type and table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SlowQueryLogDeciderBenchmark {
+
+    @Param({"default", "filtered"})
+    private String configuration;
+
+    private final Query[] queries = BenchmarkData.queries();
+
+    private SlowQueryLogDecider decider;
+
+    private int index;
+
+    /**
+     * Creates the decider for the benchmarked configuration.
+     *
+     * @throws ConfigurationException in case the configuration is not valid
+     */
+    @Setup
+    public void setUp() throws ConfigurationException {
+        final Map<String, Object> options = new HashMap<>();
+        if ("filtered".equals(configuration)) {
+            options.put("queryTypesToLog", Arrays.asList("SELECT"));
+            options.put("tablesForLogging",
+                    Arrays.asList(BenchmarkData.KEYSPACE + ".table_0", BenchmarkData.KEYSPACE + ".table_2"));
+        }
+        decider = SlowQueryLogDecider.create(SlowQueryConfiguration.create(options));
+    }
+
+    /**
+     * Decides whether the next query is to be reported.
+     *
+     * @return decision
+     */
+    @Benchmark
+    public boolean isForReporting() {
+        return decider.isForReporting(queries[index++ & (BenchmarkData.QUERIES - 1)]);
+    }
+
+}
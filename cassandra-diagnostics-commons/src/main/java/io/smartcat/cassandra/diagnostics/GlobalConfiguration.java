@@ -1,5 +1,8 @@
 package io.smartcat.cassandra.diagnostics;
 
+import java.util.Objects;
+
+import io.smartcat.cassandra.diagnostics.module.TaskScheduler;
 import io.smartcat.cassandra.diagnostics.utils.Utils;
 
 /**
@@ -42,6 +45,16 @@ public class GlobalConfiguration {
      */
     public String httpApiKey = "diagnostics-api-key";
 
+    /**
+     * Number of threads running periodic tasks of all modules.
+     */
+    public Integer schedulerThreads = TaskScheduler.DEFAULT_THREADS;
+
+    /**
+     * Maximum random offset of periodic task ticks from wall-clock aligned boundaries, in milliseconds.
+     */
+    public Integer schedulerJitterInMillis = 0;
+
     /**
      * Returns the default configuration.
      *
@@ -51,4 +64,28 @@ public class GlobalConfiguration {
         return new GlobalConfiguration();
     }
 
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof GlobalConfiguration)) {
+            return false;
+        }
+        GlobalConfiguration other = (GlobalConfiguration) obj;
+        return Objects.equals(hostname, other.hostname) && Objects.equals(systemName, other.systemName)
+                && Objects.equals(httpApiEnabled, other.httpApiEnabled)
+                && Objects.equals(httpApiHost, other.httpApiHost) && Objects.equals(httpApiPort, other.httpApiPort)
+                && Objects.equals(httpApiAuthEnabled, other.httpApiAuthEnabled)
+                && Objects.equals(httpApiKey, other.httpApiKey)
+                && Objects.equals(schedulerThreads, other.schedulerThreads)
+                && Objects.equals(schedulerJitterInMillis, other.schedulerJitterInMillis);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(hostname, systemName, httpApiEnabled, httpApiHost, httpApiPort, httpApiAuthEnabled,
+                httpApiKey, schedulerThreads, schedulerJitterInMillis);
+    }
+
 }
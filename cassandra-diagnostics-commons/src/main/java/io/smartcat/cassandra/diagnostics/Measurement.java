@@ -1,10 +1,12 @@
 package io.smartcat.cassandra.diagnostics;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
-import io.smartcat.cassandra.diagnostics.utils.Option;
-
 /**
  * This class represents a module generated measurement.
  * There are two types of measurements:
@@ -12,6 +14,11 @@ import io.smartcat.cassandra.diagnostics.utils.Option;
  * * Complex measurement: Provides rich data for a single point in time
  *
  * Measurement type is differentiated by actually holding a scalar value.
+ *
+ * Tags are kept as an interned {@link Tags} set. Numeric fields are kept as primitive {@code long} and
+ * {@code double} values, separate from string fields, so reporters can use them without parsing. Measurements are
+ * built using a {@link Builder}, while {@link #tags()} and {@link #fields()} keep exposing tags and all fields as
+ * string maps.
  */
 public class Measurement {
 
@@ -30,13 +37,22 @@ public class Measurement {
         COMPLEX
     }
 
+    private static final String[] NO_NAMES = new String[0];
+    private static final long[] NO_LONGS = new long[0];
+    private static final double[] NO_DOUBLES = new double[0];
+
     private final String name;
     private final MeasurementType type;
-    private final Option<Double> value;
+    private final double value;
     private final long time;
     private final TimeUnit timeUnit;
-    private final Map<String, String> tags;
-    private final Map<String, String> fields;
+    private final Tags tags;
+    private final String[] longFieldNames;
+    private final long[] longFieldValues;
+    private final String[] doubleFieldNames;
+    private final double[] doubleFieldValues;
+    private final Map<String, String> stringFields;
+    private volatile Map<String, String> fields;
 
     /**
      * Measurements name.
@@ -62,7 +78,7 @@ public class Measurement {
      * @return has value
      */
     public boolean isSimple() {
-        return type.equals(MeasurementType.SIMPLE);
+        return type == MeasurementType.SIMPLE;
     }
 
     /**
@@ -71,7 +87,7 @@ public class Measurement {
      * @return has value
      */
     public boolean isComplex() {
-        return type.equals(MeasurementType.COMPLEX);
+        return type == MeasurementType.COMPLEX;
     }
 
     /**
@@ -84,7 +100,7 @@ public class Measurement {
             throw new IllegalStateException("Complex measurement does not have value.");
         }
 
-        return value.getValue();
+        return value;
     }
 
     /**
@@ -94,7 +110,7 @@ public class Measurement {
      * @return measurement or default value
      */
     public double getOrDefault(Double defaultValue) {
-        return value.getOrDefault(defaultValue);
+        return isSimple() ? value : defaultValue;
     }
 
     /**
@@ -121,27 +137,125 @@ public class Measurement {
      * @return Tag name value pairs
      */
     public Map<String, String> tags() {
+        return tags.asMap();
+    }
+
+    /**
+     * Measurement tag set.
+     *
+     * @return tag set
+     */
+    public Tags tagSet() {
         return tags;
     }
 
     /**
-     * Measurement fields.
+     * Measurement fields, numeric fields included as strings.
      *
      * @return Field name value pairs
      */
     public Map<String, String> fields() {
-        return fields;
+        if (longFieldNames.length == 0 && doubleFieldNames.length == 0) {
+            return stringFields;
+        }
+        Map<String, String> result = fields;
+        if (result == null) {
+            final Map<String, String> all = new LinkedHashMap<>(
+                    (stringFields.size() + longFieldNames.length + doubleFieldNames.length) * 2);
+            all.putAll(stringFields);
+            for (int i = 0; i < longFieldNames.length; i++) {
+                all.put(longFieldNames[i], Long.toString(longFieldValues[i]));
+            }
+            for (int i = 0; i < doubleFieldNames.length; i++) {
+                all.put(doubleFieldNames[i], Double.toString(doubleFieldValues[i]));
+            }
+            result = Collections.unmodifiableMap(all);
+            fields = result;
+        }
+        return result;
     }
 
-    private Measurement(final String name, final MeasurementType type, final Double value, final long time,
-            final TimeUnit timeUnit, final Map<String, String> tags, final Map<String, String> fields) {
+    /**
+     * Measurement string fields.
+     *
+     * @return Field name value pairs
+     */
+    public Map<String, String> stringFields() {
+        return stringFields;
+    }
+
+    /**
+     * Number of {@code long} fields.
+     *
+     * @return number of fields
+     */
+    public int longFieldCount() {
+        return longFieldNames.length;
+    }
+
+    /**
+     * Name of the {@code long} field at the given position.
+     *
+     * @param index field position
+     * @return field name
+     */
+    public String longFieldName(int index) {
+        return longFieldNames[index];
+    }
+
+    /**
+     * Value of the {@code long} field at the given position.
+     *
+     * @param index field position
+     * @return field value
+     */
+    public long longFieldValue(int index) {
+        return longFieldValues[index];
+    }
+
+    /**
+     * Number of {@code double} fields.
+     *
+     * @return number of fields
+     */
+    public int doubleFieldCount() {
+        return doubleFieldNames.length;
+    }
+
+    /**
+     * Name of the {@code double} field at the given position.
+     *
+     * @param index field position
+     * @return field name
+     */
+    public String doubleFieldName(int index) {
+        return doubleFieldNames[index];
+    }
+
+    /**
+     * Value of the {@code double} field at the given position.
+     *
+     * @param index field position
+     * @return field value
+     */
+    public double doubleFieldValue(int index) {
+        return doubleFieldValues[index];
+    }
+
+    private Measurement(final String name, final MeasurementType type, final double value, final long time,
+            final TimeUnit timeUnit, final Tags tags, final String[] longFieldNames, final long[] longFieldValues,
+            final String[] doubleFieldNames, final double[] doubleFieldValues, final Map<String, String> stringFields) {
         this.name = name;
         this.type = type;
-        this.value = Option.ofNullable(value);
+        this.value = value;
         this.time = time;
         this.timeUnit = timeUnit;
         this.tags = tags;
-        this.fields = fields;
+        this.longFieldNames = longFieldNames;
+        this.longFieldValues = longFieldValues;
+        this.doubleFieldNames = doubleFieldNames;
+        this.doubleFieldValues = doubleFieldValues;
+        this.stringFields = stringFields;
     }
 
     /**
@@ -161,7 +275,8 @@ public class Measurement {
             throw new IllegalArgumentException("Simple measurement must have a value.");
         }
 
-        return new Measurement(name, MeasurementType.SIMPLE, value, time, timeUnit, tags, fields);
+        return new Measurement(name, MeasurementType.SIMPLE, value, time, timeUnit, Tags.of(tags), NO_NAMES,
+                NO_LONGS, NO_NAMES, NO_DOUBLES, fields);
     }
 
     /**
@@ -176,14 +291,25 @@ public class Measurement {
      */
     public static Measurement createComplex(final String name, final long time, final TimeUnit timeUnit,
             final Map<String, String> tags, final Map<String, String> fields) {
-        return new Measurement(name, MeasurementType.COMPLEX, null, time, timeUnit, tags, fields);
+        return new Measurement(name, MeasurementType.COMPLEX, 0, time, timeUnit, Tags.of(tags), NO_NAMES, NO_LONGS,
+                NO_NAMES, NO_DOUBLES, fields);
+    }
+
+    /**
+     * Creates a measurement builder.
+     *
+     * @param name Measurement name
+     * @return measurement builder
+     */
+    public static Builder builder(final String name) {
+        return new Builder(name);
     }
 
     @Override
     public String toString() {
         return "Measurement [ " + "name=" + name + ", type=" + type + ", value="
-                + (value.hasValue() ? value.getValue() : "null") + ", time=" + time + ", timeUnit=" + timeUnit
-                + ", tags: " + tags + ", fields: " + fields + " ]";
+                + (isSimple() ? value : "null") + ", time=" + time + ", timeUnit=" + timeUnit
+                + ", tags: " + tags + ", fields: " + fields() + " ]";
     }
 
     /**
@@ -192,29 +318,195 @@ public class Measurement {
      * @return JSON-formatted string representation of measurement.
      */
     public String toJson() {
-        return "{\"name\":\"" + name + "\"" + ",\"type\":\"" + type + "\"" + ",\"value\":"
-                + (value.hasValue() ? value.getValue() : "null") + ",\"time\":" + time + ",\"timeUnit\":\"" + timeUnit
-                + "\"" + ",\"tags\":" + appendMap(tags) + ",\"fields\":" + appendMap(fields) + "}";
+        final StringBuilder builder = new StringBuilder(128);
+        builder.append("{\"name\":\"").append(name).append("\",\"type\":\"").append(type).append("\",\"value\":");
+        if (isSimple()) {
+            builder.append(value);
+        } else {
+            builder.append("null");
+        }
+        builder.append(",\"time\":").append(time).append(",\"timeUnit\":\"").append(timeUnit).append("\",\"tags\":{");
+        boolean first = true;
+        for (int i = 0; i < tags.size(); i++) {
+            first = appendEntry(builder, first, tags.name(i), tags.value(i));
+        }
+        builder.append("},\"fields\":{");
+        first = true;
+        for (Map.Entry<String, String> field : stringFields.entrySet()) {
+            first = appendEntry(builder, first, field.getKey(), field.getValue());
+        }
+        for (int i = 0; i < longFieldNames.length; i++) {
+            first = appendEntry(builder, first, longFieldNames[i], Long.toString(longFieldValues[i]));
+        }
+        for (int i = 0; i < doubleFieldNames.length; i++) {
+            first = appendEntry(builder, first, doubleFieldNames[i], Double.toString(doubleFieldValues[i]));
+        }
+        return builder.append("}}").toString();
+    }
+
+    private static boolean appendEntry(StringBuilder builder, boolean first, String key, String value) {
+        if (!first) {
+            builder.append(',');
+        }
+        builder.append('"').append(key).append("\":\"").append(value).append('"');
+        return false;
     }
 
-    private String appendMap(Map<String, String> map) {
-        StringBuilder builder = new StringBuilder("{");
+    /**
+     * Measurement builder. After a measurement is built, its value and fields are cleared while name, time and tags
+     * are kept, so a module can reuse a builder for consecutive measurements. Builders are not thread safe.
+     */
+    public static final class Builder {
 
-        for (Map.Entry<String, String> entry : map.entrySet()) {
-            builder.append("\"");
-            builder.append(entry.getKey());
-            builder.append("\":\"");
-            builder.append(entry.getValue());
-            builder.append("\",");
+        private static final int INITIAL_CAPACITY = 8;
+
+        private String name;
+        private MeasurementType type = MeasurementType.COMPLEX;
+        private double value;
+        private long time;
+        private TimeUnit timeUnit = TimeUnit.MILLISECONDS;
+        private Tags tags = Tags.EMPTY;
+        private String[] longFieldNames = new String[INITIAL_CAPACITY];
+        private long[] longFieldValues = new long[INITIAL_CAPACITY];
+        private int longFieldCount;
+        private String[] doubleFieldNames = new String[INITIAL_CAPACITY];
+        private double[] doubleFieldValues = new double[INITIAL_CAPACITY];
+        private int doubleFieldCount;
+        private Map<String, String> stringFields;
+
+        private Builder(final String name) {
+            this.name = name;
         }
 
-        if (builder.length() > 1) {
-            builder.replace(builder.length() - 1, builder.length(), "}");
-        } else {
-            builder.append("}");
+        /**
+         * Sets measurement name.
+         *
+         * @param name Measurement name
+         * @return this builder
+         */
+        public Builder name(final String name) {
+            this.name = name;
+            return this;
+        }
+
+        /**
+         * Sets measurement time.
+         *
+         * @param time     Measurement time
+         * @param timeUnit Measurement time unit
+         * @return this builder
+         */
+        public Builder time(final long time, final TimeUnit timeUnit) {
+            this.time = time;
+            this.timeUnit = timeUnit;
+            return this;
         }
 
-        return builder.toString();
+        /**
+         * Sets measurement tags.
+         *
+         * @param tags Tag set
+         * @return this builder
+         */
+        public Builder tags(final Tags tags) {
+            this.tags = tags;
+            return this;
+        }
+
+        /**
+         * Sets measurement value, making it a simple measurement.
+         *
+         * @param value Measurement value
+         * @return this builder
+         */
+        public Builder value(final double value) {
+            this.type = MeasurementType.SIMPLE;
+            this.value = value;
+            return this;
+        }
+
+        /**
+         * Adds a {@code long} field.
+         *
+         * @param name  Field name
+         * @param value Field value
+         * @return this builder
+         */
+        public Builder field(final String name, final long value) {
+            if (longFieldCount == longFieldNames.length) {
+                longFieldNames = Arrays.copyOf(longFieldNames, longFieldCount * 2);
+                longFieldValues = Arrays.copyOf(longFieldValues, longFieldCount * 2);
+            }
+            longFieldNames[longFieldCount] = name;
+            longFieldValues[longFieldCount] = value;
+            longFieldCount++;
+            return this;
+        }
+
+        /**
+         * Adds a {@code double} field.
+         *
+         * @param name  Field name
+         * @param value Field value
+         * @return this builder
+         */
+        public Builder field(final String name, final double value) {
+            if (doubleFieldCount == doubleFieldNames.length) {
+                doubleFieldNames = Arrays.copyOf(doubleFieldNames, doubleFieldCount * 2);
+                doubleFieldValues = Arrays.copyOf(doubleFieldValues, doubleFieldCount * 2);
+            }
+            doubleFieldNames[doubleFieldCount] = name;
+            doubleFieldValues[doubleFieldCount] = value;
+            doubleFieldCount++;
+            return this;
+        }
+
+        /**
+         * Adds a string field.
+         *
+         * @param name  Field name
+         * @param value Field value
+         * @return this builder
+         */
+        public Builder field(final String name, final String value) {
+            if (stringFields == null) {
+                stringFields = new HashMap<>();
+            }
+            stringFields.put(name, value);
+            return this;
+        }
+
+        /**
+         * Builds the measurement and clears value and fields.
+         *
+         * @return Measurement object
+         */
+        public Measurement build() {
+            final Measurement measurement = new Measurement(name, type, value, time, timeUnit, tags,
+                    longFieldCount == 0 ? NO_NAMES : Arrays.copyOf(longFieldNames, longFieldCount),
+                    longFieldCount == 0 ? NO_LONGS : Arrays.copyOf(longFieldValues, longFieldCount),
+                    doubleFieldCount == 0 ? NO_NAMES : Arrays.copyOf(doubleFieldNames, doubleFieldCount),
+                    doubleFieldCount == 0 ? NO_DOUBLES : Arrays.copyOf(doubleFieldValues, doubleFieldCount),
+                    stringFields == null ? Collections.<String, String>emptyMap()
+                            : Collections.unmodifiableMap(stringFields));
+            reset();
+            return measurement;
+        }
+
+        /**
+         * Clears value and fields without building a measurement, so that a measurement abandoned half way does not
+         * leak its fields into the next one.
+         *
+         * @return this builder
+         */
+        public Builder reset() {
+            type = MeasurementType.COMPLEX;
+            value = 0;
+            longFieldCount = 0;
+            doubleFieldCount = 0;
+            stringFields = null;
+            return this;
+        }
     }
 
 }
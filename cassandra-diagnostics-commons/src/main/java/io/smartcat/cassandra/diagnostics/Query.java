@@ -1,5 +1,7 @@
 package io.smartcat.cassandra.diagnostics;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * This class represents a query report.
  */
@@ -91,7 +93,7 @@ public class Query {
     }
 
     private long startTimeInMilliseconds;
-    private long executionTimeInMilliseconds;
+    private long executionTimeInNanoseconds;
     private String clientAddress;
     private StatementType statementType;
     private String keyspace;
@@ -109,12 +111,30 @@ public class Query {
     }
 
     /**
-     * Query's execution time.
+     * Query's execution time, truncated to milliseconds.
      *
      * @return execution time
      */
     public long executionTimeInMilliseconds() {
-        return executionTimeInMilliseconds;
+        return TimeUnit.NANOSECONDS.toMillis(executionTimeInNanoseconds);
+    }
+
+    /**
+     * Query's execution time, truncated to microseconds.
+     *
+     * @return execution time
+     */
+    public long executionTimeInMicroseconds() {
+        return TimeUnit.NANOSECONDS.toMicros(executionTimeInNanoseconds);
+    }
+
+    /**
+     * Query's execution time in nanoseconds, as measured with {@link System#nanoTime()}.
+     *
+     * @return execution time
+     */
+    public long executionTimeInNanoseconds() {
+        return executionTimeInNanoseconds;
     }
 
     /**
@@ -180,11 +200,11 @@ public class Query {
         return consistencyLevel;
     }
 
-    private Query(final long startTimeInMilliseconds, final long executionTimeInMilliseconds,
+    private Query(final long startTimeInMilliseconds, final long executionTimeInNanoseconds,
             final String clientAddress, final StatementType statementType, final String keyspace,
             final String tableName, final String statement, final ConsistencyLevel consistencyLevel) {
         this.startTimeInMilliseconds = startTimeInMilliseconds;
-        this.executionTimeInMilliseconds = executionTimeInMilliseconds;
+        this.executionTimeInNanoseconds = executionTimeInNanoseconds;
         this.clientAddress = clientAddress;
         this.statementType = statementType;
         this.keyspace = keyspace;
@@ -209,14 +229,36 @@ public class Query {
     public static Query create(final long startTimeInMilliseconds, final long executionTimeInMilliseconds,
             final String clientAddress, final StatementType statementType, final String keyspace,
             final String tableName, final String statement, final ConsistencyLevel consistencyLevel) {
-        return new Query(startTimeInMilliseconds, executionTimeInMilliseconds, clientAddress, statementType, keyspace,
-                tableName, statement, consistencyLevel);
+        return create(startTimeInMilliseconds, executionTimeInMilliseconds, TimeUnit.MILLISECONDS, clientAddress,
+                statementType, keyspace, tableName, statement, consistencyLevel);
+    }
+
+    /**
+     * Returns a new instance of Query with execution time given in arbitrary precision.
+     *
+     * @param startTimeInMilliseconds query execution's start time, given as epoch timestamp in milliseconds
+     * @param executionTime           query execution time
+     * @param executionTimeUnit       query execution time unit
+     * @param clientAddress           query's client socket address
+     * @param statementType           type of query's statement
+     * @param keyspace                query's key space
+     * @param tableName               query's table name
+     * @param statement               query's CQL statement
+     * @param consistencyLevel        query's consistencyLevel
+     * @return a new Query instance
+     */
+    public static Query create(final long startTimeInMilliseconds, final long executionTime,
+            final TimeUnit executionTimeUnit, final String clientAddress, final StatementType statementType,
+            final String keyspace, final String tableName, final String statement,
+            final ConsistencyLevel consistencyLevel) {
+        return new Query(startTimeInMilliseconds, executionTimeUnit.toNanos(executionTime), clientAddress,
+                statementType, keyspace, tableName, statement, consistencyLevel);
     }
 
     @Override
     public String toString() {
-        return "Query [ " + "startTimeInMilliseconds=" + startTimeInMilliseconds + ", executionTimeInMilliseconds="
-                + executionTimeInMilliseconds + ", clientAddress=" + clientAddress + ", statementType=" + statementType
+        return "Query [ " + "startTimeInMilliseconds=" + startTimeInMilliseconds + ", executionTimeInNanoseconds="
+                + executionTimeInNanoseconds + ", clientAddress=" + clientAddress + ", statementType=" + statementType
                 .name() + ", statement=" + statement + ", keyspace=" + keyspace + ", tableName=" + tableName  + ", "
                 + "consistencyLevel=" + consistencyLevel.name() + " ]";
     }
@@ -0,0 +1,230 @@
+package io.smartcat.cassandra.diagnostics;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Immutable set of measurement tags, sorted by tag name. Tag sets are interned, so measurements of the same series
+ * (i.e. the same host, system name and table) share a single instance, which can also be created once and reused
+ * by modules.
+ */
+public final class Tags {
+
+    /**
+     * Maximum number of interned tag sets. Tag sets created after the limit is reached are not shared.
+     */
+    private static final int MAX_INTERNED = 10000;
+
+    private static final ConcurrentMap<Tags, Tags> INTERNED = new ConcurrentHashMap<>();
+
+    private static final AtomicInteger INTERNED_COUNT = new AtomicInteger();
+
+    /**
+     * Empty tag set.
+     */
+    public static final Tags EMPTY = new Tags(new String[0], new String[0]);
+
+    private final String[] names;
+
+    private final String[] values;
+
+    private final int hash;
+
+    private volatile Map<String, String> map;
+
+    private Tags(final String[] names, final String[] values) {
+        this.names = names;
+        this.values = values;
+        this.hash = 31 * Arrays.hashCode(names) + Arrays.hashCode(values);
+    }
+
+    /**
+     * Returns the tag set with the given tags.
+     *
+     * @param tags tag name value pairs
+     * @return tag set
+     */
+    public static Tags of(final Map<String, String> tags) {
+        if (tags == null || tags.isEmpty()) {
+            return EMPTY;
+        }
+        final String[] names = new String[tags.size()];
+        final String[] values = new String[tags.size()];
+        int i = 0;
+        for (Map.Entry<String, String> tag : tags.entrySet()) {
+            names[i] = tag.getKey();
+            values[i] = tag.getValue();
+            i++;
+        }
+        return create(names, values, names.length);
+    }
+
+    /**
+     * Returns the tag set with the given tags.
+     *
+     * @param namesAndValues tag names each followed by its value
+     * @return tag set
+     */
+    public static Tags of(final String... namesAndValues) {
+        if (namesAndValues.length % 2 != 0) {
+            throw new IllegalArgumentException("Every tag name must be followed by a value.");
+        }
+        final int size = namesAndValues.length / 2;
+        final String[] names = new String[size];
+        final String[] values = new String[size];
+        for (int i = 0; i < size; i++) {
+            names[i] = namesAndValues[2 * i];
+            values[i] = namesAndValues[2 * i + 1];
+        }
+        return create(names, values, size);
+    }
+
+    /**
+     * Returns the tag set with an additional tag, replacing the tag's value if this tag set already has it.
+     *
+     * @param name  tag name
+     * @param value tag value
+     * @return tag set
+     */
+    public Tags with(final String name, final String value) {
+        final String[] newNames = Arrays.copyOf(names, names.length + 1);
+        final String[] newValues = Arrays.copyOf(values, values.length + 1);
+        newNames[names.length] = name;
+        newValues[values.length] = value;
+        return create(newNames, newValues, newNames.length);
+    }
+
+    /**
+     * Number of tags.
+     *
+     * @return number of tags
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Tag name at the given position.
+     *
+     * @param index tag position
+     * @return tag name
+     */
+    public String name(final int index) {
+        return names[index];
+    }
+
+    /**
+     * Tag value at the given position.
+     *
+     * @param index tag position
+     * @return tag value
+     */
+    public String value(final int index) {
+        return values[index];
+    }
+
+    /**
+     * Value of the tag with the given name.
+     *
+     * @param name tag name
+     * @return tag value or null if there is no such tag
+     */
+    public String get(final String name) {
+        final int index = Arrays.binarySearch(names, name);
+        return index < 0 ? null : values[index];
+    }
+
+    /**
+     * Tags as an unmodifiable map, iterated in tag name order.
+     *
+     * @return tag name value pairs
+     */
+    public Map<String, String> asMap() {
+        Map<String, String> result = map;
+        if (result == null) {
+            final Map<String, String> tags = new LinkedHashMap<>(names.length * 2);
+            for (int i = 0; i < names.length; i++) {
+                tags.put(names[i], values[i]);
+            }
+            result = Collections.unmodifiableMap(tags);
+            map = result;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Tags)) {
+            return false;
+        }
+        final Tags other = (Tags) obj;
+        return hash == other.hash && Arrays.equals(names, other.names) && Arrays.equals(values, other.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return asMap().toString();
+    }
+
+    private static Tags create(final String[] names, final String[] values, final int length) {
+        // insertion sort, stable so that the last value of a repeated tag name wins
+        for (int i = 1; i < length; i++) {
+            final String name = names[i];
+            final String value = values[i];
+            int j = i - 1;
+            while (j >= 0 && names[j].compareTo(name) > 0) {
+                names[j + 1] = names[j];
+                values[j + 1] = values[j];
+                j--;
+            }
+            names[j + 1] = name;
+            values[j + 1] = value;
+        }
+        int size = 0;
+        for (int i = 0; i < length; i++) {
+            if (size > 0 && names[size - 1].equals(names[i])) {
+                values[size - 1] = values[i];
+            } else {
+                names[size] = names[i];
+                values[size] = values[i];
+                size++;
+            }
+        }
+        if (size == 0) {
+            return EMPTY;
+        }
+        final Tags tags = size == names.length ? new Tags(names, values)
+                : new Tags(Arrays.copyOf(names, size), Arrays.copyOf(values, size));
+        return intern(tags);
+    }
+
+    private static Tags intern(final Tags tags) {
+        final Tags existing = INTERNED.get(tags);
+        if (existing != null) {
+            return existing;
+        }
+        if (INTERNED_COUNT.get() >= MAX_INTERNED) {
+            return tags;
+        }
+        final Tags previous = INTERNED.putIfAbsent(tags, tags);
+        if (previous != null) {
+            return previous;
+        }
+        INTERNED_COUNT.incrementAndGet();
+        return tags;
+    }
+
+}
@@ -1,10 +1,10 @@
 package io.smartcat.cassandra.diagnostics.connector;
 
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,16 +12,64 @@ import org.slf4j.LoggerFactory;
 /**
  * An abstract implementation of diagnostics event processor. It implements event queuing,
  * asynchronous execution and throttling.
+ *
+ * <p>Events are captured into preallocated slots of {@link EventRingBuffer}s, one ring buffer per worker thread.
+ * Producer threads are assigned ring buffers round-robin the first time they capture an event, so that the
+ * traffic spreads evenly over workers regardless of thread ids. A producer claims a slot of its ring buffer, fills
+ * it in place and publishes it, so capturing an event does not allocate. Each worker thread drains its own ring
+ * buffer in batches and invokes {@link #process(EventRingBuffer.Slot)} for every event. An idle worker parks and is
+ * unparked by the first event published to its ring buffer.
+ *
+ * <p>When events are produced faster than they are processed, the configured {@link BackpressurePolicy} decides
+ * which events are discarded. Queue thresholds are split evenly among ring buffers and a producer checks only the
+ * depth of its own ring buffer, so capturing an event does not touch the counters of other rings. With the drop
+ * oldest policy, ring buffers have headroom of another threshold above the overflow threshold, in which new
+ * events are still accepted while the worker evicts the oldest ones. Accepted, dropped and sampled out events, as
+ * well as accepted events evicted by the drop oldest policy, are counted and exposed via {@link #stats()}.
+ *
+ * @param <E> event slot type
  */
-public abstract class AbstractEventProcessor {
+public abstract class AbstractEventProcessor<E extends EventRingBuffer.Slot> {
     private static final Logger logger = LoggerFactory.getLogger(AbstractEventProcessor.class);
 
     private static final AtomicLong THREAD_COUNT = new AtomicLong(0);
 
     /**
-     * Executor service used for executing query reports.
+     * Maximum number of events a worker thread drains before checking for new events again.
      */
-    private ThreadPoolExecutor executor;
+    private static final int DRAIN_BATCH_SIZE = 64;
+
+    /**
+     * Number of empty drain attempts a worker thread spins before it starts parking.
+     */
+    private static final int IDLE_SPINS = 100;
+
+    /**
+     * Time an idle worker thread first parks for. Every further empty drain attempt doubles it.
+     */
+    private static final long MIN_IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(1);
+
+    /**
+     * Maximum time an idle worker thread parks before checking for new events, so that workers of an idle node
+     * wake up only tens of times a second. Producers unpark a parked worker, so this does not delay events.
+     */
+    private static final long MAX_IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+
+    /**
+     * Ring buffers holding captured events, one per worker thread.
+     */
+    private final EventRingBuffer<E>[] ringBuffers;
+
+    private final Worker[] workers;
+
+    private final AtomicInteger nextWorker = new AtomicInteger(0);
+
+    private final ThreadLocal<Worker> producerWorker = new ThreadLocal<Worker>() {
+        @Override
+        protected Worker initialValue() {
+            return workers[(nextWorker.getAndIncrement() & Integer.MAX_VALUE) % workers.length];
+        }
+    };
 
     /**
      * Query reporter.
@@ -33,54 +81,263 @@ public abstract class AbstractEventProcessor {
      */
     protected ConnectorConfiguration configuration;
 
-    private static boolean queueOverflow = false;
+    /**
+     * Early filter deciding which intercepted queries are queued for reporting.
+     */
+    protected final QueryFilter queryFilter;
+
+    /**
+     * Counter of all intercepted queries, <code>null</code> if the query reporter does not count queries.
+     */
+    protected final QueryCounter queryCounter;
+
+    private final BackpressurePolicy policy;
+
+    private final long boundedWaitTimeoutNanos;
+
+    private final AtomicLong accepted = new AtomicLong(0);
+
+    private final AtomicLong dropped = new AtomicLong(0);
+
+    private final AtomicLong sampled = new AtomicLong(0);
+
+    private final AtomicLong evicted = new AtomicLong(0);
 
     /**
      * Constructor.
      *
      * @param queryReporter QueryReporter used to report queries
      * @param configuration Connector configuration
+     * @param slotFactory   factory used to preallocate event slots
      */
-    public AbstractEventProcessor(QueryReporter queryReporter, ConnectorConfiguration configuration) {
+    @SuppressWarnings("unchecked")
+    public AbstractEventProcessor(QueryReporter queryReporter, ConnectorConfiguration configuration,
+            EventRingBuffer.Factory<E> slotFactory) {
         this.queryReporter = queryReporter;
         this.configuration = configuration;
-        executor = new ThreadPoolExecutor(configuration.numWorkerThreads,
-                configuration.numWorkerThreads,
-                100L,
-                TimeUnit.MILLISECONDS,
-                new LinkedBlockingQueue<Runnable>(),
-                new ThreadFactory() {
-                    @Override
-                    public Thread newThread(Runnable runnable) {
-                        Thread thread = new Thread(runnable);
-                        thread.setName("cassandra-diagnostics-connector-" + THREAD_COUNT.getAndIncrement());
-                        thread.setDaemon(true);
-                        thread.setPriority(Thread.MIN_PRIORITY);
-                        return thread;
-                    }
-                });
+        this.queryFilter = new QueryFilter(configuration);
+        this.queryCounter = queryReporter instanceof QueryCounter ? (QueryCounter) queryReporter : null;
+        this.policy = configuration.backpressurePolicy == null ? BackpressurePolicy.DROP_NEWEST
+                : configuration.backpressurePolicy;
+        this.boundedWaitTimeoutNanos = TimeUnit.MICROSECONDS.toNanos(configuration.boundedWaitTimeoutInMicroseconds);
+        logger.info("Connector event queue uses {} backpressure policy.", policy);
+
+        final int numWorkerThreads = Math.max(1, configuration.numWorkerThreads);
+        final int ringOverflowThreshold = configuration.queuedEventsOverflowThreshold / numWorkerThreads;
+        final int capacity = Math.max(1, (policy == BackpressurePolicy.DROP_OLDEST ? 2 * ringOverflowThreshold
+                : ringOverflowThreshold) + 1);
+        ringBuffers = new EventRingBuffer[numWorkerThreads];
+        workers = new AbstractEventProcessor.Worker[numWorkerThreads];
+        for (int i = 0; i < numWorkerThreads; i++) {
+            ringBuffers[i] = new EventRingBuffer<>(capacity, slotFactory);
+            workers[i] = new Worker(ringBuffers[i]);
+        }
+        for (Worker worker : workers) {
+            worker.thread.start();
+        }
     }
 
     /**
-     * Submits a query reports asynchronously.
+     * Processes a captured event on a worker thread.
+     *
+     * @param event published event slot
+     * @throws Exception if the event could not be processed
+     */
+    protected abstract void process(E event) throws Exception;
+
+    /**
+     * Claims an event slot to be filled by the calling thread. Every claimed slot has to be handed
+     * over with {@link #publish(EventRingBuffer.Slot)}.
      *
-     * @param reportAction action to be executed
+     * @return claimed event slot or <code>null</code> if the event should be dropped
      */
-    protected void report(final Runnable reportAction) {
-        int numQueuedEvents = executor.getQueue().size();
-
-        if (!queueOverflow) {
-            executor.submit(reportAction);
-            if (numQueuedEvents > configuration.queuedEventsOverflowThreshold) {
-                queueOverflow = true;
-                logger.warn("Event queue overflown. Until relaxed, further events will be dropped.");
+    protected E claim() {
+        final Worker worker = producerWorker.get();
+        final EventRingBuffer<E> ringBuffer = worker.ringBuffer;
+        final E event;
+
+        switch (policy) {
+        case DROP_OLDEST:
+            event = ringBuffer.claim();
+            break;
+        case SAMPLING:
+            final int numQueuedEvents = ringBuffer.size();
+            if (numQueuedEvents > worker.overflowThreshold) {
+                event = null;
+            } else if (!worker.sample(numQueuedEvents)) {
+                sampled.incrementAndGet();
+                logger.trace("Event is sampled out.");
+                return null;
+            } else {
+                event = ringBuffer.claim();
             }
-        } else {
-            if (numQueuedEvents <= configuration.queuedEventsRelaxThreshold) {
-                queueOverflow = false;
-                logger.info("Event queue relaxed. Further events will be accepted and processed.");
+            break;
+        case BOUNDED_WAIT:
+            event = claimWithin(ringBuffer, boundedWaitTimeoutNanos);
+            break;
+        case DROP_NEWEST:
+        default:
+            event = worker.overflown() ? null : ringBuffer.claim();
+            break;
+        }
+
+        if (event == null) {
+            dropped.incrementAndGet();
+            logger.trace("Event queue overflown. Event is dropped.");
+            return null;
+        }
+        accepted.incrementAndGet();
+        return event;
+    }
+
+    /**
+     * Publishes a filled event slot for asynchronous processing.
+     *
+     * @param event event slot obtained by {@link #claim()}
+     */
+    protected void publish(E event) {
+        final Worker worker = producerWorker.get();
+        worker.ringBuffer.publish(event);
+        if (worker.sleeping) {
+            LockSupport.unpark(worker.thread);
+        }
+    }
+
+    /**
+     * Returns a snapshot of the event queue statistics.
+     *
+     * @return event queue statistics
+     */
+    public EventQueueStats stats() {
+        return new EventQueueStats(policy, accepted.get(), dropped.get(), sampled.get(), evicted.get(),
+                queuedEvents());
+    }
+
+    private E claimWithin(EventRingBuffer<E> ringBuffer, long timeoutNanos) {
+        E event = ringBuffer.claim();
+        if (event != null || timeoutNanos <= 0) {
+            return event;
+        }
+        final long deadline = System.nanoTime() + timeoutNanos;
+        while (event == null && System.nanoTime() - deadline < 0) {
+            Thread.yield();
+            event = ringBuffer.claim();
+        }
+        return event;
+    }
+
+    private int queuedEvents() {
+        int numQueuedEvents = 0;
+        for (EventRingBuffer<E> ringBuffer : ringBuffers) {
+            numQueuedEvents += ringBuffer.size();
+        }
+        return numQueuedEvents;
+    }
+
+    /**
+     * Worker draining a single ring buffer.
+     */
+    private class Worker implements Runnable, EventRingBuffer.Handler<E> {
+
+        private final EventRingBuffer<E> ringBuffer;
+
+        private final Thread thread;
+
+        /**
+         * Whether the worker is about to park or parked. It is set before the worker checks its ring buffer for the
+         * last time and read by producers after claiming a slot, so either the worker sees the claimed slot or the
+         * producer sees the worker sleeping and unparks it.
+         */
+        private volatile boolean sleeping = false;
+
+        private final int overflowThreshold;
+
+        private final int relaxThreshold;
+
+        private volatile boolean overflow = false;
+
+        private final EventRingBuffer.Handler<E> discardHandler = new EventRingBuffer.Handler<E>() {
+            @Override
+            public void onEvent(E event) {
+            }
+        };
+
+        Worker(EventRingBuffer<E> ringBuffer) {
+            this.ringBuffer = ringBuffer;
+            this.overflowThreshold = configuration.queuedEventsOverflowThreshold / ringBuffers.length;
+            this.relaxThreshold = configuration.queuedEventsRelaxThreshold / ringBuffers.length;
+            this.thread = new Thread(this);
+            thread.setName("cassandra-diagnostics-connector-" + THREAD_COUNT.getAndIncrement());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+        }
+
+        @Override
+        public void run() {
+            int idle = 0;
+            long parkNanos = MIN_IDLE_PARK_NANOS;
+            while (!Thread.currentThread().isInterrupted()) {
+                if (policy == BackpressurePolicy.DROP_OLDEST) {
+                    discardOldest();
+                }
+                if (ringBuffer.drain(this, DRAIN_BATCH_SIZE) > 0) {
+                    idle = 0;
+                    parkNanos = MIN_IDLE_PARK_NANOS;
+                } else if (idle < IDLE_SPINS) {
+                    idle++;
+                    Thread.yield();
+                } else {
+                    sleeping = true;
+                    if (ringBuffer.size() == 0) {
+                        LockSupport.parkNanos(parkNanos);
+                    }
+                    sleeping = false;
+                    parkNanos = Math.min(MAX_IDLE_PARK_NANOS, parkNanos * 2);
+                }
+            }
+        }
+
+        private boolean overflown() {
+            int numQueuedEvents = ringBuffer.size();
+
+            if (!overflow) {
+                if (numQueuedEvents > overflowThreshold) {
+                    overflow = true;
+                    logger.warn("Event queue overflown. Until relaxed, further events will be dropped.");
+                }
             } else {
-                logger.trace("Event queue overflown. Event is dropped.");
+                if (numQueuedEvents <= relaxThreshold) {
+                    overflow = false;
+                    logger.info("Event queue relaxed. Further events will be accepted and processed.");
+                }
+            }
+            return overflow;
+        }
+
+        private boolean sample(int numQueuedEvents) {
+            if (numQueuedEvents <= relaxThreshold || overflowThreshold <= relaxThreshold) {
+                return true;
+            }
+            final double probability = (double) (overflowThreshold - numQueuedEvents)
+                    / (overflowThreshold - relaxThreshold);
+            return ThreadLocalRandom.current().nextDouble() < probability;
+        }
+
+        private void discardOldest() {
+            final int numQueuedEvents = ringBuffer.size();
+            if (numQueuedEvents > overflowThreshold) {
+                int discarded = ringBuffer.drain(discardHandler, numQueuedEvents - relaxThreshold);
+                evicted.addAndGet(discarded);
+                logger.trace("Event queue overflown. {} oldest events are evicted.", discarded);
+            }
+        }
+
+        @Override
+        public void onEvent(E event) {
+            try {
+                process(event);
+            } catch (Exception e) {
+                logger.warn("An error occured while processing event", e);
             }
         }
     }
@@ -0,0 +1,36 @@
+package io.smartcat.cassandra.diagnostics.connector;
+
+/**
+ * Policy applied by the connector when diagnostics events are produced faster than they are processed.
+ */
+public enum BackpressurePolicy {
+
+    /**
+     * Once the number of queued events exceeds <code>queuedEventsOverflowThreshold</code>, new events are dropped
+     * until the number of queued events drops to <code>queuedEventsRelaxThreshold</code>.
+     */
+    DROP_NEWEST,
+
+    /**
+     * New events are queued as long as there is room. Once the number of queued events exceeds
+     * <code>queuedEventsOverflowThreshold</code>, worker threads discard the oldest queued events until the number
+     * of queued events drops to <code>queuedEventsRelaxThreshold</code>. Eviction is best effort: the queue has
+     * headroom of another <code>queuedEventsOverflowThreshold</code> events above the threshold, and new events are
+     * dropped when a burst fills it before the worker threads evict.
+     */
+    DROP_OLDEST,
+
+    /**
+     * Events are always accepted below <code>queuedEventsRelaxThreshold</code>. Between the relax and the overflow
+     * threshold events are accepted with a probability that decreases linearly with the number of queued events.
+     * Above <code>queuedEventsOverflowThreshold</code> all events are dropped.
+     */
+    SAMPLING,
+
+    /**
+     * When the event queue is full, the intercepted thread waits for up to
+     * <code>boundedWaitTimeoutInMicroseconds</code> for a free slot before the event is dropped.
+     */
+    BOUNDED_WAIT
+
+}
@@ -33,4 +33,25 @@ public interface Connector {
      * @return info provider instance
      */
     InfoProvider getInfoProvider();
+
+    /**
+     * Get statistics of the connector's event queue.
+     *
+     * @return event queue statistics
+     */
+    EventQueueStats getEventQueueStats();
+
+    /**
+     * Get statistics of the connector's cache of metadata parsed out of non-prepared query strings.
+     *
+     * @return parse cache statistics or <code>null</code> if the connector does not parse query strings
+     */
+    ParseCacheStats getParseCacheStats();
+
+    /**
+     * Get a reader of the metrics registry of the connector's target.
+     *
+     * @return metrics registry reader or <code>null</code> if the connector's target metrics can not be read in process
+     */
+    MetricsRegistryReader getMetricsRegistryReader();
 }
@@ -25,11 +25,45 @@ public class ConnectorConfiguration {
      */
     public int queuedEventsRelaxThreshold = 700;
 
+    /**
+     * Policy applied when events are produced faster than they are processed.
+     */
+    public BackpressurePolicy backpressurePolicy = BackpressurePolicy.DROP_NEWEST;
+
+    /**
+     * Maximum time an intercepted thread waits for a free event slot when
+     * <code>BOUNDED_WAIT</code> backpressure policy is used.
+     */
+    public long boundedWaitTimeoutInMicroseconds = 100;
+
     /**
      * Whether to enable tracing or not. It is useful for various modules when debugging.
      */
     public boolean enableTracing = false;
 
+    /**
+     * Maximum number of non-prepared query strings whose parsed metadata (statement type, keyspace and table)
+     * is cached. Caching is disabled if set to zero.
+     */
+    public int queryParseCacheSize = 1000;
+
+    /**
+     * Whether queries issued by Cassandra itself (internal client state) are skipped.
+     */
+    public boolean skipInternalQueries = true;
+
+    /**
+     * Queries executed faster than this are not queued for reporting. They are still counted
+     * by modules counting every query.
+     */
+    public long minExecutionTimeInMilliseconds = 0;
+
+    /**
+     * Fraction of queries, executed at least <code>minExecutionTimeInMilliseconds</code>, queued for reporting.
+     * They are still counted by modules counting every query.
+     */
+    public double querySamplingRate = 1.0;
+
     /**
      * Returns the default configuration.
      * @return default configuration
@@ -63,4 +97,15 @@ public class ConnectorConfiguration {
      */
     public String jmxPassword = null;
 
+    /**
+     * Read node status directly from Cassandra running in the same JVM instead of over JMX connection. JMX is used if
+     * node status can not be read in process.
+     */
+    public boolean infoProviderInProcess = true;
+
+    /**
+     * Time in milliseconds a node status snapshot is shared among modules reporting node status.
+     */
+    public long infoSnapshotTtlInMilliseconds = 1000;
+
 }
@@ -0,0 +1,61 @@
+package io.smartcat.cassandra.diagnostics.connector;
+
+/**
+ * Connector event queue statistics. Counters are cumulative since the connector was initialized. Every offered
+ * event is counted exactly once as accepted, dropped or sampled out, so their sum is the number of offered events.
+ * Evicted events are accepted events discarded later, before they were processed.
+ */
+public class EventQueueStats {
+
+    /**
+     * Backpressure policy in effect.
+     */
+    public final BackpressurePolicy policy;
+
+    /**
+     * Number of events accepted for processing, including the ones evicted afterwards.
+     */
+    public final long accepted;
+
+    /**
+     * Number of events dropped because the event queue was overflown or full.
+     */
+    public final long dropped;
+
+    /**
+     * Number of events discarded by the sampling policy.
+     */
+    public final long sampled;
+
+    /**
+     * Number of accepted events discarded from the event queue by the drop oldest policy before they were
+     * processed.
+     */
+    public final long evicted;
+
+    /**
+     * Number of events currently waiting to be processed.
+     */
+    public final long queued;
+
+    /**
+     * Event queue stats.
+     *
+     * @param policy   backpressure policy
+     * @param accepted accepted events
+     * @param dropped  dropped events
+     * @param sampled  events discarded by sampling
+     * @param evicted  accepted events evicted before processing
+     * @param queued   currently queued events
+     */
+    public EventQueueStats(BackpressurePolicy policy, long accepted, long dropped, long sampled, long evicted,
+            long queued) {
+        this.policy = policy;
+        this.accepted = accepted;
+        this.dropped = dropped;
+        this.sampled = sampled;
+        this.evicted = evicted;
+        this.queued = queued;
+    }
+
+}
@@ -0,0 +1,184 @@
+package io.smartcat.cassandra.diagnostics.connector;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded multi-producer/single-consumer ring buffer of preallocated, mutable event slots.
+ *
+ * <p>All slots are created up front by the supplied {@link Factory}. A producer claims a slot with a single CAS on
+ * the tail sequence, fills it in place and publishes it. The consumer drains published slots in batches, clears them
+ * and hands them back to the producers. Neither side allocates per event.
+ *
+ * <p>Each slot carries its own sequence number (as in D. Vyukov's bounded queue), so producers never wait for each
+ * other and a slow producer only delays the consumer for its own slot.
+ *
+ * @param <E> slot type
+ */
+public class EventRingBuffer<E extends EventRingBuffer.Slot> {
+
+    /**
+     * Base class of a ring buffer slot.
+     */
+    public abstract static class Slot {
+
+        private long sequence;
+
+        /**
+         * Releases all references held by this slot so that they can be garbage collected
+         * while the slot is waiting to be reused.
+         */
+        protected abstract void clear();
+
+    }
+
+    /**
+     * Creates the preallocated slots.
+     *
+     * @param <E> slot type
+     */
+    public interface Factory<E> {
+
+        /**
+         * Creates a new, empty slot.
+         *
+         * @return new slot instance
+         */
+        E newSlot();
+
+    }
+
+    /**
+     * Processes published slots on the consumer side.
+     *
+     * @param <E> slot type
+     */
+    public interface Handler<E> {
+
+        /**
+         * Processes a published slot. The slot is cleared and reused once this method returns,
+         * so references to it must not be kept.
+         *
+         * @param slot published slot
+         */
+        void onEvent(E slot);
+
+    }
+
+    private final Object[] slots;
+
+    private final AtomicLongArray sequences;
+
+    private final int mask;
+
+    private final AtomicLong tail = new AtomicLong(0);
+
+    private volatile long head = 0;
+
+    /**
+     * Constructor.
+     *
+     * @param capacity requested capacity, rounded up to the next power of two
+     * @param factory  slot factory used to preallocate all slots
+     */
+    public EventRingBuffer(int capacity, Factory<E> factory) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Ring buffer capacity must be positive.");
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        slots = new Object[size];
+        sequences = new AtomicLongArray(size);
+        mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            slots[i] = factory.newSlot();
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Claims the next free slot. The claimed slot has to be filled and then handed over with
+     * {@link #publish(Slot)}.
+     *
+     * @return claimed slot or <code>null</code> if the buffer is full
+     */
+    @SuppressWarnings("unchecked")
+    public E claim() {
+        while (true) {
+            long position = tail.get();
+            int index = (int) position & mask;
+            long diff = sequences.get(index) - position;
+            if (diff == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    E slot = (E) slots[index];
+                    ((Slot) slot).sequence = position;
+                    return slot;
+                }
+            } else if (diff < 0) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Publishes a previously claimed slot making it visible to the consumer.
+     *
+     * @param slot claimed slot
+     */
+    public void publish(E slot) {
+        long position = ((Slot) slot).sequence;
+        sequences.lazySet((int) position & mask, position + 1);
+    }
+
+    /**
+     * Drains up to <code>maxEvents</code> published slots. Must be called from a single consumer thread.
+     *
+     * @param handler   handler invoked for each published slot
+     * @param maxEvents maximum number of slots drained in this batch
+     * @return number of drained slots
+     */
+    @SuppressWarnings("unchecked")
+    public int drain(Handler<E> handler, int maxEvents) {
+        long position = head;
+        int drained = 0;
+        while (drained < maxEvents) {
+            int index = (int) position & mask;
+            if (sequences.get(index) != position + 1) {
+                break;
+            }
+            E slot = (E) slots[index];
+            try {
+                handler.onEvent(slot);
+            } finally {
+                slot.clear();
+                position++;
+                head = position;
+                sequences.lazySet(index, position + mask);
+            }
+            drained++;
+        }
+        return drained;
+    }
+
+    /**
+     * Approximate number of claimed slots not yet drained.
+     *
+     * @return number of queued events
+     */
+    public int size() {
+        long size = tail.get() - head;
+        return size < 0 ? 0 : (int) size;
+    }
+
+    /**
+     * Ring buffer capacity.
+     *
+     * @return number of slots
+     */
+    public int capacity() {
+        return slots.length;
+    }
+
+}
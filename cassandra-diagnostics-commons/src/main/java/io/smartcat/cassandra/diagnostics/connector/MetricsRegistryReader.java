@@ -0,0 +1,98 @@
+package io.smartcat.cassandra.diagnostics.connector;
+
+/**
+ * Reads metrics directly from the metrics registry of the Cassandra node the agent runs in, bypassing JMX. Values
+ * of a metric are added as fields of a single measurement, i.e. a histogram or a timer is reported with all its
+ * percentiles at once. Timer durations are in microseconds, as exposed over JMX.
+ */
+public interface MetricsRegistryReader {
+
+    /**
+     * Counter, meter, histogram and timer count field.
+     */
+    String COUNT = "count";
+
+    /**
+     * Gauge value field.
+     */
+    String VALUE = "value";
+
+    /**
+     * Histogram and timer minimum field.
+     */
+    String MIN = "min";
+
+    /**
+     * Histogram and timer maximum field.
+     */
+    String MAX = "max";
+
+    /**
+     * Histogram and timer mean field.
+     */
+    String MEAN = "mean";
+
+    /**
+     * Histogram and timer standard deviation field.
+     */
+    String STD_DEV = "stdDev";
+
+    /**
+     * Histogram and timer median field.
+     */
+    String P50 = "p50";
+
+    /**
+     * Histogram and timer 75th percentile field.
+     */
+    String P75 = "p75";
+
+    /**
+     * Histogram and timer 95th percentile field.
+     */
+    String P95 = "p95";
+
+    /**
+     * Histogram and timer 98th percentile field.
+     */
+    String P98 = "p98";
+
+    /**
+     * Histogram and timer 99th percentile field.
+     */
+    String P99 = "p99";
+
+    /**
+     * Histogram and timer 99.9th percentile field.
+     */
+    String P999 = "p999";
+
+    /**
+     * Meter and timer mean rate field, in events per second.
+     */
+    String MEAN_RATE = "meanRate";
+
+    /**
+     * Meter and timer one minute rate field, in events per second.
+     */
+    String ONE_MINUTE_RATE = "oneMinuteRate";
+
+    /**
+     * Meter and timer five minute rate field, in events per second.
+     */
+    String FIVE_MINUTE_RATE = "fiveMinuteRate";
+
+    /**
+     * Meter and timer fifteen minute rate field, in events per second.
+     */
+    String FIFTEEN_MINUTE_RATE = "fifteenMinuteRate";
+
+    /**
+     * Walks the registry once, passing each metric accepted by the visitor to it. The reservoir of a histogram or
+     * a timer is snapshotted once, and gauges with non-numeric values are skipped.
+     *
+     * @param visitor metrics registry visitor
+     */
+    void read(MetricsRegistryVisitor visitor);
+
+}
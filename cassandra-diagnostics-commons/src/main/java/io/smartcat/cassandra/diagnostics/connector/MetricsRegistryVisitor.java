@@ -0,0 +1,26 @@
+package io.smartcat.cassandra.diagnostics.connector;
+
+import io.smartcat.cassandra.diagnostics.Measurement;
+
+/**
+ * Visitor of metrics read by {@link MetricsRegistryReader}.
+ */
+public interface MetricsRegistryVisitor {
+
+    /**
+     * Decides whether to read a metric. Called for every metric on every read, so decisions should be cached.
+     *
+     * @param name metric name, as registered by Cassandra
+     * @return builder the metric values are added to as fields, or <code>null</code> to skip the metric
+     */
+    Measurement.Builder accept(String name);
+
+    /**
+     * Called once the values of an accepted metric are added to its builder.
+     *
+     * @param name    metric name, as registered by Cassandra
+     * @param builder builder returned when the metric was accepted
+     */
+    void visit(String name, Measurement.Builder builder);
+
+}
@@ -0,0 +1,37 @@
+package io.smartcat.cassandra.diagnostics.connector;
+
+/**
+ * Statistics of the connector's cache of metadata parsed out of non-prepared query strings. Counters are
+ * cumulative since the connector was initialized.
+ */
+public class ParseCacheStats {
+
+    /**
+     * Number of lookups served from the cache.
+     */
+    public final long hits;
+
+    /**
+     * Number of lookups that required the query string to be parsed.
+     */
+    public final long misses;
+
+    /**
+     * Number of cached entries.
+     */
+    public final long size;
+
+    /**
+     * Parse cache stats.
+     *
+     * @param hits   cache hits
+     * @param misses cache misses
+     * @param size   number of cached entries
+     */
+    public ParseCacheStats(long hits, long misses, long size) {
+        this.hits = hits;
+        this.misses = misses;
+        this.size = size;
+    }
+
+}
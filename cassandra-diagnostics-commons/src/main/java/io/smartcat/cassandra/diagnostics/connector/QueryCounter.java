@@ -0,0 +1,20 @@
+package io.smartcat.cassandra.diagnostics.connector;
+
+import io.smartcat.cassandra.diagnostics.Query;
+
+/**
+ * Interface used by {@link Connector} implementation to count every intercepted query directly on the request
+ * thread, regardless of the connector's query filter. If the {@link QueryReporter} passed to the connector also
+ * implements this interface, the connector counts queries through it.
+ *
+ * <p>Implementations are invoked on the request path and must be cheap and must not block.
+ */
+public interface QueryCounter {
+    /**
+     * Counts an intercepted query.
+     *
+     * @param statementType    query statement type
+     * @param consistencyLevel query consistency level
+     */
+    void count(Query.StatementType statementType, Query.ConsistencyLevel consistencyLevel);
+}
@@ -0,0 +1,62 @@
+package io.smartcat.cassandra.diagnostics.connector;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Early filter applied by connectors on the request path, before an intercepted query is queued for reporting.
+ * It skips queries executed faster than the configured minimum execution time and samples the remaining ones
+ * with the configured sampling rate. It does not allocate.
+ */
+public class QueryFilter {
+
+    private final boolean skipInternalQueries;
+
+    private final long minExecutionTimeInNanoseconds;
+
+    private final double samplingRate;
+
+    /**
+     * Constructor.
+     *
+     * @param configuration connector configuration
+     */
+    public QueryFilter(ConnectorConfiguration configuration) {
+        this.skipInternalQueries = configuration.skipInternalQueries;
+        this.minExecutionTimeInNanoseconds = TimeUnit.MILLISECONDS
+                .toNanos(Math.max(0, configuration.minExecutionTimeInMilliseconds));
+        this.samplingRate = Math.max(0.0, Math.min(1.0, configuration.querySamplingRate));
+    }
+
+    /**
+     * Whether queries issued by Cassandra itself should be skipped.
+     *
+     * @return true if internal queries are skipped
+     */
+    public boolean skipInternalQueries() {
+        return skipInternalQueries;
+    }
+
+    /**
+     * Whether any query executed by a client may be rejected, either for its execution time or by sampling.
+     *
+     * @return true if the filter rejects some client queries
+     */
+    public boolean filtersQueries() {
+        return minExecutionTimeInNanoseconds > 0 || samplingRate < 1.0;
+    }
+
+    /**
+     * Decides whether a query executed by a client should be reported.
+     *
+     * @param execTimeInNanoseconds query execution time in nanoseconds
+     * @return true if the query should be reported
+     */
+    public boolean accept(long execTimeInNanoseconds) {
+        if (execTimeInNanoseconds < minExecutionTimeInNanoseconds) {
+            return false;
+        }
+        return samplingRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < samplingRate;
+    }
+
+}
@@ -0,0 +1,76 @@
+package io.smartcat.cassandra.diagnostics.info;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.smartcat.cassandra.diagnostics.info.InfoSnapshot.Section;
+
+/**
+ * An abstract implementation of info provider taking snapshots out of the provider's getters. Only requested
+ * sections are collected and a section failing to be collected is logged and left out of the snapshot, so that it
+ * does not fail the other sections. Repair sessions are counted from thread pool stats when both are requested.
+ */
+public abstract class AbstractInfoProvider implements InfoProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(AbstractInfoProvider.class);
+
+    /**
+     * Counts active and pending repair sessions out of thread pool stats.
+     *
+     * @param tpStats thread pool stats
+     * @return repair sessions
+     */
+    protected abstract long countRepairSessions(List<TPStatsInfo> tpStats);
+
+    @Override
+    public InfoSnapshot snapshot(final Set<Section> sections) {
+        final Set<Section> collected = EnumSet.noneOf(Section.class);
+        List<CompactionInfo> compactions = Collections.emptyList();
+        CompactionSettingsInfo compactionSettingsInfo = null;
+        List<TPStatsInfo> tpStats = Collections.emptyList();
+        long repairSessions = 0;
+        NodeInfo nodeInfo = null;
+        List<String> unreachableNodes = Collections.emptyList();
+
+        // sections are collected in declaration order, so thread pool stats are there when repairs are counted
+        for (Section section : sections.isEmpty() ? EnumSet.noneOf(Section.class) : EnumSet.copyOf(sections)) {
+            try {
+                switch (section) {
+                case COMPACTIONS:
+                    compactions = getCompactions();
+                    break;
+                case COMPACTION_SETTINGS:
+                    compactionSettingsInfo = getCompactionSettingsInfo();
+                    break;
+                case TP_STATS:
+                    tpStats = getTPStats();
+                    break;
+                case REPAIR_SESSIONS:
+                    repairSessions = collected.contains(Section.TP_STATS) ? countRepairSessions(tpStats)
+                            : getRepairSessions();
+                    break;
+                case NODE_INFO:
+                    nodeInfo = getNodeInfo();
+                    break;
+                case UNREACHABLE_NODES:
+                    unreachableNodes = getUnreachableNodes();
+                    break;
+                default:
+                    continue;
+                }
+                collected.add(section);
+            } catch (RuntimeException e) {
+                logger.warn("Failed to collect {} node status section.", section, e);
+            }
+        }
+
+        return new InfoSnapshot(System.currentTimeMillis(), collected, compactions, compactionSettingsInfo, tpStats,
+                repairSessions, nodeInfo, unreachableNodes);
+    }
+
+}
@@ -0,0 +1,90 @@
+package io.smartcat.cassandra.diagnostics.info;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import io.smartcat.cassandra.diagnostics.info.InfoSnapshot.Section;
+
+/**
+ * Info provider sharing the snapshot sections of another info provider for a time to live, so that modules
+ * reporting node status at the same time do not collect them over again. Every section lives on its own, so only
+ * sections requested by some module are ever collected.
+ */
+public class CachedInfoProvider implements InfoProvider {
+
+    private final InfoProvider infoProvider;
+
+    private final long ttlInMillis;
+
+    private final long[] sectionTimes = new long[Section.values().length];
+
+    private InfoSnapshot snapshot = InfoSnapshot.EMPTY;
+
+    /**
+     * Constructor.
+     *
+     * @param infoProvider info provider taking snapshots
+     * @param ttlInMillis  snapshot time to live in milliseconds
+     */
+    public CachedInfoProvider(final InfoProvider infoProvider, final long ttlInMillis) {
+        this.infoProvider = infoProvider;
+        this.ttlInMillis = ttlInMillis;
+    }
+
+    @Override
+    public List<CompactionInfo> getCompactions() {
+        return infoProvider.getCompactions();
+    }
+
+    @Override
+    public List<TPStatsInfo> getTPStats() {
+        return infoProvider.getTPStats();
+    }
+
+    @Override
+    public long getRepairSessions() {
+        return infoProvider.getRepairSessions();
+    }
+
+    @Override
+    public CompactionSettingsInfo getCompactionSettingsInfo() {
+        return infoProvider.getCompactionSettingsInfo();
+    }
+
+    @Override
+    public List<String> getUnreachableNodes() {
+        return infoProvider.getUnreachableNodes();
+    }
+
+    @Override
+    public NodeInfo getNodeInfo() {
+        return infoProvider.getNodeInfo();
+    }
+
+    /**
+     * Returns the requested sections collected within the time to live, collecting only the ones that are not.
+     * A section that failed to be collected is not retried within the time to live either.
+     *
+     * @param sections sections to collect
+     * @return info snapshot
+     */
+    @Override
+    public synchronized InfoSnapshot snapshot(final Set<Section> sections) {
+        final long now = System.currentTimeMillis();
+        final Set<Section> expired = EnumSet.noneOf(Section.class);
+        for (Section section : sections) {
+            if (now - sectionTimes[section.ordinal()] >= ttlInMillis) {
+                expired.add(section);
+            }
+        }
+        if (!expired.isEmpty()) {
+            snapshot = snapshot.merge(infoProvider.snapshot(expired), expired);
+            for (Section section : expired) {
+                sectionTimes[section.ordinal()] = now;
+            }
+        }
+        return snapshot;
+    }
+
+}
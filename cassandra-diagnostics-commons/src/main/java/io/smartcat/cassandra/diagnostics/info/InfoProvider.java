@@ -1,6 +1,7 @@
 package io.smartcat.cassandra.diagnostics.info;
 
 import java.util.List;
+import java.util.Set;
 
 /**
  * Info provider interface.
@@ -49,4 +50,14 @@ public interface InfoProvider {
      */
     NodeInfo getNodeInfo();
 
+    /**
+     * Get the requested sections of node status collected in one pass. A section failing to be collected is left
+     * out of the snapshot instead of failing the other sections.
+     *
+     * @param sections sections to collect
+     * @return info snapshot
+     * @see AbstractInfoProvider
+     */
+    InfoSnapshot snapshot(Set<InfoSnapshot.Section> sections);
+
 }
@@ -0,0 +1,157 @@
+package io.smartcat.cassandra.diagnostics.info;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Node status information collected at once. Only requested sections are collected, a section that was not
+ * requested or failed to be collected is left out: its list is empty, its object is <code>null</code> and
+ * {@link #has(Section)} returns <code>false</code>.
+ */
+public class InfoSnapshot {
+
+    /**
+     * Sections of node status information.
+     */
+    public enum Section {
+        /**
+         * Active compactions.
+         */
+        COMPACTIONS,
+
+        /**
+         * Compaction settings.
+         */
+        COMPACTION_SETTINGS,
+
+        /**
+         * Status of all thread pools.
+         */
+        TP_STATS,
+
+        /**
+         * Number of active and pending repair sessions, counted from thread pool stats if collected as well.
+         */
+        REPAIR_SESSIONS,
+
+        /**
+         * Node information.
+         */
+        NODE_INFO,
+
+        /**
+         * Unreachable nodes.
+         */
+        UNREACHABLE_NODES
+    }
+
+    /**
+     * Snapshot without any section.
+     */
+    public static final InfoSnapshot EMPTY = new InfoSnapshot(0, EnumSet.noneOf(Section.class),
+            Collections.<CompactionInfo>emptyList(), null, Collections.<TPStatsInfo>emptyList(), 0, null,
+            Collections.<String>emptyList());
+
+    /**
+     * Time the snapshot was taken at, in milliseconds.
+     */
+    public final long time;
+
+    /**
+     * Collected sections.
+     */
+    public final Set<Section> sections;
+
+    /**
+     * Active compactions.
+     */
+    public final List<CompactionInfo> compactions;
+
+    /**
+     * Compaction settings.
+     */
+    public final CompactionSettingsInfo compactionSettingsInfo;
+
+    /**
+     * Status of all thread pools.
+     */
+    public final List<TPStatsInfo> tpStats;
+
+    /**
+     * Number of active and pending repair sessions.
+     */
+    public final long repairSessions;
+
+    /**
+     * Node information.
+     */
+    public final NodeInfo nodeInfo;
+
+    /**
+     * Unreachable nodes.
+     */
+    public final List<String> unreachableNodes;
+
+    /**
+     * Info snapshot constructor.
+     *
+     * @param time                   snapshot time in milliseconds
+     * @param sections               collected sections
+     * @param compactions            active compactions
+     * @param compactionSettingsInfo compaction settings
+     * @param tpStats                thread pool stats
+     * @param repairSessions         repair sessions
+     * @param nodeInfo               node information
+     * @param unreachableNodes       unreachable nodes
+     */
+    public InfoSnapshot(long time, Set<Section> sections, List<CompactionInfo> compactions,
+            CompactionSettingsInfo compactionSettingsInfo, List<TPStatsInfo> tpStats, long repairSessions,
+            NodeInfo nodeInfo, List<String> unreachableNodes) {
+        this.time = time;
+        this.sections = Collections.unmodifiableSet(sections.isEmpty() ? EnumSet.noneOf(Section.class)
+                : EnumSet.copyOf(sections));
+        this.compactions = compactions;
+        this.compactionSettingsInfo = compactionSettingsInfo;
+        this.tpStats = tpStats;
+        this.repairSessions = repairSessions;
+        this.nodeInfo = nodeInfo;
+        this.unreachableNodes = unreachableNodes;
+    }
+
+    /**
+     * Whether a section was collected.
+     *
+     * @param section section
+     * @return <code>true</code> if the section was collected
+     */
+    public boolean has(Section section) {
+        return sections.contains(section);
+    }
+
+    /**
+     * Creates a snapshot with the given sections taken from a fresh snapshot and all other sections from this one.
+     *
+     * @param fresh         fresh snapshot
+     * @param freshSections sections to take from the fresh snapshot, even if it failed to collect them
+     * @return merged snapshot
+     */
+    public InfoSnapshot merge(InfoSnapshot fresh, Set<Section> freshSections) {
+        final Set<Section> merged = EnumSet.noneOf(Section.class);
+        for (Section section : Section.values()) {
+            if (freshSections.contains(section) ? fresh.has(section) : has(section)) {
+                merged.add(section);
+            }
+        }
+        return new InfoSnapshot(fresh.time, merged,
+                freshSections.contains(Section.COMPACTIONS) ? fresh.compactions : compactions,
+                freshSections.contains(Section.COMPACTION_SETTINGS) ? fresh.compactionSettingsInfo
+                        : compactionSettingsInfo,
+                freshSections.contains(Section.TP_STATS) ? fresh.tpStats : tpStats,
+                freshSections.contains(Section.REPAIR_SESSIONS) ? fresh.repairSessions : repairSessions,
+                freshSections.contains(Section.NODE_INFO) ? fresh.nodeInfo : nodeInfo,
+                freshSections.contains(Section.UNREACHABLE_NODES) ? fresh.unreachableNodes : unreachableNodes);
+    }
+
+}
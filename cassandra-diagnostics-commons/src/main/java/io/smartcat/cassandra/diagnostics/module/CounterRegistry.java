@@ -0,0 +1,74 @@
+package io.smartcat.cassandra.diagnostics.module;
+
+import java.util.Arrays;
+
+/**
+ * Registry of {@link StripedCounter}s addressed by integer ids. Modules register their counters once, when
+ * initialized, keep the returned ids (typically in arrays indexed by enum ordinals) and use them on the hot path
+ * instead of looking counters up in maps.
+ */
+public class CounterRegistry {
+
+    private volatile StripedCounter[] counters = new StripedCounter[0];
+
+    /**
+     * Registers a new counter.
+     *
+     * @return id of the registered counter
+     */
+    public synchronized int register() {
+        final StripedCounter[] registered = Arrays.copyOf(counters, counters.length + 1);
+        registered[counters.length] = new StripedCounter();
+        counters = registered;
+        return counters.length - 1;
+    }
+
+    /**
+     * Number of registered counters.
+     *
+     * @return number of counters
+     */
+    public int size() {
+        return counters.length;
+    }
+
+    /**
+     * Increment counter value by {@code 1}.
+     *
+     * @param id counter id
+     */
+    public void increment(int id) {
+        counters[id].increment();
+    }
+
+    /**
+     * Increment counter value by the given amount.
+     *
+     * @param id    counter id
+     * @param value value to add
+     */
+    public void add(int id, long value) {
+        counters[id].add(value);
+    }
+
+    /**
+     * Current counter value.
+     *
+     * @param id counter id
+     * @return counter value
+     */
+    public long sum(int id) {
+        return counters[id].sum();
+    }
+
+    /**
+     * Get counter value then reset it to {@code 0}.
+     *
+     * @param id counter id
+     * @return counter value
+     */
+    public long sumThenReset(int id) {
+        return counters[id].sumThenReset();
+    }
+
+}
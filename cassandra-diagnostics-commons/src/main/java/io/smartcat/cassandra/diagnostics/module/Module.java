@@ -1,6 +1,9 @@
 package io.smartcat.cassandra.diagnostics.module;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import io.smartcat.cassandra.diagnostics.GlobalConfiguration;
 import io.smartcat.cassandra.diagnostics.Measurement;
@@ -27,6 +30,8 @@ public abstract class Module {
      */
     protected final GlobalConfiguration globalConfiguration;
 
+    private final List<ScheduledTask> scheduledTasks = new ArrayList<>();
+
     /**
      * Constructor.
      *
@@ -62,10 +67,64 @@ public abstract class Module {
     }
 
     /**
-     * Used to stop module with long running tasks.
+     * Report measurements on all configured reporters as a single batch.
+     *
+     * @param measurements Measurements for reporting
      */
-    public void stop() {
+    protected void report(Collection<Measurement> measurements) {
+        if (measurements.isEmpty()) {
+            return;
+        }
+        for (Reporter reporter : reporters) {
+            reporter.report(measurements);
+        }
+    }
+
+    /**
+     * Schedule a periodic task on the shared {@link TaskScheduler}, running it once right away. The task is
+     * cancelled when the module is stopped.
+     *
+     * @param name     Task name
+     * @param task     Task to run
+     * @param period   Task period
+     * @param timeUnit Task period time unit
+     * @return Scheduled task
+     */
+    protected ScheduledTask schedule(String name, Runnable task, long period, TimeUnit timeUnit) {
+        return schedule(name, task, period, timeUnit, true);
+    }
 
+    /**
+     * Schedule a periodic task on the shared {@link TaskScheduler}. The task is cancelled when the module is stopped.
+     *
+     * @param name           Task name
+     * @param task           Task to run
+     * @param period         Task period
+     * @param timeUnit       Task period time unit
+     * @param runImmediately Whether to run the task once right away, before the first tick
+     * @return Scheduled task
+     */
+    protected ScheduledTask schedule(String name, Runnable task, long period, TimeUnit timeUnit,
+            boolean runImmediately) {
+        final ScheduledTask scheduledTask = TaskScheduler.shared().schedule(name, task, period, timeUnit,
+                runImmediately);
+        synchronized (scheduledTasks) {
+            scheduledTasks.add(scheduledTask);
+        }
+        return scheduledTask;
+    }
+
+    /**
+     * Used to stop module with long running tasks. Cancels tasks scheduled by the module, so modules overriding it
+     * should call it as well.
+     */
+    public void stop() {
+        synchronized (scheduledTasks) {
+            for (ScheduledTask scheduledTask : scheduledTasks) {
+                scheduledTask.cancel();
+            }
+            scheduledTasks.clear();
+        }
     }
 
 }
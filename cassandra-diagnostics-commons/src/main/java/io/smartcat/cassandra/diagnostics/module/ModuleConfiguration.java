@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * This class represents the Module configuration.
@@ -40,6 +41,24 @@ public class ModuleConfiguration {
         return measurement == null || measurement.isEmpty() ? defaultMeasurement : measurement;
     }
 
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof ModuleConfiguration)) {
+            return false;
+        }
+        ModuleConfiguration other = (ModuleConfiguration) obj;
+        return Objects.equals(module, other.module) && Objects.equals(measurement, other.measurement)
+                && Objects.equals(options, other.options) && Objects.equals(reporters, other.reporters);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(module, measurement, options, reporters);
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
@@ -0,0 +1,20 @@
+package io.smartcat.cassandra.diagnostics.module;
+
+/**
+ * Periodic task registered with the {@link TaskScheduler}.
+ */
+public interface ScheduledTask {
+
+    /**
+     * Task name.
+     *
+     * @return task name
+     */
+    String name();
+
+    /**
+     * Cancels the task. A run already in progress is completed, but the task is not run again.
+     */
+    void cancel();
+
+}
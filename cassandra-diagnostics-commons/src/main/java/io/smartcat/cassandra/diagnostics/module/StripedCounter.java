@@ -0,0 +1,81 @@
+package io.smartcat.cassandra.diagnostics.module;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counter spreading increments over a number of cells, each on its own cache line, so that threads incrementing
+ * the counter concurrently do not contend on a single value. A thread always updates the cell selected by its
+ * thread id, the sum is computed over all cells.
+ */
+public class StripedCounter {
+
+    /**
+     * Number of longs per cell, so that cells do not share a cache line.
+     */
+    private static final int CELL_PADDING = 8;
+
+    /**
+     * Number of cells, the smallest power of two not less than the number of available processors.
+     */
+    static final int CELLS = cells(Runtime.getRuntime().availableProcessors());
+
+    private final AtomicLongArray cells = new AtomicLongArray(CELLS * CELL_PADDING);
+
+    /**
+     * Increment value by {@code 1}.
+     */
+    public void increment() {
+        cells.getAndIncrement(cellIndex());
+    }
+
+    /**
+     * Increment value by the given amount.
+     *
+     * @param value value to add
+     */
+    public void add(long value) {
+        cells.getAndAdd(cellIndex(), value);
+    }
+
+    /**
+     * Current sum of all cells. Increments happening concurrently may or may not be included.
+     *
+     * @return Returns sum.
+     */
+    public long sum() {
+        long sum = 0;
+        for (int i = 0; i < CELLS; i++) {
+            sum += cells.get(i * CELL_PADDING);
+        }
+        return sum;
+    }
+
+    /**
+     * Get sum then reset counter to {@code 0}. Every cell is atomically read and reset, so each increment is
+     * included in exactly one returned sum.
+     *
+     * @return Returns sum.
+     */
+    public long sumThenReset() {
+        long sum = 0;
+        for (int i = 0; i < CELLS; i++) {
+            sum += cells.getAndSet(i * CELL_PADDING, 0);
+        }
+        return sum;
+    }
+
+    private static int cellIndex() {
+        long id = Thread.currentThread().getId();
+        int hash = (int) (id ^ (id >>> 32));
+        hash ^= (hash >>> 16);
+        hash *= 0x85ebca6b;
+        hash ^= (hash >>> 13);
+        return (hash & (CELLS - 1)) * CELL_PADDING;
+    }
+
+    private static int cells(int processors) {
+        int cells = Integer.highestOneBit(Math.max(1, processors));
+        return cells < processors ? cells << 1 : cells;
+    }
+
+}
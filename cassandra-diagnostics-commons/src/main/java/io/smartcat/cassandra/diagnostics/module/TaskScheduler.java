@@ -0,0 +1,283 @@
+package io.smartcat.cassandra.diagnostics.module;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Scheduler running periodic tasks of all modules on a small shared thread pool.
+ *
+ * <p>Ticks are aligned to wall-clock boundaries of the task period, e.g. a task with a 10 second period runs at
+ * :00, :10, :20 and so on, so nodes with synchronized clocks report on the same second. Each task can be shifted
+ * by a random offset up to the configured jitter, chosen once when the task is scheduled, to spread the load on
+ * reporting backends. A task runs once when scheduled, unless told otherwise, and then on every tick. A tick is
+ * skipped, and counted as an overrun, if the task is still running. A task failing with an exception or an error is
+ * logged and run again on the next tick.
+ */
+public class TaskScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskScheduler.class);
+
+    private static final String THREAD_NAME_PREFIX = "diagnostics-scheduler-";
+
+    /**
+     * Maximum time a run may start before its wall-clock tick and still be considered that tick's run. A run
+     * starting earlier than this follows a backward wall-clock step and is rescheduled from the current time.
+     */
+    private static final long EARLY_START_TOLERANCE_MILLIS = 100;
+
+    /**
+     * Default number of scheduler threads.
+     */
+    public static final int DEFAULT_THREADS = 2;
+
+    private static final TaskScheduler SHARED = new TaskScheduler(DEFAULT_THREADS);
+
+    private final ScheduledThreadPoolExecutor executor;
+
+    private final List<Task> tasks = new CopyOnWriteArrayList<>();
+
+    private final Random random = new Random();
+
+    private final AtomicLong taskIds = new AtomicLong();
+
+    private volatile long jitterInMillis;
+
+    /**
+     * Constructor.
+     *
+     * @param threads number of scheduler threads
+     */
+    public TaskScheduler(final int threads) {
+        executor = new ScheduledThreadPoolExecutor(Math.max(1, threads), new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                final Thread thread = new Thread(runnable, THREAD_NAME_PREFIX + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        executor.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Returns the agent-wide scheduler shared by all modules.
+     *
+     * @return shared scheduler
+     */
+    public static TaskScheduler shared() {
+        return SHARED;
+    }
+
+    /**
+     * Sets the number of scheduler threads and the maximum offset of ticks of subsequently scheduled tasks.
+     *
+     * @param threads        number of scheduler threads
+     * @param jitterInMillis maximum tick offset in milliseconds
+     */
+    public void configure(final int threads, final long jitterInMillis) {
+        final int size = Math.max(1, threads);
+        if (size > executor.getMaximumPoolSize()) {
+            executor.setMaximumPoolSize(size);
+        }
+        executor.setCorePoolSize(size);
+        this.jitterInMillis = Math.max(0, jitterInMillis);
+    }
+
+    /**
+     * Schedules a periodic task, running it once right away.
+     *
+     * @param name     task name
+     * @param task     task to run
+     * @param period   task period
+     * @param timeUnit task period time unit
+     * @return scheduled task
+     */
+    public ScheduledTask schedule(final String name, final Runnable task, final long period,
+            final TimeUnit timeUnit) {
+        return schedule(name, task, period, timeUnit, true);
+    }
+
+    /**
+     * Schedules a periodic task.
+     *
+     * @param name           task name
+     * @param task           task to run
+     * @param period         task period
+     * @param timeUnit       task period time unit
+     * @param runImmediately whether to run the task once right away, before the first tick
+     * @return scheduled task
+     */
+    public ScheduledTask schedule(final String name, final Runnable task, final long period,
+            final TimeUnit timeUnit, final boolean runImmediately) {
+        final long periodInMillis = timeUnit.toMillis(period);
+        if (periodInMillis <= 0) {
+            throw new IllegalArgumentException("Task period must be at least one millisecond.");
+        }
+        final long jitter = Math.min(jitterInMillis, periodInMillis);
+        final long offset;
+        synchronized (random) {
+            offset = jitter == 0 ? 0 : (long) (random.nextDouble() * jitter);
+        }
+
+        final Task scheduled = new Task(name, task, periodInMillis, offset);
+        tasks.add(scheduled);
+        final long now = System.currentTimeMillis();
+        scheduled.scheduleAt(runImmediately ? now : scheduled.nextTick(now), now);
+        logger.debug("Task {} scheduled with {} ms period and {} ms offset.", name, periodInMillis, offset);
+        return scheduled;
+    }
+
+    /**
+     * Returns a snapshot of statistics of all scheduled tasks, without resetting them.
+     *
+     * @return task statistics
+     */
+    public List<TaskStats> stats() {
+        return stats(false);
+    }
+
+    /**
+     * Returns a snapshot of statistics of all scheduled tasks and resets their longest run times, so that the next
+     * snapshot reports the longest run since this one. Meant for the single module reporting task statistics.
+     *
+     * @return task statistics
+     */
+    public List<TaskStats> statsThenReset() {
+        return stats(true);
+    }
+
+    private List<TaskStats> stats(final boolean reset) {
+        final List<TaskStats> stats = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            stats.add(task.stats(reset));
+        }
+        return stats;
+    }
+
+    /**
+     * Cancels all tasks and stops the scheduler threads.
+     */
+    public void shutdown() {
+        for (Task task : tasks) {
+            task.cancel();
+        }
+        executor.shutdown();
+    }
+
+    /**
+     * Periodic task rescheduling itself on the next aligned tick after every run.
+     */
+    private class Task implements ScheduledTask, Runnable {
+
+        private final long id = taskIds.incrementAndGet();
+
+        private final String name;
+
+        private final Runnable task;
+
+        private final long periodInMillis;
+
+        private final long offsetInMillis;
+
+        private final AtomicLong runs = new AtomicLong();
+
+        private final AtomicLong failures = new AtomicLong();
+
+        private final AtomicLong overruns = new AtomicLong();
+
+        private final AtomicLong runTime = new AtomicLong();
+
+        private final AtomicLong maxRunTime = new AtomicLong();
+
+        private long scheduledTime;
+
+        private ScheduledFuture<?> future;
+
+        private boolean cancelled;
+
+        Task(final String name, final Runnable task, final long periodInMillis, final long offsetInMillis) {
+            this.name = name;
+            this.task = task;
+            this.periodInMillis = periodInMillis;
+            this.offsetInMillis = offsetInMillis;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public void run() {
+            final long start = System.nanoTime();
+            try {
+                task.run();
+            } catch (Throwable t) {
+                failures.incrementAndGet();
+                logger.warn("Scheduled task {} failed.", name, t);
+            } finally {
+                final long elapsed = System.nanoTime() - start;
+                runs.incrementAndGet();
+                runTime.addAndGet(elapsed);
+                long max = maxRunTime.get();
+                while (elapsed > max && !maxRunTime.compareAndSet(max, elapsed)) {
+                    max = maxRunTime.get();
+                }
+                reschedule();
+            }
+        }
+
+        private void reschedule() {
+            // the executor measures delays on its own clock, so a run may start slightly before its wall-clock tick
+            final long now = System.currentTimeMillis();
+            final long next = nextTick(scheduledTime - now <= EARLY_START_TOLERANCE_MILLIS
+                    ? Math.max(now, scheduledTime) : now);
+            final long skipped = (next - scheduledTime) / periodInMillis - 1;
+            if (skipped > 0) {
+                overruns.addAndGet(skipped);
+                logger.debug("Scheduled task {} overran {} ticks.", name, skipped);
+            }
+            scheduleAt(next, now);
+        }
+
+        long nextTick(final long now) {
+            return now - Math.abs((now - offsetInMillis) % periodInMillis) + periodInMillis;
+        }
+
+        synchronized void scheduleAt(final long time, final long now) {
+            if (cancelled) {
+                return;
+            }
+            scheduledTime = time;
+            future = executor.schedule(this, Math.max(0, time - now), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public synchronized void cancel() {
+            cancelled = true;
+            if (future != null) {
+                future.cancel(false);
+            }
+            tasks.remove(this);
+        }
+
+        TaskStats stats(final boolean reset) {
+            return new TaskStats(id, name, runs.get(), failures.get(), overruns.get(), runTime.get(),
+                    reset ? maxRunTime.getAndSet(0) : maxRunTime.get());
+        }
+    }
+
+}
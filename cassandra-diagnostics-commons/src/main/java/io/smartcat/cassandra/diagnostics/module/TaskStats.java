@@ -0,0 +1,65 @@
+package io.smartcat.cassandra.diagnostics.module;
+
+/**
+ * Statistics of a single task run by the {@link TaskScheduler}. Counters are cumulative since the task was scheduled.
+ */
+public class TaskStats {
+
+    /**
+     * Identifier of the scheduled task, unique among tasks of the scheduler even if task names are not.
+     */
+    public final long id;
+
+    /**
+     * Task name.
+     */
+    public final String task;
+
+    /**
+     * Number of task runs.
+     */
+    public final long runs;
+
+    /**
+     * Number of task runs that failed with an exception or an error.
+     */
+    public final long failures;
+
+    /**
+     * Number of ticks skipped because the task was still running.
+     */
+    public final long overruns;
+
+    /**
+     * Total time spent running the task, in nanoseconds.
+     */
+    public final long runTimeInNanoseconds;
+
+    /**
+     * Longest single run since the statistics were last reset, in nanoseconds.
+     */
+    public final long maxRunTimeInNanoseconds;
+
+    /**
+     * Task stats.
+     *
+     * @param id                      task identifier
+     * @param task                    task name
+     * @param runs                    task runs
+     * @param failures                failed task runs
+     * @param overruns                skipped ticks
+     * @param runTimeInNanoseconds    total run time
+     * @param maxRunTimeInNanoseconds longest run time since the last reset
+     */
+    public TaskStats(long id, String task, long runs, long failures, long overruns, long runTimeInNanoseconds,
+            long maxRunTimeInNanoseconds) {
+        this.id = id;
+        this.task = task;
+        this.runs = runs;
+        this.failures = failures;
+        this.overruns = overruns;
+        this.runTimeInNanoseconds = runTimeInNanoseconds;
+        this.maxRunTimeInNanoseconds = maxRunTimeInNanoseconds;
+    }
+
+}
@@ -1,5 +1,7 @@
 package io.smartcat.cassandra.diagnostics.reporter;
 
+import java.util.Collection;
+
 import io.smartcat.cassandra.diagnostics.GlobalConfiguration;
 import io.smartcat.cassandra.diagnostics.Measurement;
 
@@ -36,6 +38,18 @@ public abstract class Reporter {
      */
     public abstract void report(Measurement measurement);
 
+    /**
+     * Reports a batch of measurements. Reports measurements one by one by default, reporters able to send several
+     * measurements at once should override it.
+     *
+     * @param measurements measurements to report
+     */
+    public void report(Collection<Measurement> measurements) {
+        for (Measurement measurement : measurements) {
+            report(measurement);
+        }
+    }
+
     /**
      * Used to gracefully stop reporter.
      */
@@ -2,6 +2,7 @@ package io.smartcat.cassandra.diagnostics.reporter;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * This class represents the Reporter configuration.
@@ -18,6 +19,18 @@ public class ReporterConfiguration {
      */
     public Map<String, Object> options = new HashMap<>();
 
+    /**
+     * Maximum number of measurements waiting to be reported. It should hold all measurements modules report in a
+     * reporting period, such as a metrics tick reporting a measurement per table metric. Measurements reported
+     * together are dropped together when they do not fit into the queue.
+     */
+    public int queueCapacity = 10000;
+
+    /**
+     * Maximum number of queued measurements handed over to the reporter at once.
+     */
+    public int batchSize = 100;
+
     /**
      * Try to get option from list or return default value if option for key not provided.
      *
@@ -45,6 +58,24 @@ public class ReporterConfiguration {
         return (T) options.get(key);
     }
 
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof ReporterConfiguration)) {
+            return false;
+        }
+        ReporterConfiguration other = (ReporterConfiguration) obj;
+        return Objects.equals(reporter, other.reporter) && Objects.equals(options, other.options)
+                && queueCapacity == other.queueCapacity && batchSize == other.batchSize;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(reporter, options, queueCapacity, batchSize);
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
@@ -65,4 +65,68 @@ public class MeasurementTest {
         measurement.getValue();
     }
 
+    @Test
+    public void should_build_measurement_with_typed_fields() {
+        Measurement measurement = Measurement.builder("m1").time(1434055662, TimeUnit.SECONDS)
+                .tags(Tags.of("tag1", "tv1", "tag2", "tv2")).field("count", 3L).field("p99", 1.5)
+                .field("v2", "abc").build();
+
+        assertThat(measurement.isComplex()).isTrue();
+        assertThat(measurement.tags()).containsEntry("tag1", "tv1").containsEntry("tag2", "tv2");
+        assertThat(measurement.longFieldCount()).isEqualTo(1);
+        assertThat(measurement.longFieldName(0)).isEqualTo("count");
+        assertThat(measurement.longFieldValue(0)).isEqualTo(3L);
+        assertThat(measurement.doubleFieldCount()).isEqualTo(1);
+        assertThat(measurement.doubleFieldName(0)).isEqualTo("p99");
+        assertThat(measurement.doubleFieldValue(0)).isEqualTo(1.5);
+        assertThat(measurement.stringFields()).containsOnlyKeys("v2");
+        assertThat(measurement.fields()).containsEntry("count", "3").containsEntry("p99", "1.5")
+                .containsEntry("v2", "abc");
+    }
+
+    @Test
+    public void should_clear_value_and_fields_when_builder_is_reused() {
+        Measurement.Builder builder = Measurement.builder("m1").time(1434055662, TimeUnit.SECONDS)
+                .tags(Tags.of("tag1", "tv1"));
+
+        Measurement first = builder.value(1.0).build();
+        Measurement second = builder.field("count", 3L).build();
+
+        assertThat(first.isSimple()).isTrue();
+        assertThat(first.getValue()).isEqualTo(1.0);
+        assertThat(first.fields()).isEmpty();
+        assertThat(second.isComplex()).isTrue();
+        assertThat(second.name()).isEqualTo("m1");
+        assertThat(second.time()).isEqualTo(1434055662);
+        assertThat(second.tagSet()).isSameAs(first.tagSet());
+        assertThat(second.fields()).containsOnlyKeys("count");
+    }
+
+    @Test
+    public void should_clear_fields_of_abandoned_measurement_when_builder_is_reset() {
+        Measurement.Builder builder = Measurement.builder("m1").time(1434055662, TimeUnit.SECONDS);
+
+        builder.value(1.0).field("count", 3L).field("mean", 2.0).field("unit", "ms").reset();
+        Measurement measurement = builder.field("max", 4.0).build();
+
+        assertThat(measurement.isComplex()).isTrue();
+        assertThat(measurement.name()).isEqualTo("m1");
+        assertThat(measurement.fields()).containsOnlyKeys("max");
+    }
+
+    @Test
+    public void should_share_tags_of_measurements_created_from_maps() {
+        Map<String, String> tags = new HashMap<>();
+        tags.put("tag1", "tv1");
+        tags.put("tag2", "tv2");
+
+        Measurement first = Measurement.createComplex("m1", 1434055662, TimeUnit.SECONDS, tags,
+                new HashMap<String, String>());
+        Measurement second = Measurement.createComplex("m2", 1434055663, TimeUnit.SECONDS, tags,
+                new HashMap<String, String>());
+
+        assertThat(second.tagSet()).isSameAs(first.tagSet());
+        assertThat(second.tags()).isEqualTo(tags);
+    }
+
 }
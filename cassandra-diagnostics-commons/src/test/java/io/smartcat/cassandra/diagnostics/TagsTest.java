@@ -0,0 +1,51 @@
+package io.smartcat.cassandra.diagnostics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class TagsTest {
+
+    @Test
+    public void should_sort_tags_by_name() {
+        Tags tags = Tags.of("systemName", "cluster", "host", "node1", "keyspace", "ks");
+
+        assertThat(tags.size()).isEqualTo(3);
+        assertThat(tags.name(0)).isEqualTo("host");
+        assertThat(tags.name(1)).isEqualTo("keyspace");
+        assertThat(tags.name(2)).isEqualTo("systemName");
+        assertThat(tags.asMap().keySet()).containsExactly("host", "keyspace", "systemName");
+        assertThat(tags.get("keyspace")).isEqualTo("ks");
+        assertThat(tags.get("table")).isNull();
+    }
+
+    @Test
+    public void should_intern_equal_tags() {
+        Map<String, String> map = new HashMap<>();
+        map.put("host", "node1");
+        map.put("systemName", "cluster");
+
+        assertThat(Tags.of(map)).isSameAs(Tags.of("systemName", "cluster", "host", "node1"));
+        assertThat(Tags.of(new HashMap<String, String>())).isSameAs(Tags.EMPTY);
+    }
+
+    @Test
+    public void should_add_and_replace_tags() {
+        Tags tags = Tags.of("host", "node1", "systemName", "cluster");
+
+        assertThat(tags.with("table", "t1").asMap()).containsEntry("host", "node1").containsEntry("table", "t1")
+                .hasSize(3);
+        assertThat(tags.with("host", "node2").get("host")).isEqualTo("node2");
+        assertThat(tags.with("host", "node2").size()).isEqualTo(2);
+        assertThat(tags.get("host")).isEqualTo("node1");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_fail_creating_tags_without_value() {
+        Tags.of("host", "node1", "systemName");
+    }
+
+}
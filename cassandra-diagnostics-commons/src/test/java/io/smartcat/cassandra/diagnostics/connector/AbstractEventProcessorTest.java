@@ -0,0 +1,219 @@
+package io.smartcat.cassandra.diagnostics.connector;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+public class AbstractEventProcessorTest {
+
+    private static class TestEvent extends EventRingBuffer.Slot {
+        @Override
+        protected void clear() {
+        }
+    }
+
+    private static class TestEventProcessor extends AbstractEventProcessor<TestEvent> {
+
+        private final CountDownLatch release;
+
+        private final AtomicLong processed = new AtomicLong(0);
+
+        TestEventProcessor(ConnectorConfiguration configuration, CountDownLatch release) {
+            super(null, configuration, new EventRingBuffer.Factory<TestEvent>() {
+                @Override
+                public TestEvent newSlot() {
+                    return new TestEvent();
+                }
+            });
+            this.release = release;
+        }
+
+        @Override
+        protected void process(TestEvent event) throws Exception {
+            release.await();
+            processed.incrementAndGet();
+        }
+
+        boolean submit() {
+            TestEvent event = claim();
+            if (event == null) {
+                return false;
+            }
+            publish(event);
+            return true;
+        }
+    }
+
+    private ConnectorConfiguration configuration(BackpressurePolicy policy) {
+        ConnectorConfiguration configuration = new ConnectorConfiguration();
+        configuration.numWorkerThreads = 1;
+        configuration.queuedEventsOverflowThreshold = 100;
+        configuration.queuedEventsRelaxThreshold = 50;
+        configuration.backpressurePolicy = policy;
+        configuration.boundedWaitTimeoutInMicroseconds = 10;
+        return configuration;
+    }
+
+    @Test
+    public void drop_newest_drops_events_above_overflow_threshold() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        TestEventProcessor processor = new TestEventProcessor(configuration(BackpressurePolicy.DROP_NEWEST), release);
+
+        for (int i = 0; i < 1000; i++) {
+            processor.submit();
+        }
+        EventQueueStats stats = processor.stats();
+
+        assertThat(stats.policy).isEqualTo(BackpressurePolicy.DROP_NEWEST);
+        assertThat(stats.accepted + stats.dropped).isEqualTo(1000);
+        assertThat(stats.accepted).isBetween(100L, 103L);
+        assertThat(stats.sampled).isEqualTo(0);
+
+        release.countDown();
+        waitUntilProcessed(processor, stats.accepted);
+        assertThat(processor.processed.get()).isEqualTo(stats.accepted);
+    }
+
+    @Test
+    public void drop_oldest_accepts_new_events_and_discards_queued_ones() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        TestEventProcessor processor = new TestEventProcessor(configuration(BackpressurePolicy.DROP_OLDEST), release);
+
+        // a burst of twice the overflow threshold fits in the headroom of the ring buffer
+        for (int i = 0; i < 200; i++) {
+            processor.submit();
+        }
+        assertThat(processor.stats().accepted).isEqualTo(200);
+        assertThat(processor.stats().dropped).isEqualTo(0);
+
+        release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (processor.processed.get() + processor.stats().evicted < 200 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        EventQueueStats stats = processor.stats();
+        assertThat(stats.evicted).isGreaterThan(0);
+        assertThat(stats.accepted + stats.dropped + stats.sampled).isEqualTo(200);
+        assertThat(processor.processed.get() + stats.evicted).isEqualTo(200);
+    }
+
+    @Test
+    public void thresholds_are_checked_per_ring_buffer() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        ConnectorConfiguration configuration = configuration(BackpressurePolicy.DROP_NEWEST);
+        configuration.numWorkerThreads = 2;
+        final TestEventProcessor processor = new TestEventProcessor(configuration, release);
+
+        Thread producer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < 1000; i++) {
+                    processor.submit();
+                }
+            }
+        });
+        producer.start();
+        producer.join();
+        EventQueueStats stats = processor.stats();
+        release.countDown();
+
+        assertThat(stats.accepted + stats.dropped).isEqualTo(1000);
+        assertThat(stats.accepted).isBetween(50L, 53L);
+    }
+
+    @Test
+    public void sampling_discards_part_of_events_between_thresholds() {
+        CountDownLatch release = new CountDownLatch(1);
+        TestEventProcessor processor = new TestEventProcessor(configuration(BackpressurePolicy.SAMPLING), release);
+
+        for (int i = 0; i < 1000; i++) {
+            processor.submit();
+        }
+        EventQueueStats stats = processor.stats();
+        release.countDown();
+
+        assertThat(stats.accepted + stats.dropped + stats.sampled).isEqualTo(1000);
+        assertThat(stats.accepted).isBetween(50L, 102L);
+        assertThat(stats.sampled).isGreaterThan(0);
+    }
+
+    @Test
+    public void bounded_wait_drops_events_when_queue_stays_full() {
+        CountDownLatch release = new CountDownLatch(1);
+        TestEventProcessor processor = new TestEventProcessor(configuration(BackpressurePolicy.BOUNDED_WAIT), release);
+
+        for (int i = 0; i < 1000; i++) {
+            processor.submit();
+        }
+        EventQueueStats stats = processor.stats();
+        release.countDown();
+
+        assertThat(stats.accepted + stats.dropped).isEqualTo(1000);
+        assertThat(stats.accepted).isBetween(128L, 129L);
+        assertThat(stats.sampled).isEqualTo(0);
+    }
+
+    @Test
+    public void idle_worker_is_woken_up_by_published_event() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(0);
+        TestEventProcessor processor = new TestEventProcessor(configuration(BackpressurePolicy.DROP_NEWEST), release);
+
+        long totalLatencyNanos = 0;
+        for (int i = 1; i <= 10; i++) {
+            // long enough for the worker to reach its maximum park time
+            Thread.sleep(100);
+            long start = System.nanoTime();
+            processor.submit();
+            while (processor.processed.get() < i && System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1)) {
+                Thread.yield();
+            }
+            totalLatencyNanos += System.nanoTime() - start;
+        }
+
+        assertThat(processor.processed.get()).isEqualTo(10);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(totalLatencyNanos)).isLessThan(50);
+    }
+
+    @Test
+    public void producers_are_spread_over_ring_buffers() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        ConnectorConfiguration configuration = configuration(BackpressurePolicy.DROP_NEWEST);
+        configuration.numWorkerThreads = 2;
+        final TestEventProcessor processor = new TestEventProcessor(configuration, release);
+        Thread.sleep(100);
+
+        Thread[] producers = new Thread[2];
+        for (int i = 0; i < producers.length; i++) {
+            producers[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < 50; j++) {
+                        processor.submit();
+                    }
+                }
+            });
+            producers[i].start();
+            producers[i].join();
+        }
+        EventQueueStats stats = processor.stats();
+        release.countDown();
+
+        assertThat(stats.accepted).isEqualTo(100);
+        assertThat(stats.dropped).isEqualTo(0);
+        waitUntilProcessed(processor, 100);
+        assertThat(processor.processed.get()).isEqualTo(100);
+    }
+
+    private void waitUntilProcessed(TestEventProcessor processor, long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (processor.processed.get() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+}
@@ -0,0 +1,142 @@
+package io.smartcat.cassandra.diagnostics.connector;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+public class EventRingBufferTest {
+
+    private static class TestSlot extends EventRingBuffer.Slot {
+        long value;
+        Object payload;
+
+        @Override
+        protected void clear() {
+            payload = null;
+        }
+    }
+
+    private static final EventRingBuffer.Factory<TestSlot> FACTORY = new EventRingBuffer.Factory<TestSlot>() {
+        @Override
+        public TestSlot newSlot() {
+            return new TestSlot();
+        }
+    };
+
+    @Test
+    public void capacity_is_rounded_up_to_power_of_two() {
+        assertThat(new EventRingBuffer<>(1, FACTORY).capacity()).isEqualTo(1);
+        assertThat(new EventRingBuffer<>(5, FACTORY).capacity()).isEqualTo(8);
+        assertThat(new EventRingBuffer<>(512, FACTORY).capacity()).isEqualTo(512);
+    }
+
+    @Test
+    public void claim_returns_null_when_full_and_slots_are_reused() {
+        EventRingBuffer<TestSlot> ringBuffer = new EventRingBuffer<>(4, FACTORY);
+        List<TestSlot> claimed = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            TestSlot slot = ringBuffer.claim();
+            slot.value = i;
+            slot.payload = new Object();
+            ringBuffer.publish(slot);
+            claimed.add(slot);
+        }
+
+        assertThat(ringBuffer.claim()).isNull();
+        assertThat(ringBuffer.size()).isEqualTo(4);
+
+        final List<Long> values = new ArrayList<>();
+        int drained = ringBuffer.drain(new EventRingBuffer.Handler<TestSlot>() {
+            @Override
+            public void onEvent(TestSlot slot) {
+                values.add(slot.value);
+            }
+        }, 10);
+
+        assertThat(drained).isEqualTo(4);
+        assertThat(values).containsExactly(0L, 1L, 2L, 3L);
+        assertThat(ringBuffer.size()).isEqualTo(0);
+        for (TestSlot slot : claimed) {
+            assertThat(slot.payload).isNull();
+        }
+        assertThat(claimed).contains(ringBuffer.claim());
+    }
+
+    @Test
+    public void unpublished_slot_blocks_drain() {
+        EventRingBuffer<TestSlot> ringBuffer = new EventRingBuffer<>(4, FACTORY);
+        TestSlot first = ringBuffer.claim();
+        TestSlot second = ringBuffer.claim();
+        ringBuffer.publish(second);
+
+        EventRingBuffer.Handler<TestSlot> handler = new EventRingBuffer.Handler<TestSlot>() {
+            @Override
+            public void onEvent(TestSlot slot) {
+            }
+        };
+        assertThat(ringBuffer.drain(handler, 10)).isEqualTo(0);
+
+        ringBuffer.publish(first);
+        assertThat(ringBuffer.drain(handler, 10)).isEqualTo(2);
+    }
+
+    @Test
+    public void all_events_from_multiple_producers_are_drained() throws InterruptedException {
+        final int producers = 4;
+        final int eventsPerProducer = 100000;
+        final EventRingBuffer<TestSlot> ringBuffer = new EventRingBuffer<>(64, FACTORY);
+        final CountDownLatch start = new CountDownLatch(1);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < eventsPerProducer; i++) {
+                        TestSlot slot;
+                        while ((slot = ringBuffer.claim()) == null) {
+                            Thread.yield();
+                        }
+                        slot.value = 1;
+                        ringBuffer.publish(slot);
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        final long[] sum = new long[1];
+        EventRingBuffer.Handler<TestSlot> handler = new EventRingBuffer.Handler<TestSlot>() {
+            @Override
+            public void onEvent(TestSlot slot) {
+                sum[0] += slot.value;
+                slot.value = 0;
+            }
+        };
+
+        start.countDown();
+        long total = (long) producers * eventsPerProducer;
+        while (sum[0] < total) {
+            if (ringBuffer.drain(handler, 16) == 0) {
+                Thread.yield();
+            }
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(ringBuffer.drain(handler, 16)).isEqualTo(0);
+        assertThat(sum[0]).isEqualTo(total);
+    }
+
+}
@@ -0,0 +1,62 @@
+package io.smartcat.cassandra.diagnostics.connector;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class QueryFilterTest {
+
+    @Test
+    public void default_configuration_accepts_all_queries() {
+        QueryFilter filter = new QueryFilter(ConnectorConfiguration.getDefault());
+
+        assertThat(filter.skipInternalQueries()).isTrue();
+        assertThat(filter.filtersQueries()).isFalse();
+        for (int i = 0; i < 100; i++) {
+            assertThat(filter.accept(0)).isTrue();
+        }
+    }
+
+    @Test
+    public void queries_faster_than_minimum_execution_time_are_rejected() {
+        ConnectorConfiguration configuration = new ConnectorConfiguration();
+        configuration.minExecutionTimeInMilliseconds = 25;
+        QueryFilter filter = new QueryFilter(configuration);
+
+        assertThat(filter.filtersQueries()).isTrue();
+        assertThat(filter.accept(TimeUnit.MICROSECONDS.toNanos(24999))).isFalse();
+        assertThat(filter.accept(TimeUnit.MILLISECONDS.toNanos(25))).isTrue();
+        assertThat(filter.accept(TimeUnit.MILLISECONDS.toNanos(100))).isTrue();
+    }
+
+    @Test
+    public void queries_are_sampled_with_configured_rate() {
+        ConnectorConfiguration configuration = new ConnectorConfiguration();
+        configuration.querySamplingRate = 0.1;
+        QueryFilter filter = new QueryFilter(configuration);
+        assertThat(filter.filtersQueries()).isTrue();
+
+        int accepted = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (filter.accept(0)) {
+                accepted++;
+            }
+        }
+
+        assertThat(accepted).isBetween(500, 1500);
+    }
+
+    @Test
+    public void zero_sampling_rate_rejects_all_queries() {
+        ConnectorConfiguration configuration = new ConnectorConfiguration();
+        configuration.querySamplingRate = 0.0;
+        QueryFilter filter = new QueryFilter(configuration);
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(filter.accept(TimeUnit.SECONDS.toNanos(1))).isFalse();
+        }
+    }
+
+}
@@ -0,0 +1,122 @@
+package io.smartcat.cassandra.diagnostics.info;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+
+import org.junit.Test;
+
+import io.smartcat.cassandra.diagnostics.info.InfoSnapshot.Section;
+
+public class AbstractInfoProviderTest {
+
+    @Test
+    public void collects_only_requested_sections() {
+        final TestInfoProvider infoProvider = new TestInfoProvider();
+
+        final InfoSnapshot snapshot = infoProvider.snapshot(EnumSet.of(Section.UNREACHABLE_NODES));
+
+        assertThat(snapshot.sections).containsExactly(Section.UNREACHABLE_NODES);
+        assertThat(snapshot.unreachableNodes).containsExactly("127.0.0.2");
+        assertThat(infoProvider.tpStatsReads).isEqualTo(0);
+        assertThat(infoProvider.nodeInfoReads).isEqualTo(0);
+    }
+
+    @Test
+    public void leaves_out_section_failing_to_be_collected() {
+        final TestInfoProvider infoProvider = new TestInfoProvider();
+        infoProvider.failNodeInfo = true;
+
+        final InfoSnapshot snapshot = infoProvider.snapshot(EnumSet.of(Section.NODE_INFO, Section.UNREACHABLE_NODES));
+
+        assertThat(snapshot.has(Section.NODE_INFO)).isFalse();
+        assertThat(snapshot.nodeInfo).isNull();
+        assertThat(snapshot.has(Section.UNREACHABLE_NODES)).isTrue();
+        assertThat(snapshot.unreachableNodes).containsExactly("127.0.0.2");
+    }
+
+    @Test
+    public void counts_repair_sessions_from_collected_tp_stats() {
+        final TestInfoProvider infoProvider = new TestInfoProvider();
+
+        final InfoSnapshot snapshot = infoProvider.snapshot(EnumSet.of(Section.REPAIR_SESSIONS, Section.TP_STATS));
+
+        assertThat(snapshot.repairSessions).isEqualTo(3);
+        assertThat(infoProvider.tpStatsReads).isEqualTo(1);
+        assertThat(infoProvider.repairSessionsReads).isEqualTo(0);
+    }
+
+    @Test
+    public void reads_repair_sessions_when_tp_stats_are_not_requested() {
+        final TestInfoProvider infoProvider = new TestInfoProvider();
+
+        final InfoSnapshot snapshot = infoProvider.snapshot(EnumSet.of(Section.REPAIR_SESSIONS));
+
+        assertThat(snapshot.repairSessions).isEqualTo(3);
+        assertThat(infoProvider.repairSessionsReads).isEqualTo(1);
+        assertThat(snapshot.has(Section.TP_STATS)).isFalse();
+    }
+
+    private static class TestInfoProvider extends AbstractInfoProvider {
+
+        private final List<TPStatsInfo> tpStats = Arrays.asList(new TPStatsInfo("AntiEntropySessions", 1, 2, 0, 0, 0));
+
+        private boolean failNodeInfo;
+
+        private int tpStatsReads;
+
+        private int repairSessionsReads;
+
+        private int nodeInfoReads;
+
+        @Override
+        public List<CompactionInfo> getCompactions() {
+            return new ArrayList<>();
+        }
+
+        @Override
+        public List<TPStatsInfo> getTPStats() {
+            tpStatsReads++;
+            return tpStats;
+        }
+
+        @Override
+        public long getRepairSessions() {
+            repairSessionsReads++;
+            return countRepairSessions(tpStats);
+        }
+
+        @Override
+        public CompactionSettingsInfo getCompactionSettingsInfo() {
+            return new CompactionSettingsInfo(16, 1, 2, 1, 2);
+        }
+
+        @Override
+        public List<String> getUnreachableNodes() {
+            return Arrays.asList("127.0.0.2");
+        }
+
+        @Override
+        public NodeInfo getNodeInfo() {
+            nodeInfoReads++;
+            if (failNodeInfo) {
+                throw new IllegalStateException("Node info unavailable");
+            }
+            return new NodeInfo(true, true, true, 1000, 0);
+        }
+
+        @Override
+        protected long countRepairSessions(List<TPStatsInfo> tpStats) {
+            long repairSessions = 0;
+            for (TPStatsInfo tpStatsInfo : tpStats) {
+                repairSessions += tpStatsInfo.activeTasks + tpStatsInfo.pendingTasks;
+            }
+            return repairSessions;
+        }
+
+    }
+
+}
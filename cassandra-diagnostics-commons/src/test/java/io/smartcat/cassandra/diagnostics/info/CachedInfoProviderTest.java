@@ -0,0 +1,88 @@
+package io.smartcat.cassandra.diagnostics.info;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.anySetOf;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import io.smartcat.cassandra.diagnostics.info.InfoSnapshot.Section;
+
+public class CachedInfoProviderTest {
+
+    @Test
+    public void shares_sections_within_ttl() {
+        final InfoProvider infoProvider = stubbedInfoProvider();
+        final CachedInfoProvider cachedInfoProvider = new CachedInfoProvider(infoProvider, 60000);
+
+        final InfoSnapshot snapshot = cachedInfoProvider.snapshot(EnumSet.of(Section.TP_STATS));
+
+        assertThat(cachedInfoProvider.snapshot(EnumSet.of(Section.TP_STATS))).isSameAs(snapshot);
+        verify(infoProvider, times(1)).snapshot(anySetOf(Section.class));
+    }
+
+    @Test
+    public void collects_sections_again_after_ttl() {
+        final InfoProvider infoProvider = stubbedInfoProvider();
+        final CachedInfoProvider cachedInfoProvider = new CachedInfoProvider(infoProvider, 0);
+
+        final InfoSnapshot snapshot = cachedInfoProvider.snapshot(EnumSet.of(Section.TP_STATS));
+
+        assertThat(cachedInfoProvider.snapshot(EnumSet.of(Section.TP_STATS))).isNotSameAs(snapshot);
+        verify(infoProvider, times(2)).snapshot(EnumSet.of(Section.TP_STATS));
+    }
+
+    @Test
+    public void collects_only_sections_not_collected_yet() {
+        final InfoProvider infoProvider = stubbedInfoProvider();
+        final CachedInfoProvider cachedInfoProvider = new CachedInfoProvider(infoProvider, 60000);
+
+        cachedInfoProvider.snapshot(EnumSet.of(Section.UNREACHABLE_NODES));
+        final InfoSnapshot snapshot = cachedInfoProvider.snapshot(EnumSet.of(Section.UNREACHABLE_NODES,
+                Section.TP_STATS));
+
+        assertThat(snapshot.has(Section.UNREACHABLE_NODES)).isTrue();
+        assertThat(snapshot.has(Section.TP_STATS)).isTrue();
+        assertThat(snapshot.has(Section.COMPACTIONS)).isFalse();
+        verify(infoProvider).snapshot(EnumSet.of(Section.UNREACHABLE_NODES));
+        verify(infoProvider).snapshot(EnumSet.of(Section.TP_STATS));
+        verify(infoProvider, times(2)).snapshot(anySetOf(Section.class));
+    }
+
+    @Test
+    public void does_not_retry_failed_section_within_ttl() {
+        final InfoProvider infoProvider = mock(InfoProvider.class);
+        when(infoProvider.snapshot(anySetOf(Section.class))).thenReturn(InfoSnapshot.EMPTY);
+        final CachedInfoProvider cachedInfoProvider = new CachedInfoProvider(infoProvider, 60000);
+
+        cachedInfoProvider.snapshot(EnumSet.of(Section.NODE_INFO));
+        final InfoSnapshot snapshot = cachedInfoProvider.snapshot(EnumSet.of(Section.NODE_INFO));
+
+        assertThat(snapshot.has(Section.NODE_INFO)).isFalse();
+        verify(infoProvider, times(1)).snapshot(anySetOf(Section.class));
+    }
+
+    private InfoProvider stubbedInfoProvider() {
+        final InfoProvider infoProvider = mock(InfoProvider.class);
+        when(infoProvider.snapshot(anySetOf(Section.class))).thenAnswer(new Answer<InfoSnapshot>() {
+            @Override
+            public InfoSnapshot answer(InvocationOnMock invocation) throws Throwable {
+                @SuppressWarnings("unchecked")
+                final Set<Section> sections = (Set<Section>) invocation.getArguments()[0];
+                return new InfoSnapshot(System.currentTimeMillis(), sections, new ArrayList<CompactionInfo>(), null,
+                        new ArrayList<TPStatsInfo>(), 0, null, new ArrayList<String>());
+            }
+        });
+        return infoProvider;
+    }
+
+}
@@ -0,0 +1,70 @@
+package io.smartcat.cassandra.diagnostics.module;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+public class CounterRegistryTest {
+
+    @Test
+    public void registered_counters_are_independent() {
+        CounterRegistry registry = new CounterRegistry();
+        int first = registry.register();
+        int second = registry.register();
+
+        registry.increment(first);
+        registry.add(second, 5);
+        registry.increment(second);
+
+        assertThat(registry.size()).isEqualTo(2);
+        assertThat(registry.sum(first)).isEqualTo(1);
+        assertThat(registry.sumThenReset(second)).isEqualTo(6);
+        assertThat(registry.sum(second)).isEqualTo(0);
+        assertThat(registry.sum(first)).isEqualTo(1);
+    }
+
+    @Test
+    public void no_increment_is_lost_while_counting_and_resetting_concurrently() throws InterruptedException {
+        final CounterRegistry registry = new CounterRegistry();
+        final int id = registry.register();
+        final int threads = 8;
+        final int incrementsPerThread = 100000;
+        final CountDownLatch start = new CountDownLatch(1);
+
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread writer = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < incrementsPerThread; i++) {
+                        registry.increment(id);
+                    }
+                }
+            });
+            writer.start();
+            writers.add(writer);
+        }
+
+        start.countDown();
+        long total = 0;
+        for (Thread writer : writers) {
+            while (writer.isAlive()) {
+                total += registry.sumThenReset(id);
+                writer.join(1);
+            }
+        }
+        total += registry.sumThenReset(id);
+
+        assertThat(total).isEqualTo((long) threads * incrementsPerThread);
+    }
+
+}
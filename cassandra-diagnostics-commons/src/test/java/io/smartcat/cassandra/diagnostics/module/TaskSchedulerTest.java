@@ -0,0 +1,144 @@
+package io.smartcat.cassandra.diagnostics.module;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class TaskSchedulerTest {
+
+    private final TaskScheduler scheduler = new TaskScheduler(1);
+
+    @After
+    public void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void runs_task_immediately_and_then_on_aligned_ticks() throws InterruptedException {
+        final List<Long> runTimes = new CopyOnWriteArrayList<>();
+        final CountDownLatch latch = new CountDownLatch(3);
+
+        scheduler.schedule("aligned", new Runnable() {
+            @Override
+            public void run() {
+                runTimes.add(System.currentTimeMillis());
+                latch.countDown();
+            }
+        }, 200, TimeUnit.MILLISECONDS);
+
+        assertThat(latch.await(1000, TimeUnit.MILLISECONDS)).isTrue();
+        assertThat(runTimes.get(1) % 200).isLessThan(50);
+        assertThat(runTimes.get(2) % 200).isLessThan(50);
+        assertThat(runTimes.get(2) - runTimes.get(1)).isBetween(150L, 250L);
+    }
+
+    @Test
+    public void keeps_running_task_after_failure() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(4);
+
+        scheduler.schedule("failing", new Runnable() {
+            @Override
+            public void run() {
+                latch.countDown();
+                throw new IllegalStateException("failed");
+            }
+        }, 50, TimeUnit.MILLISECONDS);
+
+        assertThat(latch.await(1000, TimeUnit.MILLISECONDS)).isTrue();
+        TaskStats stats = scheduler.stats().get(0);
+        assertThat(stats.task).isEqualTo("failing");
+        // the failure of the last run may not be counted yet
+        assertThat(stats.failures).isGreaterThanOrEqualTo(3);
+        assertThat(stats.runs).isGreaterThanOrEqualTo(3);
+    }
+
+    @Test
+    public void resets_max_run_time_only_on_request() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+
+        scheduler.schedule("sleeping", new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                latch.countDown();
+            }
+        }, 1, TimeUnit.MINUTES);
+
+        assertThat(latch.await(1000, TimeUnit.MILLISECONDS)).isTrue();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (scheduler.stats().get(0).maxRunTimeInNanoseconds == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        final long maxRunTime = scheduler.stats().get(0).maxRunTimeInNanoseconds;
+        assertThat(maxRunTime).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(20));
+        assertThat(scheduler.stats().get(0).maxRunTimeInNanoseconds).isEqualTo(maxRunTime);
+        assertThat(scheduler.statsThenReset().get(0).maxRunTimeInNanoseconds).isEqualTo(maxRunTime);
+        assertThat(scheduler.stats().get(0).maxRunTimeInNanoseconds).isEqualTo(0);
+    }
+
+    @Test
+    public void keeps_running_task_after_error() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(3);
+
+        scheduler.schedule("erroneous", new Runnable() {
+            @Override
+            public void run() {
+                latch.countDown();
+                throw new AssertionError("failed");
+            }
+        }, 50, TimeUnit.MILLISECONDS);
+
+        assertThat(latch.await(1000, TimeUnit.MILLISECONDS)).isTrue();
+        assertThat(scheduler.stats().get(0).failures).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    public void counts_overruns_of_slow_task() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(3);
+
+        scheduler.schedule("slow", new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(120);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                latch.countDown();
+            }
+        }, 50, TimeUnit.MILLISECONDS);
+
+        assertThat(latch.await(1000, TimeUnit.MILLISECONDS)).isTrue();
+        TaskStats stats = scheduler.stats().get(0);
+        assertThat(stats.overruns).isGreaterThanOrEqualTo(2);
+        assertThat(stats.maxRunTimeInNanoseconds).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(120));
+    }
+
+    @Test
+    public void does_not_run_cancelled_task() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(2);
+
+        ScheduledTask task = scheduler.schedule("cancelled", new Runnable() {
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        }, 100, TimeUnit.MILLISECONDS, false);
+        task.cancel();
+
+        assertThat(latch.await(300, TimeUnit.MILLISECONDS)).isFalse();
+        assertThat(latch.getCount()).isEqualTo(2);
+        assertThat(scheduler.stats()).isEmpty();
+    }
+
+}
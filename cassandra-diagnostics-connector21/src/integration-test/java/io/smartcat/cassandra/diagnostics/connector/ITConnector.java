@@ -2,6 +2,7 @@ package io.smartcat.cassandra.diagnostics.connector;
 
 import java.io.IOException;
 import java.lang.instrument.Instrumentation;
+import java.util.EnumSet;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
@@ -19,6 +20,9 @@ import com.datastax.driver.core.Session;
 
 import io.smartcat.cassandra.diagnostics.GlobalConfiguration;
 import io.smartcat.cassandra.diagnostics.Query;
+import io.smartcat.cassandra.diagnostics.info.InfoSnapshot;
+import io.smartcat.cassandra.diagnostics.info.NodeInfo;
+import io.smartcat.cassandra.diagnostics.info.TPStatsInfo;
 import io.smartcat.cassandra.diagnostics.utils.EmbeddedCassandraServerHelper;
 
 public class ITConnector {
@@ -90,5 +94,37 @@ public class ITConnector {
         session.execute(cql);
         lockForUnpreparedStatement.await(60000, TimeUnit.MILLISECONDS);
         Assert.assertTrue(unpreparedQueryIntercepted);
-    }    
+    }
+
+    @Test
+    public void in_process_info_provider_reads_node_status() {
+        final InProcessInfoProvider infoProvider = new InProcessInfoProvider();
+        final NodeInfo nodeInfo = infoProvider.getNodeInfo();
+        Assert.assertEquals(1, nodeInfo.isGossipActive());
+        Assert.assertEquals(1, nodeInfo.isNativeTransportActive());
+        Assert.assertTrue(infoProvider.getUnreachableNodes().isEmpty());
+        Assert.assertNotNull(infoProvider.getCompactionSettingsInfo());
+        Assert.assertNotNull(infoProvider.getCompactions());
+        Assert.assertTrue(hasThreadPool(infoProvider.getTPStats(), "ReadStage"));
+        Assert.assertEquals(0, infoProvider.getRepairSessions());
+    }
+
+    @Test
+    public void in_process_info_provider_takes_snapshot_of_all_sections() {
+        final InfoSnapshot snapshot = new InProcessInfoProvider().snapshot(EnumSet.allOf(InfoSnapshot.Section.class));
+        Assert.assertEquals(EnumSet.allOf(InfoSnapshot.Section.class), snapshot.sections);
+        Assert.assertTrue(hasThreadPool(snapshot.tpStats, "ReadStage"));
+        Assert.assertEquals(0, snapshot.repairSessions);
+        Assert.assertNotNull(snapshot.nodeInfo);
+        Assert.assertNotNull(snapshot.compactionSettingsInfo);
+    }
+
+    private static boolean hasThreadPool(Iterable<TPStatsInfo> tpStats, String threadPool) {
+        for (TPStatsInfo tpStatsInfo : tpStats) {
+            if (tpStatsInfo.threadPool.equals(threadPool)) {
+                return tpStatsInfo.activeTasks >= 0 && tpStatsInfo.completedTasks >= 0;
+            }
+        }
+        return false;
+    }
 }
@@ -0,0 +1,171 @@
+package io.smartcat.cassandra.diagnostics.connector;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.management.Attribute;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.cassandra.db.compaction.CompactionManager;
+import org.apache.cassandra.service.StorageService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.smartcat.cassandra.diagnostics.info.AbstractInfoProvider;
+import io.smartcat.cassandra.diagnostics.info.CompactionInfo;
+import io.smartcat.cassandra.diagnostics.info.CompactionSettingsInfo;
+import io.smartcat.cassandra.diagnostics.info.NodeInfo;
+import io.smartcat.cassandra.diagnostics.info.TPStatsInfo;
+
+/**
+ * Info provider reading node status directly from Cassandra running in the same JVM, without a JMX connection.
+ * Thread pools are read from the platform mbean server, where Cassandra registers them, all attributes of a thread
+ * pool at once.
+ */
+public class InProcessInfoProvider extends AbstractInfoProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(InProcessInfoProvider.class);
+
+    private static final String REPAIR_THREAD_POOL_NAME = "AntiEntropySessions";
+
+    private static final String[] THREAD_POOL_DOMAINS = {"org.apache.cassandra.request",
+            "org.apache.cassandra.internal", "org.apache.cassandra.transport"};
+
+    private static final String[] THREAD_POOL_ATTRIBUTES = {"ActiveCount", "PendingTasks", "CompletedTasks",
+            "CurrentlyBlockedTasks", "TotalBlockedTasks"};
+
+    private final MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+
+    /**
+     * Constructor.
+     *
+     * @throws IllegalStateException if Cassandra services are not available in this JVM
+     */
+    public InProcessInfoProvider() {
+        if (StorageService.instance == null || CompactionManager.instance == null) {
+            throw new IllegalStateException("Cassandra services are not available.");
+        }
+    }
+
+    /**
+     * Gets the list of all active compactions.
+     *
+     * @return compaction info list
+     */
+    @Override
+    public List<CompactionInfo> getCompactions() {
+        List<CompactionInfo> compactions = new ArrayList<>();
+        for (Map<String, String> compaction : CompactionManager.instance.getCompactions()) {
+            compactions.add(new CompactionInfo(Long.parseLong(compaction.get("total")),
+                    Long.parseLong(compaction.get("completed")), compaction.get("unit"), compaction.get("taskType"),
+                    compaction.get("keyspace"), compaction.get("columnfamily"), null));
+        }
+        return compactions;
+    }
+
+    /**
+     * Get the status of all thread pools.
+     *
+     * @return thread pools info list
+     */
+    @Override
+    public List<TPStatsInfo> getTPStats() {
+        List<TPStatsInfo> tpstats = new ArrayList<>();
+        for (String domain : THREAD_POOL_DOMAINS) {
+            try {
+                for (ObjectName threadPool : mbeanServer.queryNames(new ObjectName(domain + ":type=*"), null)) {
+                    final List<Attribute> attributes = mbeanServer.getAttributes(threadPool, THREAD_POOL_ATTRIBUTES)
+                            .asList();
+                    if (attributes.size() == THREAD_POOL_ATTRIBUTES.length && numbers(attributes)) {
+                        tpstats.add(new TPStatsInfo(threadPool.getKeyProperty("type"), longValue(attributes.get(0)),
+                                longValue(attributes.get(1)), longValue(attributes.get(2)),
+                                longValue(attributes.get(3)), longValue(attributes.get(4))));
+                    }
+                }
+            } catch (JMException e) {
+                logger.debug("Failed to read thread pools of {}", domain, e);
+            }
+        }
+        return tpstats;
+    }
+
+    /**
+     * Gets number of active and pending repair sessions.
+     *
+     * @return repair sessions
+     */
+    @Override
+    public long getRepairSessions() {
+        return countRepairSessions(getTPStats());
+    }
+
+    /**
+     * Get compaction settings info.
+     *
+     * @return compaction settings info
+     */
+    @Override
+    public CompactionSettingsInfo getCompactionSettingsInfo() {
+        return new CompactionSettingsInfo(StorageService.instance.getCompactionThroughputMbPerSec(),
+                CompactionManager.instance.getCoreCompactorThreads(),
+                CompactionManager.instance.getMaximumCompactorThreads(),
+                CompactionManager.instance.getCoreValidationThreads(),
+                CompactionManager.instance.getMaximumValidatorThreads());
+    }
+
+    /**
+     * Get unreachable nodes from the node's point of view (using the node's failure detection mechanism).
+     *
+     * @return unreachable nodes list
+     */
+    @Override
+    public List<String> getUnreachableNodes() {
+        return StorageService.instance.getUnreachableNodes();
+    }
+
+    /**
+     * Get the information about node such as which protocols are active, uptime, and exception count.
+     *
+     * @return NodeInfo for the node
+     */
+    @Override
+    public NodeInfo getNodeInfo() {
+        return new NodeInfo(StorageService.instance.isGossipRunning(), StorageService.instance.isRPCServerRunning(),
+                StorageService.instance.isNativeTransportRunning(), ManagementFactory.getRuntimeMXBean().getUptime(),
+                StorageService.instance.getExceptionCount());
+    }
+
+    private static boolean numbers(List<Attribute> attributes) {
+        for (Attribute attribute : attributes) {
+            if (!(attribute.getValue() instanceof Number)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long longValue(Attribute attribute) {
+        return ((Number) attribute.getValue()).longValue();
+    }
+
+    /**
+     * Counts repair sessions from the stats of repair thread pools.
+     *
+     * @param tpStats thread pool stats
+     * @return repair sessions
+     */
+    @Override
+    protected long countRepairSessions(List<TPStatsInfo> tpStats) {
+        for (TPStatsInfo tpStatsInfo : tpStats) {
+            if (tpStatsInfo.threadPool.equals(REPAIR_THREAD_POOL_NAME)) {
+                return tpStatsInfo.activeTasks + tpStatsInfo.pendingTasks;
+            }
+        }
+        return 0;
+    }
+
+}
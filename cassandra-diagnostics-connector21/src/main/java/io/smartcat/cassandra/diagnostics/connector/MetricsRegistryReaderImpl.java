@@ -0,0 +1,135 @@
+package io.smartcat.cassandra.diagnostics.connector;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.yammer.metrics.Metrics;
+import com.yammer.metrics.core.Counter;
+import com.yammer.metrics.core.Gauge;
+import com.yammer.metrics.core.Histogram;
+import com.yammer.metrics.core.Metered;
+import com.yammer.metrics.core.Metric;
+import com.yammer.metrics.core.MetricName;
+import com.yammer.metrics.core.Timer;
+import com.yammer.metrics.stats.Snapshot;
+
+import io.smartcat.cassandra.diagnostics.Measurement;
+
+/**
+ * {@link MetricsRegistryReader} implementation reading the default metrics registry Cassandra 2.1 registers its
+ * metrics in. Metric names are built out of registry name parts as mbean names are, e.g.
+ * <code>org.apache.cassandra.metrics.ClientRequest.Read.Latency</code>. A metric failing to be read is skipped.
+ */
+public class MetricsRegistryReaderImpl implements MetricsRegistryReader {
+
+    private static final Logger logger = LoggerFactory.getLogger(MetricsRegistryReaderImpl.class);
+
+    private static final String NAME_SEPARATOR = ".";
+
+    private static final double NANOSECONDS_PER_MICROSECOND = TimeUnit.MICROSECONDS.toNanos(1);
+
+    private final Map<MetricName, String> names = new ConcurrentHashMap<>();
+
+    @Override
+    public void read(MetricsRegistryVisitor visitor) {
+        final Map<MetricName, Metric> metrics = Metrics.defaultRegistry().allMetrics();
+        for (Map.Entry<MetricName, Metric> entry : metrics.entrySet()) {
+            final String name = name(entry.getKey());
+            final Measurement.Builder builder = visitor.accept(name);
+            if (builder == null) {
+                continue;
+            }
+
+            try {
+                if (!addFields(builder, entry.getValue())) {
+                    builder.reset();
+                    continue;
+                }
+            } catch (RuntimeException e) {
+                builder.reset();
+                logger.debug("Failed to read metric {}", name, e);
+                continue;
+            }
+            visitor.visit(name, builder);
+        }
+        // forget names of metrics removed from the registry, e.g. of dropped tables
+        names.keySet().retainAll(metrics.keySet());
+    }
+
+    /**
+     * Adds values of a metric to its builder.
+     *
+     * @return <code>false</code> if the metric has no numeric values
+     */
+    private static boolean addFields(final Measurement.Builder builder, final Metric metric) {
+        if (metric instanceof Gauge) {
+            final Object value = ((Gauge<?>) metric).value();
+            if (!(value instanceof Number)) {
+                return false;
+            }
+            builder.field(VALUE, ((Number) value).doubleValue());
+        } else if (metric instanceof Counter) {
+            builder.field(COUNT, ((Counter) metric).count());
+        } else if (metric instanceof Histogram) {
+            final Histogram histogram = (Histogram) metric;
+            builder.field(COUNT, histogram.count())
+                    .field(MIN, histogram.min())
+                    .field(MAX, histogram.max())
+                    .field(MEAN, histogram.mean())
+                    .field(STD_DEV, histogram.stdDev());
+            addSnapshot(builder, histogram.getSnapshot(), 1);
+        } else if (metric instanceof Timer) {
+            final Timer timer = (Timer) metric;
+            // timer values are in the timer's duration unit
+            final double divisor = NANOSECONDS_PER_MICROSECOND / timer.durationUnit().toNanos(1);
+            addRates(builder, timer);
+            builder.field(MIN, timer.min() / divisor)
+                    .field(MAX, timer.max() / divisor)
+                    .field(MEAN, timer.mean() / divisor)
+                    .field(STD_DEV, timer.stdDev() / divisor);
+            addSnapshot(builder, timer.getSnapshot(), divisor);
+        } else if (metric instanceof Metered) {
+            addRates(builder, (Metered) metric);
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    private String name(final MetricName metricName) {
+        String name = names.get(metricName);
+        if (name == null) {
+            final StringBuilder builder = new StringBuilder(metricName.getGroup()).append(NAME_SEPARATOR)
+                    .append(metricName.getType());
+            if (metricName.hasScope()) {
+                builder.append(NAME_SEPARATOR).append(metricName.getScope());
+            }
+            name = builder.append(NAME_SEPARATOR).append(metricName.getName()).toString();
+            names.put(metricName, name);
+        }
+        return name;
+    }
+
+    private static void addRates(final Measurement.Builder builder, final Metered metered) {
+        // rates are in the meter's rate unit, which is seconds for all Cassandra meters
+        builder.field(COUNT, metered.count())
+                .field(MEAN_RATE, metered.meanRate())
+                .field(ONE_MINUTE_RATE, metered.oneMinuteRate())
+                .field(FIVE_MINUTE_RATE, metered.fiveMinuteRate())
+                .field(FIFTEEN_MINUTE_RATE, metered.fifteenMinuteRate());
+    }
+
+    private static void addSnapshot(final Measurement.Builder builder, final Snapshot snapshot, final double divisor) {
+        builder.field(P50, snapshot.getMedian() / divisor)
+                .field(P75, snapshot.get75thPercentile() / divisor)
+                .field(P95, snapshot.get95thPercentile() / divisor)
+                .field(P98, snapshot.get98thPercentile() / divisor)
+                .field(P99, snapshot.get99thPercentile() / divisor)
+                .field(P999, snapshot.get999thPercentile() / divisor);
+    }
+
+}
@@ -1,16 +1,21 @@
 package io.smartcat.cassandra.diagnostics.connector;
 
 import java.io.IOException;
+import java.lang.reflect.Proxy;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
+import javax.management.Attribute;
+import javax.management.MBeanServerInvocationHandler;
+
 import org.apache.cassandra.concurrent.JMXEnabledThreadPoolExecutorMBean;
 import org.apache.cassandra.tools.NodeProbe;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.smartcat.cassandra.diagnostics.info.AbstractInfoProvider;
 import io.smartcat.cassandra.diagnostics.info.CompactionInfo;
 import io.smartcat.cassandra.diagnostics.info.CompactionSettingsInfo;
 import io.smartcat.cassandra.diagnostics.info.InfoProvider;
@@ -20,7 +25,7 @@ import io.smartcat.cassandra.diagnostics.info.TPStatsInfo;
 /**
  * NodeProbe class wrapper that exposes data and action functions.
  */
-public class NodeProbeWrapper implements InfoProvider {
+public class NodeProbeWrapper extends AbstractInfoProvider {
 
     private static final Logger logger = LoggerFactory.getLogger(InfoProvider.class);
 
@@ -28,6 +33,9 @@ public class NodeProbeWrapper implements InfoProvider {
 
     private static final String REPAIR_THREAD_POOL_NAME = "AntiEntropySessions";
 
+    private static final String[] THREAD_POOL_ATTRIBUTES = {"ActiveCount", "PendingTasks", "CompletedTasks",
+            "CurrentlyBlockedTasks", "TotalBlockedTasks"};
+
     /**
      * NodeProbe constructor.
      *
@@ -68,7 +76,7 @@ public class NodeProbeWrapper implements InfoProvider {
     }
 
     /**
-     * Get the status of all thread pools.
+     * Get the status of all thread pools. All attributes of a thread pool mbean are read with a single JMX call.
      *
      * @return thread pools info list
      */
@@ -77,14 +85,36 @@ public class NodeProbeWrapper implements InfoProvider {
         Iterator<Map.Entry<String, JMXEnabledThreadPoolExecutorMBean>> threads = nodeProbe.getThreadPoolMBeanProxies();
         while (threads.hasNext()) {
             Map.Entry<String, JMXEnabledThreadPoolExecutorMBean> thread = threads.next();
-            JMXEnabledThreadPoolExecutorMBean threadPoolProxy = thread.getValue();
-            tpstats.add(new TPStatsInfo(thread.getKey(), threadPoolProxy.getActiveCount(),
-                    threadPoolProxy.getPendingTasks(), threadPoolProxy.getCompletedTasks(),
-                    threadPoolProxy.getCurrentlyBlockedTasks(), threadPoolProxy.getTotalBlockedTasks()));
+            tpstats.add(getTPStats(thread.getKey(), thread.getValue()));
         }
         return tpstats;
     }
 
+    private TPStatsInfo getTPStats(String threadPool, JMXEnabledThreadPoolExecutorMBean threadPoolProxy) {
+        if (Proxy.isProxyClass(threadPoolProxy.getClass())
+                && Proxy.getInvocationHandler(threadPoolProxy) instanceof MBeanServerInvocationHandler) {
+            final MBeanServerInvocationHandler handler = (MBeanServerInvocationHandler) Proxy
+                    .getInvocationHandler(threadPoolProxy);
+            try {
+                final List<Attribute> attributes = handler.getMBeanServerConnection()
+                        .getAttributes(handler.getObjectName(), THREAD_POOL_ATTRIBUTES).asList();
+                if (attributes.size() == THREAD_POOL_ATTRIBUTES.length) {
+                    return new TPStatsInfo(threadPool, longValue(attributes.get(0)), longValue(attributes.get(1)),
+                            longValue(attributes.get(2)), longValue(attributes.get(3)), longValue(attributes.get(4)));
+                }
+            } catch (Exception e) {
+                logger.debug("Failed to read attributes of thread pool {}", threadPool, e);
+            }
+        }
+        return new TPStatsInfo(threadPool, threadPoolProxy.getActiveCount(), threadPoolProxy.getPendingTasks(),
+                threadPoolProxy.getCompletedTasks(), threadPoolProxy.getCurrentlyBlockedTasks(),
+                threadPoolProxy.getTotalBlockedTasks());
+    }
+
+    private static long longValue(Attribute attribute) {
+        return ((Number) attribute.getValue()).longValue();
+    }
+
     /**
      * Gets number of repair sessions pending (repair on node has multiple repair sessions and by monitoring number of
      * pending repair sessions and active repair sessions we can monitor progress of repair).
@@ -146,4 +176,21 @@ public class NodeProbeWrapper implements InfoProvider {
                 this.nodeProbe.getExceptionCount());
         return nodeInfo;
     }
+
+    /**
+     * Counts repair sessions from the stats of the repair thread pool, instead of reading thread pools again.
+     *
+     * @param tpStats thread pool stats
+     * @return repair sessions
+     */
+    @Override
+    protected long countRepairSessions(List<TPStatsInfo> tpStats) {
+        for (TPStatsInfo tpStatsInfo : tpStats) {
+            if (tpStatsInfo.threadPool.equals(REPAIR_THREAD_POOL_NAME)) {
+                return tpStatsInfo.activeTasks + tpStatsInfo.pendingTasks;
+            }
+        }
+        return 0;
+    }
+
 }
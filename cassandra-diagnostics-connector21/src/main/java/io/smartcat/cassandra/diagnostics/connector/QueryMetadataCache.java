@@ -0,0 +1,179 @@
+package io.smartcat.cassandra.diagnostics.connector;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.cassandra.cql3.CQLStatement;
+import org.apache.cassandra.cql3.QueryProcessor;
+import org.apache.cassandra.cql3.statements.ModificationStatement;
+import org.apache.cassandra.cql3.statements.SelectStatement;
+import org.apache.cassandra.exceptions.RequestValidationException;
+
+import com.googlecode.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+
+import io.smartcat.cassandra.diagnostics.Query;
+
+/**
+ * Size bounded LRU cache of metadata (statement type, keyspace and table) extracted from non-prepared query
+ * strings. Clients sending the same query string over and over get it parsed only once.
+ */
+public class QueryMetadataCache {
+
+    /**
+     * Statement metadata needed for reporting a query.
+     */
+    public static class Metadata {
+
+        private static final Metadata UNKNOWN = new Metadata(Query.StatementType.UNKNOWN, "", "");
+
+        /**
+         * Statement type.
+         */
+        public final Query.StatementType statementType;
+
+        /**
+         * Statement keyspace.
+         */
+        public final String keyspace;
+
+        /**
+         * Statement table.
+         */
+        public final String tableName;
+
+        private Metadata(Query.StatementType statementType, String keyspace, String tableName) {
+            this.statementType = statementType;
+            this.keyspace = keyspace;
+            this.tableName = tableName;
+        }
+
+        /**
+         * Extracts metadata out of a CQL statement.
+         *
+         * @param statement CQL statement
+         * @return statement metadata
+         */
+        public static Metadata of(CQLStatement statement) {
+            if (statement instanceof SelectStatement) {
+                SelectStatement select = (SelectStatement) statement;
+                return new Metadata(Query.StatementType.SELECT, select.keyspace(), select.columnFamily());
+            } else if (statement instanceof ModificationStatement) {
+                ModificationStatement modification = (ModificationStatement) statement;
+                return new Metadata(Query.StatementType.UPDATE, modification.keyspace(),
+                        modification.columnFamily());
+            }
+            return UNKNOWN;
+        }
+    }
+
+    private static final String[] UPDATE_KEYWORDS = {"INSERT", "UPDATE", "DELETE"};
+
+    private final ConcurrentLinkedHashMap<String, Metadata> cache;
+
+    private final AtomicLong hits = new AtomicLong(0);
+
+    private final AtomicLong misses = new AtomicLong(0);
+
+    /**
+     * Constructor.
+     *
+     * @param capacity maximum number of cached query strings, caching is disabled if not positive
+     */
+    public QueryMetadataCache(int capacity) {
+        if (capacity > 0) {
+            cache = new ConcurrentLinkedHashMap.Builder<String, Metadata>().maximumWeightedCapacity(capacity)
+                    .build();
+        } else {
+            cache = null;
+        }
+    }
+
+    /**
+     * Returns metadata of a query string, parsing the query string only if its metadata is not cached.
+     *
+     * @param queryString CQL query string
+     * @return statement metadata
+     * @throws RequestValidationException if the query string could not be parsed
+     */
+    public Metadata get(String queryString) throws RequestValidationException {
+        Metadata metadata = cache == null ? null : cache.get(queryString);
+        if (metadata != null) {
+            hits.incrementAndGet();
+            return metadata;
+        }
+        misses.incrementAndGet();
+        metadata = Metadata.of(QueryProcessor.parseStatement(queryString).prepare().statement);
+        if (cache != null) {
+            cache.put(queryString, metadata);
+        }
+        return metadata;
+    }
+
+    /**
+     * Determines statement type of a CQL statement without allocating.
+     *
+     * @param statement CQL statement
+     * @return statement type
+     */
+    public static Query.StatementType statementType(CQLStatement statement) {
+        if (statement instanceof SelectStatement) {
+            return Query.StatementType.SELECT;
+        } else if (statement instanceof ModificationStatement) {
+            return Query.StatementType.UPDATE;
+        }
+        return Query.StatementType.UNKNOWN;
+    }
+
+    /**
+     * Determines statement type of a query string by its leading keyword, skipping leading whitespace and
+     * comments, without parsing it and without allocating. Matches the statement type {@link #get(String)} would
+     * resolve for valid statements.
+     *
+     * @param queryString CQL query string
+     * @return statement type
+     */
+    public static Query.StatementType statementType(String queryString) {
+        final int start = statementStart(queryString);
+        if (queryString.regionMatches(true, start, "SELECT", 0, 6)) {
+            return Query.StatementType.SELECT;
+        }
+        for (String keyword : UPDATE_KEYWORDS) {
+            if (queryString.regionMatches(true, start, keyword, 0, keyword.length())) {
+                return Query.StatementType.UPDATE;
+            }
+        }
+        return Query.StatementType.UNKNOWN;
+    }
+
+    /**
+     * Finds the index of the first character of a query string that is neither whitespace nor part of a
+     * <code>/* *&#47;</code>, <code>--</code> or <code>//</code> comment.
+     */
+    private static int statementStart(String queryString) {
+        final int length = queryString.length();
+        int start = 0;
+        while (start < length) {
+            if (Character.isWhitespace(queryString.charAt(start))) {
+                start++;
+            } else if (queryString.startsWith("/*", start)) {
+                final int end = queryString.indexOf("*/", start + 2);
+                start = end < 0 ? length : end + 2;
+            } else if (queryString.startsWith("--", start) || queryString.startsWith("//", start)) {
+                final int end = queryString.indexOf('\n', start + 2);
+                start = end < 0 ? length : end + 1;
+            } else {
+                break;
+            }
+        }
+        return start;
+    }
+
+    /**
+     * Returns a snapshot of the cache statistics.
+     *
+     * @return cache statistics
+     */
+    public ParseCacheStats stats() {
+        return new ParseCacheStats(hits.get(), misses.get(), cache == null ? 0 : cache.size());
+    }
+
+}
@@ -0,0 +1,30 @@
+package io.smartcat.cassandra.diagnostics.connector;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import io.smartcat.cassandra.diagnostics.Query;
+
+public class QueryMetadataCacheTest {
+
+    @Test
+    public void resolves_statement_type_by_leading_keyword() {
+        assertThat(QueryMetadataCache.statementType("  select * from ks.t")).isEqualTo(Query.StatementType.SELECT);
+        assertThat(QueryMetadataCache.statementType("INSERT INTO ks.t (id) VALUES (1)"))
+                .isEqualTo(Query.StatementType.UPDATE);
+        assertThat(QueryMetadataCache.statementType("CREATE TABLE ks.t (id int PRIMARY KEY)"))
+                .isEqualTo(Query.StatementType.UNKNOWN);
+    }
+
+    @Test
+    public void skips_leading_comments() {
+        assertThat(QueryMetadataCache.statementType("/* app */ SELECT * FROM ks.t"))
+                .isEqualTo(Query.StatementType.SELECT);
+        assertThat(QueryMetadataCache.statementType("-- app\n/* a */ // b\n DELETE FROM ks.t WHERE id = 1"))
+                .isEqualTo(Query.StatementType.UPDATE);
+        assertThat(QueryMetadataCache.statementType("/* unterminated SELECT")).isEqualTo(Query.StatementType.UNKNOWN);
+        assertThat(QueryMetadataCache.statementType("-- SELECT")).isEqualTo(Query.StatementType.UNKNOWN);
+    }
+
+}
@@ -15,13 +15,11 @@ import org.apache.cassandra.cql3.QueryOptions;
 import org.apache.cassandra.cql3.statements.ParsedStatement;
 import org.apache.cassandra.service.QueryState;
 import org.apache.cassandra.transport.messages.ResultMessage;
-import org.apache.cassandra.utils.MD5Digest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.googlecode.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
-
 import io.smartcat.cassandra.diagnostics.GlobalConfiguration;
+import io.smartcat.cassandra.diagnostics.info.CachedInfoProvider;
 import io.smartcat.cassandra.diagnostics.info.InfoProvider;
 import net.bytebuddy.ByteBuddy;
 import net.bytebuddy.agent.builder.AgentBuilder;
@@ -55,6 +53,8 @@ public class ConnectorImpl implements Connector {
 
     private static InfoProvider infoProvider;
 
+    private static final MetricsRegistryReader METRICS_REGISTRY_READER = new MetricsRegistryReaderImpl();
+
     private static ConnectorConfiguration configuration;
 
     private static GlobalConfiguration globalConfiguration;
@@ -92,13 +92,26 @@ public class ConnectorImpl implements Connector {
     }
 
     private void setupInfoProvider() {
+        if (configuration.infoProviderInProcess) {
+            try {
+                infoProvider = new CachedInfoProvider(new InProcessInfoProvider(),
+                        configuration.infoSnapshotTtlInMilliseconds);
+                initialized.set(true);
+                return;
+            } catch (RuntimeException | LinkageError e) {
+                logger.warn("Failed to read node status in process, falling back to JMX. Reason: " + e.getMessage());
+            }
+        }
+
         try {
+            final InfoProvider nodeProbe;
             if (configuration.jmxAuthEnabled) {
-                infoProvider = new NodeProbeWrapper(configuration.jmxHost, configuration.jmxPort,
+                nodeProbe = new NodeProbeWrapper(configuration.jmxHost, configuration.jmxPort,
                         configuration.jmxUsername, configuration.jmxPassword);
             } else {
-                infoProvider = new NodeProbeWrapper(configuration.jmxHost, configuration.jmxPort);
+                nodeProbe = new NodeProbeWrapper(configuration.jmxHost, configuration.jmxPort);
             }
+            infoProvider = new CachedInfoProvider(nodeProbe, configuration.infoSnapshotTtlInMilliseconds);
             initialized.set(true);
         } catch (IOException e) {
             logger.error("Failed to initialize info provider implementation. Reason: " + e.getMessage());
@@ -119,6 +132,33 @@ public class ConnectorImpl implements Connector {
         return infoProvider;
     }
 
+    /**
+     * Get statistics of the query processor wrapper's event queue.
+     *
+     * @return event queue statistics
+     */
+    public EventQueueStats getEventQueueStats() {
+        return queryProcessorWrapper.stats();
+    }
+
+    /**
+     * Get statistics of the query processor wrapper's parse cache.
+     *
+     * @return parse cache statistics
+     */
+    public ParseCacheStats getParseCacheStats() {
+        return queryProcessorWrapper.parseCacheStats();
+    }
+
+    /**
+     * Get a reader of the Cassandra metrics registry.
+     *
+     * @return metrics registry reader
+     */
+    public MetricsRegistryReader getMetricsRegistryReader() {
+        return METRICS_REGISTRY_READER;
+    }
+
     /**
      * Initialize connector instance using the provided instrumentation.
      *
@@ -221,31 +261,30 @@ public class ConnectorImpl implements Connector {
         /**
          * Code executed before the intercepted method.
          *
-         * @return execution start time
+         * @return execution start time, as returned by {@link System#nanoTime()}
          */
         @Advice.OnMethodEnter
         public static long enter() {
-            final long startTime = System.currentTimeMillis();
+            final long startTime = System.nanoTime();
             return startTime;
         }
 
         /**
-         * Code executed after the intercepted method.
+         * Code executed after the intercepted method. Any exception it throws is suppressed, so that
+         * diagnostics never fail the query.
          *
          * @param startTime  execution start time recorded by the enter method.
          * @param statement  CQL statement to be executed
          * @param queryState query state information
          * @param options    query options
          * @param result     intercepted method's execution result
-         * @param preparedStatements QueryProcessor's internal list of prepared statements
          */
-        @Advice.OnMethodExit
+        @Advice.OnMethodExit(suppress = Throwable.class)
         public static void exit(@Advice.Enter long startTime, @Advice.Argument(0) CQLStatement statement,
                 @Advice.Argument(1) QueryState queryState, @Advice.Argument(2) QueryOptions options,
-                @Advice.Return ResultMessage result, @Advice.FieldValue(value = "preparedStatements")
-        ConcurrentLinkedHashMap<MD5Digest, ParsedStatement.Prepared> preparedStatements) {
+                @Advice.Return ResultMessage result) {
             ConnectorImpl.queryProcessorWrapper()
-                .processPrepared(statement, queryState, options, startTime, result, preparedStatements);
+                .processPrepared(statement, queryState, options, startTime, result);
         }
     }
 
@@ -256,16 +295,17 @@ public class ConnectorImpl implements Connector {
 
         /**
          * Code executed before the intercepted method.
-         * @return execution start time
+         * @return execution start time, as returned by {@link System#nanoTime()}
          */
         @Advice.OnMethodEnter
         public static long enter() {
-            final long startTime = System.currentTimeMillis();
+            final long startTime = System.nanoTime();
             return startTime;
         }
 
         /**
-         * Code executed after the intercepted method.
+         * Code executed after the intercepted method. Any exception it throws is suppressed, so that
+         * diagnostics never fail the query.
          *
          * @param startTime execution start time recorded by the enter method.
          * @param queryString CQL query string
@@ -273,7 +313,7 @@ public class ConnectorImpl implements Connector {
          * @param options query options
          * @param result intercepted method's execution result
          */
-        @Advice.OnMethodExit
+        @Advice.OnMethodExit(suppress = Throwable.class)
         public static void exit(@Advice.Enter long startTime, @Advice.Argument(0) String queryString,
                 @Advice.Argument(1) QueryState queryState, @Advice.Argument(2) QueryOptions options,
                 @Advice.Return ResultMessage result) {
@@ -289,11 +329,11 @@ public class ConnectorImpl implements Connector {
 
         /**
          * Code executed before the intercepted method.
-         * @return execution start time
+         * @return execution start time, as returned by {@link System#nanoTime()}
          */
         @Advice.OnMethodEnter
         public static long enter() {
-            final long startTime = System.currentTimeMillis();
+            final long startTime = System.nanoTime();
             return startTime;
         }
 
@@ -305,15 +345,13 @@ public class ConnectorImpl implements Connector {
          * @param keyspace query's keyspace
          * @param prepared prepared statement
          * @param forThrift is it a Thrift statement
-         * @param preparedStatements QueryProcessor's internal list of prepared statements
          */
         @Advice.OnMethodExit
         public static void exit(@Advice.Enter long startTime, @Advice.Argument(0) String queryString,
                 @Advice.Argument(1) String keyspace, @Advice.Argument(2) ParsedStatement.Prepared prepared,
-                @Advice.Argument(3) boolean forThrift, @Advice.FieldValue(value = "preparedStatements")
-                ConcurrentLinkedHashMap<MD5Digest, ParsedStatement.Prepared> preparedStatements) {
+                @Advice.Argument(3) boolean forThrift) {
             ConnectorImpl.queryProcessorWrapper()
-                .storePrepared(queryString, keyspace, forThrift, prepared, preparedStatements);
+                .storePrepared(queryString, keyspace, forThrift, prepared);
         }
     }
 
@@ -0,0 +1,170 @@
+package io.smartcat.cassandra.diagnostics.connector;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.management.MBeanServer;
+
+import org.apache.cassandra.db.compaction.CompactionManager;
+import org.apache.cassandra.metrics.StorageMetrics;
+import org.apache.cassandra.metrics.ThreadPoolMetrics;
+import org.apache.cassandra.service.StorageService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.Multimap;
+
+import io.smartcat.cassandra.diagnostics.info.AbstractInfoProvider;
+import io.smartcat.cassandra.diagnostics.info.CompactionInfo;
+import io.smartcat.cassandra.diagnostics.info.CompactionSettingsInfo;
+import io.smartcat.cassandra.diagnostics.info.NodeInfo;
+import io.smartcat.cassandra.diagnostics.info.TPStatsInfo;
+
+/**
+ * Info provider reading node status directly from Cassandra running in the same JVM, without a JMX connection.
+ * Thread pool metrics are read from the platform mbean server, where Cassandra registers them.
+ */
+public class InProcessInfoProvider extends AbstractInfoProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(InProcessInfoProvider.class);
+
+    private static final String REPAIR_THREAD_POOL_PREFIX = "Repair#";
+
+    private static final String[] THREAD_POOL_METRICS = {"ActiveTasks", "PendingTasks", "CompletedTasks",
+            "CurrentlyBlockedTasks", "TotalBlockedTasks"};
+
+    private final MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+
+    /**
+     * Constructor.
+     *
+     * @throws IllegalStateException if Cassandra services are not available in this JVM
+     */
+    public InProcessInfoProvider() {
+        if (StorageService.instance == null || CompactionManager.instance == null) {
+            throw new IllegalStateException("Cassandra services are not available.");
+        }
+    }
+
+    /**
+     * Gets the list of all active compactions.
+     *
+     * @return compaction info list
+     */
+    @Override
+    public List<CompactionInfo> getCompactions() {
+        List<CompactionInfo> compactions = new ArrayList<>();
+        for (Map<String, String> compaction : CompactionManager.instance.getCompactions()) {
+            compactions.add(new CompactionInfo(Long.parseLong(compaction.get("total")),
+                    Long.parseLong(compaction.get("completed")), compaction.get("unit"), compaction.get("taskType"),
+                    compaction.get("keyspace"), compaction.get("columnfamily"), compaction.get("compactionId")));
+        }
+        return compactions;
+    }
+
+    /**
+     * Get the status of all thread pools.
+     *
+     * @return thread pools info list
+     */
+    @Override
+    public List<TPStatsInfo> getTPStats() {
+        List<TPStatsInfo> tpstats = new ArrayList<>();
+        Multimap<String, String> threadPools = ThreadPoolMetrics.getJmxThreadPools(mbeanServer);
+        for (Map.Entry<String, String> tpool : threadPools.entries()) {
+            final TPStatsInfo tpStatsInfo = threadPoolStats(tpool.getKey(), tpool.getValue());
+            if (tpStatsInfo != null) {
+                tpstats.add(tpStatsInfo);
+            }
+        }
+        return tpstats;
+    }
+
+    /**
+     * Gets number of active and pending repair sessions.
+     *
+     * @return repair sessions
+     */
+    @Override
+    public long getRepairSessions() {
+        return countRepairSessions(getTPStats());
+    }
+
+    /**
+     * Get compaction settings info.
+     *
+     * @return compaction settings info
+     */
+    @Override
+    public CompactionSettingsInfo getCompactionSettingsInfo() {
+        return new CompactionSettingsInfo(StorageService.instance.getCompactionThroughputMbPerSec(),
+                CompactionManager.instance.getCoreCompactorThreads(),
+                CompactionManager.instance.getMaximumCompactorThreads(),
+                CompactionManager.instance.getCoreValidationThreads(),
+                CompactionManager.instance.getMaximumValidatorThreads());
+    }
+
+    /**
+     * Get unreachable nodes from the node's point of view (using the node's failure detection mechanism).
+     *
+     * @return unreachable nodes list. If no nodes are unreachable, returns the empty list.
+     */
+    @Override
+    public List<String> getUnreachableNodes() {
+        return StorageService.instance.getUnreachableNodes();
+    }
+
+    /**
+     * Get the information about node such as which protocols are active, uptime, and exception count.
+     *
+     * @return NodeInfo for the node
+     */
+    @Override
+    public NodeInfo getNodeInfo() {
+        return new NodeInfo(StorageService.instance.isGossipRunning(), StorageService.instance.isRPCServerRunning(),
+                StorageService.instance.isNativeTransportRunning(), ManagementFactory.getRuntimeMXBean().getUptime(),
+                (int) StorageMetrics.exceptions.getCount());
+    }
+
+    /**
+     * Reads all metrics of a thread pool. Thread pool metrics are not numbers when their mbean is missing, e.g.
+     * when the thread pool was removed after it was listed, so the thread pool is skipped then.
+     *
+     * @param path       thread pool path
+     * @param threadPool thread pool name
+     * @return thread pool stats or <code>null</code> if some metric is not available
+     */
+    private TPStatsInfo threadPoolStats(String path, String threadPool) {
+        final long[] values = new long[THREAD_POOL_METRICS.length];
+        for (int i = 0; i < THREAD_POOL_METRICS.length; i++) {
+            final Object value = ThreadPoolMetrics.getJmxMetric(mbeanServer, path, threadPool, THREAD_POOL_METRICS[i]);
+            if (!(value instanceof Number)) {
+                logger.debug("Skipping thread pool {}, its {} metric is not available: {}", threadPool,
+                        THREAD_POOL_METRICS[i], value);
+                return null;
+            }
+            values[i] = ((Number) value).longValue();
+        }
+        return new TPStatsInfo(threadPool, values[0], values[1], values[2], values[3], values[4]);
+    }
+
+    /**
+     * Counts repair sessions from the stats of repair thread pools.
+     *
+     * @param tpStats thread pool stats
+     * @return repair sessions
+     */
+    @Override
+    protected long countRepairSessions(List<TPStatsInfo> tpStats) {
+        long repairSessions = 0;
+        for (TPStatsInfo tpStatsInfo : tpStats) {
+            if (tpStatsInfo.threadPool.startsWith(REPAIR_THREAD_POOL_PREFIX)) {
+                repairSessions += tpStatsInfo.activeTasks + tpStatsInfo.pendingTasks;
+            }
+        }
+        return repairSessions;
+    }
+
+}
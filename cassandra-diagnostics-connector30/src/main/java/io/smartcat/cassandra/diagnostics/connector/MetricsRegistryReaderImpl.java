@@ -0,0 +1,106 @@
+package io.smartcat.cassandra.diagnostics.connector;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.cassandra.metrics.CassandraMetricsRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.Metered;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.Snapshot;
+import com.codahale.metrics.Timer;
+
+import io.smartcat.cassandra.diagnostics.Measurement;
+
+/**
+ * {@link MetricsRegistryReader} implementation reading Cassandra 3.0 {@link CassandraMetricsRegistry}. Metric names
+ * are registry names, e.g. <code>org.apache.cassandra.metrics.ClientRequest.Latency.Read</code>. A metric failing to
+ * be read is skipped.
+ */
+public class MetricsRegistryReaderImpl implements MetricsRegistryReader {
+
+    private static final Logger logger = LoggerFactory.getLogger(MetricsRegistryReaderImpl.class);
+
+    private static final double NANOSECONDS_PER_MICROSECOND = TimeUnit.MICROSECONDS.toNanos(1);
+
+    @Override
+    public void read(MetricsRegistryVisitor visitor) {
+        for (Map.Entry<String, Metric> entry : CassandraMetricsRegistry.Metrics.getMetrics().entrySet()) {
+            final Metric metric = entry.getValue();
+            final Measurement.Builder builder = visitor.accept(entry.getKey());
+            if (builder == null) {
+                continue;
+            }
+
+            try {
+                if (!addFields(builder, metric)) {
+                    builder.reset();
+                    continue;
+                }
+            } catch (RuntimeException e) {
+                builder.reset();
+                logger.debug("Failed to read metric {}", entry.getKey(), e);
+                continue;
+            }
+            visitor.visit(entry.getKey(), builder);
+        }
+    }
+
+    /**
+     * Adds values of a metric to its builder.
+     *
+     * @return <code>false</code> if the metric has no numeric values
+     */
+    private static boolean addFields(final Measurement.Builder builder, final Metric metric) {
+        if (metric instanceof Gauge) {
+            final Object value = ((Gauge<?>) metric).getValue();
+            if (!(value instanceof Number)) {
+                return false;
+            }
+            builder.field(VALUE, ((Number) value).doubleValue());
+        } else if (metric instanceof Counter) {
+            builder.field(COUNT, ((Counter) metric).getCount());
+        } else if (metric instanceof Histogram) {
+            final Histogram histogram = (Histogram) metric;
+            builder.field(COUNT, histogram.getCount());
+            addSnapshot(builder, histogram.getSnapshot(), 1);
+        } else if (metric instanceof Timer) {
+            final Timer timer = (Timer) metric;
+            addRates(builder, timer);
+            addSnapshot(builder, timer.getSnapshot(), NANOSECONDS_PER_MICROSECOND);
+        } else if (metric instanceof Meter) {
+            addRates(builder, (Meter) metric);
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    private static void addRates(final Measurement.Builder builder, final Metered metered) {
+        builder.field(COUNT, metered.getCount())
+                .field(MEAN_RATE, metered.getMeanRate())
+                .field(ONE_MINUTE_RATE, metered.getOneMinuteRate())
+                .field(FIVE_MINUTE_RATE, metered.getFiveMinuteRate())
+                .field(FIFTEEN_MINUTE_RATE, metered.getFifteenMinuteRate());
+    }
+
+    private static void addSnapshot(final Measurement.Builder builder, final Snapshot snapshot, final double divisor) {
+        builder.field(MIN, snapshot.getMin() / divisor)
+                .field(MAX, snapshot.getMax() / divisor)
+                .field(MEAN, snapshot.getMean() / divisor)
+                .field(STD_DEV, snapshot.getStdDev() / divisor)
+                .field(P50, snapshot.getMedian() / divisor)
+                .field(P75, snapshot.get75thPercentile() / divisor)
+                .field(P95, snapshot.get95thPercentile() / divisor)
+                .field(P98, snapshot.get98thPercentile() / divisor)
+                .field(P99, snapshot.get99thPercentile() / divisor)
+                .field(P999, snapshot.get999thPercentile() / divisor);
+    }
+
+}
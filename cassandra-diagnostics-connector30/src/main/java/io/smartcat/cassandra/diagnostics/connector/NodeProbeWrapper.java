@@ -11,16 +11,16 @@ import org.slf4j.LoggerFactory;
 
 import com.google.common.collect.Multimap;
 
+import io.smartcat.cassandra.diagnostics.info.AbstractInfoProvider;
 import io.smartcat.cassandra.diagnostics.info.CompactionInfo;
 import io.smartcat.cassandra.diagnostics.info.CompactionSettingsInfo;
-import io.smartcat.cassandra.diagnostics.info.InfoProvider;
 import io.smartcat.cassandra.diagnostics.info.NodeInfo;
 import io.smartcat.cassandra.diagnostics.info.TPStatsInfo;
 
 /**
  * NodeProbe class wrapper that exposes data and action functions.
  */
-public class NodeProbeWrapper implements InfoProvider {
+public class NodeProbeWrapper extends AbstractInfoProvider {
 
     private static final Logger logger = LoggerFactory.getLogger(NodeProbeWrapper.class);
 
@@ -148,4 +148,23 @@ public class NodeProbeWrapper implements InfoProvider {
         return nodeInfo;
     }
 
+    /**
+     * Counts repair sessions from the stats of repair thread pools, instead of listing thread pools and reading their
+     * metrics again. Each thread pool metric is an mbean of its own in Cassandra 3.0, so metrics of a pool can not be
+     * read at once.
+     *
+     * @param tpStats thread pool stats
+     * @return repair sessions
+     */
+    @Override
+    protected long countRepairSessions(List<TPStatsInfo> tpStats) {
+        long repairSessions = 0;
+        for (TPStatsInfo tpStatsInfo : tpStats) {
+            if (tpStatsInfo.threadPool.startsWith(REPAIR_THREAD_POOL_PREFIX)) {
+                repairSessions += tpStatsInfo.activeTasks + tpStatsInfo.pendingTasks;
+            }
+        }
+        return repairSessions;
+    }
+
 }
@@ -1,21 +1,17 @@
 package io.smartcat.cassandra.diagnostics.connector;
 
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.cassandra.cql3.CQLStatement;
 import org.apache.cassandra.cql3.QueryOptions;
-import org.apache.cassandra.cql3.QueryProcessor;
-import org.apache.cassandra.cql3.statements.ModificationStatement;
 import org.apache.cassandra.cql3.statements.ParsedStatement;
-import org.apache.cassandra.cql3.statements.SelectStatement;
 import org.apache.cassandra.service.QueryState;
 import org.apache.cassandra.transport.messages.ResultMessage;
-import org.apache.cassandra.utils.MD5Digest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.googlecode.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+import com.google.common.collect.MapMaker;
 
 import io.smartcat.cassandra.diagnostics.Query;
 import io.smartcat.cassandra.diagnostics.Query.ConsistencyLevel;
@@ -23,11 +19,22 @@ import io.smartcat.cassandra.diagnostics.Query.ConsistencyLevel;
 /**
  * This class is a Diagnostics wrapper for {@link org.apache.cassandra.cql3.QueryProcessor}.
  */
-public class QueryProcessorWrapper extends AbstractEventProcessor {
+public class QueryProcessorWrapper extends AbstractEventProcessor<QueryProcessorWrapper.QueryEvent> {
 
     private static final Logger logger = LoggerFactory.getLogger(QueryProcessorWrapper.class);
 
-    private static final ConcurrentMap<MD5Digest, String> PREPARED_STATEMENT_QUERIES = new ConcurrentHashMap<>();
+    /**
+     * Diagnostics consistency levels indexed by Cassandra consistency level ordinal.
+     */
+    private static final ConsistencyLevel[] CONSISTENCY_LEVELS = consistencyLevels();
+
+    /**
+     * Query strings of prepared statements. Statements are weakly referenced and compared by identity, so an entry
+     * goes away as soon as Cassandra evicts the prepared statement from its cache.
+     */
+    private final ConcurrentMap<CQLStatement, String> preparedStatementQueries = new MapMaker().weakKeys().makeMap();
+
+    private final QueryMetadataCache queryMetadataCache;
 
     private boolean slowQueryTracingEnabled = false;
 
@@ -38,8 +45,14 @@ public class QueryProcessorWrapper extends AbstractEventProcessor {
      * @param configuration Connector configuration
      */
     public QueryProcessorWrapper(QueryReporter queryReporter, ConnectorConfiguration configuration) {
-        super(queryReporter, configuration);
+        super(queryReporter, configuration, new EventRingBuffer.Factory<QueryEvent>() {
+            @Override
+            public QueryEvent newSlot() {
+                return new QueryEvent();
+            }
+        });
         slowQueryTracingEnabled = configuration.enableTracing;
+        queryMetadataCache = new QueryMetadataCache(configuration.queryParseCacheSize);
     }
 
     /**
@@ -50,14 +63,21 @@ public class QueryProcessorWrapper extends AbstractEventProcessor {
      * @param statement  QueryProcessor#processPrepared(CQLStatement, QueryState, QueryOptions)
      * @param queryState QueryProcessor#processPrepared(CQLStatement, QueryState, QueryOptions)
      * @param options    QueryProcessor#processPrepared(CQLStatement, QueryState, QueryOptions)
-     * @param startTime  query execution start time
+     * @param startNanoTime query execution start time, as returned by {@link System#nanoTime()}
      * @param result statement execution result
-     * @param preparedStatements QueryProcessor's internal list of prepared statements
      */
-    public void processPrepared(CQLStatement statement, QueryState queryState, QueryOptions options, long startTime,
-            ResultMessage result, ConcurrentLinkedHashMap<MD5Digest, ParsedStatement.Prepared> preparedStatements) {
-        final long execTime = System.currentTimeMillis() - startTime;
-        report(startTime, execTime, null, statement, queryState, options, preparedStatements);
+    public void processPrepared(CQLStatement statement, QueryState queryState, QueryOptions options,
+            long startNanoTime, ResultMessage result) {
+        final long execTime = System.nanoTime() - startNanoTime;
+        if (isSkipped(queryState)) {
+            return;
+        }
+        if (queryCounter != null) {
+            queryCounter.count(QueryMetadataCache.statementType(statement), extractConsistencyLevel(options));
+        }
+        if (queryFilter.accept(execTime)) {
+            report(execTime, null, statement, queryState, options);
+        }
     }
 
     /**
@@ -68,138 +88,152 @@ public class QueryProcessorWrapper extends AbstractEventProcessor {
      * @param queryString  QueryProcessor#process(String, QueryState, QueryOptions)
      * @param queryState QueryProcessor#process(String, QueryState, QueryOptions)
      * @param options    QueryProcessor#process(String, QueryState, QueryOptions)
-     * @param startTime  query execution start time
+     * @param startNanoTime query execution start time, as returned by {@link System#nanoTime()}
      * @param result statement execution result
      */
-    public void process(String queryString, QueryState queryState, QueryOptions options, long startTime,
-            ResultMessage result) {
-        final long execTime = System.currentTimeMillis() - startTime;
-        report(startTime, execTime, queryString, null, queryState, options, null);
+    public void process(String queryString, QueryState queryState, QueryOptions options,
+            long startNanoTime, ResultMessage result) {
+        final long execTime = System.nanoTime() - startNanoTime;
+        if (isSkipped(queryState)) {
+            return;
+        }
+        if (queryCounter != null) {
+            queryCounter.count(QueryMetadataCache.statementType(queryString), extractConsistencyLevel(options));
+        }
+        if (queryFilter.accept(execTime)) {
+            report(execTime, queryString, null, queryState, options);
+        }
     }
 
     /**
      * Wrapper for
      * {@link org.apache.cassandra.cql3.QueryProcessor#storePreparedStatement(String, String,
      * ParsedStatement.Prepared, boolean)} method.
-     * This method is invoked after the original method, measures the execution time and reports query.
+     * This method is invoked after the original method and remembers the query string of the prepared statement
+     * so it can be traced when the statement is executed.
      *
      * @param queryString QueryProcessor#storePreparedStatement(String, String, ParsedStatement.Prepared, boolean)
      * @param keyspace    QueryProcessor#storePreparedStatement(String, String, ParsedStatement.Prepared, boolean)
      * @param forThrift   QueryProcessor#storePreparedStatement(String, String, ParsedStatement.Prepared, boolean)
      * @param prepared    QueryProcessor#storePreparedStatement(String, String, ParsedStatement.Prepared, boolean)
-     * @param preparedStatements  QueryProcessor#preparedStatements
      */
     public void storePrepared(String queryString, String keyspace, boolean forThrift,
-            ParsedStatement.Prepared prepared,
-            ConcurrentLinkedHashMap<MD5Digest, ParsedStatement.Prepared> preparedStatements) {
-        for (MD5Digest digest : preparedStatements.keySet()) {
-            ParsedStatement.Prepared existingPrepared = preparedStatements.get(digest);
-            if (prepared == existingPrepared) {
-                PREPARED_STATEMENT_QUERIES.put(digest, queryString);
-            }
+            ParsedStatement.Prepared prepared) {
+        if (slowQueryTracingEnabled && prepared != null && prepared.statement != null) {
+            preparedStatementQueries.putIfAbsent(prepared.statement, queryString);
         }
     }
 
     /**
-     * Submits a query reports asynchronously.
+     * Captures a query into a preallocated event slot and publishes it for asynchronous reporting.
+     * Capturing does not allocate, all the work is deferred to {@link #process(QueryEvent)}.
      *
-     * @param startTime  execution start time, in milliseconds
-     * @param execTime   execution time, in milliseconds
-     * @param preparedStatementKey  prepared statement digest/key
+     * @param execTime   execution time, in nanoseconds
+     * @param queryString CQL query string, if the query was not prepared
+     * @param statement  CQL statement, if the query was prepared
      * @param queryState CQL query state
      * @param options    CQL query options
      */
-    private void report(final long startTime, final long execTime, final String queryString,
-            final CQLStatement statement, final QueryState queryState, final QueryOptions options,
-            final ConcurrentLinkedHashMap<MD5Digest, ParsedStatement.Prepared> preparedStatements) {
-        if (queryState.getClientState().isInternal) {
+    private void report(final long execTime, final String queryString,
+            final CQLStatement statement, final QueryState queryState, final QueryOptions options) {
+        QueryEvent event = claim();
+        if (event == null) {
             return;
         }
-        report(new Runnable() {
-            @Override
-            public void run() {
-                try {
-                    CQLStatement cqlStatement;
-                    String cqlQuery = "";
-
-                    if (statement == null && queryString == null) {
-                        throw new IllegalStateException("Both prepared statement and query string are missing.");
-                    } else if (statement == null) {
-                        cqlStatement = QueryProcessor.parseStatement(queryString).prepare().statement;
-
-                        if (slowQueryTracingEnabled) {
-                            cqlQuery = queryString;
-                        }
-                    } else {
-                        cqlStatement = statement;
-
-                        if (slowQueryTracingEnabled) {
-                            MD5Digest preparedStatementKey = null;
-                            for (MD5Digest digest : preparedStatements.keySet()) {
-                                ParsedStatement.Prepared prepared = preparedStatements.get(digest);
-                                if (prepared.statement == statement) {
-                                    preparedStatementKey = digest;
-                                }
-                            }
-                            cqlQuery = PREPARED_STATEMENT_QUERIES.get(preparedStatementKey);
-                        }
-                    }
-
-                    Query query = createQuery(startTime, execTime, cqlQuery, cqlStatement, queryState, options);
-                    logger.trace("Reporting query: {}.", query);
-                    queryReporter.report(query);
-                } catch (Exception e) {
-                    logger.warn("An error occured while reporting query", e);
+        event.startTime = System.currentTimeMillis() - TimeUnit.NANOSECONDS.toMillis(execTime);
+        event.execTime = execTime;
+        event.queryString = queryString;
+        event.statement = statement;
+        event.queryState = queryState;
+        event.options = options;
+        publish(event);
+    }
+
+    private static ConsistencyLevel[] consistencyLevels() {
+        final org.apache.cassandra.db.ConsistencyLevel[] cassandraLevels =
+                org.apache.cassandra.db.ConsistencyLevel.values();
+        final ConsistencyLevel[] levels = new ConsistencyLevel[cassandraLevels.length];
+        for (org.apache.cassandra.db.ConsistencyLevel cassandraLevel : cassandraLevels) {
+            ConsistencyLevel level = ConsistencyLevel.UNKNOWN;
+            for (ConsistencyLevel consistencyLevel : ConsistencyLevel.values()) {
+                if (consistencyLevel.name().equals(cassandraLevel.name())) {
+                    level = consistencyLevel;
+                    break;
                 }
             }
-        });
+            levels[cassandraLevel.ordinal()] = level;
+        }
+        return levels;
     }
 
-    private Query createQuery(final long startTime, final long execTime, final String queryString,
-            final CQLStatement statement, final QueryState queryState, final QueryOptions options) {
-        Query query;
-        if (statement instanceof SelectStatement) {
-            query = createQuery(startTime, execTime, queryString, (SelectStatement) statement,
-                    queryState, options);
-        } else if (statement instanceof ModificationStatement) {
-            query = createQuery(startTime, execTime, queryString, (ModificationStatement) statement,
-                    queryState, options);
+    private boolean isSkipped(final QueryState queryState) {
+        return queryFilter.skipInternalQueries() && queryState.getClientState().isInternal;
+    }
+
+    /**
+     * Creates and reports a query out of a captured event.
+     *
+     * @param event captured query event
+     */
+    @Override
+    protected void process(QueryEvent event) {
+        QueryMetadataCache.Metadata metadata;
+        String cqlQuery = "";
+
+        if (event.statement == null && event.queryString == null) {
+            throw new IllegalStateException("Both prepared statement and query string are missing.");
+        } else if (event.statement == null) {
+            metadata = queryMetadataCache.get(event.queryString);
+
+            if (slowQueryTracingEnabled) {
+                cqlQuery = event.queryString;
+            }
         } else {
-            query = createGenericQuery(startTime, execTime, queryString, statement, queryState, options);
+            metadata = QueryMetadataCache.Metadata.of(event.statement);
+
+            if (slowQueryTracingEnabled) {
+                String preparedQuery = preparedStatementQueries.get(event.statement);
+                cqlQuery = preparedQuery == null ? "" : preparedQuery;
+            }
         }
-        return query;
-    }
 
-    private Query createQuery(final long startTime, final long execTime, final String queryString,
-            final SelectStatement statement, final QueryState queryState, final QueryOptions options) {
-        return Query.create(startTime, execTime, queryState.getClientState().getRemoteAddress().toString(),
-                Query.StatementType.SELECT, statement.keyspace(), statement.columnFamily(), queryString,
-                extractConsistencyLevel(options));
+        Query query = Query.create(event.startTime, event.execTime, TimeUnit.NANOSECONDS,
+                event.queryState.getClientState().getRemoteAddress().toString(), metadata.statementType,
+                metadata.keyspace, metadata.tableName, cqlQuery, extractConsistencyLevel(event.options));
+        logger.trace("Reporting query: {}.", query);
+        queryReporter.report(query);
     }
 
-    private Query createQuery(final long startTime, final long execTime, final String queryString,
-            final ModificationStatement statement, final QueryState queryState, final QueryOptions options) {
-        return Query.create(startTime, execTime, queryState.getClientState().getRemoteAddress().toString(),
-                Query.StatementType.UPDATE, statement.keyspace(), statement.columnFamily(), queryString,
-                extractConsistencyLevel(options));
+    private ConsistencyLevel extractConsistencyLevel(final QueryOptions queryOptions) {
+        return CONSISTENCY_LEVELS[queryOptions.getConsistency().ordinal()];
     }
 
-    private Query createGenericQuery(final long startTime, final long execTime, final String queryString,
-            final CQLStatement statement, final QueryState queryState, final QueryOptions options) {
-        return Query.create(startTime, execTime, queryState.getClientState().getRemoteAddress().toString(),
-                Query.StatementType.UNKNOWN, "", "", queryString, extractConsistencyLevel(options));
+    /**
+     * Returns statistics of the cache of metadata parsed out of non-prepared query strings.
+     *
+     * @return parse cache statistics
+     */
+    public ParseCacheStats parseCacheStats() {
+        return queryMetadataCache.stats();
     }
 
-    private ConsistencyLevel extractConsistencyLevel(final QueryOptions queryOptions) {
-        ConsistencyLevel queryConsistencyLevel = ConsistencyLevel.UNKNOWN;
-
-        for (ConsistencyLevel consistencyLevel : ConsistencyLevel.values()) {
-            if (consistencyLevel.name().equals(queryOptions.getConsistency().name())) {
-                queryConsistencyLevel = consistencyLevel;
-                break;
-            }
+    /**
+     * Preallocated query event slot.
+     */
+    static class QueryEvent extends EventRingBuffer.Slot {
+        long startTime;
+        long execTime;
+        String queryString;
+        CQLStatement statement;
+        QueryState queryState;
+        QueryOptions options;
+
+        @Override
+        protected void clear() {
+            queryString = null;
+            statement = null;
+            queryState = null;
+            options = null;
         }
-
-        return queryConsistencyLevel;
     }
 }
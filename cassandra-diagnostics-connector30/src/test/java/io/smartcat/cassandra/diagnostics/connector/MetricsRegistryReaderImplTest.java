@@ -0,0 +1,137 @@
+package io.smartcat.cassandra.diagnostics.connector;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.cassandra.metrics.CassandraMetricsRegistry;
+import org.apache.cassandra.metrics.CassandraMetricsRegistry.MetricName;
+import org.junit.After;
+import org.junit.Test;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Reservoir;
+import com.codahale.metrics.Snapshot;
+
+import io.smartcat.cassandra.diagnostics.Measurement;
+
+public class MetricsRegistryReaderImplTest {
+
+    private static final String GROUP = "io.smartcat.cassandra.diagnostics.test";
+
+    private static final MetricName TIMER = new MetricName(GROUP, "ClientRequest", "Latency", "Read");
+
+    private static final MetricName GAUGE = new MetricName(GROUP, "Storage", "Load");
+
+    private static final MetricName STRING_GAUGE = new MetricName(GROUP, "Storage", "Version");
+
+    private static final MetricName FAILING_HISTOGRAM = new MetricName(GROUP, "ColumnFamily", "PartitionSize");
+
+    private static final MetricName FAILING_GAUGE = new MetricName(GROUP, "Storage", "Exceptions");
+
+    @After
+    public void tearDown() {
+        CassandraMetricsRegistry.Metrics.remove(TIMER);
+        CassandraMetricsRegistry.Metrics.remove(GAUGE);
+        CassandraMetricsRegistry.Metrics.remove(STRING_GAUGE);
+        CassandraMetricsRegistry.Metrics.remove(FAILING_HISTOGRAM);
+        CassandraMetricsRegistry.Metrics.remove(FAILING_GAUGE);
+    }
+
+    @Test
+    public void reads_timer_as_single_measurement_in_microseconds() {
+        CassandraMetricsRegistry.Metrics.timer(TIMER).update(2, TimeUnit.MILLISECONDS);
+
+        final List<Measurement> measurements = read();
+
+        assertThat(measurements).hasSize(1);
+        final Measurement measurement = measurements.get(0);
+        assertThat(measurement.name()).isEqualTo(GROUP + ".ClientRequest.Latency.Read");
+        assertThat(measurement.fields()).containsEntry(MetricsRegistryReader.COUNT, "1");
+        // cassandra timers keep values in buckets, 2 ms falls into a bucket of up to 2.35 ms
+        assertThat(Double.parseDouble(measurement.fields().get(MetricsRegistryReader.P99))).isBetween(2000.0, 2500.0);
+        assertThat(Double.parseDouble(measurement.fields().get(MetricsRegistryReader.MAX))).isBetween(2000.0, 2500.0);
+        assertThat(measurement.fields()).containsKeys(MetricsRegistryReader.P50, MetricsRegistryReader.P999,
+                MetricsRegistryReader.ONE_MINUTE_RATE);
+    }
+
+    @Test
+    public void skips_non_numeric_gauges() {
+        CassandraMetricsRegistry.Metrics.register(GAUGE, new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return 1024L;
+            }
+        });
+        CassandraMetricsRegistry.Metrics.register(STRING_GAUGE, new Gauge<String>() {
+            @Override
+            public String getValue() {
+                return "3.0";
+            }
+        });
+
+        final List<Measurement> measurements = read();
+
+        assertThat(measurements).hasSize(1);
+        assertThat(measurements.get(0).name()).isEqualTo(GROUP + ".Storage.Load");
+        assertThat(measurements.get(0).fields()).containsEntry(MetricsRegistryReader.VALUE, "1024.0");
+    }
+
+    @Test
+    public void skips_metrics_failing_to_be_read_without_leaking_their_fields() {
+        CassandraMetricsRegistry.Metrics.register(FAILING_HISTOGRAM, new Histogram(new Reservoir() {
+            @Override
+            public int size() {
+                return 0;
+            }
+
+            @Override
+            public void update(long value) {
+            }
+
+            @Override
+            public Snapshot getSnapshot() {
+                throw new IllegalStateException("snapshot failed");
+            }
+        }));
+        CassandraMetricsRegistry.Metrics.register(FAILING_GAUGE, new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                throw new IllegalStateException("gauge failed");
+            }
+        });
+        CassandraMetricsRegistry.Metrics.register(GAUGE, new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return 1024L;
+            }
+        });
+
+        final List<Measurement> measurements = read();
+
+        assertThat(measurements).hasSize(1);
+        assertThat(measurements.get(0).name()).isEqualTo(GROUP + ".Storage.Load");
+        assertThat(measurements.get(0).fields()).containsOnlyKeys(MetricsRegistryReader.VALUE);
+    }
+
+    private List<Measurement> read() {
+        final List<Measurement> measurements = new ArrayList<>();
+        final Measurement.Builder builder = Measurement.builder("test");
+        new MetricsRegistryReaderImpl().read(new MetricsRegistryVisitor() {
+            @Override
+            public Measurement.Builder accept(String name) {
+                return name.startsWith(GROUP) ? builder.name(name) : null;
+            }
+
+            @Override
+            public void visit(String name, Measurement.Builder builder) {
+                measurements.add(builder.build());
+            }
+        });
+        return measurements;
+    }
+
+}
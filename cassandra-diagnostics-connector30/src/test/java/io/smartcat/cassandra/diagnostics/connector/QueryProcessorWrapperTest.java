@@ -13,6 +13,7 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.cassandra.cql3.QueryOptions;
+import org.apache.cassandra.cql3.statements.ParsedStatement;
 import org.apache.cassandra.cql3.statements.SelectStatement;
 import org.apache.cassandra.db.ConsistencyLevel;
 import org.apache.cassandra.service.ClientState;
@@ -60,7 +61,7 @@ public class QueryProcessorWrapperTest {
         QueryOptions options = mock(QueryOptions.class);
         when(options.getConsistency()).thenReturn(ConsistencyLevel.ONE);
 
-        wrapper.processPrepared(statement, queryState, options, System.currentTimeMillis(), null, null);
+        wrapper.processPrepared(statement, queryState, options, System.nanoTime(), null);
 
         lock.await(1000, TimeUnit.MILLISECONDS);
 
@@ -71,6 +72,43 @@ public class QueryProcessorWrapperTest {
         assertThat(reportedQuery.consistencyLevel()).isEqualTo(Query.ConsistencyLevel.ONE);
     }
 
+    @Test
+    public void wrapper_traces_prepared_statement_query() throws Exception {
+        QueryReporter queryReporter = new QueryReporter() {
+            @Override
+            public void report(Query query) {
+                reportedQuery = query;
+                lock.countDown();
+            }
+        };
+        ConnectorConfiguration configuration = new ConnectorConfiguration();
+        configuration.enableTracing = true;
+        QueryProcessorWrapper wrapper = new QueryProcessorWrapper(queryReporter, configuration);
+
+        SelectStatement statement = mock(SelectStatement.class);
+        when(statement.keyspace()).thenReturn("test_keyspace");
+        when(statement.columnFamily()).thenReturn("test_table");
+
+        QueryState queryState = mock(QueryState.class);
+        suppress(constructorsDeclaredIn(ClientState.class));
+        ClientState clientState = ClientState.forInternalCalls();
+        setFinal(clientState, clientState.getClass().getDeclaredField("isInternal"), false);
+        setFinal(clientState, clientState.getClass().getDeclaredField("remoteAddress"),
+                new InetSocketAddress("172.31.0.1", 1000));
+        when(queryState.getClientState()).thenReturn(clientState);
+
+        QueryOptions options = mock(QueryOptions.class);
+        when(options.getConsistency()).thenReturn(ConsistencyLevel.ONE);
+
+        String queryString = "SELECT * FROM test_keyspace.test_table WHERE id = ?";
+        wrapper.storePrepared(queryString, "test_keyspace", false, new ParsedStatement.Prepared(statement));
+        wrapper.processPrepared(statement, queryState, options, System.nanoTime(), null);
+
+        lock.await(1000, TimeUnit.MILLISECONDS);
+
+        assertThat(reportedQuery.statement()).isEqualTo(queryString);
+    }
+
     @Test
     public void connector_reporter_does_not_report_internal_query_with_all_data() throws Exception {
         QueryReporter queryReporter = new QueryReporter() {
@@ -96,7 +134,7 @@ public class QueryProcessorWrapperTest {
 
         QueryOptions options = mock(QueryOptions.class);
 
-        wrapper.processPrepared(statement, queryState, options, System.currentTimeMillis(), null, null);
+        wrapper.processPrepared(statement, queryState, options, System.nanoTime(), null);
         lock.await(1000, TimeUnit.MILLISECONDS);
 
         assertThat(reportedQuery).isEqualTo(null);
@@ -2,6 +2,8 @@ package io.smartcat.cassandra.diagnostics;
 
 import java.io.IOException;
 import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.management.InstanceAlreadyExistsException;
@@ -24,13 +26,15 @@ import io.smartcat.cassandra.diagnostics.config.Configuration;
 import io.smartcat.cassandra.diagnostics.config.ConfigurationException;
 import io.smartcat.cassandra.diagnostics.config.ConfigurationLoader;
 import io.smartcat.cassandra.diagnostics.config.YamlConfigurationLoader;
+import io.smartcat.cassandra.diagnostics.connector.QueryCounter;
 import io.smartcat.cassandra.diagnostics.connector.QueryReporter;
+import io.smartcat.cassandra.diagnostics.reporter.ReporterStats;
 import io.smartcat.cassandra.diagnostics.utils.Utils;
 
 /**
  * This class implements the Diagnostics module initialization.
  */
-public class Diagnostics implements QueryReporter {
+public class Diagnostics implements QueryReporter, QueryCounter {
     /**
      * Class logger.
      */
@@ -42,7 +46,7 @@ public class Diagnostics implements QueryReporter {
 
     private Configuration config;
 
-    private DiagnosticsProcessor diagnosticsProcessor = null;
+    private volatile DiagnosticsProcessor diagnosticsProcessor = null;
 
     private HttpHandler httpApi;
 
@@ -128,18 +132,52 @@ public class Diagnostics implements QueryReporter {
 
     @Override
     public void report(Query query) {
-        if (isRunning.get()) {
-            diagnosticsProcessor.process(query);
+        final DiagnosticsProcessor processor = diagnosticsProcessor;
+        if (isRunning.get() && processor != null) {
+            processor.process(query);
+        }
+    }
+
+    @Override
+    public void count(Query.StatementType statementType, Query.ConsistencyLevel consistencyLevel) {
+        final DiagnosticsProcessor processor = diagnosticsProcessor;
+        if (isRunning.get() && processor != null) {
+            processor.count(statementType, consistencyLevel);
         }
     }
 
     /**
-     * Reloads configuration and reinitialize modules and reporters.
+     * Returns measurement bus statistics of the active reporters.
+     *
+     * @return reporter statistics, empty if diagnostics is not activated
+     */
+    public List<ReporterStats> getReporterStats() {
+        final DiagnosticsProcessor processor = diagnosticsProcessor;
+        if (processor == null) {
+            return Collections.emptyList();
+        }
+        return processor.getReporterStats();
+    }
+
+    /**
+     * Returns measurement bus statistics of the active reporters and resets their longest batch report times.
+     *
+     * @return reporter statistics, empty if diagnostics is not activated
      */
-    public void reload() {
-        isRunning.set(false);
-        diagnosticsProcessor.shutdown();
+    public List<ReporterStats> getReporterStatsThenReset() {
+        final DiagnosticsProcessor processor = diagnosticsProcessor;
+        if (processor == null) {
+            return Collections.emptyList();
+        }
+        return processor.getReporterStatsThenReset();
+    }
 
+    /**
+     * Reloads configuration. Only modules and reporters whose configuration changed are restarted, the others keep
+     * running. Queries are processed by the previous modules until the new ones are initialized, so none are dropped
+     * during the reload.
+     */
+    public synchronized void reload() {
         logger.info("Reloading diagnostics configuation.");
         Configuration newConfig;
         try {
@@ -152,14 +190,29 @@ public class Diagnostics implements QueryReporter {
             logger.error("Reload operation failed. Fix configuration and reload again");
             return;
         }
+        if (newConfig.global.hostname == null || newConfig.global.hostname.isEmpty()) {
+            newConfig.global.hostname = Utils.resolveHostname();
+        }
+
+        final DiagnosticsProcessor previous = diagnosticsProcessor;
+        final DiagnosticsProcessor processor;
+        try {
+            processor = new DiagnosticsProcessor(newConfig, previous);
+        } catch (IllegalStateException ex) {
+            logger.error("Reload operation failed, keeping previous configuration. Fix configuration and reload again",
+                    ex);
+            return;
+        }
+        diagnosticsProcessor = processor;
+        if (previous != null) {
+            previous.retire(processor);
+        }
 
         unregisterEndpoints();
 
         config = newConfig;
-        diagnosticsProcessor = new DiagnosticsProcessor(config);
         initEndpoints();
         logger.info("Configuration realoaded");
-        isRunning.set(true);
     }
 
 }
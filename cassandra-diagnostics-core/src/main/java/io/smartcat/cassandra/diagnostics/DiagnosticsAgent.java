@@ -1,12 +1,19 @@
 package io.smartcat.cassandra.diagnostics;
 
 import java.lang.instrument.Instrumentation;
+import java.util.Collections;
+import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.smartcat.cassandra.diagnostics.connector.Connector;
+import io.smartcat.cassandra.diagnostics.connector.ConnectorConfiguration;
+import io.smartcat.cassandra.diagnostics.connector.EventQueueStats;
+import io.smartcat.cassandra.diagnostics.connector.MetricsRegistryReader;
+import io.smartcat.cassandra.diagnostics.connector.ParseCacheStats;
 import io.smartcat.cassandra.diagnostics.info.InfoProvider;
+import io.smartcat.cassandra.diagnostics.reporter.ReporterStats;
 
 /**
  * {@code DiagnosticAgent} acts as a Java agent used to instrument original Cassandra classes in order to extend them
@@ -22,6 +29,8 @@ public class DiagnosticsAgent {
 
     private static Connector connector;
 
+    private static ConnectorConfiguration connectorConfiguration;
+
     /**
      * Prevents class instantiation.
      */
@@ -38,8 +47,8 @@ public class DiagnosticsAgent {
         logger.info("Cassandra Diagnostics starting.");
         diagnostics = new Diagnostics();
         connector = ConnectorFactory.getImplementation();
-        connector.init(inst, diagnostics, diagnostics.getConfiguration().connector,
-                diagnostics.getConfiguration().global);
+        connectorConfiguration = diagnostics.getConfiguration().connector;
+        connector.init(inst, diagnostics, connectorConfiguration, diagnostics.getConfiguration().global);
         Thread th = new Thread(new Runnable() {
             @Override
             public void run() {
@@ -67,4 +76,65 @@ public class DiagnosticsAgent {
     public static InfoProvider getInfoProvider() {
         return connector.getInfoProvider();
     }
+
+    /**
+     * Get the configuration the connector was initialized with. Connector configuration is not reloaded.
+     *
+     * @return connector configuration or <code>null</code> if no connector is running
+     */
+    public static ConnectorConfiguration getConnectorConfiguration() {
+        return connectorConfiguration;
+    }
+
+    /**
+     * Get statistics of the connector's event queue.
+     *
+     * @return event queue statistics
+     */
+    public static EventQueueStats getEventQueueStats() {
+        return connector.getEventQueueStats();
+    }
+
+    /**
+     * Get statistics of the connector's query parse cache.
+     *
+     * @return parse cache statistics
+     */
+    public static ParseCacheStats getParseCacheStats() {
+        return connector.getParseCacheStats();
+    }
+
+    /**
+     * Get a reader of the connector's target metrics registry.
+     *
+     * @return metrics registry reader or <code>null</code> if metrics can not be read in process
+     */
+    public static MetricsRegistryReader getMetricsRegistryReader() {
+        return connector == null ? null : connector.getMetricsRegistryReader();
+    }
+
+    /**
+     * Get measurement bus statistics of the active reporters.
+     *
+     * @return reporter statistics
+     */
+    public static List<ReporterStats> getReporterStats() {
+        if (diagnostics == null) {
+            return Collections.emptyList();
+        }
+        return diagnostics.getReporterStats();
+    }
+
+    /**
+     * Get measurement bus statistics of the active reporters and reset their longest batch report times. Meant for
+     * the single module reporting reporter statistics.
+     *
+     * @return reporter statistics
+     */
+    public static List<ReporterStats> getReporterStatsThenReset() {
+        if (diagnostics == null) {
+            return Collections.emptyList();
+        }
+        return diagnostics.getReporterStatsThenReset();
+    }
 }
@@ -2,36 +2,82 @@ package io.smartcat.cassandra.diagnostics;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.smartcat.cassandra.diagnostics.config.Configuration;
+import io.smartcat.cassandra.diagnostics.connector.QueryCounter;
 import io.smartcat.cassandra.diagnostics.module.Module;
 import io.smartcat.cassandra.diagnostics.module.ModuleConfiguration;
+import io.smartcat.cassandra.diagnostics.module.TaskScheduler;
+import io.smartcat.cassandra.diagnostics.reporter.MeasurementBus;
 import io.smartcat.cassandra.diagnostics.reporter.Reporter;
 import io.smartcat.cassandra.diagnostics.reporter.ReporterConfiguration;
+import io.smartcat.cassandra.diagnostics.reporter.ReporterStats;
 
 /**
  * {@code DiagnosticsProcessor} creates instances of modules and reporters and provides reporter references to
- * modules per configuration.
+ * modules per configuration. On a configuration reload, a new processor takes over the modules and reporters of the
+ * previous one whose configuration did not change, so only the changed ones are restarted.
  */
 public class DiagnosticsProcessor {
 
     private static final Logger logger = LoggerFactory.getLogger(DiagnosticsProcessor.class);
 
+    /**
+     * Minimum time between two logged failures of modules counting queries, so that a module failing on every query
+     * does not flood the log from request threads.
+     */
+    private static final long COUNT_FAILURE_LOG_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final GlobalConfiguration globalConfiguration;
+
     private List<Module> modules = new ArrayList<>();
 
+    private List<Module> queryModules = new ArrayList<>();
+
+    private List<QueryCounter> queryCounters = new ArrayList<>();
+
+    private Map<Module, ModuleConfiguration> moduleConfigurations = new HashMap<>();
+
+    private Map<Module, Set<Reporter>> moduleReporters = new HashMap<>();
+
     private Map<String, Reporter> reporters = new HashMap<>();
 
+    private Map<String, ReporterConfiguration> reporterConfigurations = new HashMap<>();
+
+    private final MeasurementBus measurementBus;
+
+    private final AtomicLong countFailures = new AtomicLong();
+
+    private final AtomicLong lastCountFailureLog = new AtomicLong(System.nanoTime() - COUNT_FAILURE_LOG_INTERVAL_NANOS);
+
     /**
      * DiagnosticsProcessor constructor.
      *
      * @param configuration Configuration object
      */
     public DiagnosticsProcessor(final Configuration configuration) {
+        this(configuration, null);
+    }
+
+    /**
+     * DiagnosticsProcessor constructor taking over the modules and reporters of the previous processor whose
+     * configuration did not change. Everything is restarted if the global configuration changed. The previous
+     * processor keeps running until it is retired.
+     *
+     * @param configuration Configuration object
+     * @param previous      currently running processor, or {@code null}
+     * @see #retire(DiagnosticsProcessor)
+     */
+    public DiagnosticsProcessor(final Configuration configuration, final DiagnosticsProcessor previous) {
         if (configuration.reporters == null) {
             throw new IllegalStateException("Configuration does not have any reporter defined.");
         }
@@ -44,19 +90,34 @@ public class DiagnosticsProcessor {
             throw new IllegalStateException("Configuration does not have global configuration defined.");
         }
 
-        initReporters(configuration.reporters, configuration.global);
-        initModules(configuration.modules, configuration.global);
+        globalConfiguration = configuration.global;
+        TaskScheduler.shared().configure(configuration.global.schedulerThreads,
+                configuration.global.schedulerJitterInMillis);
+
+        final DiagnosticsProcessor reusable = previous != null
+                && previous.globalConfiguration.equals(configuration.global) ? previous : null;
+        measurementBus = reusable == null ? new MeasurementBus() : reusable.measurementBus;
+        initReporters(configuration.reporters, configuration.global, reusable);
+        initModules(configuration.modules, configuration.global, reusable);
     }
 
     private void initReporters(final List<ReporterConfiguration> reportersConfiguration,
-            final GlobalConfiguration globalConfiguration) {
+            final GlobalConfiguration globalConfiguration, final DiagnosticsProcessor previous) {
         for (ReporterConfiguration reporterConfig : reportersConfiguration) {
+            if (previous != null
+                    && reporterConfig.equals(previous.reporterConfigurations.get(reporterConfig.reporter))) {
+                logger.info("Keeping reporter {} with unchanged configuration", reporterConfig.reporter);
+                reporters.put(reporterConfig.reporter, previous.reporters.get(reporterConfig.reporter));
+                reporterConfigurations.put(reporterConfig.reporter, reporterConfig);
+                continue;
+            }
             try {
                 logger.info("Creating reporter for class name {}", reporterConfig.reporter);
                 Reporter reporter = (Reporter) Class.forName(reporterConfig.reporter)
                         .getConstructor(ReporterConfiguration.class, GlobalConfiguration.class)
                         .newInstance(reporterConfig, globalConfiguration);
-                reporters.put(reporterConfig.reporter, reporter);
+                reporters.put(reporterConfig.reporter, measurementBus.register(reporter, reporterConfig));
+                reporterConfigurations.put(reporterConfig.reporter, reporterConfig);
             } catch (Exception e) {
                 logger.warn("Failed to create reporter by class name", e);
             }
@@ -64,20 +125,47 @@ public class DiagnosticsProcessor {
     }
 
     private void initModules(final List<ModuleConfiguration> modulesConfiguration,
-            final GlobalConfiguration globalConfiguration) {
+            final GlobalConfiguration globalConfiguration, final DiagnosticsProcessor previous) {
         for (ModuleConfiguration moduleConfig : modulesConfiguration) {
             try {
-                logger.info("Creating module for class name {}", moduleConfig.module);
-                final Module module = createModule(moduleConfig, globalConfiguration);
+                final List<Reporter> reporters = getModuleReporters(moduleConfig);
+                Module module = previous == null ? null : previous.findModule(moduleConfig, reporters, this);
+                if (module != null) {
+                    logger.info("Keeping module {} with unchanged configuration", moduleConfig.module);
+                } else {
+                    logger.info("Creating module for class name {}", moduleConfig.module);
+                    module = createModule(moduleConfig, reporters, globalConfiguration);
+                }
                 modules.add(module);
+                moduleConfigurations.put(module, moduleConfig);
+                moduleReporters.put(module, new HashSet<>(reporters));
+                if (module instanceof QueryCounter) {
+                    queryCounters.add((QueryCounter) module);
+                } else {
+                    queryModules.add(module);
+                }
             } catch (Exception e) {
                 logger.warn("Failed to create module by class name", e);
             }
         }
     }
 
-    private Module createModule(final ModuleConfiguration moduleConfiguration,
-            final GlobalConfiguration globalConfiguration) throws Exception {
+    /**
+     * Finds a running module with the given configuration and reporters, not yet taken over by the successor.
+     */
+    private Module findModule(final ModuleConfiguration moduleConfiguration, final List<Reporter> reporters,
+            final DiagnosticsProcessor successor) {
+        for (Module module : modules) {
+            if (moduleConfiguration.equals(moduleConfigurations.get(module))
+                    && moduleReporters.get(module).equals(new HashSet<>(reporters))
+                    && !successor.modules.contains(module)) {
+                return module;
+            }
+        }
+        return null;
+    }
+
+    private List<Reporter> getModuleReporters(final ModuleConfiguration moduleConfiguration) {
         final List<Reporter> moduleReporters = new ArrayList<>();
 
         if (moduleConfiguration.reporters == null || moduleConfiguration.reporters.isEmpty()) {
@@ -91,6 +179,11 @@ public class DiagnosticsProcessor {
             moduleReporters.addAll(reporters);
         }
 
+        return moduleReporters;
+    }
+
+    private Module createModule(final ModuleConfiguration moduleConfiguration, final List<Reporter> moduleReporters,
+            final GlobalConfiguration globalConfiguration) throws Exception {
         final Module module = (Module) Class.forName(moduleConfiguration.module)
                 .getConstructor(ModuleConfiguration.class, List.class, GlobalConfiguration.class)
                 .newInstance(moduleConfiguration, moduleReporters, globalConfiguration);
@@ -111,17 +204,87 @@ public class DiagnosticsProcessor {
     }
 
     /**
-     * Process a query with all configured modules.
+     * Process a query with all configured modules, except the ones counting every query.
      *
      * @param query query to process
      */
     public void process(final Query query) {
         logger.trace("Processing query {}", query);
-        for (Module module : modules) {
+        for (Module module : queryModules) {
             module.process(query);
         }
     }
 
+    /**
+     * Count a query with all configured modules counting every query. It is invoked on the request thread, so a
+     * failing module is logged at a limited rate instead of failing the query.
+     *
+     * @param statementType    query statement type
+     * @param consistencyLevel query consistency level
+     */
+    public void count(final Query.StatementType statementType, final Query.ConsistencyLevel consistencyLevel) {
+        for (QueryCounter queryCounter : queryCounters) {
+            try {
+                queryCounter.count(statementType, consistencyLevel);
+            } catch (Throwable t) {
+                countFailed(queryCounter, t);
+            }
+        }
+    }
+
+    private void countFailed(final QueryCounter queryCounter, final Throwable t) {
+        final long failures = countFailures.incrementAndGet();
+        final long now = System.nanoTime();
+        final long lastLog = lastCountFailureLog.get();
+        if (now - lastLog >= COUNT_FAILURE_LOG_INTERVAL_NANOS && lastCountFailureLog.compareAndSet(lastLog, now)) {
+            logger.warn("Module {} failed to count a query ({} failures in total).",
+                    queryCounter.getClass().getName(), failures, t);
+        }
+    }
+
+    /**
+     * Returns measurement bus statistics of all reporters.
+     *
+     * @return reporter statistics
+     */
+    public List<ReporterStats> getReporterStats() {
+        return measurementBus.stats();
+    }
+
+    /**
+     * Returns measurement bus statistics of all reporters and resets their longest batch report times.
+     *
+     * @return reporter statistics
+     */
+    public List<ReporterStats> getReporterStatsThenReset() {
+        return measurementBus.statsThenReset();
+    }
+
+    /**
+     * Stops the modules and reporters which were not taken over by the processor replacing this one.
+     *
+     * @param successor processor created with this one as the previous processor
+     */
+    public void retire(final DiagnosticsProcessor successor) {
+        for (Module module : modules) {
+            if (!successor.modules.contains(module)) {
+                logger.info("Shutting down module {}.", moduleConfigurations.get(module).module);
+                module.stop();
+            }
+        }
+        if (successor.measurementBus != measurementBus) {
+            logger.info("Shutting down reporters.");
+            measurementBus.stop();
+            return;
+        }
+        for (Map.Entry<String, Reporter> reporter : reporters.entrySet()) {
+            if (!successor.reporters.containsValue(reporter.getValue())) {
+                logger.info("Shutting down reporter {}.", reporter.getKey());
+                measurementBus.unregister(reporter.getValue());
+            }
+        }
+    }
+
     /**
      * Gracefully stop all modules and reporters.
      */
@@ -131,8 +294,6 @@ public class DiagnosticsProcessor {
             module.stop();
         }
         logger.info("Shutting down reporters.");
-        for (Reporter reporter : reporters.values()) {
-            reporter.stop();
-        }
+        measurementBus.stop();
     }
 }
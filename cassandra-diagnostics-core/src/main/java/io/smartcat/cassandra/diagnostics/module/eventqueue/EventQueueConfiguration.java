@@ -0,0 +1,81 @@
+package io.smartcat.cassandra.diagnostics.module.eventqueue;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.yaml.snakeyaml.Yaml;
+
+import io.smartcat.cassandra.diagnostics.config.ConfigurationException;
+
+/**
+ * Event queue module's configuration.
+ */
+public class EventQueueConfiguration {
+
+    /**
+     * A helper class for constructing immutable outer class.
+     */
+    public static class Values {
+        private static final int DEFAULT_PERIOD = 1;
+        private static final String DEFAULT_TIMEUNIT = "MINUTES";
+
+        /**
+         * Event queue stats reporting period.
+         */
+        public int period = DEFAULT_PERIOD;
+
+        /**
+         * Event queue stats reporting time unit.
+         */
+        public TimeUnit timeunit = TimeUnit.valueOf(DEFAULT_TIMEUNIT);
+    }
+
+    private Values values = new Values();
+
+    private EventQueueConfiguration() {
+
+    }
+
+    /**
+     * Create typed configuration for event queue module out of generic module configuration.
+     *
+     * @param options Module configuration options.
+     * @return typed event queue module configuration from a generic one
+     * @throws ConfigurationException in case the provided options are not valid
+     */
+    public static EventQueueConfiguration create(Map<String, Object> options) throws ConfigurationException {
+        EventQueueConfiguration conf = new EventQueueConfiguration();
+        Yaml yaml = new Yaml();
+        String str = yaml.dumpAsMap(options);
+        conf.values = yaml.loadAs(str, EventQueueConfiguration.Values.class);
+        return conf;
+    }
+
+    /**
+     * Event queue stats reporting period.
+     *
+     * @return reporting period
+     */
+    public int period() {
+        return values.period;
+    }
+
+    /**
+     * Event queue stats reporting time unit.
+     *
+     * @return reporting time unit
+     */
+    public TimeUnit timeunit() {
+        return values.timeunit;
+    }
+
+    /**
+     * Reporting rate in milliseconds.
+     *
+     * @return reporting rate in milliseconds
+     */
+    public long reportingRateInMillis() {
+        return timeunit().toMillis(period());
+    }
+
+}
@@ -0,0 +1,200 @@
+package io.smartcat.cassandra.diagnostics.module.eventqueue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.smartcat.cassandra.diagnostics.DiagnosticsAgent;
+import io.smartcat.cassandra.diagnostics.GlobalConfiguration;
+import io.smartcat.cassandra.diagnostics.Measurement;
+import io.smartcat.cassandra.diagnostics.Tags;
+import io.smartcat.cassandra.diagnostics.config.ConfigurationException;
+import io.smartcat.cassandra.diagnostics.connector.EventQueueStats;
+import io.smartcat.cassandra.diagnostics.connector.ParseCacheStats;
+import io.smartcat.cassandra.diagnostics.module.Module;
+import io.smartcat.cassandra.diagnostics.module.ModuleConfiguration;
+import io.smartcat.cassandra.diagnostics.module.TaskScheduler;
+import io.smartcat.cassandra.diagnostics.module.TaskStats;
+import io.smartcat.cassandra.diagnostics.reporter.Reporter;
+import io.smartcat.cassandra.diagnostics.reporter.ReporterStats;
+
+/**
+ * Event queue module reporting how many intercepted queries the connector accepted, dropped, sampled out and evicted.
+ * It tells whether the numbers reported by query based modules are complete under load. If the connector
+ * caches metadata parsed out of non-prepared query strings, the cache hits and misses are reported as well. For
+ * every reporter, the measurements it reported, dropped on a full queue and failed to report are reported together
+ * with the time spent reporting them. For every periodic task of the modules, its runs, failures, overruns and run
+ * time are reported.
+ */
+public class EventQueueModule extends Module {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventQueueModule.class);
+
+    private static final String DEFAULT_MEASUREMENT_NAME = "event_queue";
+
+    private static final String PARSE_CACHE_MEASUREMENT_NAME = "parse_cache";
+
+    private static final String REPORTER_QUEUE_MEASUREMENT_NAME = "reporter_queue";
+
+    private static final String SCHEDULED_TASK_MEASUREMENT_NAME = "scheduled_task";
+
+    private static final String EVENT_QUEUE_TASK_NAME = "event-queue";
+
+    private final String service;
+
+    private final Tags hostTags;
+
+    private final Measurement.Builder measurementBuilder;
+
+    private EventQueueStats lastStats;
+
+    private ParseCacheStats lastParseCacheStats;
+
+    private final Map<String, ReporterStats> lastReporterStats = new HashMap<>();
+
+    private Map<Long, TaskStats> lastTaskStats = new HashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param configuration        Module configuration
+     * @param reporters            Reporter list
+     * @param globalConfiguration  Global diagnostics configuration
+     * @throws ConfigurationException in case the provided module configuration is not valid
+     */
+    public EventQueueModule(ModuleConfiguration configuration, List<Reporter> reporters,
+            final GlobalConfiguration globalConfiguration) throws ConfigurationException {
+        super(configuration, reporters, globalConfiguration);
+
+        EventQueueConfiguration config = EventQueueConfiguration.create(configuration.options);
+        service = configuration.getMeasurementOrDefault(DEFAULT_MEASUREMENT_NAME);
+        hostTags = Tags.of("host", globalConfiguration.hostname, "systemName", globalConfiguration.systemName);
+        measurementBuilder = Measurement.builder(service);
+
+        logger.info("Event queue module initialized with {} {} reporting period.", config.period(),
+                config.timeunit().name());
+        schedule(EVENT_QUEUE_TASK_NAME, new EventQueueTask(), config.reportingRateInMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        logger.trace("Stopping event queue module.");
+        super.stop();
+    }
+
+    /**
+     * Event queue stats task that's executed at configured period.
+     */
+    private class EventQueueTask implements Runnable {
+        @Override
+        public void run() {
+            EventQueueStats stats = DiagnosticsAgent.getEventQueueStats();
+            if (stats == null) {
+                logger.warn("Event queue stats are not available.");
+                return;
+            }
+            report(createMeasurement(stats, lastStats));
+            lastStats = stats;
+
+            ParseCacheStats parseCacheStats = DiagnosticsAgent.getParseCacheStats();
+            if (parseCacheStats != null) {
+                report(createMeasurement(parseCacheStats, lastParseCacheStats));
+                lastParseCacheStats = parseCacheStats;
+            }
+
+            List<ReporterStats> reporterStats = DiagnosticsAgent.getReporterStatsThenReset();
+            if (reporterStats != null) {
+                for (ReporterStats reporter : reporterStats) {
+                    report(createMeasurement(reporter, lastReporterStats.get(reporter.reporter)));
+                    lastReporterStats.put(reporter.reporter, reporter);
+                }
+            }
+
+            // keyed by task id, so that tasks of restarted modules and tasks sharing a name are tracked apart and
+            // stats of cancelled tasks are dropped
+            final Map<Long, TaskStats> taskStats = new HashMap<>();
+            for (TaskStats task : TaskScheduler.shared().statsThenReset()) {
+                report(createMeasurement(task, lastTaskStats.get(task.id)));
+                taskStats.put(task.id, task);
+            }
+            lastTaskStats = taskStats;
+        }
+    }
+
+    private Measurement createMeasurement(EventQueueStats stats, EventQueueStats previous) {
+        return measurementBuilder.name(service).time(System.currentTimeMillis(), TimeUnit.MILLISECONDS)
+                .tags(hostTags.with("policy", stats.policy.name()))
+                .field("accepted", stats.accepted - (previous == null ? 0 : previous.accepted))
+                .field("dropped", stats.dropped - (previous == null ? 0 : previous.dropped))
+                .field("sampled", stats.sampled - (previous == null ? 0 : previous.sampled))
+                .field("evicted", stats.evicted - (previous == null ? 0 : previous.evicted))
+                .field("totalAccepted", stats.accepted)
+                .field("totalDropped", stats.dropped)
+                .field("totalSampled", stats.sampled)
+                .field("totalEvicted", stats.evicted)
+                .field("queued", stats.queued)
+                .build();
+    }
+
+    private Measurement createMeasurement(ParseCacheStats stats, ParseCacheStats previous) {
+        return measurementBuilder.name(PARSE_CACHE_MEASUREMENT_NAME)
+                .time(System.currentTimeMillis(), TimeUnit.MILLISECONDS).tags(hostTags)
+                .field("hits", stats.hits - (previous == null ? 0 : previous.hits))
+                .field("misses", stats.misses - (previous == null ? 0 : previous.misses))
+                .field("totalHits", stats.hits)
+                .field("totalMisses", stats.misses)
+                .field("size", stats.size)
+                .build();
+    }
+
+    private Measurement createMeasurement(ReporterStats stats, ReporterStats previous) {
+        final long batches = stats.batches - (previous == null ? 0 : previous.batches);
+        final long reportTime = stats.reportTimeInNanoseconds
+                - (previous == null ? 0 : previous.reportTimeInNanoseconds);
+
+        return measurementBuilder.name(REPORTER_QUEUE_MEASUREMENT_NAME)
+                .time(System.currentTimeMillis(), TimeUnit.MILLISECONDS).tags(hostTags.with("reporter", stats.reporter))
+                .field("delivered", stats.delivered - (previous == null ? 0 : previous.delivered))
+                .field("dropped", stats.dropped - (previous == null ? 0 : previous.dropped))
+                .field("failed", stats.failed - (previous == null ? 0 : previous.failed))
+                .field("totalDelivered", stats.delivered)
+                .field("totalDropped", stats.dropped)
+                .field("totalFailed", stats.failed)
+                .field("queued", stats.queued)
+                .field("batches", batches)
+                .field("avgBatchReportTime", batches == 0 ? 0 : toMillis(reportTime) / batches)
+                .field("maxBatchReportTime", toMillis(stats.maxBatchReportTimeInNanoseconds))
+                .build();
+    }
+
+    private Measurement createMeasurement(TaskStats stats, TaskStats previous) {
+        if (previous != null && (stats.runs < previous.runs || stats.failures < previous.failures
+                || stats.overruns < previous.overruns || stats.runTimeInNanoseconds < previous.runTimeInNanoseconds)) {
+            // decreasing totals mean the task has been reset
+            previous = null;
+        }
+        final long runs = stats.runs - (previous == null ? 0 : previous.runs);
+        final long runTime = stats.runTimeInNanoseconds - (previous == null ? 0 : previous.runTimeInNanoseconds);
+
+        return measurementBuilder.name(SCHEDULED_TASK_MEASUREMENT_NAME)
+                .time(System.currentTimeMillis(), TimeUnit.MILLISECONDS).tags(hostTags.with("task", stats.task))
+                .field("runs", runs)
+                .field("failures", stats.failures - (previous == null ? 0 : previous.failures))
+                .field("overruns", stats.overruns - (previous == null ? 0 : previous.overruns))
+                .field("totalRuns", stats.runs)
+                .field("totalFailures", stats.failures)
+                .field("totalOverruns", stats.overruns)
+                .field("avgRunTime", runs == 0 ? 0 : toMillis(runTime) / runs)
+                .field("maxRunTime", toMillis(stats.maxRunTimeInNanoseconds))
+                .build();
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1000000.0;
+    }
+
+}
@@ -1,10 +1,9 @@
 package io.smartcat.cassandra.diagnostics.module.health;
 
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Timer;
-import java.util.TimerTask;
 import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
@@ -15,6 +14,8 @@ import io.smartcat.cassandra.diagnostics.GlobalConfiguration;
 import io.smartcat.cassandra.diagnostics.Measurement;
 import io.smartcat.cassandra.diagnostics.config.ConfigurationException;
 import io.smartcat.cassandra.diagnostics.info.InfoProvider;
+import io.smartcat.cassandra.diagnostics.info.InfoSnapshot;
+import io.smartcat.cassandra.diagnostics.info.InfoSnapshot.Section;
 import io.smartcat.cassandra.diagnostics.module.Module;
 import io.smartcat.cassandra.diagnostics.module.ModuleConfiguration;
 import io.smartcat.cassandra.diagnostics.reporter.Reporter;
@@ -26,7 +27,7 @@ public class ClusterHealthModule extends Module {
 
     private static final Logger logger = LoggerFactory.getLogger(ClusterHealthModule.class);
 
-    private static final String STATUS_THREAD_NAME = "unreachable-nodes-module";
+    private static final String CLUSTER_HEALTH_TASK_NAME = "cluster-health";
 
     private static final String DEFAULT_NUMBER_OF_UNREACHABLE_NODES_MEASUREMENT_NAME = "number_of_unreachable_nodes";
 
@@ -36,8 +37,6 @@ public class ClusterHealthModule extends Module {
 
     private final boolean numberOfUnreachableNodesEnabled;
 
-    private final Timer timer;
-
     private final InfoProvider infoProvider;
 
     /**
@@ -61,27 +60,29 @@ public class ClusterHealthModule extends Module {
         infoProvider = DiagnosticsAgent.getInfoProvider();
         if (infoProvider == null) {
             logger.warn("Failed to initialize StatusModule. Info provider is null");
-            timer = null;
         } else {
-            timer = new Timer(STATUS_THREAD_NAME);
-            timer.scheduleAtFixedRate(new ClusterHealthTask(), 0, config.reportingRateInMillis());
+            schedule(CLUSTER_HEALTH_TASK_NAME, new ClusterHealthTask(), config.reportingRateInMillis(),
+                    TimeUnit.MILLISECONDS);
         }
     }
 
     @Override
     public void stop() {
         logger.trace("Stopping status module.");
-        timer.cancel();
+        super.stop();
     }
 
     /**
      * Cluster health collector task that's executed at configured period.
      */
-    private class ClusterHealthTask extends TimerTask {
+    private class ClusterHealthTask implements Runnable {
         @Override
         public void run() {
             if (numberOfUnreachableNodesEnabled) {
-                report(createMeasurement(infoProvider.getUnreachableNodes().size()));
+                final InfoSnapshot snapshot = infoProvider.snapshot(EnumSet.of(Section.UNREACHABLE_NODES));
+                if (snapshot.has(Section.UNREACHABLE_NODES)) {
+                    report(createMeasurement(snapshot.unreachableNodes.size()));
+                }
             }
         }
     }
@@ -3,8 +3,6 @@ package io.smartcat.cassandra.diagnostics.module.heartbeat;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Timer;
-import java.util.TimerTask;
 import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
@@ -26,12 +24,10 @@ public class HeartbeatModule extends Module {
 
     private static final String DEFAULT_MEASUREMENT_NAME = "heartbeat";
 
-    private static final String HEARTBEAT_THREAD_NAME = "heartbeat-timer";
+    private static final String HEARTBEAT_TASK_NAME = "heartbeat";
 
     private final String service;
 
-    private final Timer timer;
-
     /**
      * Constructor.
      *
@@ -49,20 +45,19 @@ public class HeartbeatModule extends Module {
 
         logger.info("Heartbeat module initialized with {} {} reporting period.", config.period(),
                 config.timeunit().name());
-        timer = new Timer(HEARTBEAT_THREAD_NAME);
-        timer.schedule(new HeartbeatTask(), 0, config.reportingRateInMillis());
+        schedule(HEARTBEAT_TASK_NAME, new HeartbeatTask(), config.reportingRateInMillis(), TimeUnit.MILLISECONDS);
     }
 
     @Override
     public void stop() {
         logger.trace("Stopping heartbeat module.");
-        timer.cancel();
+        super.stop();
     }
 
     /**
      * Heartbeat task that's executed at configured periods.
      */
-    private class HeartbeatTask extends TimerTask {
+    private class HeartbeatTask implements Runnable {
         @Override
         public void run() {
             report(createMeasurement());
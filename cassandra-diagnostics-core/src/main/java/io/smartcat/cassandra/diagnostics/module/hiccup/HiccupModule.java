@@ -1,17 +1,7 @@
 package io.smartcat.cassandra.diagnostics.module.hiccup;
 
-import static io.smartcat.cassandra.diagnostics.module.hiccup.HiccupModule.Percentage.P100;
-import static io.smartcat.cassandra.diagnostics.module.hiccup.HiccupModule.Percentage.P90_0;
-import static io.smartcat.cassandra.diagnostics.module.hiccup.HiccupModule.Percentage.P95_0;
-import static io.smartcat.cassandra.diagnostics.module.hiccup.HiccupModule.Percentage.P99_0;
-import static io.smartcat.cassandra.diagnostics.module.hiccup.HiccupModule.Percentage.P99_9;
-import static io.smartcat.cassandra.diagnostics.module.hiccup.HiccupModule.Percentage.P99_99;
-import static io.smartcat.cassandra.diagnostics.module.hiccup.HiccupModule.Percentage.P99_999;
-
 import java.lang.management.ManagementFactory;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import org.HdrHistogram.Histogram;
@@ -21,6 +11,7 @@ import org.slf4j.LoggerFactory;
 
 import io.smartcat.cassandra.diagnostics.GlobalConfiguration;
 import io.smartcat.cassandra.diagnostics.Measurement;
+import io.smartcat.cassandra.diagnostics.Tags;
 import io.smartcat.cassandra.diagnostics.config.ConfigurationException;
 import io.smartcat.cassandra.diagnostics.module.Module;
 import io.smartcat.cassandra.diagnostics.module.ModuleConfiguration;
@@ -149,18 +140,13 @@ public class HiccupModule extends Module {
     }
 
     private Measurement createMeasurement(Histogram histogram) {
-        final Map<String, String> tags = new HashMap<>();
-        tags.put("host", globalConfiguration.hostname);
-        tags.put("systemName", globalConfiguration.systemName);
-        final Map<String, String> fields = new HashMap<>();
-        fields.put(P90_0.name, String.valueOf(histogram.getValueAtPercentile(P90_0.percentage) / NANOS_IN_MILLIS));
-        fields.put(P95_0.name, String.valueOf(histogram.getValueAtPercentile(P95_0.percentage) / NANOS_IN_MILLIS));
-        fields.put(P99_0.name, String.valueOf(histogram.getValueAtPercentile(P99_0.percentage) / NANOS_IN_MILLIS));
-        fields.put(P99_9.name, String.valueOf(histogram.getValueAtPercentile(P99_9.percentage) / NANOS_IN_MILLIS));
-        fields.put(P99_99.name, String.valueOf(histogram.getValueAtPercentile(P99_99.percentage) / NANOS_IN_MILLIS));
-        fields.put(P99_999.name, String.valueOf(histogram.getValueAtPercentile(P99_999.percentage) / NANOS_IN_MILLIS));
-        fields.put(P100.name, String.valueOf(histogram.getValueAtPercentile(P100.percentage) / NANOS_IN_MILLIS));
-        return Measurement.createComplex(service, System.currentTimeMillis(), TimeUnit.MILLISECONDS, tags, fields);
+        final Measurement.Builder builder = Measurement.builder(service)
+                .time(System.currentTimeMillis(), TimeUnit.MILLISECONDS)
+                .tags(Tags.of("host", globalConfiguration.hostname, "systemName", globalConfiguration.systemName));
+        for (Percentage percentage : Percentage.values()) {
+            builder.field(percentage.name, histogram.getValueAtPercentile(percentage.percentage) / NANOS_IN_MILLIS);
+        }
+        return builder.build();
     }
 
     /**
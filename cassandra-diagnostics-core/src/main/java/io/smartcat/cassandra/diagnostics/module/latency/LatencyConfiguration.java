@@ -0,0 +1,144 @@
+package io.smartcat.cassandra.diagnostics.module.latency;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.yaml.snakeyaml.Yaml;
+
+import io.smartcat.cassandra.diagnostics.config.ConfigurationException;
+
+/**
+ * Latency module's configuration.
+ */
+public class LatencyConfiguration {
+
+    /**
+     * A helper class for constructing immutable outer class.
+     */
+    public static class Values {
+        private static final int DEFAULT_PERIOD = 1;
+        private static final String DEFAULT_TIMEUNIT = "MINUTES";
+        private static final int DEFAULT_MAX_TABLES = 100;
+
+        // default to 1usec best-case resolution
+        private static final long DEFAULT_LOWEST_TRACKABLE_VALUE_IN_NANOS = 1000L;
+        private static final long DEFAULT_HIGHEST_TRACKABLE_VALUE_IN_NANOS = 3600 * 1000L * 1000L * 1000L;
+        private static final int DEFAULT_NUMBER_OF_SIGNIFICANT_VALUE_DIGITS = 2;
+
+        /**
+         * Latency reporting period.
+         */
+        public int period = DEFAULT_PERIOD;
+
+        /**
+         * Latency reporting period's time unit.
+         */
+        public TimeUnit timeunit = TimeUnit.valueOf(DEFAULT_TIMEUNIT);
+
+        /**
+         * Maximum number of tables tracked separately. Latencies of further tables are recorded
+         * under the other bucket.
+         */
+        public int maxTables = DEFAULT_MAX_TABLES;
+
+        /**
+         * Lowest trackable value.
+         */
+        public long lowestTrackableValueInNanos = DEFAULT_LOWEST_TRACKABLE_VALUE_IN_NANOS;
+
+        /**
+         * Highest trackable value.
+         */
+        public long highestTrackableValueInNanos = DEFAULT_HIGHEST_TRACKABLE_VALUE_IN_NANOS;
+
+        /**
+         * Number of significat value digits.
+         */
+        public int numberOfSignificantValueDigits = DEFAULT_NUMBER_OF_SIGNIFICANT_VALUE_DIGITS;
+    }
+
+    private Values values = new Values();
+
+    private LatencyConfiguration() {
+
+    }
+
+    /**
+     * Create typed configuration for latency module out of generic module configuration.
+     *
+     * @param options Module configuration options.
+     * @return typed latency module configuration from a generic one
+     * @throws ConfigurationException in case the provided options are not valid
+     */
+    public static LatencyConfiguration create(Map<String, Object> options) throws ConfigurationException {
+        LatencyConfiguration conf = new LatencyConfiguration();
+        Yaml yaml = new Yaml();
+        String str = yaml.dumpAsMap(options);
+        conf.values = yaml.loadAs(str, LatencyConfiguration.Values.class);
+        return conf;
+    }
+
+    /**
+     * Latency reporting period.
+     *
+     * @return reporting period
+     */
+    public int period() {
+        return values.period;
+    }
+
+    /**
+     * Latency reporting time unit.
+     *
+     * @return reporting time unit
+     */
+    public TimeUnit timeunit() {
+        return values.timeunit;
+    }
+
+    /**
+     * Reporting rate in milliseconds.
+     *
+     * @return reporting rate in milliseconds
+     */
+    public long reportingRateInMillis() {
+        return timeunit().toMillis(period());
+    }
+
+    /**
+     * Maximum number of tables tracked separately.
+     *
+     * @return maximum number of tables
+     */
+    public int maxTables() {
+        return values.maxTables;
+    }
+
+    /**
+     * Lowest trackable value.
+     *
+     * @return lowest trackable value
+     */
+    public long lowestTrackableValueInNanos() {
+        return values.lowestTrackableValueInNanos;
+    }
+
+    /**
+     * Highest trackable value.
+     *
+     * @return highest trackable value
+     */
+    public long highestTrackableValueInNanos() {
+        return values.highestTrackableValueInNanos;
+    }
+
+    /**
+     * Number of significat value digits.
+     *
+     * @return number of significat value digits
+     */
+    public int numberOfSignificantValueDigits() {
+        return values.numberOfSignificantValueDigits;
+    }
+
+}
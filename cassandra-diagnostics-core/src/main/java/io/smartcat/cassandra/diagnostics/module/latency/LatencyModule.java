@@ -0,0 +1,213 @@
+package io.smartcat.cassandra.diagnostics.module.latency;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.smartcat.cassandra.diagnostics.DiagnosticsAgent;
+import io.smartcat.cassandra.diagnostics.GlobalConfiguration;
+import io.smartcat.cassandra.diagnostics.Measurement;
+import io.smartcat.cassandra.diagnostics.Query;
+import io.smartcat.cassandra.diagnostics.Query.StatementType;
+import io.smartcat.cassandra.diagnostics.Tags;
+import io.smartcat.cassandra.diagnostics.config.ConfigurationException;
+import io.smartcat.cassandra.diagnostics.connector.ConnectorConfiguration;
+import io.smartcat.cassandra.diagnostics.connector.QueryFilter;
+import io.smartcat.cassandra.diagnostics.module.Module;
+import io.smartcat.cassandra.diagnostics.module.ModuleConfiguration;
+import io.smartcat.cassandra.diagnostics.reporter.Reporter;
+
+/**
+ * Latency module providing per table query latency percentiles, as seen by the clients, at defined intervals.
+ * Latencies are recorded into HdrHistogram recorders, one per keyspace, table and statement type. Recording is
+ * lock-free. Once the configured number of tables is tracked, latencies of further tables are recorded under
+ * the <code>other</code> bucket. Percentiles of queries left after the connector's query filter would be biased
+ * towards slow queries, so the module does not start if the connector filters queries.
+ */
+public class LatencyModule extends Module {
+
+    private static final Logger logger = LoggerFactory.getLogger(LatencyModule.class);
+
+    private static final String DEFAULT_MEASUREMENT_NAME = "latency";
+
+    private static final String LATENCY_TASK_NAME = "latency";
+
+    /**
+     * Keyspace and table name of the bucket holding latencies of tables above the tracked limit.
+     */
+    static final String OTHER = "other";
+
+    private static final double NANOS_IN_MILLIS = 1000000d;
+
+    private static final StatementType[] STATEMENT_TYPES = StatementType.values();
+
+    private final LatencyConfiguration config;
+
+    private final Measurement.Builder measurementBuilder;
+
+    private final ConcurrentMap<String, ConcurrentMap<String, TableLatency>> tables = new ConcurrentHashMap<>();
+
+    private final List<TableLatency> trackedTables = new CopyOnWriteArrayList<>();
+
+    private final TableLatency other = new TableLatency(OTHER, OTHER);
+
+    /**
+     * Constructor.
+     *
+     * @param configuration       Module configuration
+     * @param reporters           Reporter list
+     * @param globalConfiguration Global diagnostics configuration
+     * @throws ConfigurationException in case the provided module configuration is not valid or the connector filters
+     *                                queries
+     */
+    public LatencyModule(ModuleConfiguration configuration, List<Reporter> reporters,
+            final GlobalConfiguration globalConfiguration) throws ConfigurationException {
+        super(configuration, reporters, globalConfiguration);
+
+        requireUnfilteredQueries(DiagnosticsAgent.getConnectorConfiguration());
+        config = LatencyConfiguration.create(configuration.options);
+        measurementBuilder = Measurement.builder(configuration.getMeasurementOrDefault(DEFAULT_MEASUREMENT_NAME));
+
+        logger.info("Latency module initialized with {} {} reporting period, tracking up to {} tables.",
+                config.period(), config.timeunit().name(), config.maxTables());
+        schedule(LATENCY_TASK_NAME, new LatencyTask(), config.reportingRateInMillis(), TimeUnit.MILLISECONDS, false);
+    }
+
+    /**
+     * Fails if the connector, when running, filters queries before they reach query processing modules.
+     */
+    static void requireUnfilteredQueries(final ConnectorConfiguration connectorConfiguration)
+            throws ConfigurationException {
+        if (connectorConfiguration != null && new QueryFilter(connectorConfiguration).filtersQueries()) {
+            throw new ConfigurationException("Latency module requires all queries, but the connector filters them "
+                    + "by minExecutionTimeInMilliseconds or querySamplingRate.");
+        }
+    }
+
+    @Override
+    public void process(Query query) {
+        tableLatency(query.keyspace(), query.tableName()).record(query.statementType(),
+                query.executionTimeInNanoseconds());
+    }
+
+    @Override
+    public void stop() {
+        logger.trace("Stopping latency module.");
+        super.stop();
+    }
+
+    private TableLatency tableLatency(final String keyspace, final String table) {
+        final ConcurrentMap<String, TableLatency> keyspaceTables = tables.get(keyspace == null ? "" : keyspace);
+        if (keyspaceTables != null) {
+            final TableLatency tableLatency = keyspaceTables.get(table == null ? "" : table);
+            if (tableLatency != null) {
+                return tableLatency;
+            }
+        }
+        return register(keyspace == null ? "" : keyspace, table == null ? "" : table);
+    }
+
+    /**
+     * Registers a table seen for the first time. Tables above the tracked limit are mapped to the other bucket,
+     * so the registration happens only once per table.
+     */
+    private synchronized TableLatency register(final String keyspace, final String table) {
+        ConcurrentMap<String, TableLatency> keyspaceTables = tables.get(keyspace);
+        if (keyspaceTables == null) {
+            keyspaceTables = new ConcurrentHashMap<>();
+            tables.put(keyspace, keyspaceTables);
+        }
+        TableLatency tableLatency = keyspaceTables.get(table);
+        if (tableLatency == null) {
+            if (trackedTables.size() < config.maxTables()) {
+                tableLatency = new TableLatency(keyspace, table);
+                trackedTables.add(tableLatency);
+            } else {
+                logger.debug("Latency of {}.{} is recorded under {} bucket.", keyspace, table, OTHER);
+                tableLatency = other;
+            }
+            keyspaceTables.put(table, tableLatency);
+        }
+        return tableLatency;
+    }
+
+    /**
+     * Latency recorders of a single table, one per statement type, created on first use.
+     */
+    private class TableLatency {
+
+        private final Tags[] tags = new Tags[STATEMENT_TYPES.length];
+
+        private final AtomicReferenceArray<Recorder> recorders = new AtomicReferenceArray<>(STATEMENT_TYPES.length);
+
+        private final Histogram[] intervalHistograms = new Histogram[STATEMENT_TYPES.length];
+
+        TableLatency(final String keyspace, final String table) {
+            for (int i = 0; i < STATEMENT_TYPES.length; i++) {
+                tags[i] = Tags.of("host", globalConfiguration.hostname, "systemName", globalConfiguration.systemName,
+                        "keyspace", keyspace, "table", table, "statementType", STATEMENT_TYPES[i].name());
+            }
+        }
+
+        void record(final StatementType statementType, final long executionTimeInNanoseconds) {
+            final int index = statementType.ordinal();
+            Recorder recorder = recorders.get(index);
+            if (recorder == null) {
+                recorders.compareAndSet(index, null, new Recorder(config.lowestTrackableValueInNanos(),
+                        config.highestTrackableValueInNanos(), config.numberOfSignificantValueDigits()));
+                recorder = recorders.get(index);
+            }
+            recorder.recordValue(Math.min(executionTimeInNanoseconds, config.highestTrackableValueInNanos()));
+        }
+
+        void report(final List<Measurement> measurements) {
+            for (int i = 0; i < STATEMENT_TYPES.length; i++) {
+                final Recorder recorder = recorders.get(i);
+                if (recorder == null) {
+                    continue;
+                }
+                intervalHistograms[i] = recorder.getIntervalHistogram(intervalHistograms[i]);
+                if (intervalHistograms[i].getTotalCount() > 0) {
+                    measurements.add(createMeasurement(tags[i], intervalHistograms[i]));
+                }
+            }
+        }
+    }
+
+    /**
+     * Latency reporting task that's executed at configured period.
+     */
+    private class LatencyTask implements Runnable {
+        @Override
+        public void run() {
+            final List<Measurement> measurements = new ArrayList<>();
+            for (TableLatency tableLatency : trackedTables) {
+                tableLatency.report(measurements);
+            }
+            other.report(measurements);
+            report(measurements);
+        }
+    }
+
+    private Measurement createMeasurement(final Tags tags, final Histogram histogram) {
+        return measurementBuilder.time(System.currentTimeMillis(), TimeUnit.MILLISECONDS).tags(tags)
+                .field("count", histogram.getTotalCount())
+                .field("p50", histogram.getValueAtPercentile(50.0) / NANOS_IN_MILLIS)
+                .field("p75", histogram.getValueAtPercentile(75.0) / NANOS_IN_MILLIS)
+                .field("p95", histogram.getValueAtPercentile(95.0) / NANOS_IN_MILLIS)
+                .field("p99", histogram.getValueAtPercentile(99.0) / NANOS_IN_MILLIS)
+                .field("p999", histogram.getValueAtPercentile(99.9) / NANOS_IN_MILLIS)
+                .field("max", histogram.getMaxValue() / NANOS_IN_MILLIS)
+                .build();
+    }
+
+}
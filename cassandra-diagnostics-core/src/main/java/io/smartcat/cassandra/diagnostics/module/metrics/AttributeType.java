@@ -0,0 +1,92 @@
+package io.smartcat.cassandra.diagnostics.module.metrics;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Type of an mbean attribute value, resolved once when an mbean is added so that values are converted to double
+ * without probing them on every collection.
+ */
+public enum AttributeType {
+
+    /**
+     * Value is a {@link Number}, converted without allocation.
+     */
+    NUMBER,
+
+    /**
+     * Value is text holding a number, parsed on every read.
+     */
+    TEXT,
+
+    /**
+     * Value is not a number and the attribute is not collected.
+     */
+    NONE,
+
+    /**
+     * Declared type does not tell, e.g. {@link Object}, so the value has to be read to resolve the type.
+     */
+    UNKNOWN;
+
+    private static final Set<String> NUMBER_TYPES = new HashSet<>(Arrays.asList("byte", "short", "int", "long",
+            "float", "double", Byte.class.getName(), Short.class.getName(), Integer.class.getName(),
+            Long.class.getName(), Float.class.getName(), Double.class.getName()));
+
+    private static final Set<String> NONE_TYPES = new HashSet<>(Arrays.asList("boolean", "char", "void",
+            Boolean.class.getName(), Character.class.getName(), Void.class.getName()));
+
+    /**
+     * Resolves the type of an attribute from its declared class name.
+     *
+     * @param className declared attribute class name
+     * @return attribute type
+     */
+    public static AttributeType ofDeclaredType(final String className) {
+        if (NUMBER_TYPES.contains(className)) {
+            return NUMBER;
+        } else if (NONE_TYPES.contains(className) || className.startsWith("[")
+                || className.startsWith("javax.management.openmbean.")) {
+            return NONE;
+        }
+        return UNKNOWN;
+    }
+
+    /**
+     * Resolves the type of an attribute from its value.
+     *
+     * @param value attribute value
+     * @return attribute type
+     */
+    public static AttributeType ofValue(final Object value) {
+        if (value instanceof Number) {
+            return NUMBER;
+        }
+        if (value != null) {
+            try {
+                Double.parseDouble(value.toString());
+                return TEXT;
+            } catch (NumberFormatException e) {
+                // not a number
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Converts an attribute value of this type to double.
+     *
+     * @param value attribute value
+     * @return double value
+     * @throws NumberFormatException if the value is not a number
+     */
+    public double toDouble(final Object value) {
+        if (this == NUMBER && value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        // the value of an attribute declared as Object may change its type
+        return Double.parseDouble(value.toString());
+    }
+
+}
@@ -1,25 +1,46 @@
 package io.smartcat.cassandra.diagnostics.module.metrics;
 
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
 import java.rmi.server.RMIClientSocketFactory;
 import java.rmi.server.RMISocketFactory;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.regex.Pattern;
 
+import javax.management.Attribute;
+import javax.management.AttributeList;
 import javax.management.InstanceNotFoundException;
 import javax.management.IntrospectionException;
 import javax.management.MBeanAttributeInfo;
 import javax.management.MBeanServerConnection;
+import javax.management.MBeanServerDelegate;
+import javax.management.MBeanServerNotification;
 import javax.management.MalformedObjectNameException;
+import javax.management.Notification;
+import javax.management.NotificationListener;
 import javax.management.ObjectInstance;
 import javax.management.ObjectName;
 import javax.management.ReflectionException;
+import javax.management.relation.MBeanServerNotificationFilter;
 import javax.management.remote.JMXConnector;
 import javax.management.remote.JMXConnectorFactory;
 import javax.management.remote.JMXServiceURL;
@@ -30,6 +51,7 @@ import org.slf4j.LoggerFactory;
 
 import io.smartcat.cassandra.diagnostics.GlobalConfiguration;
 import io.smartcat.cassandra.diagnostics.Measurement;
+import io.smartcat.cassandra.diagnostics.Tags;
 
 /**
  * Metrics collector class. Handles mbeans, jmx connection and collecting metrics.
@@ -38,21 +60,60 @@ public class MetricsCollector {
 
     private static final Logger logger = LoggerFactory.getLogger(MetricsCollector.class);
 
-    private static final String JXM_URL_FORMAT = "service:jmx:rmi:///jndi/rmi://[%s]:%d/jmxrmi";
+    private static final String JXM_URL_FORMAT = "service:jmx:rmi:///jndi/rmi://%s:%d/jmxrmi";
 
     private static final String DEFAULT_SOCKET_FACTORY = "com.sun.jndi.rmi.factory.socket";
 
+    private static final String COLLECTION_MEASUREMENT_NAME = "collection";
+
+    private static final String THREAD_NAME_PREFIX = "diagnostics-metrics-";
+
     private final String service;
 
     private final MetricsConfiguration config;
 
-    private final GlobalConfiguration globalConfiguration;
+    private final Tags tags;
 
     private JMXConnector jmxc;
 
     private MBeanServerConnection mbeanServerConn;
 
-    private Set<MetricsMBean> mbeans = new HashSet<>();
+    /**
+     * Collected mbeans, guarded by this collector. Groups are collected concurrently, holding the lock only to apply
+     * mbean registrations and to take the mbeans of the group.
+     */
+    private final Map<ObjectName, MetricsMBean> mbeans = new LinkedHashMap<>();
+
+    private final List<Group> groups = new ArrayList<>();
+
+    private final Set<String> packageNames = new LinkedHashSet<>();
+
+    private long nextMBeanId = 1;
+
+    private final ExecutorService executor;
+
+    /**
+     * Shards running on the collection threads. A shard still running past its deadline is blocked reading an mbean
+     * and keeps occupying a collection thread.
+     */
+    private final Set<Shard> runningShards = Collections.newSetFromMap(new ConcurrentHashMap<Shard, Boolean>());
+
+    /**
+     * Registrations and unregistrations of mbeans of metrics packages, applied to the collected mbeans on the next
+     * collection. Notifications of an in-process mbean server are delivered on the thread registering the mbean, so
+     * they are only queued.
+     */
+    private final Queue<MBeanServerNotification> registrations = new ConcurrentLinkedQueue<>();
+
+    private final NotificationListener registrationListener = new NotificationListener() {
+        @Override
+        public void handleNotification(Notification notification, Object handback) {
+            if (notification instanceof MBeanServerNotification && packageNames
+                    .contains(((MBeanServerNotification) notification).getMBeanName().getDomain())) {
+                registrations.add((MBeanServerNotification) notification);
+            }
+        }
+    };
 
     /**
      * Constructor.
@@ -65,13 +126,41 @@ public class MetricsCollector {
             final GlobalConfiguration globalConfiguration) {
         this.service = service;
         this.config = config;
-        this.globalConfiguration = globalConfiguration;
+        this.tags = Tags.of("host", globalConfiguration.hostname, "systemName", globalConfiguration.systemName);
+        for (MetricsGroup group : config.groups()) {
+            groups.add(new Group(group));
+            packageNames.addAll(group.metricsPackageNames());
+        }
+        if (config.collectionThreads() > 1) {
+            executor = Executors.newFixedThreadPool(config.collectionThreads(), new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    final Thread thread = new Thread(runnable, THREAD_NAME_PREFIX + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        } else {
+            executor = null;
+        }
     }
 
     /**
-     * Close jmx connection.
+     * Close jmx connection and stop collection threads.
      */
     public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        if (mbeanServerConn != null) {
+            try {
+                mbeanServerConn.removeNotificationListener(MBeanServerDelegate.DELEGATE_NAME, registrationListener);
+            } catch (Exception e) {
+                logger.debug("Failed to remove mbean registration listener", e);
+            }
+        }
         if (jmxc != null) {
             try {
                 jmxc.close();
@@ -83,29 +172,31 @@ public class MetricsCollector {
     }
 
     /**
-     * Open jmx connection and collect mbeans matching configuration defined patterns.
+     * Open jmx connection and collect mbeans matching configuration defined patterns. In process, the platform mbean
+     * server of this JVM is used directly instead. Mbeans registered or unregistered afterwards, e.g. of created or
+     * dropped tables, are added to or removed from collected mbeans as the mbean server notifies about them.
      *
      * @return success of connect and collect
      */
     public boolean connect() {
         try {
-            JMXServiceURL jmxUrl = new JMXServiceURL(String.format(JXM_URL_FORMAT, config.jmxHost(), config.jmxPort()));
-            Map<String, Object> env = new HashMap<String, Object>();
-            if (config.jmxSslEnabled()) {
-                String[] creds = new String[2];
-                creds[0] = config.jmxSslUsername();
-                creds[1] = config.jmxSslPassword();
-                env.put(JMXConnector.CREDENTIALS, creds);
+            if (config.jmxInProcess()) {
+                mbeanServerConn = ManagementFactory.getPlatformMBeanServer();
+            } else {
+                connectRemote();
             }
 
-            env.put(DEFAULT_SOCKET_FACTORY, getRMIClientSocketFactory());
+            final MBeanServerNotificationFilter filter = new MBeanServerNotificationFilter();
+            filter.enableAllObjectNames();
+            mbeanServerConn.addNotificationListener(MBeanServerDelegate.DELEGATE_NAME, registrationListener, filter,
+                    null);
 
-            jmxc = JMXConnectorFactory.connect(jmxUrl, env);
-            mbeanServerConn = jmxc.getMBeanServerConnection();
-
-            for (String packageName : config.metricsPackageNames()) {
+            // the listener is added first, so that no mbean registered in the meantime is missed
+            for (String packageName : packageNames) {
                 String queryName = String.format("%s:*", packageName);
-                mbeans.addAll(filterMBeans(packageName, mbeanServerConn.queryMBeans(new ObjectName(queryName), null)));
+                for (ObjectInstance objectInstance : mbeanServerConn.queryMBeans(new ObjectName(queryName), null)) {
+                    addMBean(packageName, objectInstance);
+                }
             }
 
             return true;
@@ -113,104 +204,470 @@ public class MetricsCollector {
             logger.error("Cannot connect to jmx on {}:{}", config.jmxHost(), config.jmxPort(), e);
         } catch (MalformedObjectNameException e) {
             logger.error("Failed to query by object name", e);
-        } catch (ReflectionException | IntrospectionException | InstanceNotFoundException e) {
-            logger.error("Failed to get mbean attributes", e);
+        } catch (InstanceNotFoundException e) {
+            logger.error("Failed to listen to mbean registrations", e);
         }
 
         return false;
     }
 
     /**
-     * Collect all measurement using defined mbeans.
+     * Collect measurements of all metrics groups.
      *
      * @return list of measurements
      */
     public List<Measurement> collectMeasurements() {
-        List<Measurement> measurements = new ArrayList<Measurement>();
+        final List<Measurement> measurements = new ArrayList<>();
+        for (Group group : groups) {
+            measurements.addAll(collectMeasurements(group.group));
+        }
+        return measurements;
+    }
 
-        for (final MetricsMBean mbean : mbeans) {
-            for (final MBeanAttributeInfo attribute : mbean.getMBeanAttributes()) {
-                try {
-                    final ObjectName mbeanObjectName = mbean.getMBean().getObjectName();
-                    if (mbeanServerConn.isRegistered(mbeanObjectName)) {
-                        final Object value = mbeanServerConn.getAttribute(mbeanObjectName, attribute.getName());
-
-                        if (value != null) {
-                            measurements.add(createMeasurement(
-                                    service + config.metricsSeparator() + mbean.getMeasurementName()
-                                            + config.metricsSeparator() + attribute.getName(),
-                                    Double.parseDouble(value.toString())));
-                        }
+    /**
+     * Collect all measurement of a metrics group using its mbeans, after applying mbean registrations since the
+     * previous collection of any group. All attributes of an mbean are read at once. Mbeans are split into shards read
+     * in parallel, if configured, and mbeans not read by the collection deadline are skipped. Collection threads
+     * still blocked reading an mbean of a previous collection are not given another shard. Depending on
+     * configuration, values unchanged since last reported are left out and counters are reported as delta from the
+     * previous value. A measurement reporting the collection time, the number of mbean server calls, the number of
+     * group mbeans, the number of added, removed and skipped mbeans, the share of mbeans read, the number of values
+     * left out and the number of overdue shards is added as well. Different groups are collected concurrently, so
+     * that a slow group does not delay the others.
+     *
+     * @param metricsGroup metrics group to collect
+     * @return list of measurements
+     */
+    public List<Measurement> collectMeasurements(final MetricsGroup metricsGroup) {
+        final Group group = group(metricsGroup);
+        synchronized (group) {
+            return collectMeasurements(group);
+        }
+    }
+
+    private List<Measurement> collectMeasurements(final Group group) {
+        final MetricsGroup metricsGroup = group.group;
+        final long start = System.nanoTime();
+        final long now = System.currentTimeMillis();
+        List<Measurement> measurements = new ArrayList<Measurement>();
+        long calls = 0;
+        long added = 0;
+        long removed = 0;
+        long skipped = 0;
+        long unreported = 0;
+
+        final List<MetricsMBean> batch;
+        synchronized (this) {
+            MBeanServerNotification registration;
+            while ((registration = registrations.poll()) != null) {
+                final ObjectName mbeanObjectName = registration.getMBeanName();
+                if (MBeanServerNotification.REGISTRATION_NOTIFICATION.equals(registration.getType())) {
+                    if (!mbeans.containsKey(mbeanObjectName) && addMBean(mbeanObjectName)) {
+                        added++;
                     }
+                } else if (mbeans.containsKey(mbeanObjectName)) {
+                    removeMBean(mbeans.remove(mbeanObjectName));
+                    removed++;
+                }
+            }
 
-                } catch (Exception e) {
-                    logger.error("Exception while reading attribute {} of type {}", attribute.getName(),
-                            attribute.getType(), e);
+            batch = new ArrayList<>(mbeans.size());
+            for (MetricsMBean mbean : mbeans.values()) {
+                if (mbean.isInGroup(group.index)) {
+                    batch.add(mbean);
                 }
             }
         }
+        group.forgetRemovedMBeans();
+
+        final long deadlineInMillis = metricsGroup.collectionDeadlineInMillis();
+        final int overdue = overdueShards();
+        if (overdue > 0) {
+            logger.debug("{} collection threads are still reading mbeans past the deadline", overdue);
+        }
+        final AtomicReferenceArray<Object> results = readAttributes(batch, config.collectionThreads() - overdue,
+                start + TimeUnit.MILLISECONDS.toNanos(deadlineInMillis));
+        for (int i = 0; i < batch.size(); i++) {
+            final MetricsMBean mbean = batch.get(i);
+            final ObjectName mbeanObjectName = mbean.getMBean().getObjectName();
+            if (mbean.getAttributeNames().length == 0) {
+                continue;
+            }
+            final Object result = results.get(i);
+            if (result == null) {
+                skipped++;
+                continue;
+            }
+            calls++;
+            if (result instanceof InstanceNotFoundException) {
+                // unregistered before the notification about it arrived
+                logger.debug("MBean {} is not registered", mbeanObjectName);
+                synchronized (this) {
+                    if (mbeans.get(mbeanObjectName) == mbean) {
+                        mbeans.remove(mbeanObjectName);
+                        removeMBean(mbean);
+                        removed++;
+                    }
+                }
+            } else if (result instanceof Exception) {
+                logger.error("Exception while reading attributes of mbean {}", mbeanObjectName, result);
+            } else {
+                unreported += addMeasurements(group, mbean, (AttributeList) result, now, measurements);
+            }
+        }
+        if (skipped > 0) {
+            logger.debug("Skipped {} mbeans of {} not read within {} ms", skipped, metricsGroup, deadlineInMillis);
+        }
+
+        measurements.add(group.measurementBuilder.name(group.collectionMeasurementName)
+                .time(now, TimeUnit.MILLISECONDS).tags(tags)
+                .field("duration", (System.nanoTime() - start) / 1000000.0)
+                .field("calls", calls)
+                .field("mbeans", (long) batch.size())
+                .field("addedMBeans", added)
+                .field("removedMBeans", removed)
+                .field("skippedMBeans", skipped)
+                .field("completeness", calls + skipped == 0 ? 1.0 : (double) calls / (calls + skipped))
+                .field("unreportedValues", unreported)
+                .field("overdueShards", (long) overdue)
+                .build());
 
         return measurements;
     }
 
-    private Measurement createMeasurement(final String service, final double value) {
-        final Map<String, String> tags = new HashMap<>(2);
-        tags.put("host", globalConfiguration.hostname);
-        tags.put("systemName", globalConfiguration.systemName);
-        return Measurement.createSimple(service, value, System.currentTimeMillis(), TimeUnit.MILLISECONDS, tags,
-                new HashMap<String, String>());
+    /**
+     * Reads attributes of the given mbeans until the deadline, on the collection threads if configured. The result of
+     * an mbean is its attribute list, the exception thrown reading it, or null if it was not read in time. Mbeans are
+     * split into as many shards as there are collection threads free, none are read if no thread is free.
+     */
+    private AtomicReferenceArray<Object> readAttributes(final List<MetricsMBean> batch, final int shards,
+            final long deadline) {
+        final AtomicReferenceArray<Object> results = new AtomicReferenceArray<>(batch.size());
+        if (executor == null) {
+            new Shard(batch, results, 0, 1, deadline).run();
+            return results;
+        }
+        if (shards <= 0) {
+            return results;
+        }
+
+        final List<Future<?>> futures = new ArrayList<>(shards);
+        for (int shard = 0; shard < shards; shard++) {
+            futures.add(executor.submit(new Shard(batch, results, shard, shards, deadline)));
+        }
+        try {
+            for (Future<?> future : futures) {
+                future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+        } catch (TimeoutException e) {
+            logger.debug("Collection deadline passed before all mbeans were read");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            logger.error("Exception while reading mbeans", e.getCause());
+        }
+        // shards still running stop on their own at the deadline, mbean reads are not interrupted
+        for (Future<?> future : futures) {
+            future.cancel(false);
+        }
+        return results;
+    }
+
+    private int overdueShards() {
+        int overdue = 0;
+        final long now = System.nanoTime();
+        for (Shard shard : runningShards) {
+            if (now - shard.deadline >= 0) {
+                overdue++;
+            }
+        }
+        return overdue;
+    }
+
+    private long addMeasurements(final Group group, final MetricsMBean mbean, final AttributeList attributes,
+            final long now, final List<Measurement> measurements) {
+        long unreported = 0;
+        final String[] attributeNames = mbean.getAttributeNames();
+        int index = 0;
+        for (Attribute attribute : attributes.asList()) {
+            // attributes are returned in the requested order, leaving out the ones failed to be read
+            while (index < attributeNames.length && !attributeNames[index].equals(attribute.getName())) {
+                index++;
+            }
+            if (index == attributeNames.length) {
+                break;
+            }
+            if (attribute.getValue() == null) {
+                continue;
+            }
+            try {
+                final double value = mbean.toDouble(index, attribute.getValue());
+                double reported = value;
+                boolean report = true;
+                final boolean delta = mbean.isDeltaAttribute(index);
+                if (delta || config.changesOnly()) {
+                    final SeriesCache seriesCache = group.seriesCache;
+                    final long key = mbean.getSeriesKey(index);
+                    final int slot = seriesCache.slot(key);
+                    if (slot < 0) {
+                        // a counter is reported once there is a previous value to compute the delta from
+                        seriesCache.put(key, value);
+                        report = !delta;
+                    } else {
+                        final double previous = seriesCache.value(slot);
+                        if (delta) {
+                            reported = value >= previous ? value - previous : value;
+                        }
+                        final boolean changed = delta ? reported != 0 : value != previous;
+                        final int age = seriesCache.age(slot) + 1;
+                        report = !config.changesOnly() || changed
+                                || (config.heartbeatPeriods() > 0 && age >= config.heartbeatPeriods());
+                        seriesCache.update(slot, value, report ? 0 : age);
+                    }
+                }
+                if (report) {
+                    measurements.add(createMeasurement(group, mbean.getAttributeMeasurementName(attribute.getName()),
+                            reported, now));
+                } else {
+                    unreported++;
+                }
+            } catch (NumberFormatException e) {
+                logger.error("Exception while reading attribute {} of mbean {}", attribute.getName(),
+                        mbean.getMBean().getObjectName(), e);
+            }
+        }
+        return unreported;
+    }
+
+    private Measurement createMeasurement(final Group group, final String service, final double value,
+            final long time) {
+        return group.measurementBuilder.name(service).time(time, TimeUnit.MILLISECONDS).tags(tags).value(value)
+                .build();
     }
 
-    private Set<MetricsMBean> filterMBeans(final String packageName, final Set<ObjectInstance> mbeanObjectInstances)
-            throws IntrospectionException, ReflectionException, InstanceNotFoundException, IOException {
-        Set<MetricsMBean> results = new HashSet<MetricsMBean>();
-        List<Pattern> patterns = new ArrayList<Pattern>();
-        for (String pattern : config.metricsPatterns()) {
-            patterns.add(Pattern.compile(pattern));
+    private boolean addMBean(final ObjectName mbeanObjectName) {
+        try {
+            return addMBean(mbeanObjectName.getDomain(), mbeanServerConn.getObjectInstance(mbeanObjectName));
+        } catch (InstanceNotFoundException e) {
+            logger.debug("MBean {} is not registered", mbeanObjectName);
+        } catch (IOException e) {
+            logger.error("Failed to get mbean {}", mbeanObjectName, e);
         }
+        return false;
+    }
 
-        for (ObjectInstance objectInstance : mbeanObjectInstances) {
-            final MBeanAttributeInfo[] attributes = mbeanServerConn.getMBeanInfo(objectInstance.getObjectName())
-                    .getAttributes();
-            final List<MBeanAttributeInfo> filteredAttributes = new ArrayList<>();
+    /**
+     * Adds the mbean to collected mbeans if its name matches configuration defined patterns. Only attributes with
+     * a number value are collected. Attribute types are resolved from declared types, reading only the values of
+     * attributes whose declared type does not tell.
+     */
+    private boolean addMBean(final String packageName, final ObjectInstance objectInstance) throws IOException {
+        // mbean names are matched first, so that attributes are read only for matching mbeans
+        final String mbeanName = new MetricsMBean(service, packageName, config, objectInstance,
+                Collections.<MBeanAttributeInfo>emptyList(), new AttributeType[0], new boolean[0], 0).getMBeanName();
+        final boolean[] inGroups = new boolean[groups.size()];
+        boolean matching = false;
+        for (Group group : groups) {
+            inGroups[group.index] = group.matches(packageName, mbeanName);
+            matching |= inGroups[group.index];
+        }
+        if (!matching) {
+            return false;
+        }
 
+        final ObjectName mbeanObjectName = objectInstance.getObjectName();
+        final List<MBeanAttributeInfo> filteredAttributes = new ArrayList<>();
+        final List<AttributeType> filteredTypes = new ArrayList<>();
+        try {
+            final MBeanAttributeInfo[] attributes = mbeanServerConn.getMBeanInfo(mbeanObjectName).getAttributes();
+            final Map<String, AttributeType> types = new HashMap<>();
+            final List<String> unknownTypes = new ArrayList<>();
             for (MBeanAttributeInfo attributeInfo : attributes) {
-                try {
-                    final Object obj = mbeanServerConn
-                            .getAttribute(objectInstance.getObjectName(), attributeInfo.getName());
-                    // With trying to parse double we are including all mbean attributes that have a number value.
-                    // This is necessary because some of the attributes are defined as type Object and type checking
-                    // is not possible in that case.
-                    Double.parseDouble(obj.toString());
+                if (attributeInfo.isReadable()) {
+                    final AttributeType type = AttributeType.ofDeclaredType(attributeInfo.getType());
+                    types.put(attributeInfo.getName(), type);
+                    if (type == AttributeType.UNKNOWN) {
+                        unknownTypes.add(attributeInfo.getName());
+                    }
+                }
+            }
+
+            // Attributes declared as Object, as many metrics attributes are, are read once to resolve their type.
+            if (!unknownTypes.isEmpty()) {
+                for (String name : unknownTypes) {
+                    types.put(name, AttributeType.NONE);
+                }
+                final AttributeList values = mbeanServerConn.getAttributes(mbeanObjectName,
+                        unknownTypes.toArray(new String[unknownTypes.size()]));
+                for (Attribute attribute : values.asList()) {
+                    types.put(attribute.getName(), AttributeType.ofValue(attribute.getValue()));
+                }
+            }
+
+            for (MBeanAttributeInfo attributeInfo : attributes) {
+                final AttributeType type = types.get(attributeInfo.getName());
+                if (type == AttributeType.NUMBER || type == AttributeType.TEXT) {
                     filteredAttributes.add(attributeInfo);
-                } catch (Exception e) {
-                    // Exception handling is unnecessary because we are skipping this attribute
+                    filteredTypes.add(type);
                 }
             }
+        } catch (InstanceNotFoundException e) {
+            logger.debug("MBean {} is not registered", mbeanObjectName);
+            return false;
+        } catch (IntrospectionException | ReflectionException e) {
+            logger.error("Failed to get attributes of mbean {}", mbeanObjectName, e);
+            return false;
+        }
 
-            MetricsMBean mbean = new MetricsMBean(packageName, config, objectInstance, filteredAttributes);
+        final MetricsMBean mbean = new MetricsMBean(service, packageName, config, objectInstance, filteredAttributes,
+                filteredTypes.toArray(new AttributeType[filteredTypes.size()]), inGroups, nextMBeanId++);
+        logger.debug(mbean.toString());
+        mbeans.put(mbeanObjectName, mbean);
+        return true;
+    }
 
-            boolean matches = false;
-            if (patterns.isEmpty()) {
-                matches = true;
+    private void removeMBean(final MetricsMBean mbean) {
+        for (Group group : groups) {
+            if (mbean.isInGroup(group.index)) {
+                group.removedMBeans.add(mbean);
+            }
+        }
+    }
+
+    private Group group(final MetricsGroup metricsGroup) {
+        for (Group group : groups) {
+            if (group.group == metricsGroup) {
+                return group;
+            }
+        }
+        throw new IllegalArgumentException("Unknown metrics group " + metricsGroup);
+    }
+
+    /**
+     * Collection state of a metrics group, guarded by the group. Each group keeps its own last reported values, since
+     * groups read mbeans at different periods.
+     */
+    private class Group {
+
+        private final MetricsGroup group;
+
+        private final int index;
+
+        private final List<Pattern> patterns = new ArrayList<>();
+
+        private final SeriesCache seriesCache = new SeriesCache();
+
+        private final Measurement.Builder measurementBuilder = Measurement.builder(service);
+
+        /**
+         * Mbeans removed while the group may be collected, whose last reported values are forgotten on the next
+         * collection of the group.
+         */
+        private final Queue<MetricsMBean> removedMBeans = new ConcurrentLinkedQueue<>();
+
+        private final String collectionMeasurementName;
+
+        Group(final MetricsGroup group) {
+            this.group = group;
+            this.index = groups.size();
+            for (String pattern : group.metricsPatterns()) {
+                patterns.add(Pattern.compile(pattern));
             }
+            this.collectionMeasurementName = service + config.metricsSeparator()
+                    + (group.name() != null ? group.name() + config.metricsSeparator() : "")
+                    + COLLECTION_MEASUREMENT_NAME;
+        }
 
+        private void forgetRemovedMBeans() {
+            MetricsMBean mbean;
+            while ((mbean = removedMBeans.poll()) != null) {
+                for (int i = 0; i < mbean.getAttributeNames().length; i++) {
+                    seriesCache.remove(mbean.getSeriesKey(i));
+                }
+            }
+        }
+
+        private boolean matches(final String packageName, final String mbeanName) {
+            if (!group.metricsPackageNames().contains(packageName)) {
+                return false;
+            }
+            if (patterns.isEmpty()) {
+                return true;
+            }
             for (Pattern pattern : patterns) {
-                if (pattern.matcher(mbean.getMBeanName()).matches()) {
-                    matches = true;
+                if (pattern.matcher(mbeanName).matches()) {
+                    return true;
                 }
             }
+            return false;
+        }
+    }
 
-            if (matches) {
-                results.add(mbean);
+    /**
+     * Reads attributes of every n-th mbean of a collection, so that mbeans of a keyspace are spread over shards.
+     */
+    private class Shard implements Runnable {
+
+        private final List<MetricsMBean> batch;
+
+        private final AtomicReferenceArray<Object> results;
+
+        private final int shard;
+
+        private final int shards;
+
+        private final long deadline;
+
+        Shard(final List<MetricsMBean> batch, final AtomicReferenceArray<Object> results, final int shard,
+                final int shards, final long deadline) {
+            this.batch = batch;
+            this.results = results;
+            this.shard = shard;
+            this.shards = shards;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public void run() {
+            runningShards.add(this);
+            try {
+                for (int i = shard; i < batch.size(); i += shards) {
+                    if (System.nanoTime() - deadline >= 0) {
+                        return;
+                    }
+                    final MetricsMBean mbean = batch.get(i);
+                    if (mbean.getAttributeNames().length == 0) {
+                        continue;
+                    }
+                    try {
+                        results.set(i, mbeanServerConn.getAttributes(mbean.getMBean().getObjectName(),
+                                mbean.getAttributeNames()));
+                    } catch (Exception e) {
+                        results.set(i, e);
+                    }
+                }
+            } finally {
+                runningShards.remove(this);
             }
         }
+    }
 
-        for (MetricsMBean mbean : results) {
-            logger.debug(mbean.toString());
+    private void connectRemote() throws IOException {
+        // only IPv6 addresses may be enclosed in brackets
+        final String host = config.jmxHost().contains(":") ? "[" + config.jmxHost() + "]" : config.jmxHost();
+        JMXServiceURL jmxUrl = new JMXServiceURL(String.format(JXM_URL_FORMAT, host, config.jmxPort()));
+        Map<String, Object> env = new HashMap<String, Object>();
+        if (config.jmxSslEnabled()) {
+            String[] creds = new String[2];
+            creds[0] = config.jmxSslUsername();
+            creds[1] = config.jmxSslPassword();
+            env.put(JMXConnector.CREDENTIALS, creds);
         }
 
-        return results;
+        env.put(DEFAULT_SOCKET_FACTORY, getRMIClientSocketFactory());
+
+        jmxc = JMXConnectorFactory.connect(jmxUrl, env);
+        mbeanServerConn = jmxc.getMBeanServerConnection();
     }
 
     private RMIClientSocketFactory getRMIClientSocketFactory() {
@@ -2,8 +2,10 @@ package io.smartcat.cassandra.diagnostics.module.metrics;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 import org.yaml.snakeyaml.Yaml;
@@ -21,6 +23,8 @@ public class MetricsConfiguration {
     public static class Values {
         private static final int DEFAULT_PERIOD = 1;
         private static final String DEFAULT_TIMEUNIT = "SECONDS";
+        private static final boolean DEFAULT_METRICS_REGISTRY_ENABLED = false;
+        private static final boolean DEFAULT_JMX_IN_PROCESS = true;
         private static final String DEFAULT_JMX_HOST = "127.0.0.1";
         private static final int DEFAULT_JMX_PORT = 7199;
         private static final boolean DEFAULT_JMX_SSL_ENABLED = false;
@@ -29,6 +33,12 @@ public class MetricsConfiguration {
         private static final List<String> DEFAULT_METRICS_PACKAGE_NAMES = Arrays.asList("org.apache.cassandra.metrics");
         private static final String DEFAULT_METRICS_SEPARATOR = ".";
         private static final List<String> DEFAULT_METRICS_PATTERNS = new ArrayList<String>();
+        private static final boolean DEFAULT_CHANGES_ONLY = false;
+        private static final List<String> DEFAULT_DELTA_ATTRIBUTES = new ArrayList<String>();
+        private static final int DEFAULT_HEARTBEAT_PERIODS = 0;
+        private static final int DEFAULT_COLLECTION_THREADS = 1;
+        private static final long DEFAULT_COLLECTION_DEADLINE = 0;
+        private static final List<GroupValues> DEFAULT_METRICS_GROUPS = new ArrayList<GroupValues>();
 
         /**
          * Metrics reporting period.
@@ -40,6 +50,16 @@ public class MetricsConfiguration {
          */
         public TimeUnit timeunit = TimeUnit.valueOf(DEFAULT_TIMEUNIT);
 
+        /**
+         * Read metrics directly from Cassandra's metrics registry instead of MBeans.
+         */
+        public boolean metricsRegistryEnabled = DEFAULT_METRICS_REGISTRY_ENABLED;
+
+        /**
+         * Read metrics from the platform MBean server of the JVM the agent runs in instead of over JMX connection.
+         */
+        public boolean jmxInProcess = DEFAULT_JMX_IN_PROCESS;
+
         /**
          * JMX host address.
          */
@@ -79,10 +99,73 @@ public class MetricsConfiguration {
          * Metrics names list.
          */
         public List<String> metricsPatterns = DEFAULT_METRICS_PATTERNS;
+
+        /**
+         * Report only attribute values changed since they were last reported.
+         */
+        public boolean changesOnly = DEFAULT_CHANGES_ONLY;
+
+        /**
+         * Names of attributes of monotonically increasing counters, reported as delta from the previous value.
+         */
+        public List<String> deltaAttributes = DEFAULT_DELTA_ATTRIBUTES;
+
+        /**
+         * Number of periods after which unchanged values are reported anyway, zero for never.
+         */
+        public int heartbeatPeriods = DEFAULT_HEARTBEAT_PERIODS;
+
+        /**
+         * Number of threads reading MBeans in parallel.
+         */
+        public int collectionThreads = DEFAULT_COLLECTION_THREADS;
+
+        /**
+         * Time in milliseconds after which a collection stops reading MBeans, zero for the reporting period.
+         */
+        public long collectionDeadline = DEFAULT_COLLECTION_DEADLINE;
+
+        /**
+         * Named groups of metrics patterns, each collected with its own period.
+         */
+        public List<GroupValues> metricsGroups = DEFAULT_METRICS_GROUPS;
+    }
+
+    /**
+     * A helper class for constructing a metrics group. Unset values default to module level values.
+     */
+    public static class GroupValues {
+
+        /**
+         * Group name.
+         */
+        public String name;
+
+        /**
+         * Group reporting period.
+         */
+        public Integer period;
+
+        /**
+         * Group reporting time unit.
+         */
+        public TimeUnit timeunit;
+
+        /**
+         * Group metrics package names.
+         */
+        public List<String> metricsPackageNames;
+
+        /**
+         * Group metrics patterns.
+         */
+        public List<String> metricsPatterns;
     }
 
     private Values values = new Values();
 
+    private List<MetricsGroup> groups;
+
     private MetricsConfiguration() {
 
     }
@@ -99,9 +182,35 @@ public class MetricsConfiguration {
         Yaml yaml = new Yaml();
         String str = yaml.dumpAsMap(options);
         conf.values = yaml.loadAs(str, MetricsConfiguration.Values.class);
+        conf.groups = createGroups(conf.values);
         return conf;
     }
 
+    private static List<MetricsGroup> createGroups(final Values values) throws ConfigurationException {
+        final List<MetricsGroup> groups = new ArrayList<>();
+        if (values.metricsGroups == null || values.metricsGroups.isEmpty()) {
+            groups.add(new MetricsGroup(null, values.period, values.timeunit, values.metricsPackageNames,
+                    values.metricsPatterns, values.collectionDeadline));
+            return groups;
+        }
+
+        final Set<String> names = new HashSet<>();
+        for (GroupValues group : values.metricsGroups) {
+            if (group.name == null || group.name.isEmpty()) {
+                throw new ConfigurationException("Metrics group name is missing.");
+            }
+            if (!names.add(group.name)) {
+                throw new ConfigurationException("Metrics group " + group.name + " is defined more than once.");
+            }
+            groups.add(new MetricsGroup(group.name, group.period != null ? group.period : values.period,
+                    group.timeunit != null ? group.timeunit : values.timeunit,
+                    group.metricsPackageNames != null ? group.metricsPackageNames : values.metricsPackageNames,
+                    group.metricsPatterns != null ? group.metricsPatterns : new ArrayList<String>(),
+                    values.collectionDeadline));
+        }
+        return groups;
+    }
+
     /**
      * Request rate reporting period.
      *
@@ -129,6 +238,26 @@ public class MetricsConfiguration {
         return timeunit().toMillis(period());
     }
 
+    /**
+     * Whether metrics are read directly from Cassandra's metrics registry, one measurement per metric, instead of
+     * MBeans.
+     *
+     * @return metrics registry enabled
+     */
+    public boolean metricsRegistryEnabled() {
+        return values.metricsRegistryEnabled;
+    }
+
+    /**
+     * Whether metrics are read from the platform MBean server of the JVM the agent runs in. JMX connection
+     * properties are used only if not.
+     *
+     * @return jmx in process
+     */
+    public boolean jmxInProcess() {
+        return values.jmxInProcess;
+    }
+
     /**
      * JMX host address.
      *
@@ -201,4 +330,64 @@ public class MetricsConfiguration {
         return values.metricsPatterns;
     }
 
+    /**
+     * Whether only attribute values changed since they were last reported are reported.
+     *
+     * @return changes only
+     */
+    public boolean changesOnly() {
+        return values.changesOnly;
+    }
+
+    /**
+     * Names of attributes of monotonically increasing counters, reported as delta from the previous value instead of
+     * the value itself. A counter decreasing, e.g. after a restart, is reported as increased from zero.
+     *
+     * @return delta attribute names
+     */
+    public List<String> deltaAttributes() {
+        return values.deltaAttributes;
+    }
+
+    /**
+     * Number of periods after which an unchanged value is reported anyway, if only changes are reported. Zero means
+     * unchanged values are never reported.
+     *
+     * @return heartbeat periods
+     */
+    public int heartbeatPeriods() {
+        return values.heartbeatPeriods;
+    }
+
+    /**
+     * Number of threads reading MBeans in parallel, each reading its own shard of MBeans. With a single thread,
+     * MBeans are read on the reporting thread.
+     *
+     * @return collection threads
+     */
+    public int collectionThreads() {
+        return Math.max(1, values.collectionThreads);
+    }
+
+    /**
+     * Time in milliseconds after which a collection stops reading MBeans, so that a slow collection does not delay
+     * the next one. MBeans not read by then are skipped in that period. Defaults to 80% of the reporting period.
+     *
+     * @return collection deadline in milliseconds
+     */
+    public long collectionDeadlineInMillis() {
+        return values.collectionDeadline > 0 ? values.collectionDeadline
+                : MetricsGroup.defaultCollectionDeadlineInMillis(reportingRateInMillis());
+    }
+
+    /**
+     * Metrics groups, each collected with its own period. Without configured groups, a single group of module level
+     * period, package names and patterns is returned.
+     *
+     * @return metrics groups
+     */
+    public List<MetricsGroup> groups() {
+        return groups;
+    }
+
 }
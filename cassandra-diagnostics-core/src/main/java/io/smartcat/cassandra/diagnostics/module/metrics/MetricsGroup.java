@@ -0,0 +1,127 @@
+package io.smartcat.cassandra.diagnostics.module.metrics;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Named group of metrics patterns collected with its own reporting period. Groups of a metrics module share one
+ * connection and one index of discovered mbeans.
+ */
+public class MetricsGroup {
+
+    private final String name;
+
+    private final int period;
+
+    private final TimeUnit timeunit;
+
+    private final List<String> metricsPackageNames;
+
+    private final List<String> metricsPatterns;
+
+    private final long collectionDeadlineInMillis;
+
+    /**
+     * Constructor.
+     *
+     * @param name                       group name, null for the group of module level patterns
+     * @param period                     reporting period
+     * @param timeunit                   reporting period time unit
+     * @param metricsPackageNames        metrics package names
+     * @param metricsPatterns            metrics patterns
+     * @param collectionDeadlineInMillis collection deadline in milliseconds, zero for the default share of the
+     *                                   reporting period
+     */
+    public MetricsGroup(final String name, final int period, final TimeUnit timeunit,
+            final List<String> metricsPackageNames, final List<String> metricsPatterns,
+            final long collectionDeadlineInMillis) {
+        this.name = name;
+        this.period = period;
+        this.timeunit = timeunit;
+        this.metricsPackageNames = metricsPackageNames;
+        this.metricsPatterns = metricsPatterns;
+        this.collectionDeadlineInMillis = collectionDeadlineInMillis > 0 ? collectionDeadlineInMillis
+                : defaultCollectionDeadlineInMillis(reportingRateInMillis());
+    }
+
+    /**
+     * Group name, prefixing the name of the group's collection measurement. Null for the group of module level
+     * patterns.
+     *
+     * @return group name
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Group reporting period.
+     *
+     * @return reporting period
+     */
+    public int period() {
+        return period;
+    }
+
+    /**
+     * Group reporting period time unit.
+     *
+     * @return reporting period time unit
+     */
+    public TimeUnit timeunit() {
+        return timeunit;
+    }
+
+    /**
+     * Reporting rate in milliseconds.
+     *
+     * @return reporting rate in milliseconds
+     */
+    public long reportingRateInMillis() {
+        return timeunit.toMillis(period);
+    }
+
+    /**
+     * Metrics package names of the group.
+     *
+     * @return metrics package names
+     */
+    public List<String> metricsPackageNames() {
+        return metricsPackageNames;
+    }
+
+    /**
+     * Metrics patterns of the group.
+     *
+     * @return metrics patterns
+     */
+    public List<String> metricsPatterns() {
+        return metricsPatterns;
+    }
+
+    /**
+     * Time in milliseconds after which a collection of the group stops reading mbeans.
+     *
+     * @return collection deadline in milliseconds
+     */
+    public long collectionDeadlineInMillis() {
+        return collectionDeadlineInMillis;
+    }
+
+    /**
+     * Default collection deadline, leaving a fifth of the reporting period for mbean reads still blocked at the
+     * deadline to return before the next collection starts.
+     *
+     * @param reportingRateInMillis reporting period in milliseconds
+     * @return collection deadline in milliseconds
+     */
+    static long defaultCollectionDeadlineInMillis(final long reportingRateInMillis) {
+        return Math.max(1, reportingRateInMillis * 4 / 5);
+    }
+
+    @Override
+    public String toString() {
+        return name == null ? "metrics" : name;
+    }
+
+}
@@ -1,7 +1,9 @@
 package io.smartcat.cassandra.diagnostics.module.metrics;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.management.MBeanAttributeInfo;
 import javax.management.ObjectInstance;
@@ -13,6 +15,8 @@ public class MetricsMBean {
 
     private static final String METRICS_PACKAGE_SEPARATOR = ".";
 
+    private static final int SERIES_KEY_ATTRIBUTE_BITS = 16;
+
     private final String mbeanName;
 
     private final String measurementName;
@@ -21,20 +25,49 @@ public class MetricsMBean {
 
     private List<MBeanAttributeInfo> mbeanAttributes = new ArrayList<>(0);
 
+    private final String[] attributeNames;
+
+    private final Map<String, String> attributeMeasurementNames;
+
+    private final AttributeType[] attributeTypes;
+
+    private final boolean[] deltaAttributes;
+
+    private final boolean[] groups;
+
+    private final long id;
+
     /**
      * Constructor.
      *
+     * @param service         service name prefixing measurement names
      * @param packageName     metrics package name
      * @param config          metrics configuration
      * @param mbean           mbean object instance
      * @param mbeanAttributes mbean attributes
+     * @param attributeTypes  types of mbean attributes
+     * @param groups          whether the mbean is collected by each of configured metrics groups
+     * @param id              mbean id, unique among collected mbeans
      */
-    public MetricsMBean(final String packageName, final MetricsConfiguration config, final ObjectInstance mbean,
-            final List<MBeanAttributeInfo> mbeanAttributes) {
+    public MetricsMBean(final String service, final String packageName, final MetricsConfiguration config,
+            final ObjectInstance mbean, final List<MBeanAttributeInfo> mbeanAttributes,
+            final AttributeType[] attributeTypes, final boolean[] groups, final long id) {
         this.mbeanName = buildMBeanName(packageName, mbean);
         this.measurementName = buildMeasurementName(packageName, mbean, config.metricsSeparator());
         this.mbean = mbean;
         this.mbeanAttributes = mbeanAttributes;
+        this.attributeNames = new String[mbeanAttributes.size()];
+        this.attributeMeasurementNames = new HashMap<>(mbeanAttributes.size() * 2);
+        this.attributeTypes = attributeTypes;
+        this.deltaAttributes = new boolean[mbeanAttributes.size()];
+        this.groups = groups;
+        this.id = id;
+        for (int i = 0; i < attributeNames.length; i++) {
+            attributeNames[i] = mbeanAttributes.get(i).getName();
+            deltaAttributes[i] = config.deltaAttributes().contains(attributeNames[i]);
+            attributeMeasurementNames.put(attributeNames[i], service + config.metricsSeparator() + measurementName
+                    + config.metricsSeparator() + attributeNames[i]);
+        }
     }
 
     /**
@@ -73,6 +106,67 @@ public class MetricsMBean {
         return mbeanAttributes;
     }
 
+    /**
+     * Get names of mbean attributes, to read them all at once.
+     *
+     * @return mbean attribute names
+     */
+    public String[] getAttributeNames() {
+        return attributeNames;
+    }
+
+    /**
+     * Get the name of the measurement reporting an mbean attribute.
+     *
+     * @param attributeName mbean attribute name
+     * @return measurement name
+     */
+    public String getAttributeMeasurementName(final String attributeName) {
+        return attributeMeasurementNames.get(attributeName);
+    }
+
+    /**
+     * Convert a value of the attribute at the given position to double, according to the attribute type.
+     *
+     * @param index attribute position in attribute names
+     * @param value attribute value
+     * @return double value
+     * @throws NumberFormatException if the value is not a number
+     */
+    public double toDouble(final int index, final Object value) {
+        return attributeTypes[index].toDouble(value);
+    }
+
+    /**
+     * Get whether the attribute at the given position is a counter reported as delta from the previous value.
+     *
+     * @param index attribute position in attribute names
+     * @return whether reported as delta
+     */
+    public boolean isDeltaAttribute(final int index) {
+        return deltaAttributes[index];
+    }
+
+    /**
+     * Get whether the mbean is collected by the metrics group at the given position.
+     *
+     * @param index group position in configured metrics groups
+     * @return whether collected by the group
+     */
+    public boolean isInGroup(final int index) {
+        return groups[index];
+    }
+
+    /**
+     * Get the key of the series of the attribute at the given position, unique among collected mbean attributes.
+     *
+     * @param index attribute position in attribute names
+     * @return series key
+     */
+    public long getSeriesKey(final int index) {
+        return (id << SERIES_KEY_ATTRIBUTE_BITS) | index;
+    }
+
     private String buildMBeanName(final String metricsPackageName, final ObjectInstance mbean) {
         return nameBuilder(metricsPackageName, mbean, METRICS_PACKAGE_SEPARATOR, true);
     }
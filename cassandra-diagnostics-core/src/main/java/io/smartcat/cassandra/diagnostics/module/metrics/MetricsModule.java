@@ -1,21 +1,22 @@
 package io.smartcat.cassandra.diagnostics.module.metrics;
 
 import java.util.List;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.smartcat.cassandra.diagnostics.DiagnosticsAgent;
 import io.smartcat.cassandra.diagnostics.GlobalConfiguration;
-import io.smartcat.cassandra.diagnostics.Measurement;
 import io.smartcat.cassandra.diagnostics.config.ConfigurationException;
+import io.smartcat.cassandra.diagnostics.connector.MetricsRegistryReader;
 import io.smartcat.cassandra.diagnostics.module.Module;
 import io.smartcat.cassandra.diagnostics.module.ModuleConfiguration;
 import io.smartcat.cassandra.diagnostics.reporter.Reporter;
 
 /**
- * Metrics module collecting Cassandra metrics exposed over JMX. Requires local JMX connection.
+ * Metrics module collecting Cassandra metrics exposed over JMX, either in process or over JMX connection, or read
+ * directly from Cassandra's metrics registry.
  */
 public class MetricsModule extends Module {
 
@@ -23,13 +24,12 @@ public class MetricsModule extends Module {
 
     private static final String DEFAULT_MEASUREMENT_NAME = "metrics";
 
-    private static final String METRICS_THREAD_NAME = "metrics-timer";
+    private static final String METRICS_TASK_NAME = "metrics";
 
     private final MetricsConfiguration config;
 
     private final MetricsCollector metricsCollector;
 
-    private final Timer timer;
 
     /**
      * Constructor.
@@ -44,34 +44,80 @@ public class MetricsModule extends Module {
         super(configuration, reporters, globalConfiguration);
 
         config = MetricsConfiguration.create(configuration.options);
-        metricsCollector = new MetricsCollector(configuration.getMeasurementOrDefault(DEFAULT_MEASUREMENT_NAME), config,
-                globalConfiguration);
+        final String service = configuration.getMeasurementOrDefault(DEFAULT_MEASUREMENT_NAME);
+        final MetricsRegistryReader reader = config.metricsRegistryEnabled()
+                ? DiagnosticsAgent.getMetricsRegistryReader() : null;
+        if (config.metricsRegistryEnabled() && reader == null) {
+            logger.warn("Metrics registry can not be read in process, reading metrics from MBeans.");
+        }
 
-        logger.info("Metrics module initialized with {} {} reporting period.", config.period(),
-                config.timeunit().name());
+        for (MetricsGroup group : config.groups()) {
+            logger.info("Metrics module initialized {} with {} {} reporting period.", group, group.period(),
+                    group.timeunit().name());
+        }
 
-        timer = new Timer(METRICS_THREAD_NAME);
-        if (metricsCollector.connect()) {
-            timer.schedule(new MetricsTask(), 0, config.reportingRateInMillis());
+        if (reader != null) {
+            metricsCollector = null;
+            for (MetricsGroup group : config.groups()) {
+                schedule(taskName(group), new RegistryMetricsTask(
+                        new RegistryMetricsCollector(service, config, group, reader, globalConfiguration)),
+                        group.reportingRateInMillis(), TimeUnit.MILLISECONDS);
+            }
+        } else {
+            metricsCollector = new MetricsCollector(service, config, globalConfiguration);
+            if (metricsCollector.connect()) {
+                for (MetricsGroup group : config.groups()) {
+                    schedule(taskName(group), new MetricsTask(group), group.reportingRateInMillis(),
+                            TimeUnit.MILLISECONDS);
+                }
+            }
         }
     }
 
+    private static String taskName(final MetricsGroup group) {
+        return group.name() == null ? METRICS_TASK_NAME : METRICS_TASK_NAME + "." + group.name();
+    }
+
     @Override
     public void stop() {
         logger.trace("Stopping metrics module.");
-        timer.cancel();
-        metricsCollector.close();
+        super.stop();
+        if (metricsCollector != null) {
+            metricsCollector.close();
+        }
     }
 
     /**
-     * Metrics reporter task that's executed at configured period.
+     * Metrics reporter task that's executed at the period of its metrics group.
      */
-    private class MetricsTask extends TimerTask {
+    private class MetricsTask implements Runnable {
+
+        private final MetricsGroup group;
+
+        MetricsTask(final MetricsGroup group) {
+            this.group = group;
+        }
+
         @Override
         public void run() {
-            for (Measurement measurement : metricsCollector.collectMeasurements()) {
-                report(measurement);
-            }
+            report(metricsCollector.collectMeasurements(group));
+        }
+    }
+
+    /**
+     * Metrics registry reporter task that's executed at the period of its metrics group.
+     */
+    private class RegistryMetricsTask implements Runnable {
+
+        private final RegistryMetricsCollector registryMetricsCollector;
+
+        RegistryMetricsTask(final RegistryMetricsCollector registryMetricsCollector) {
+            this.registryMetricsCollector = registryMetricsCollector;
+        }
+
+        @Override
+        public void run() {
+            report(registryMetricsCollector.collectMeasurements());
         }
     }
 
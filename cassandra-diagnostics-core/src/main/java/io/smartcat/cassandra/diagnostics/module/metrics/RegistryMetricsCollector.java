@@ -0,0 +1,182 @@
+package io.smartcat.cassandra.diagnostics.module.metrics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import io.smartcat.cassandra.diagnostics.GlobalConfiguration;
+import io.smartcat.cassandra.diagnostics.Measurement;
+import io.smartcat.cassandra.diagnostics.Tags;
+import io.smartcat.cassandra.diagnostics.connector.MetricsRegistryReader;
+import io.smartcat.cassandra.diagnostics.connector.MetricsRegistryVisitor;
+
+/**
+ * Metrics collector reading Cassandra's metrics registry in process instead of mbeans. Each metric is reported as
+ * a single complex measurement, with all percentiles of a histogram or a timer as fields. Measurement names are
+ * resolved once per metric and forgotten when the metric is no longer in the registry, e.g. of a dropped table.
+ */
+public class RegistryMetricsCollector {
+
+    private static final String COLLECTION_MEASUREMENT_NAME = "collection";
+
+    private static final String METRICS_PACKAGE_SEPARATOR = ".";
+
+    /**
+     * Measurement name of metrics not to be collected.
+     */
+    private static final String SKIPPED = "";
+
+    private final String service;
+
+    private final MetricsConfiguration config;
+
+    private final MetricsGroup group;
+
+    private final MetricsRegistryReader reader;
+
+    private final Tags tags;
+
+    private final List<Pattern> patterns = new ArrayList<>();
+
+    private final Map<String, MeasurementName> measurementNames = new HashMap<>();
+
+    private final Measurement.Builder measurementBuilder;
+
+    private final Visitor visitor = new Visitor();
+
+    /**
+     * Constructor.
+     *
+     * @param service             service name for measurements
+     * @param config              metrics configuration
+     * @param group               metrics group to collect
+     * @param reader              metrics registry reader
+     * @param globalConfiguration Global diagnostics configuration
+     */
+    public RegistryMetricsCollector(final String service, final MetricsConfiguration config, final MetricsGroup group,
+            final MetricsRegistryReader reader, final GlobalConfiguration globalConfiguration) {
+        this.service = service;
+        this.config = config;
+        this.group = group;
+        this.reader = reader;
+        this.tags = Tags.of("host", globalConfiguration.hostname, "systemName", globalConfiguration.systemName);
+        this.measurementBuilder = Measurement.builder(service);
+        for (String pattern : group.metricsPatterns()) {
+            patterns.add(Pattern.compile(pattern));
+        }
+    }
+
+    /**
+     * Collect measurements of all metrics matching patterns of the metrics group, walking the registry once.
+     * A measurement reporting the collection time and the number of collected metrics is added as well.
+     *
+     * @return list of measurements
+     */
+    public List<Measurement> collectMeasurements() {
+        final long start = System.nanoTime();
+        visitor.time = System.currentTimeMillis();
+        visitor.measurements = new ArrayList<>();
+        visitor.walk++;
+
+        reader.read(visitor);
+        pruneMeasurementNames();
+
+        final List<Measurement> measurements = visitor.measurements;
+        final long metrics = measurements.size();
+        measurements.add(measurementBuilder.name(service + config.metricsSeparator()
+                + (group.name() != null ? group.name() + config.metricsSeparator() : "") + COLLECTION_MEASUREMENT_NAME)
+                .time(visitor.time, TimeUnit.MILLISECONDS).tags(tags)
+                .field("duration", (System.nanoTime() - start) / 1000000.0)
+                .field("metrics", metrics)
+                .build());
+        visitor.measurements = null;
+
+        return measurements;
+    }
+
+    private String measurementName(final String name) {
+        MeasurementName measurementName = measurementNames.get(name);
+        if (measurementName == null) {
+            measurementName = new MeasurementName(matches(name) ? buildMeasurementName(name) : SKIPPED);
+            measurementNames.put(name, measurementName);
+        }
+        measurementName.walk = visitor.walk;
+        return measurementName.name;
+    }
+
+    private void pruneMeasurementNames() {
+        final Iterator<MeasurementName> iterator = measurementNames.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().walk != visitor.walk) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private boolean matches(final String name) {
+        if (patterns.isEmpty()) {
+            return true;
+        }
+        for (Pattern pattern : patterns) {
+            if (pattern.matcher(name).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String buildMeasurementName(final String name) {
+        for (String packageName : group.metricsPackageNames()) {
+            if (name.startsWith(packageName + METRICS_PACKAGE_SEPARATOR)) {
+                return service + config.metricsSeparator() + name.substring(packageName.length() + 1)
+                        .replace(METRICS_PACKAGE_SEPARATOR, config.metricsSeparator());
+            }
+        }
+        return SKIPPED;
+    }
+
+    /**
+     * Measurement name of a metric, along with the last registry walk the metric was seen in.
+     */
+    private static class MeasurementName {
+
+        private final String name;
+
+        private long walk;
+
+        MeasurementName(final String name) {
+            this.name = name;
+        }
+    }
+
+    /**
+     * Registry visitor building a measurement of each matching metric.
+     */
+    private class Visitor implements MetricsRegistryVisitor {
+
+        private long walk;
+
+        private long time;
+
+        private List<Measurement> measurements;
+
+        @Override
+        public Measurement.Builder accept(String name) {
+            final String measurementName = measurementName(name);
+            if (measurementName.isEmpty()) {
+                return null;
+            }
+            return measurementBuilder.name(measurementName).time(time, TimeUnit.MILLISECONDS).tags(tags);
+        }
+
+        @Override
+        public void visit(String name, Measurement.Builder builder) {
+            measurements.add(builder.build());
+        }
+    }
+
+}
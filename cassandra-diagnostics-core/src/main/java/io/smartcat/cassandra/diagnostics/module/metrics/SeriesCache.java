@@ -0,0 +1,170 @@
+package io.smartcat.cassandra.diagnostics.module.metrics;
+
+/**
+ * Cache of the last reported value of each metrics series, keyed by a positive {@code long} series key. Along with
+ * the value, the number of periods since it was last reported is kept. Implemented as an open addressing hash map
+ * with linear probing over primitive arrays, so that neither keys nor values are boxed. Not thread safe.
+ */
+public final class SeriesCache {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private static final long EMPTY = 0;
+
+    private long[] keys;
+
+    private double[] values;
+
+    private int[] ages;
+
+    private int mask;
+
+    private int size;
+
+    /**
+     * Constructor.
+     */
+    public SeriesCache() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Finds the slot of a series.
+     *
+     * @param key series key
+     * @return slot of the series or -1 if the series is not cached
+     */
+    public int slot(final long key) {
+        int slot = index(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Last value of the series in the given slot.
+     *
+     * @param slot series slot
+     * @return last value
+     */
+    public double value(final int slot) {
+        return values[slot];
+    }
+
+    /**
+     * Number of periods since the value of the series in the given slot was last reported.
+     *
+     * @param slot series slot
+     * @return periods since last reported
+     */
+    public int age(final int slot) {
+        return ages[slot];
+    }
+
+    /**
+     * Updates the series in the given slot.
+     *
+     * @param slot  series slot
+     * @param value last value
+     * @param age   periods since last reported
+     */
+    public void update(final int slot, final double value, final int age) {
+        values[slot] = value;
+        ages[slot] = age;
+    }
+
+    /**
+     * Adds a series not cached yet.
+     *
+     * @param key   series key
+     * @param value last value
+     */
+    public void put(final long key, final double value) {
+        if (key <= 0) {
+            throw new IllegalArgumentException("Series key must be positive.");
+        }
+        if (2 * (size + 1) > keys.length) {
+            resize(keys.length * 2);
+        }
+        int slot = index(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                update(slot, value, 0);
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        update(slot, value, 0);
+        size++;
+    }
+
+    /**
+     * Removes a series.
+     *
+     * @param key series key
+     */
+    public void remove(final long key) {
+        int slot = slot(key);
+        if (slot < 0) {
+            return;
+        }
+        // shift back the following entries of the probe sequence, so that no entry becomes unreachable
+        int next = (slot + 1) & mask;
+        while (keys[next] != EMPTY) {
+            final int home = index(keys[next]);
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+                keys[slot] = keys[next];
+                values[slot] = values[next];
+                ages[slot] = ages[next];
+                slot = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[slot] = EMPTY;
+        size--;
+    }
+
+    /**
+     * Number of cached series.
+     *
+     * @return number of series
+     */
+    public int size() {
+        return size;
+    }
+
+    private int index(final long key) {
+        final long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private void allocate(final int capacity) {
+        keys = new long[capacity];
+        values = new double[capacity];
+        ages = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    private void resize(final int capacity) {
+        final long[] oldKeys = keys;
+        final double[] oldValues = values;
+        final int[] oldAges = ages;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = index(oldKeys[i]);
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                update(slot, oldValues[i], oldAges[i]);
+            }
+        }
+    }
+
+}
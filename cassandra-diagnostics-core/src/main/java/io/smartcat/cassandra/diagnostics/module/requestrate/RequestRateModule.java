@@ -4,13 +4,8 @@ import static io.smartcat.cassandra.diagnostics.module.requestrate.RequestRateCo
 import static io.smartcat.cassandra.diagnostics.module.requestrate.RequestRateConfiguration.ALL_STATEMENT_TYPES;
 import static io.smartcat.cassandra.diagnostics.module.requestrate.RequestRateConfiguration.REQUEST_META_DELIMITER;
 
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
-import java.util.Timer;
-import java.util.TimerTask;
 import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
@@ -19,27 +14,36 @@ import org.slf4j.LoggerFactory;
 import io.smartcat.cassandra.diagnostics.GlobalConfiguration;
 import io.smartcat.cassandra.diagnostics.Measurement;
 import io.smartcat.cassandra.diagnostics.Query;
+import io.smartcat.cassandra.diagnostics.Tags;
 import io.smartcat.cassandra.diagnostics.config.ConfigurationException;
-import io.smartcat.cassandra.diagnostics.module.AtomicCounter;
+import io.smartcat.cassandra.diagnostics.connector.QueryCounter;
+import io.smartcat.cassandra.diagnostics.module.CounterRegistry;
 import io.smartcat.cassandra.diagnostics.module.Module;
 import io.smartcat.cassandra.diagnostics.module.ModuleConfiguration;
 import io.smartcat.cassandra.diagnostics.reporter.Reporter;
 
 /**
  * Request rate module providing request rates at defined intervals. Request rates can be total or separate for read
- * and write.
+ * and write. It counts every intercepted query on the request thread, regardless of the connector's query filter.
  */
-public class RequestRateModule extends Module {
+public class RequestRateModule extends Module implements QueryCounter {
 
     private static final Logger logger = LoggerFactory.getLogger(RequestRateModule.class);
 
     private static final String DEFAULT_MEASUREMENT_NAME = "request_rate";
 
-    private static final String REQUEST_RATE_THREAD_NAME = "request-rate-timer";
+    private static final String REQUEST_RATE_TASK_NAME = "request-rate";
 
-    private final Set<RequestRate> requestRates;
+    private final CounterRegistry counters = new CounterRegistry();
 
-    private final String service;
+    private final List<RequestRate> requestRates;
+
+    /**
+     * Ids of request rate counters matching a query, indexed by statement type and consistency level ordinals.
+     */
+    private final int[][][] counterIdsByType;
+
+    private final Measurement.Builder measurementBuilder;
 
     private final int period;
 
@@ -47,8 +51,6 @@ public class RequestRateModule extends Module {
 
     private final long rateFactor;
 
-    private final Timer timer;
-
     /**
      * Constructor.
      *
@@ -62,17 +64,17 @@ public class RequestRateModule extends Module {
         super(configuration, reporters, globalConfiguration);
 
         RequestRateConfiguration config = RequestRateConfiguration.create(configuration.options);
-        service = configuration.getMeasurementOrDefault(DEFAULT_MEASUREMENT_NAME);
+        measurementBuilder = Measurement.builder(configuration.getMeasurementOrDefault(DEFAULT_MEASUREMENT_NAME));
         period = config.period();
         timeunit = config.timeunit();
         rateFactor = timeunit.toSeconds(period);
         requestRates = initRequestRates(config);
+        counterIdsByType = initCounterIdsByType(requestRates);
 
         logger.info("RequestRate module initialized with {} {} reporting period and requests to report: {}.", period,
                 timeunit.name(), config.requestsToReport());
 
-        timer = new Timer(REQUEST_RATE_THREAD_NAME);
-        timer.schedule(new RequestRateTask(), 0, config.reportingRateInMillis());
+        schedule(REQUEST_RATE_TASK_NAME, new RequestRateTask(), config.reportingRateInMillis(), TimeUnit.MILLISECONDS);
     }
 
     /**
@@ -81,7 +83,8 @@ public class RequestRateModule extends Module {
     private class RequestRate {
         public final String statementType;
         public final String consistencyLevel;
-        public final AtomicCounter counter = new AtomicCounter();
+        public final int counterId;
+        public final Tags tags;
 
         /**
          * Constructor.
@@ -92,27 +95,25 @@ public class RequestRateModule extends Module {
             String[] requestMeta = requestPattern.split(REQUEST_META_DELIMITER);
             this.statementType = requestMeta[0];
             this.consistencyLevel = requestMeta[1];
-        }
-
-        public void increment() {
-            counter.increment();
+            this.counterId = counters.register();
+            this.tags = Tags.of("host", globalConfiguration.hostname, "systemName", globalConfiguration.systemName,
+                    "statementType", statementType, "consistencyLevel", consistencyLevel);
         }
 
         public long sumThenReset() {
-            return counter.sumThenReset();
+            return counters.sumThenReset(counterId);
         }
     }
 
     @Override
     public void process(Query query) {
-        final String statementType = query.statementType().name();
-        final String consistencyLevel = query.consistencyLevel().name();
+        count(query.statementType(), query.consistencyLevel());
+    }
 
-        for (RequestRate requestRate : requestRates) {
-            if (statementMatches(statementType, requestRate)
-                    && consistencyLevelMatches(consistencyLevel, requestRate)) {
-                requestRate.increment();
-            }
+    @Override
+    public void count(Query.StatementType queryStatementType, Query.ConsistencyLevel queryConsistencyLevel) {
+        for (int counterId : counterIdsByType[queryStatementType.ordinal()][queryConsistencyLevel.ordinal()]) {
+            counters.increment(counterId);
         }
     }
 
@@ -129,11 +130,11 @@ public class RequestRateModule extends Module {
     @Override
     public void stop() {
         logger.trace("Stopping request rate module.");
-        timer.cancel();
+        super.stop();
     }
 
-    private Set<RequestRate> initRequestRates(RequestRateConfiguration config) {
-        final Set<RequestRate> requestRates = new HashSet<>();
+    private List<RequestRate> initRequestRates(RequestRateConfiguration config) {
+        final List<RequestRate> requestRates = new ArrayList<>();
 
         for (String requestToReport : config.requestsToReport()) {
             requestRates.add(new RequestRate(requestToReport));
@@ -142,6 +143,36 @@ public class RequestRateModule extends Module {
         return requestRates;
     }
 
+    /**
+     * Resolves the configured request patterns, including wildcards, for every statement type and consistency level
+     * combination up front, so counting a query needs no string matching.
+     */
+    private int[][][] initCounterIdsByType(List<RequestRate> requestRates) {
+        final Query.StatementType[] statementTypes = Query.StatementType.values();
+        final Query.ConsistencyLevel[] consistencyLevels = Query.ConsistencyLevel.values();
+        final int[][][] counterIdsByType = new int[statementTypes.length][][];
+
+        for (Query.StatementType statementType : statementTypes) {
+            counterIdsByType[statementType.ordinal()] = new int[consistencyLevels.length][];
+            for (Query.ConsistencyLevel consistencyLevel : consistencyLevels) {
+                final List<Integer> matching = new ArrayList<>();
+                for (RequestRate requestRate : requestRates) {
+                    if (statementMatches(statementType.name(), requestRate)
+                            && consistencyLevelMatches(consistencyLevel.name(), requestRate)) {
+                        matching.add(requestRate.counterId);
+                    }
+                }
+                final int[] counterIds = new int[matching.size()];
+                for (int i = 0; i < counterIds.length; i++) {
+                    counterIds[i] = matching.get(i);
+                }
+                counterIdsByType[statementType.ordinal()][consistencyLevel.ordinal()] = counterIds;
+            }
+        }
+
+        return counterIdsByType;
+    }
+
     private double convertRate(double rate) {
         return rate / rateFactor;
     }
@@ -149,23 +180,17 @@ public class RequestRateModule extends Module {
     /**
      * Request rate reporter task that's executed at configured period.
      */
-    private class RequestRateTask extends TimerTask {
+    private class RequestRateTask implements Runnable {
         @Override
         public void run() {
+            final List<Measurement> measurements = new ArrayList<>(requestRates.size());
+            final long now = System.currentTimeMillis();
             for (RequestRate requestRate : requestRates) {
                 double rate = convertRate(requestRate.sumThenReset());
-                report(createMeasurement(service, requestRate.statementType, requestRate.consistencyLevel, rate));
+                measurements.add(measurementBuilder.time(now, TimeUnit.MILLISECONDS).tags(requestRate.tags)
+                        .value(rate).build());
             }
+            report(measurements);
         }
     }
-
-    private Measurement createMeasurement(String service, String statementType, String consistencyLevel, double rate) {
-        final Map<String, String> tags = new HashMap<>(1);
-        tags.put("host", globalConfiguration.hostname);
-        tags.put("systemName", globalConfiguration.systemName);
-        tags.put("statementType", statementType);
-        tags.put("consistencyLevel", consistencyLevel);
-        return Measurement.createSimple(service, rate, System.currentTimeMillis(), TimeUnit.MILLISECONDS, tags,
-                new HashMap<String, String>());
-    }
 }
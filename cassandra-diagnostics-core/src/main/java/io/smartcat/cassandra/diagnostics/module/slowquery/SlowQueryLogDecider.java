@@ -1,5 +1,7 @@
 package io.smartcat.cassandra.diagnostics.module.slowquery;
 
+import java.util.concurrent.TimeUnit;
+
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,7 +40,7 @@ public class SlowQueryLogDecider {
      * @return if this query is eligible for report.
      */
     public boolean isForReporting(Query query) {
-        if (executionTimeForLogging(query.executionTimeInMilliseconds()) && tableForLogging(query)
+        if (executionTimeForLogging(query.executionTimeInNanoseconds()) && tableForLogging(query)
                 && typeForLogging(query)) {
             return true;
         }
@@ -46,15 +48,15 @@ public class SlowQueryLogDecider {
         return false;
     }
 
-    private boolean executionTimeForLogging(long executionTimeInMilliseconds) {
+    private boolean executionTimeForLogging(long executionTimeInNanoseconds) {
         if (slowQueryConfiguration.slowQueryThreshold() == 0) {
             logger.trace("Slow query threshold turned off, logging all queries.");
             return true;
         }
 
-        logger.trace("Checking if execution time:{} is above threshold: {}", executionTimeInMilliseconds,
+        logger.trace("Checking if execution time:{}ns is above threshold: {}ms", executionTimeInNanoseconds,
                 slowQueryConfiguration.slowQueryThreshold());
-        if (executionTimeInMilliseconds > slowQueryConfiguration.slowQueryThreshold()) {
+        if (executionTimeInNanoseconds > TimeUnit.MILLISECONDS.toNanos(slowQueryConfiguration.slowQueryThreshold())) {
             return true;
         }
 
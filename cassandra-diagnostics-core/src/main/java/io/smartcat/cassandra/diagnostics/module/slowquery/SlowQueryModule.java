@@ -3,8 +3,6 @@ package io.smartcat.cassandra.diagnostics.module.slowquery;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Timer;
-import java.util.TimerTask;
 import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
@@ -15,7 +13,7 @@ import io.smartcat.cassandra.diagnostics.Measurement;
 import io.smartcat.cassandra.diagnostics.Query;
 import io.smartcat.cassandra.diagnostics.Query.StatementType;
 import io.smartcat.cassandra.diagnostics.config.ConfigurationException;
-import io.smartcat.cassandra.diagnostics.module.AtomicCounter;
+import io.smartcat.cassandra.diagnostics.module.CounterRegistry;
 import io.smartcat.cassandra.diagnostics.module.Module;
 import io.smartcat.cassandra.diagnostics.module.ModuleConfiguration;
 import io.smartcat.cassandra.diagnostics.reporter.Reporter;
@@ -31,7 +29,9 @@ public class SlowQueryModule extends Module {
 
     private static final String SLOW_QUERY_COUNT_SUFFIX = "_count";
 
-    private static final String SLOW_QUERY_COUNT_THREAD_NAME = "slow-query-count-timer";
+    private static final String SLOW_QUERY_COUNT_TASK_NAME = "slow-query-count";
+
+    private static final double NANOS_PER_MILLISECOND = TimeUnit.MILLISECONDS.toNanos(1);
 
     private final SlowQueryConfiguration config;
 
@@ -41,9 +41,14 @@ public class SlowQueryModule extends Module {
 
     private final SlowQueryLogDecider slowQueryLogDecider;
 
-    private final Map<StatementType, AtomicCounter> slowQueryCounts;
+    private static final StatementType[] STATEMENT_TYPES = StatementType.values();
 
-    private final Timer timer;
+    private final CounterRegistry slowQueryCounts = new CounterRegistry();
+
+    /**
+     * Slow query counter ids indexed by statement type ordinal.
+     */
+    private final int[] slowQueryCountIds = new int[STATEMENT_TYPES.length];
 
     /**
      * Constructor.
@@ -63,16 +68,13 @@ public class SlowQueryModule extends Module {
 
         slowQueryLogDecider = SlowQueryLogDecider.create(config);
 
-        slowQueryCounts = new HashMap<>();
-        for (StatementType statementType : StatementType.values()) {
-            slowQueryCounts.put(statementType, new AtomicCounter());
+        for (StatementType statementType : STATEMENT_TYPES) {
+            slowQueryCountIds[statementType.ordinal()] = slowQueryCounts.register();
         }
 
         if (config.slowQueryCountReportEnabled()) {
-            timer = new Timer(SLOW_QUERY_COUNT_THREAD_NAME);
-            timer.schedule(new SlowQueryReportTask(), 0, config.slowQueryCountReportingRateInMillis());
-        } else {
-            timer = null;
+            schedule(SLOW_QUERY_COUNT_TASK_NAME, new SlowQueryReportTask(),
+                    config.slowQueryCountReportingRateInMillis(), TimeUnit.MILLISECONDS);
         }
     }
 
@@ -92,7 +94,7 @@ public class SlowQueryModule extends Module {
         }
 
         if (config.slowQueryCountReportEnabled()) {
-            slowQueryCounts.get(query.statementType()).increment();
+            slowQueryCounts.increment(slowQueryCountIds[query.statementType().ordinal()]);
         }
 
         if (config.slowQueryReportEnabled()) {
@@ -107,7 +109,7 @@ public class SlowQueryModule extends Module {
             fields.put("consistencyLevel", query.consistencyLevel().name());
 
             final Measurement measurement = Measurement.createSimple(service,
-                    (double) query.executionTimeInMilliseconds(), query.startTimeInMilliseconds(),
+                    query.executionTimeInNanoseconds() / NANOS_PER_MILLISECOND, query.startTimeInMilliseconds(),
                     TimeUnit.MILLISECONDS, tags, fields);
 
             logger.trace("Measurement transformed: {}", measurement);
@@ -117,19 +119,17 @@ public class SlowQueryModule extends Module {
 
     @Override
     public void stop() {
-        if (timer != null) {
-            timer.cancel();
-        }
+        super.stop();
     }
 
     /**
      * Slow query count reporter task that's executed at configured period.
      */
-    private class SlowQueryReportTask extends TimerTask {
+    private class SlowQueryReportTask implements Runnable {
         @Override
         public void run() {
-            for (StatementType statementType : slowQueryCounts.keySet()) {
-                double count = slowQueryCounts.get(statementType).sumThenReset();
+            for (StatementType statementType : STATEMENT_TYPES) {
+                double count = slowQueryCounts.sumThenReset(slowQueryCountIds[statementType.ordinal()]);
 
                 report(createSlowQueryCountMeasurement(count, statementType));
             }
@@ -1,10 +1,9 @@
 package io.smartcat.cassandra.diagnostics.module.status;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
@@ -13,10 +12,13 @@ import org.slf4j.LoggerFactory;
 import io.smartcat.cassandra.diagnostics.DiagnosticsAgent;
 import io.smartcat.cassandra.diagnostics.GlobalConfiguration;
 import io.smartcat.cassandra.diagnostics.Measurement;
+import io.smartcat.cassandra.diagnostics.Tags;
 import io.smartcat.cassandra.diagnostics.config.ConfigurationException;
 import io.smartcat.cassandra.diagnostics.info.CompactionInfo;
 import io.smartcat.cassandra.diagnostics.info.CompactionSettingsInfo;
 import io.smartcat.cassandra.diagnostics.info.InfoProvider;
+import io.smartcat.cassandra.diagnostics.info.InfoSnapshot;
+import io.smartcat.cassandra.diagnostics.info.InfoSnapshot.Section;
 import io.smartcat.cassandra.diagnostics.info.NodeInfo;
 import io.smartcat.cassandra.diagnostics.info.TPStatsInfo;
 import io.smartcat.cassandra.diagnostics.module.Module;
@@ -30,7 +32,7 @@ public class StatusModule extends Module {
 
     private static final Logger logger = LoggerFactory.getLogger(StatusModule.class);
 
-    private static final String STATUS_THREAD_NAME = "status-module";
+    private static final String STATUS_TASK_NAME = "status";
 
     private static final String DEFAULT_COMPACTION_INFO_MEASUREMENT_NAME = "compaction_info";
 
@@ -44,17 +46,13 @@ public class StatusModule extends Module {
 
     private final TimeUnit timeunit;
 
-    private final boolean compactionsEnabled;
+    private final Set<Section> sections = EnumSet.noneOf(Section.class);
 
-    private final boolean tpStatsEnabled;
-
-    private final boolean repairsEnabled;
-
-    private final boolean nodeInfoEnabled;
+    private final InfoProvider infoProvider;
 
-    private final Timer timer;
+    private final Tags hostTags;
 
-    private final InfoProvider infoProvider;
+    private final Measurement.Builder measurementBuilder;
 
     /**
      * Constructor.
@@ -71,130 +69,120 @@ public class StatusModule extends Module {
         StatusConfiguration config = StatusConfiguration.create(configuration.options);
         period = config.period();
         timeunit = config.timeunit();
-        compactionsEnabled = config.compactionsEnabled();
-        tpStatsEnabled = config.tpStatsEnabled();
-        repairsEnabled = config.repairsEnabled();
-        nodeInfoEnabled = config.nodeInfoEnabled();
+        if (config.compactionsEnabled()) {
+            sections.add(Section.COMPACTIONS);
+            sections.add(Section.COMPACTION_SETTINGS);
+        }
+        if (config.tpStatsEnabled()) {
+            sections.add(Section.TP_STATS);
+        }
+        if (config.repairsEnabled()) {
+            sections.add(Section.REPAIR_SESSIONS);
+        }
+        if (config.nodeInfoEnabled()) {
+            sections.add(Section.NODE_INFO);
+        }
+        hostTags = Tags.of("host", globalConfiguration.hostname, "systemName", globalConfiguration.systemName);
+        measurementBuilder = Measurement.builder(DEFAULT_NODE_INFO_MEASUREMENT_NAME);
 
         infoProvider = DiagnosticsAgent.getInfoProvider();
         if (infoProvider == null) {
             logger.warn("Failed to initialize StatusModule. Info provider is null");
-            timer = null;
         } else {
-            timer = new Timer(STATUS_THREAD_NAME);
-            timer.scheduleAtFixedRate(new StatusTask(), 0, config.reportingRateInMillis());
+            schedule(STATUS_TASK_NAME, new StatusTask(), config.reportingRateInMillis(), TimeUnit.MILLISECONDS);
         }
     }
 
     @Override
     public void stop() {
         logger.trace("Stopping status module.");
-        timer.cancel();
+        super.stop();
     }
 
     /**
-     * Status collector task that's executed at configured period.
+     * Status collector task that's executed at configured period. Status is read from a node status snapshot,
+     * shared with other modules reporting node status. Only enabled sections are collected, and a section that
+     * failed to be collected is not reported.
      */
-    private class StatusTask extends TimerTask {
+    private class StatusTask implements Runnable {
         @Override
         public void run() {
-            if (compactionsEnabled) {
-                report(createMeasurement(infoProvider.getCompactionSettingsInfo()));
-                for (CompactionInfo compactionInfo : infoProvider.getCompactions()) {
-                    report(createMeasurement(compactionInfo));
+            final List<Measurement> measurements = new ArrayList<>();
+            final InfoSnapshot snapshot = infoProvider.snapshot(sections);
+            if (snapshot.has(Section.COMPACTION_SETTINGS)) {
+                measurements.add(createMeasurement(snapshot.compactionSettingsInfo));
+            }
+            if (snapshot.has(Section.COMPACTIONS)) {
+                for (CompactionInfo compactionInfo : snapshot.compactions) {
+                    measurements.add(createMeasurement(compactionInfo));
                 }
             }
-            if (tpStatsEnabled) {
-                for (TPStatsInfo tpStatsInfo : infoProvider.getTPStats()) {
-                    report(createMeasurement(tpStatsInfo));
+            if (snapshot.has(Section.TP_STATS)) {
+                for (TPStatsInfo tpStatsInfo : snapshot.tpStats) {
+                    measurements.add(createMeasurement(tpStatsInfo));
                 }
             }
-            if (repairsEnabled) {
-                report(createSimpleMeasurement(DEFAULT_REPAIR_SESSIONS_MEASUREMENT_NAME,
-                        (double) infoProvider.getRepairSessions()));
+            if (snapshot.has(Section.REPAIR_SESSIONS)) {
+                measurements.add(createSimpleMeasurement(DEFAULT_REPAIR_SESSIONS_MEASUREMENT_NAME,
+                        (double) snapshot.repairSessions));
             }
-            if (nodeInfoEnabled) {
-                NodeInfo nodeInfo = infoProvider.getNodeInfo();
-                report(createMeasurement(nodeInfo));
+            if (snapshot.has(Section.NODE_INFO)) {
+                measurements.add(createMeasurement(snapshot.nodeInfo));
             }
+            report(measurements);
         }
     }
 
     private Measurement createMeasurement(CompactionSettingsInfo compactionSettingsInfo) {
-        final Map<String, String> tags = new HashMap<>(4);
-        tags.put("host", globalConfiguration.hostname);
-        tags.put("systemName", globalConfiguration.systemName);
-
-        final Map<String, String> fields = new HashMap<>(5);
-        fields.put("compactionThroughput", Integer.toString(compactionSettingsInfo.compactionThroughput));
-        fields.put("coreCompactorThreads", Integer.toString(compactionSettingsInfo.coreCompactorThreads));
-        fields.put("maximumCompactorThreads", Integer.toString(compactionSettingsInfo.maximumCompactorThreads));
-        fields.put("coreValidatorThreads", Integer.toString(compactionSettingsInfo.coreValidatorThreads));
-        fields.put("maximumValidatorThreads", Integer.toString(compactionSettingsInfo.maximumValidatorThreads));
-
-        return Measurement.createComplex(DEFAULT_COMPACTION_SETTINGS_INFO_MEASUREMENT_NAME, System.currentTimeMillis(),
-                TimeUnit.MILLISECONDS, tags, fields);
+        return measurementBuilder.name(DEFAULT_COMPACTION_SETTINGS_INFO_MEASUREMENT_NAME)
+                .time(System.currentTimeMillis(), TimeUnit.MILLISECONDS).tags(hostTags)
+                .field("compactionThroughput", compactionSettingsInfo.compactionThroughput)
+                .field("coreCompactorThreads", compactionSettingsInfo.coreCompactorThreads)
+                .field("maximumCompactorThreads", compactionSettingsInfo.maximumCompactorThreads)
+                .field("coreValidatorThreads", compactionSettingsInfo.coreValidatorThreads)
+                .field("maximumValidatorThreads", compactionSettingsInfo.maximumValidatorThreads)
+                .build();
     }
 
     private Measurement createMeasurement(CompactionInfo compactionInfo) {
-        final Map<String, String> tags = new HashMap<>(4);
-        tags.put("host", globalConfiguration.hostname);
-        tags.put("systemName", globalConfiguration.systemName);
-        tags.put("keyspace", compactionInfo.keyspace);
-        tags.put("columnfamily", compactionInfo.columnFamily);
-        tags.put("taskType", compactionInfo.taskType);
-
-        final Map<String, String> fields = new HashMap<>(5);
-        fields.put("compactionId", compactionInfo.compactionId);
-        fields.put("unit", compactionInfo.unit);
-        fields.put("total", Long.toString(compactionInfo.total));
-        fields.put("completed", Long.toString(compactionInfo.completed));
-        fields.put("completedPercentage", Double.toString(compactionInfo.completedPercentage));
-
-        return Measurement.createComplex(DEFAULT_COMPACTION_INFO_MEASUREMENT_NAME, System.currentTimeMillis(),
-                TimeUnit.MILLISECONDS, tags, fields);
+        final Tags tags = Tags.of("host", globalConfiguration.hostname, "systemName", globalConfiguration.systemName,
+                "keyspace", compactionInfo.keyspace, "columnfamily", compactionInfo.columnFamily, "taskType",
+                compactionInfo.taskType);
+        return measurementBuilder.name(DEFAULT_COMPACTION_INFO_MEASUREMENT_NAME)
+                .time(System.currentTimeMillis(), TimeUnit.MILLISECONDS).tags(tags)
+                .field("compactionId", compactionInfo.compactionId)
+                .field("unit", compactionInfo.unit)
+                .field("total", compactionInfo.total)
+                .field("completed", compactionInfo.completed)
+                .field("completedPercentage", compactionInfo.completedPercentage)
+                .build();
     }
 
     private Measurement createMeasurement(TPStatsInfo tpStatsInfo) {
-        final Map<String, String> tags = new HashMap<>(1);
-        tags.put("host", globalConfiguration.hostname);
-        tags.put("systemName", globalConfiguration.systemName);
-
-        final Map<String, String> fields = new HashMap<>(5);
-        fields.put("activeTasks", Long.toString(tpStatsInfo.activeTasks));
-        fields.put("pendingTasks", Long.toString(tpStatsInfo.pendingTasks));
-        fields.put("completedTasks", Long.toString(tpStatsInfo.completedTasks));
-        fields.put("currentlyBlockedTasks", Long.toString(tpStatsInfo.currentlyBlockedTasks));
-        fields.put("totalBlockedTasks", Long.toString(tpStatsInfo.totalBlockedTasks));
-
-        return Measurement.createComplex(tpStatsInfo.threadPool, System.currentTimeMillis(), TimeUnit.MILLISECONDS,
-                tags, fields);
+        return measurementBuilder.name(tpStatsInfo.threadPool)
+                .time(System.currentTimeMillis(), TimeUnit.MILLISECONDS).tags(hostTags)
+                .field("activeTasks", tpStatsInfo.activeTasks)
+                .field("pendingTasks", tpStatsInfo.pendingTasks)
+                .field("completedTasks", tpStatsInfo.completedTasks)
+                .field("currentlyBlockedTasks", tpStatsInfo.currentlyBlockedTasks)
+                .field("totalBlockedTasks", tpStatsInfo.totalBlockedTasks)
+                .build();
     }
 
     private Measurement createSimpleMeasurement(String name, double value) {
-        final Map<String, String> tags = new HashMap<>(1);
-        tags.put("host", globalConfiguration.hostname);
-        tags.put("systemName", globalConfiguration.systemName);
-
-        final Map<String, String> fields = new HashMap<>();
-
-        return Measurement.createSimple(name, value, System.currentTimeMillis(), TimeUnit.MILLISECONDS, tags, fields);
+        return measurementBuilder.name(name).time(System.currentTimeMillis(), TimeUnit.MILLISECONDS).tags(hostTags)
+                .value(value).build();
     }
 
     private Measurement createMeasurement(NodeInfo nodeInfo) {
-        final Map<String, String> tags = new HashMap<>(1);
-        tags.put("host", globalConfiguration.hostname);
-        tags.put("systemName", globalConfiguration.systemName);
-
-        final Map<String, String> fields = new HashMap<>(5);
-        fields.put("gossipActive", Integer.toString(nodeInfo.isGossipActive()));
-        fields.put("thriftActive", Integer.toString(nodeInfo.isThriftActive()));
-        fields.put("nativeTransportActive", Integer.toString(nodeInfo.isNativeTransportActive()));
-        fields.put("uptimeInSeconds", Long.toString(nodeInfo.uptimeInSeconds));
-        fields.put("exceptionCount", Integer.toString(nodeInfo.exceptionCount));
-
-        return Measurement.createComplex(DEFAULT_NODE_INFO_MEASUREMENT_NAME, System.currentTimeMillis(),
-                TimeUnit.MILLISECONDS, tags, fields);
+        return measurementBuilder.name(DEFAULT_NODE_INFO_MEASUREMENT_NAME)
+                .time(System.currentTimeMillis(), TimeUnit.MILLISECONDS).tags(hostTags)
+                .field("gossipActive", nodeInfo.isGossipActive())
+                .field("thriftActive", nodeInfo.isThriftActive())
+                .field("nativeTransportActive", nodeInfo.isNativeTransportActive())
+                .field("uptimeInSeconds", nodeInfo.uptimeInSeconds)
+                .field("exceptionCount", nodeInfo.exceptionCount)
+                .build();
     }
 
 }
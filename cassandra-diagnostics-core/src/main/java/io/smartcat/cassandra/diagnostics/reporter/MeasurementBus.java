@@ -0,0 +1,304 @@
+package io.smartcat.cassandra.diagnostics.reporter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.smartcat.cassandra.diagnostics.Measurement;
+
+/**
+ * Measurement bus decoupling modules from reporters. Every registered reporter gets its own bounded queue and
+ * drain thread, which hands queued measurements over to the reporter in batches. Reporting a measurement only
+ * enqueues it, so neither the connector workers nor the module timers ever wait for a reporter, and a slow or
+ * broken reporter delays only its own measurements. Measurements reported together, such as all measurements of a
+ * module tick, are queued together, and are dropped and counted together if they do not fit into the reporter's
+ * queue. The queue capacity is counted in measurements, so it should hold the measurements all modules report in a
+ * reporting period, with room to spare for a slow reporter. A batch larger than the whole queue is still queued when
+ * the queue is empty, so that it is never dropped for its size alone. Measurements a reporter fails to report, even
+ * with an {@link Error}, are counted as failed and the drain thread carries on with the next batch.
+ */
+public class MeasurementBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(MeasurementBus.class);
+
+    private static final String THREAD_NAME_PREFIX = "measurement-bus-";
+
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+
+    private static final long STOP_TIMEOUT_MILLIS = 5000;
+
+    private static final long FAILURE_LOG_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final List<Channel> channels = new ArrayList<>();
+
+    /**
+     * Registers a reporter and starts its drain thread.
+     *
+     * @param reporter      reporter
+     * @param configuration reporter configuration
+     * @return reporter enqueuing measurements for the registered reporter, to be used by modules
+     */
+    public synchronized Reporter register(final Reporter reporter, final ReporterConfiguration configuration) {
+        final Channel channel = new Channel(reporter, configuration);
+        channels.add(channel);
+        channel.thread.start();
+        logger.info("Reporter {} registered with queue capacity {} and batch size {}.", channel.name,
+                configuration.queueCapacity, configuration.batchSize);
+        return channel;
+    }
+
+    /**
+     * Stops the drain thread of a registered reporter, after it hands over measurements already queued, and then
+     * stops the reporter.
+     *
+     * @param registered reporter returned when the reporter was registered
+     */
+    public synchronized void unregister(final Reporter registered) {
+        if (channels.remove(registered)) {
+            stop((Channel) registered);
+        }
+    }
+
+    /**
+     * Returns a snapshot of statistics of all registered reporters, without resetting them.
+     *
+     * @return reporter statistics
+     */
+    public List<ReporterStats> stats() {
+        return stats(false);
+    }
+
+    /**
+     * Returns a snapshot of statistics of all registered reporters and resets their longest batch report times, so
+     * that the next snapshot reports the longest batch since this one. Meant for the single module reporting
+     * reporter statistics.
+     *
+     * @return reporter statistics
+     */
+    public List<ReporterStats> statsThenReset() {
+        return stats(true);
+    }
+
+    private synchronized List<ReporterStats> stats(final boolean reset) {
+        final List<ReporterStats> stats = new ArrayList<>(channels.size());
+        for (Channel channel : channels) {
+            stats.add(channel.stats(reset));
+        }
+        return stats;
+    }
+
+    /**
+     * Stops all drain threads, after they hand over measurements already queued, and then stops the reporters.
+     */
+    public synchronized void stop() {
+        for (Channel channel : channels) {
+            channel.running = false;
+        }
+        for (Channel channel : channels) {
+            stop(channel);
+        }
+        channels.clear();
+    }
+
+    private void stop(final Channel channel) {
+        channel.running = false;
+        try {
+            channel.thread.join(STOP_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (channel.thread.isAlive()) {
+            logger.warn("Reporter {} did not report queued measurements in time.", channel.name);
+        }
+        channel.reporter.stop();
+    }
+
+    /**
+     * Queue and drain thread of a single reporter.
+     */
+    private static class Channel extends Reporter implements Runnable {
+
+        private final Reporter reporter;
+
+        private final String name;
+
+        /**
+         * Queued measurements and collections of measurements reported together. It never fills up, since every
+         * item holds at least one measurement and the number of queued measurements is bounded by the capacity.
+         */
+        private final BlockingQueue<Object> queue;
+
+        private final AtomicInteger queued = new AtomicInteger();
+
+        private final int queueCapacity;
+
+        private final int batchSize;
+
+        private final Thread thread;
+
+        private final AtomicLong delivered = new AtomicLong();
+
+        private final AtomicLong dropped = new AtomicLong();
+
+        private final AtomicLong failed = new AtomicLong();
+
+        private final AtomicLong batches = new AtomicLong();
+
+        private final AtomicLong reportTime = new AtomicLong();
+
+        private final AtomicLong maxBatchReportTime = new AtomicLong();
+
+        private volatile boolean running = true;
+
+        private long lastFailureLog = System.nanoTime() - FAILURE_LOG_INTERVAL_NANOS;
+
+        private long unloggedFailures;
+
+        Channel(final Reporter reporter, final ReporterConfiguration configuration) {
+            super(configuration, reporter.globalConfiguration);
+            this.reporter = reporter;
+            this.name = reporter.getClass().getSimpleName();
+            this.queueCapacity = Math.max(1, configuration.queueCapacity);
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.batchSize = Math.max(1, configuration.batchSize);
+            this.thread = new Thread(this);
+            thread.setName(THREAD_NAME_PREFIX + name);
+            thread.setDaemon(true);
+        }
+
+        @Override
+        public void report(Measurement measurement) {
+            enqueue(measurement, 1);
+        }
+
+        @Override
+        public void report(Collection<Measurement> measurements) {
+            if (!measurements.isEmpty()) {
+                enqueue(new ArrayList<>(measurements), measurements.size());
+            }
+        }
+
+        private void enqueue(final Object item, final int size) {
+            while (true) {
+                final int current = queued.get();
+                if (current > 0 && current + size > queueCapacity) {
+                    dropped.addAndGet(size);
+                    return;
+                }
+                if (queued.compareAndSet(current, current + size)) {
+                    break;
+                }
+            }
+            queue.offer(item);
+        }
+
+        @Override
+        public void run() {
+            final List<Measurement> batch = new ArrayList<>(batchSize);
+            while (running) {
+                try {
+                    final Object item = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                    if (item == null) {
+                        continue;
+                    }
+                    add(item, batch);
+                } catch (InterruptedException e) {
+                    break;
+                }
+                drain(batch);
+            }
+            drain(batch);
+        }
+
+        /**
+         * Adds a queued item to the batch, delivering the batch every time it is full.
+         */
+        @SuppressWarnings("unchecked")
+        private void add(final Object item, final List<Measurement> batch) {
+            if (item instanceof Measurement) {
+                queued.decrementAndGet();
+                add((Measurement) item, batch);
+                return;
+            }
+            final Collection<Measurement> measurements = (Collection<Measurement>) item;
+            queued.addAndGet(-measurements.size());
+            for (Measurement measurement : measurements) {
+                add(measurement, batch);
+            }
+        }
+
+        private void add(final Measurement measurement, final List<Measurement> batch) {
+            batch.add(measurement);
+            if (batch.size() >= batchSize) {
+                deliver(batch);
+            }
+        }
+
+        /**
+         * Adds all queued measurements to the batch and delivers it.
+         */
+        private void drain(final List<Measurement> batch) {
+            Object item;
+            while ((item = queue.poll()) != null) {
+                add(item, batch);
+            }
+            if (!batch.isEmpty()) {
+                deliver(batch);
+            }
+        }
+
+        private void deliver(final List<Measurement> batch) {
+            final long start = System.nanoTime();
+            try {
+                reporter.report(batch);
+                delivered.addAndGet(batch.size());
+            } catch (Throwable t) {
+                failed.addAndGet(batch.size());
+                logFailure(batch.size(), t);
+            }
+            final long elapsed = System.nanoTime() - start;
+            batches.incrementAndGet();
+            reportTime.addAndGet(elapsed);
+            long max = maxBatchReportTime.get();
+            while (elapsed > max && !maxBatchReportTime.compareAndSet(max, elapsed)) {
+                max = maxBatchReportTime.get();
+            }
+            batch.clear();
+        }
+
+        /**
+         * Logs reporter failures at most once a minute, with the number of failed measurements since the last
+         * logged failure.
+         */
+        private void logFailure(final int measurements, final Throwable t) {
+            unloggedFailures += measurements;
+            final long now = System.nanoTime();
+            if (now - lastFailureLog >= FAILURE_LOG_INTERVAL_NANOS) {
+                logger.warn("Reporter {} failed to report {} measurements since the last logged failure.", name,
+                        unloggedFailures, t);
+                lastFailureLog = now;
+                unloggedFailures = 0;
+            }
+        }
+
+        ReporterStats stats(final boolean reset) {
+            return new ReporterStats(name, delivered.get(), dropped.get(), failed.get(), queued.get(),
+                    batches.get(), reportTime.get(),
+                    reset ? maxBatchReportTime.getAndSet(0) : maxBatchReportTime.get());
+        }
+
+        @Override
+        public void stop() {
+            // the bus stops the drain thread and the reporter
+        }
+    }
+
+}
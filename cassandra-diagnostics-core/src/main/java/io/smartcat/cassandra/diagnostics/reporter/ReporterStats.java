@@ -0,0 +1,72 @@
+package io.smartcat.cassandra.diagnostics.reporter;
+
+/**
+ * Measurement bus statistics of a single reporter. Counters are cumulative since the reporter was registered.
+ */
+public class ReporterStats {
+
+    /**
+     * Reporter name.
+     */
+    public final String reporter;
+
+    /**
+     * Number of measurements handed over to the reporter.
+     */
+    public final long delivered;
+
+    /**
+     * Number of measurements dropped because the reporter queue was full.
+     */
+    public final long dropped;
+
+    /**
+     * Number of measurements in batches the reporter failed to report.
+     */
+    public final long failed;
+
+    /**
+     * Number of measurements currently waiting to be reported.
+     */
+    public final long queued;
+
+    /**
+     * Number of batches handed over to the reporter.
+     */
+    public final long batches;
+
+    /**
+     * Total time spent in the reporter, in nanoseconds.
+     */
+    public final long reportTimeInNanoseconds;
+
+    /**
+     * Longest time spent reporting a single batch since the statistics were last reset, in nanoseconds.
+     */
+    public final long maxBatchReportTimeInNanoseconds;
+
+    /**
+     * Reporter stats.
+     *
+     * @param reporter                        reporter name
+     * @param delivered                       delivered measurements
+     * @param dropped                         dropped measurements
+     * @param failed                          failed measurements
+     * @param queued                          currently queued measurements
+     * @param batches                         delivered batches
+     * @param reportTimeInNanoseconds         total report time
+     * @param maxBatchReportTimeInNanoseconds longest batch report time since the last reset
+     */
+    public ReporterStats(String reporter, long delivered, long dropped, long failed, long queued, long batches,
+            long reportTimeInNanoseconds, long maxBatchReportTimeInNanoseconds) {
+        this.reporter = reporter;
+        this.delivered = delivered;
+        this.dropped = dropped;
+        this.failed = failed;
+        this.queued = queued;
+        this.batches = batches;
+        this.reportTimeInNanoseconds = reportTimeInNanoseconds;
+        this.maxBatchReportTimeInNanoseconds = maxBatchReportTimeInNanoseconds;
+    }
+
+}
@@ -0,0 +1,194 @@
+package io.smartcat.cassandra.diagnostics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import io.smartcat.cassandra.diagnostics.config.Configuration;
+import io.smartcat.cassandra.diagnostics.connector.QueryCounter;
+import io.smartcat.cassandra.diagnostics.module.Module;
+import io.smartcat.cassandra.diagnostics.module.ModuleConfiguration;
+import io.smartcat.cassandra.diagnostics.reporter.Reporter;
+import io.smartcat.cassandra.diagnostics.reporter.ReporterConfiguration;
+
+public class DiagnosticsProcessorTest {
+
+    @Before
+    public void setUp() {
+        TestModule.CREATED.set(0);
+        TestModule.STOPPED.set(0);
+        TestReporter.CREATED.set(0);
+        TestReporter.STOPPED.set(0);
+    }
+
+    @Test
+    public void should_keep_modules_and_reporters_with_unchanged_configuration() {
+        DiagnosticsProcessor previous = new DiagnosticsProcessor(configuration(1, 1, "host"));
+
+        DiagnosticsProcessor processor = new DiagnosticsProcessor(configuration(1, 1, "host"), previous);
+        previous.retire(processor);
+
+        assertThat(TestModule.CREATED.get()).isEqualTo(2);
+        assertThat(TestModule.STOPPED.get()).isEqualTo(0);
+        assertThat(TestReporter.CREATED.get()).isEqualTo(1);
+        assertThat(TestReporter.STOPPED.get()).isEqualTo(0);
+        processor.shutdown();
+    }
+
+    @Test
+    public void should_restart_only_modules_with_changed_configuration() {
+        DiagnosticsProcessor previous = new DiagnosticsProcessor(configuration(1, 1, "host"));
+
+        DiagnosticsProcessor processor = new DiagnosticsProcessor(configuration(1, 2, "host"), previous);
+        previous.retire(processor);
+
+        assertThat(TestModule.CREATED.get()).isEqualTo(3);
+        assertThat(TestModule.STOPPED.get()).isEqualTo(1);
+        assertThat(TestReporter.CREATED.get()).isEqualTo(1);
+        assertThat(TestReporter.STOPPED.get()).isEqualTo(0);
+        processor.shutdown();
+    }
+
+    @Test
+    public void should_restart_reporter_with_changed_configuration_and_its_modules() {
+        DiagnosticsProcessor previous = new DiagnosticsProcessor(configuration(1, 1, "host"));
+
+        DiagnosticsProcessor processor = new DiagnosticsProcessor(configuration(2, 1, "host"), previous);
+        previous.retire(processor);
+
+        assertThat(TestModule.CREATED.get()).isEqualTo(4);
+        assertThat(TestModule.STOPPED.get()).isEqualTo(2);
+        assertThat(TestReporter.CREATED.get()).isEqualTo(2);
+        assertThat(TestReporter.STOPPED.get()).isEqualTo(1);
+        processor.shutdown();
+    }
+
+    @Test
+    public void should_restart_everything_when_global_configuration_changes() {
+        DiagnosticsProcessor previous = new DiagnosticsProcessor(configuration(1, 1, "host"));
+
+        DiagnosticsProcessor processor = new DiagnosticsProcessor(configuration(1, 1, "other-host"), previous);
+        previous.retire(processor);
+
+        assertThat(TestModule.CREATED.get()).isEqualTo(4);
+        assertThat(TestModule.STOPPED.get()).isEqualTo(2);
+        assertThat(TestReporter.CREATED.get()).isEqualTo(2);
+        assertThat(TestReporter.STOPPED.get()).isEqualTo(1);
+        processor.shutdown();
+    }
+
+    @Test
+    public void should_count_query_with_other_modules_when_one_fails() {
+        Configuration configuration = configuration(1, 1, "host");
+        configuration.modules.clear();
+        for (Class<?> module : new Class<?>[] {FailingCounterModule.class, CounterModule.class}) {
+            ModuleConfiguration counter = new ModuleConfiguration();
+            counter.module = module.getName();
+            configuration.modules.add(counter);
+        }
+        CounterModule.COUNTED.set(0);
+        DiagnosticsProcessor processor = new DiagnosticsProcessor(configuration);
+
+        processor.count(Query.StatementType.SELECT, Query.ConsistencyLevel.ONE);
+        processor.count(Query.StatementType.UPDATE, Query.ConsistencyLevel.ONE);
+
+        assertThat(CounterModule.COUNTED.get()).isEqualTo(2);
+        processor.shutdown();
+    }
+
+    private Configuration configuration(int reporterOption, int secondModuleOption, String hostname) {
+        Configuration configuration = new Configuration();
+        configuration.global.hostname = hostname;
+
+        ReporterConfiguration reporter = new ReporterConfiguration();
+        reporter.reporter = TestReporter.class.getName();
+        reporter.options.put("option", reporterOption);
+        configuration.reporters.add(reporter);
+
+        ModuleConfiguration first = new ModuleConfiguration();
+        first.module = TestModule.class.getName();
+        first.options.put("option", 1);
+        configuration.modules.add(first);
+
+        ModuleConfiguration second = new ModuleConfiguration();
+        second.module = TestModule.class.getName();
+        second.measurement = "second";
+        second.options.put("option", secondModuleOption);
+        configuration.modules.add(second);
+
+        return configuration;
+    }
+
+    public static class TestModule extends Module {
+
+        static final AtomicInteger CREATED = new AtomicInteger();
+
+        static final AtomicInteger STOPPED = new AtomicInteger();
+
+        public TestModule(ModuleConfiguration configuration, List<Reporter> reporters,
+                GlobalConfiguration globalConfiguration) {
+            super(configuration, reporters, globalConfiguration);
+            CREATED.incrementAndGet();
+        }
+
+        @Override
+        public void stop() {
+            STOPPED.incrementAndGet();
+        }
+    }
+
+    public static class CounterModule extends Module implements QueryCounter {
+
+        static final AtomicInteger COUNTED = new AtomicInteger();
+
+        public CounterModule(ModuleConfiguration configuration, List<Reporter> reporters,
+                GlobalConfiguration globalConfiguration) {
+            super(configuration, reporters, globalConfiguration);
+        }
+
+        @Override
+        public void count(Query.StatementType statementType, Query.ConsistencyLevel consistencyLevel) {
+            COUNTED.incrementAndGet();
+        }
+    }
+
+    public static class FailingCounterModule extends Module implements QueryCounter {
+
+        public FailingCounterModule(ModuleConfiguration configuration, List<Reporter> reporters,
+                GlobalConfiguration globalConfiguration) {
+            super(configuration, reporters, globalConfiguration);
+        }
+
+        @Override
+        public void count(Query.StatementType statementType, Query.ConsistencyLevel consistencyLevel) {
+            throw new AssertionError("count failed");
+        }
+    }
+
+    public static class TestReporter extends Reporter {
+
+        static final AtomicInteger CREATED = new AtomicInteger();
+
+        static final AtomicInteger STOPPED = new AtomicInteger();
+
+        public TestReporter(ReporterConfiguration configuration, GlobalConfiguration globalConfiguration) {
+            super(configuration, globalConfiguration);
+            CREATED.incrementAndGet();
+        }
+
+        @Override
+        public void report(Measurement measurement) {
+
+        }
+
+        @Override
+        public void stop() {
+            STOPPED.incrementAndGet();
+        }
+    }
+
+}
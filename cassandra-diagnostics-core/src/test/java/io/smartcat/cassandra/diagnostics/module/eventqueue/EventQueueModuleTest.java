@@ -0,0 +1,189 @@
+package io.smartcat.cassandra.diagnostics.module.eventqueue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import io.smartcat.cassandra.diagnostics.DiagnosticsAgent;
+import io.smartcat.cassandra.diagnostics.GlobalConfiguration;
+import io.smartcat.cassandra.diagnostics.Measurement;
+import io.smartcat.cassandra.diagnostics.config.ConfigurationException;
+import io.smartcat.cassandra.diagnostics.connector.BackpressurePolicy;
+import io.smartcat.cassandra.diagnostics.connector.EventQueueStats;
+import io.smartcat.cassandra.diagnostics.connector.ParseCacheStats;
+import io.smartcat.cassandra.diagnostics.module.LatchTestReporter;
+import io.smartcat.cassandra.diagnostics.module.ModuleConfiguration;
+import io.smartcat.cassandra.diagnostics.module.ScheduledTask;
+import io.smartcat.cassandra.diagnostics.module.TaskScheduler;
+import io.smartcat.cassandra.diagnostics.reporter.Reporter;
+import io.smartcat.cassandra.diagnostics.reporter.ReporterStats;
+
+/**
+ * Event queue module test.
+ */
+@RunWith(PowerMockRunner.class)
+@PrepareForTest(DiagnosticsAgent.class)
+public class EventQueueModuleTest {
+
+    @Test
+    public void should_report_event_queue_stats_when_started() throws ConfigurationException, InterruptedException {
+        PowerMockito.mockStatic(DiagnosticsAgent.class);
+        PowerMockito.when(DiagnosticsAgent.getEventQueueStats())
+                .thenReturn(new EventQueueStats(BackpressurePolicy.SAMPLING, 100, 5, 10, 2, 3));
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        final LatchTestReporter testReporter = new LatchTestReporter(null, GlobalConfiguration.getDefault(), latch);
+        final List<Reporter> reporters = new ArrayList<Reporter>() {
+            {
+                add(testReporter);
+            }
+        };
+
+        final EventQueueModule module = new EventQueueModule(testConfiguration(), reporters,
+                GlobalConfiguration.getDefault());
+        boolean wait = latch.await(1000, TimeUnit.MILLISECONDS);
+        module.stop();
+
+        assertThat(wait).isTrue();
+        Measurement measurement = testReporter.getReported().get(0);
+        assertThat(measurement.name()).isEqualTo("test_measurement");
+        assertThat(measurement.tags().get("policy")).isEqualTo("SAMPLING");
+        assertThat(measurement.fields().get("accepted")).isEqualTo("100");
+        assertThat(measurement.fields().get("dropped")).isEqualTo("5");
+        assertThat(measurement.fields().get("sampled")).isEqualTo("10");
+        assertThat(measurement.fields().get("evicted")).isEqualTo("2");
+        assertThat(measurement.fields().get("queued")).isEqualTo("3");
+    }
+
+    @Test
+    public void should_report_parse_cache_stats_when_available() throws ConfigurationException, InterruptedException {
+        PowerMockito.mockStatic(DiagnosticsAgent.class);
+        PowerMockito.when(DiagnosticsAgent.getEventQueueStats())
+                .thenReturn(new EventQueueStats(BackpressurePolicy.DROP_NEWEST, 100, 0, 0, 0, 0));
+        PowerMockito.when(DiagnosticsAgent.getParseCacheStats()).thenReturn(new ParseCacheStats(90, 10, 4));
+
+        final CountDownLatch latch = new CountDownLatch(2);
+        final LatchTestReporter testReporter = new LatchTestReporter(null, GlobalConfiguration.getDefault(), latch);
+        final List<Reporter> reporters = new ArrayList<Reporter>() {
+            {
+                add(testReporter);
+            }
+        };
+
+        final EventQueueModule module = new EventQueueModule(testConfiguration(), reporters,
+                GlobalConfiguration.getDefault());
+        boolean wait = latch.await(1000, TimeUnit.MILLISECONDS);
+        module.stop();
+
+        assertThat(wait).isTrue();
+        Measurement measurement = testReporter.getReported().get(1);
+        assertThat(measurement.name()).isEqualTo("parse_cache");
+        assertThat(measurement.fields().get("hits")).isEqualTo("90");
+        assertThat(measurement.fields().get("misses")).isEqualTo("10");
+        assertThat(measurement.fields().get("size")).isEqualTo("4");
+    }
+
+    @Test
+    public void should_report_reporter_stats() throws ConfigurationException, InterruptedException {
+        PowerMockito.mockStatic(DiagnosticsAgent.class);
+        PowerMockito.when(DiagnosticsAgent.getEventQueueStats())
+                .thenReturn(new EventQueueStats(BackpressurePolicy.DROP_NEWEST, 100, 0, 0, 0, 0));
+        PowerMockito.when(DiagnosticsAgent.getReporterStatsThenReset()).thenReturn(
+                Arrays.asList(new ReporterStats("InfluxReporter", 200, 7, 1, 12, 4, 10000000, 4000000)));
+
+        final CountDownLatch latch = new CountDownLatch(2);
+        final LatchTestReporter testReporter = new LatchTestReporter(null, GlobalConfiguration.getDefault(), latch);
+        final List<Reporter> reporters = new ArrayList<Reporter>() {
+            {
+                add(testReporter);
+            }
+        };
+
+        final EventQueueModule module = new EventQueueModule(testConfiguration(), reporters,
+                GlobalConfiguration.getDefault());
+        boolean wait = latch.await(1000, TimeUnit.MILLISECONDS);
+        module.stop();
+
+        assertThat(wait).isTrue();
+        Measurement measurement = testReporter.getReported().get(1);
+        assertThat(measurement.name()).isEqualTo("reporter_queue");
+        assertThat(measurement.tags().get("reporter")).isEqualTo("InfluxReporter");
+        assertThat(measurement.fields().get("delivered")).isEqualTo("200");
+        assertThat(measurement.fields().get("dropped")).isEqualTo("7");
+        assertThat(measurement.fields().get("failed")).isEqualTo("1");
+        assertThat(measurement.fields().get("queued")).isEqualTo("12");
+        assertThat(measurement.fields().get("avgBatchReportTime")).isEqualTo("2.5");
+        assertThat(measurement.fields().get("maxBatchReportTime")).isEqualTo("4.0");
+    }
+
+    @Test
+    public void should_report_stats_of_tasks_sharing_a_name_apart() throws ConfigurationException,
+            InterruptedException {
+        PowerMockito.mockStatic(DiagnosticsAgent.class);
+        PowerMockito.when(DiagnosticsAgent.getEventQueueStats())
+                .thenReturn(new EventQueueStats(BackpressurePolicy.DROP_NEWEST, 100, 0, 0, 0, 0));
+        final Runnable noop = new Runnable() {
+            @Override
+            public void run() {
+            }
+        };
+        final ScheduledTask frequent = TaskScheduler.shared().schedule("duplicate", noop, 10, TimeUnit.MILLISECONDS);
+        final ScheduledTask rare = TaskScheduler.shared().schedule("duplicate", noop, 1, TimeUnit.HOURS);
+
+        final CountDownLatch latch = new CountDownLatch(1000);
+        final LatchTestReporter testReporter = new LatchTestReporter(null, GlobalConfiguration.getDefault(), latch);
+        final List<Reporter> reporters = new ArrayList<Reporter>() {
+            {
+                add(testReporter);
+            }
+        };
+        final ModuleConfiguration configuration = testConfiguration();
+        configuration.options.put("timeunit", "SECONDS");
+
+        final EventQueueModule module = new EventQueueModule(configuration, reporters,
+                GlobalConfiguration.getDefault());
+        List<Measurement> duplicates = new ArrayList<>();
+        for (int i = 0; i < 300 && duplicates.size() < 4; i++) {
+            Thread.sleep(10);
+            duplicates = duplicates(testReporter.getReported());
+        }
+        module.stop();
+        frequent.cancel();
+        rare.cancel();
+
+        assertThat(duplicates.size()).isGreaterThanOrEqualTo(4);
+        for (Measurement measurement : duplicates) {
+            assertThat(Long.parseLong(measurement.fields().get("runs"))).isGreaterThanOrEqualTo(0);
+        }
+    }
+
+    private List<Measurement> duplicates(List<Measurement> measurements) {
+        final List<Measurement> duplicates = new ArrayList<>();
+        for (Measurement measurement : measurements) {
+            if ("duplicate".equals(measurement.tags().get("task"))) {
+                duplicates.add(measurement);
+            }
+        }
+        return duplicates;
+    }
+
+    private ModuleConfiguration testConfiguration() {
+        final ModuleConfiguration configuration = new ModuleConfiguration();
+        configuration.measurement = "test_measurement";
+        configuration.module = "io.smartcat.cassandra.diagnostics.module.eventqueue.EventQueueModule";
+        configuration.options.put("period", 1);
+        configuration.options.put("timeunit", "MINUTES");
+        return configuration;
+    }
+
+}
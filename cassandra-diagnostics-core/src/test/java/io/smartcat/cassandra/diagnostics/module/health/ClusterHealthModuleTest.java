@@ -2,15 +2,21 @@ package io.smartcat.cassandra.diagnostics.module.health;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.Matchers;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
@@ -19,6 +25,8 @@ import io.smartcat.cassandra.diagnostics.DiagnosticsAgent;
 import io.smartcat.cassandra.diagnostics.GlobalConfiguration;
 import io.smartcat.cassandra.diagnostics.config.ConfigurationException;
 import io.smartcat.cassandra.diagnostics.info.InfoProvider;
+import io.smartcat.cassandra.diagnostics.info.InfoSnapshot;
+import io.smartcat.cassandra.diagnostics.info.InfoSnapshot.Section;
 import io.smartcat.cassandra.diagnostics.module.LatchTestReporter;
 import io.smartcat.cassandra.diagnostics.module.ModuleConfiguration;
 import io.smartcat.cassandra.diagnostics.module.TestReporter;
@@ -35,6 +43,7 @@ public class ClusterHealthModuleTest {
     public void should_load_default_configuration_and_initialize() throws ConfigurationException {
         InfoProvider infoProvider = mock(InfoProvider.class);
         when(infoProvider.getUnreachableNodes()).thenReturn(new ArrayList<String>());
+        stubSnapshot(infoProvider);
         PowerMockito.mockStatic(DiagnosticsAgent.class);
         PowerMockito.when(DiagnosticsAgent.getInfoProvider()).thenReturn(infoProvider);
         int periodInMinutes = 1;
@@ -56,6 +65,7 @@ public class ClusterHealthModuleTest {
         unreachableNodes.add("127.0.0.2");
 
         when(infoProvider.getUnreachableNodes()).thenReturn(unreachableNodes);
+        stubSnapshot(infoProvider);
         PowerMockito.mockStatic(DiagnosticsAgent.class);
         PowerMockito.when(DiagnosticsAgent.getInfoProvider()).thenReturn(infoProvider);
 
@@ -86,6 +96,7 @@ public class ClusterHealthModuleTest {
         unreachableNodes.add("127.0.0.2");
 
         when(infoProvider.getUnreachableNodes()).thenReturn(unreachableNodes);
+        stubSnapshot(infoProvider);
         PowerMockito.mockStatic(DiagnosticsAgent.class);
         PowerMockito.when(DiagnosticsAgent.getInfoProvider()).thenReturn(infoProvider);
 
@@ -106,6 +117,7 @@ public class ClusterHealthModuleTest {
         module.stop();
         assertThat(wait).isTrue();
         assertThat(testReporter.getReported().get(0).getValue()).isEqualTo(2.0);
+        verify(infoProvider).snapshot(EnumSet.of(Section.UNREACHABLE_NODES));
     }
 
     @Test
@@ -115,6 +127,7 @@ public class ClusterHealthModuleTest {
         List<String> unreachableNodes = new ArrayList<>();
 
         when(infoProvider.getUnreachableNodes()).thenReturn(unreachableNodes);
+        stubSnapshot(infoProvider);
         PowerMockito.mockStatic(DiagnosticsAgent.class);
         PowerMockito.when(DiagnosticsAgent.getInfoProvider()).thenReturn(infoProvider);
 
@@ -146,6 +159,7 @@ public class ClusterHealthModuleTest {
         unreachableNodes.add("127.0.0.2");
 
         when(infoProvider.getUnreachableNodes()).thenReturn(unreachableNodes);
+        stubSnapshot(infoProvider);
         PowerMockito.mockStatic(DiagnosticsAgent.class);
         PowerMockito.when(DiagnosticsAgent.getInfoProvider()).thenReturn(infoProvider);
 
@@ -168,6 +182,20 @@ public class ClusterHealthModuleTest {
         assertThat(testReporter.getReported().size()).isEqualTo(0);
     }
 
+    private void stubSnapshot(final InfoProvider infoProvider) {
+        when(infoProvider.snapshot(Matchers.anySetOf(Section.class))).thenAnswer(new Answer<InfoSnapshot>() {
+            @Override
+            public InfoSnapshot answer(InvocationOnMock invocation) throws Throwable {
+                @SuppressWarnings("unchecked")
+                final Set<Section> sections = (Set<Section>) invocation.getArguments()[0];
+                return new InfoSnapshot(System.currentTimeMillis(), sections, infoProvider.getCompactions(),
+                        infoProvider.getCompactionSettingsInfo(), infoProvider.getTPStats(),
+                        infoProvider.getRepairSessions(), infoProvider.getNodeInfo(),
+                        infoProvider.getUnreachableNodes());
+            }
+        });
+    }
+
     private ModuleConfiguration testConfiguration(final int period, final boolean numberOfUnreachableNodesEnabled) {
         final ModuleConfiguration configuration = new ModuleConfiguration();
         configuration.measurement = "test_measurement";
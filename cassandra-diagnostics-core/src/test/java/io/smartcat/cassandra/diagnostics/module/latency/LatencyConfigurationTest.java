@@ -0,0 +1,46 @@
+package io.smartcat.cassandra.diagnostics.module.latency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import io.smartcat.cassandra.diagnostics.config.ConfigurationException;
+
+public class LatencyConfigurationTest {
+
+    @Test
+    public void loads_default_configuration() throws ConfigurationException {
+        Map<String, Object> options = new HashMap<>();
+        LatencyConfiguration conf = LatencyConfiguration.create(options);
+        assertThat(conf.period()).isEqualTo(1);
+        assertThat(conf.timeunit()).isEqualTo(TimeUnit.MINUTES);
+        assertThat(conf.maxTables()).isEqualTo(100);
+        assertThat(conf.lowestTrackableValueInNanos()).isEqualTo(1000L);
+        assertThat(conf.highestTrackableValueInNanos()).isEqualTo(3600 * 1000L * 1000L * 1000L);
+        assertThat(conf.numberOfSignificantValueDigits()).isEqualTo(2);
+    }
+
+    @Test
+    public void provides_all_values() throws ConfigurationException {
+        Map<String, Object> options = new HashMap<>();
+        options.put("period", 10);
+        options.put("timeunit", "SECONDS");
+        options.put("maxTables", 20);
+        options.put("lowestTrackableValueInNanos", 100L);
+        options.put("highestTrackableValueInNanos", 60000000000L);
+        options.put("numberOfSignificantValueDigits", 3);
+        LatencyConfiguration conf = LatencyConfiguration.create(options);
+        assertThat(conf.period()).isEqualTo(10);
+        assertThat(conf.timeunit()).isEqualTo(TimeUnit.SECONDS);
+        assertThat(conf.reportingRateInMillis()).isEqualTo(10000);
+        assertThat(conf.maxTables()).isEqualTo(20);
+        assertThat(conf.lowestTrackableValueInNanos()).isEqualTo(100L);
+        assertThat(conf.highestTrackableValueInNanos()).isEqualTo(60000000000L);
+        assertThat(conf.numberOfSignificantValueDigits()).isEqualTo(3);
+    }
+
+}
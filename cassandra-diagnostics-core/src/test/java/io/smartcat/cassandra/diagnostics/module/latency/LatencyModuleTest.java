@@ -0,0 +1,129 @@
+package io.smartcat.cassandra.diagnostics.module.latency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.assertj.core.api.Assertions.offset;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import io.smartcat.cassandra.diagnostics.GlobalConfiguration;
+import io.smartcat.cassandra.diagnostics.Measurement;
+import io.smartcat.cassandra.diagnostics.Query;
+import io.smartcat.cassandra.diagnostics.config.ConfigurationException;
+import io.smartcat.cassandra.diagnostics.connector.ConnectorConfiguration;
+import io.smartcat.cassandra.diagnostics.module.LatchTestReporter;
+import io.smartcat.cassandra.diagnostics.module.ModuleConfiguration;
+import io.smartcat.cassandra.diagnostics.reporter.Reporter;
+
+public class LatencyModuleTest {
+
+    @Test
+    public void should_report_latency_percentiles_per_table_and_statement_type()
+            throws ConfigurationException, InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(2);
+        final LatchTestReporter reporter = new LatchTestReporter(null, GlobalConfiguration.getDefault(), latch);
+        final LatencyModule module = new LatencyModule(testConfiguration(100), testReporters(reporter),
+                GlobalConfiguration.getDefault());
+
+        for (int i = 1; i <= 100; i++) {
+            module.process(query("ks", "users", Query.StatementType.SELECT, i * 100L));
+        }
+        module.process(query("ks", "users", Query.StatementType.UPDATE, 2000L));
+
+        boolean wait = latch.await(1000, TimeUnit.MILLISECONDS);
+        module.stop();
+        assertThat(wait).isTrue();
+
+        Measurement select = find(reporter.getReported(), "users", "SELECT");
+        assertThat(select.isSimple()).isFalse();
+        assertThat(select.tags().get("keyspace")).isEqualTo("ks");
+        assertThat(select.fields().get("count")).isEqualTo("100");
+        assertThat(Double.parseDouble(select.fields().get("p50"))).isCloseTo(5.0, offset(0.1));
+        assertThat(Double.parseDouble(select.fields().get("p99"))).isCloseTo(9.9, offset(0.1));
+        assertThat(Double.parseDouble(select.fields().get("max"))).isCloseTo(10.0, offset(0.1));
+        assertThat(select.fields().keySet()).contains("p75", "p95", "p999");
+
+        Measurement update = find(reporter.getReported(), "users", "UPDATE");
+        assertThat(update.fields().get("count")).isEqualTo("1");
+        assertThat(Double.parseDouble(update.fields().get("max"))).isCloseTo(2.0, offset(0.1));
+    }
+
+    @Test
+    public void should_fold_tables_above_limit_into_other_bucket()
+            throws ConfigurationException, InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(3);
+        final LatchTestReporter reporter = new LatchTestReporter(null, GlobalConfiguration.getDefault(), latch);
+        final ModuleConfiguration configuration = testConfiguration(100);
+        configuration.options.put("maxTables", 2);
+        final LatencyModule module = new LatencyModule(configuration, testReporters(reporter),
+                GlobalConfiguration.getDefault());
+
+        module.process(query("ks", "t1", Query.StatementType.SELECT, 1L));
+        module.process(query("ks", "t2", Query.StatementType.SELECT, 1L));
+        module.process(query("ks", "t3", Query.StatementType.SELECT, 1L));
+        module.process(query("other_ks", "t4", Query.StatementType.SELECT, 1L));
+
+        boolean wait = latch.await(1000, TimeUnit.MILLISECONDS);
+        module.stop();
+        assertThat(wait).isTrue();
+
+        assertThat(find(reporter.getReported(), "t1", "SELECT").fields().get("count")).isEqualTo("1");
+        assertThat(find(reporter.getReported(), "t2", "SELECT").fields().get("count")).isEqualTo("1");
+        Measurement other = find(reporter.getReported(), LatencyModule.OTHER, "SELECT");
+        assertThat(other.tags().get("keyspace")).isEqualTo(LatencyModule.OTHER);
+        assertThat(other.fields().get("count")).isEqualTo("2");
+    }
+
+    @Test
+    public void should_require_queries_not_filtered_by_connector() throws ConfigurationException {
+        LatencyModule.requireUnfilteredQueries(null);
+        LatencyModule.requireUnfilteredQueries(ConnectorConfiguration.getDefault());
+        final ConnectorConfiguration connectorConfiguration = new ConnectorConfiguration();
+        connectorConfiguration.minExecutionTimeInMilliseconds = 25;
+
+        try {
+            LatencyModule.requireUnfilteredQueries(connectorConfiguration);
+            fail("Latency module accepted filtered queries");
+        } catch (ConfigurationException e) {
+            assertThat(e.getMessage()).contains("minExecutionTimeInMilliseconds");
+        }
+    }
+
+    private Query query(String keyspace, String table, Query.StatementType statementType, long micros) {
+        return Query.create(System.currentTimeMillis(), micros, TimeUnit.MICROSECONDS, "/127.0.0.1:40042",
+                statementType, keyspace, table, "", Query.ConsistencyLevel.ONE);
+    }
+
+    private Measurement find(List<Measurement> measurements, String table, String statementType) {
+        for (Measurement measurement : measurements) {
+            if (table.equals(measurement.tags().get("table"))
+                    && statementType.equals(measurement.tags().get("statementType"))) {
+                return measurement;
+            }
+        }
+        throw new AssertionError("No measurement reported for " + table + " " + statementType);
+    }
+
+    private ModuleConfiguration testConfiguration(final int period) {
+        final ModuleConfiguration configuration = new ModuleConfiguration();
+        configuration.measurement = "latency";
+        configuration.module = "io.smartcat.cassandra.diagnostics.module.latency.LatencyModule";
+        configuration.options.put("period", period);
+        configuration.options.put("timeunit", "MILLISECONDS");
+        return configuration;
+    }
+
+    private List<Reporter> testReporters(final Reporter reporter) {
+        return new ArrayList<Reporter>() {
+            {
+                add(reporter);
+            }
+        };
+    }
+
+}
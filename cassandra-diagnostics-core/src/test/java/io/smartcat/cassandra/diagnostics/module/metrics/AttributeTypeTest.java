@@ -0,0 +1,37 @@
+package io.smartcat.cassandra.diagnostics.module.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class AttributeTypeTest {
+
+    @Test
+    public void resolves_declared_types() {
+        assertThat(AttributeType.ofDeclaredType("long")).isEqualTo(AttributeType.NUMBER);
+        assertThat(AttributeType.ofDeclaredType("java.lang.Double")).isEqualTo(AttributeType.NUMBER);
+        assertThat(AttributeType.ofDeclaredType("boolean")).isEqualTo(AttributeType.NONE);
+        assertThat(AttributeType.ofDeclaredType("[J")).isEqualTo(AttributeType.NONE);
+        assertThat(AttributeType.ofDeclaredType("javax.management.openmbean.CompositeData"))
+                .isEqualTo(AttributeType.NONE);
+        assertThat(AttributeType.ofDeclaredType("java.lang.Object")).isEqualTo(AttributeType.UNKNOWN);
+        assertThat(AttributeType.ofDeclaredType("java.lang.String")).isEqualTo(AttributeType.UNKNOWN);
+    }
+
+    @Test
+    public void resolves_value_types() {
+        assertThat(AttributeType.ofValue(1L)).isEqualTo(AttributeType.NUMBER);
+        assertThat(AttributeType.ofValue("2.5")).isEqualTo(AttributeType.TEXT);
+        assertThat(AttributeType.ofValue("UP")).isEqualTo(AttributeType.NONE);
+        assertThat(AttributeType.ofValue(true)).isEqualTo(AttributeType.NONE);
+        assertThat(AttributeType.ofValue(null)).isEqualTo(AttributeType.NONE);
+    }
+
+    @Test
+    public void converts_values_to_double() {
+        assertThat(AttributeType.NUMBER.toDouble(3)).isEqualTo(3.0);
+        assertThat(AttributeType.NUMBER.toDouble("4.5")).isEqualTo(4.5);
+        assertThat(AttributeType.TEXT.toDouble("2.5")).isEqualTo(2.5);
+    }
+
+}
@@ -0,0 +1,342 @@
+package io.smartcat.cassandra.diagnostics.module.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.smartcat.cassandra.diagnostics.GlobalConfiguration;
+import io.smartcat.cassandra.diagnostics.Measurement;
+import io.smartcat.cassandra.diagnostics.module.TestMXBean;
+import io.smartcat.cassandra.diagnostics.module.TestMXBeanImpl;
+
+public class MetricsCollectorTest {
+
+    private static final String PACKAGE_NAME = "io.smartcat.cassandra.diagnostics.test.metrics";
+
+    private final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+    private MetricsCollector collector;
+
+    @Before
+    public void setUp() throws Exception {
+        collector = collector(new HashMap<String, Object>());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        collector.close();
+        for (ObjectName name : server.queryNames(new ObjectName(PACKAGE_NAME + ":*"), null)) {
+            server.unregisterMBean(name);
+        }
+    }
+
+    @Test
+    public void collects_mbeans_registered_after_connect() throws Exception {
+        register("Table", "first");
+        assertThat(collector.connect()).isTrue();
+        register("Table", "second");
+        register("Other", "first");
+
+        final List<Measurement> measurements = collector.collectMeasurements();
+
+        assertThat(measurements).extracting("name").contains("metrics.Table.first.Value", "metrics.Table.second.Value");
+        assertThat(collection(measurements).fields()).containsEntry("mbeans", "2").containsEntry("addedMBeans", "1");
+    }
+
+    @Test
+    public void stops_collecting_unregistered_mbeans() throws Exception {
+        register("Table", "first");
+        register("Table", "second");
+        assertThat(collector.connect()).isTrue();
+        server.unregisterMBean(name("Table", "second"));
+
+        final List<Measurement> measurements = collector.collectMeasurements();
+
+        assertThat(measurements).extracting("name").contains("metrics.Table.first.Value")
+                .doesNotContain("metrics.Table.second.Value");
+        assertThat(collection(measurements).fields()).containsEntry("mbeans", "1").containsEntry("removedMBeans", "1")
+                .containsEntry("calls", "1");
+    }
+
+    @Test
+    public void reports_only_changed_values_and_heartbeats() throws Exception {
+        collector = collector(options("changesOnly", true, "heartbeatPeriods", 3));
+        final TestCounter counter = registerCounter();
+        assertThat(collector.connect()).isTrue();
+
+        assertThat(values(collector.collectMeasurements())).containsExactly(0.0);
+        assertThat(values(collector.collectMeasurements())).isEmpty();
+        counter.count = 5;
+        assertThat(values(collector.collectMeasurements())).containsExactly(5.0);
+        assertThat(values(collector.collectMeasurements())).isEmpty();
+        assertThat(values(collector.collectMeasurements())).isEmpty();
+        assertThat(values(collector.collectMeasurements())).containsExactly(5.0);
+    }
+
+    @Test
+    public void reports_counter_deltas() throws Exception {
+        collector = collector(options("deltaAttributes", Arrays.asList("Count")));
+        final TestCounter counter = registerCounter();
+        assertThat(collector.connect()).isTrue();
+
+        counter.count = 10;
+        assertThat(values(collector.collectMeasurements())).isEmpty();
+        counter.count = 15;
+        assertThat(values(collector.collectMeasurements())).containsExactly(5.0);
+        assertThat(values(collector.collectMeasurements())).containsExactly(0.0);
+        counter.count = 3;
+        assertThat(values(collector.collectMeasurements())).containsExactly(3.0);
+    }
+
+    @Test
+    public void reads_shards_of_mbeans_in_parallel() throws Exception {
+        collector = collector(options("collectionThreads", 3));
+        for (int i = 0; i < 10; i++) {
+            register("Table", "table" + i);
+        }
+        assertThat(collector.connect()).isTrue();
+
+        final List<Measurement> measurements = collector.collectMeasurements();
+
+        assertThat(measurements).hasSize(11);
+        assertThat(collection(measurements).fields()).containsEntry("calls", "10").containsEntry("skippedMBeans", "0")
+                .containsEntry("completeness", "1.0");
+    }
+
+    @Test
+    public void skips_mbeans_not_read_by_deadline() throws Exception {
+        collector = collector(options("collectionThreads", 2, "collectionDeadline", 100));
+        for (int i = 0; i < 4; i++) {
+            registerCounter("counter" + i).delay = 200;
+        }
+        assertThat(collector.connect()).isTrue();
+
+        final long start = System.nanoTime();
+        final List<Measurement> measurements = collector.collectMeasurements();
+
+        assertThat(System.nanoTime() - start).isLessThan(TimeUnit.MILLISECONDS.toNanos(400));
+        assertThat(collection(measurements).fields()).containsEntry("calls", "0").containsEntry("skippedMBeans", "4")
+                .containsEntry("completeness", "0.0");
+    }
+
+    @Test
+    public void does_not_give_shards_to_threads_blocked_past_deadline() throws Exception {
+        collector = collector(options("collectionThreads", 2, "collectionDeadline", 100));
+        final TestCounter slow = registerCounter("counter0");
+        slow.delay = 500;
+        registerCounter("counter1");
+        assertThat(collector.connect()).isTrue();
+
+        final List<Measurement> first = collector.collectMeasurements();
+        slow.delay = 0;
+        final List<Measurement> second = collector.collectMeasurements();
+
+        assertThat(collection(first).fields()).containsEntry("calls", "1").containsEntry("skippedMBeans", "1")
+                .containsEntry("overdueShards", "0");
+        assertThat(collection(second).fields()).containsEntry("calls", "2").containsEntry("skippedMBeans", "0")
+                .containsEntry("overdueShards", "1");
+    }
+
+    @Test
+    public void collects_each_group_separately() throws Exception {
+        final Map<String, Object> tables = new HashMap<>();
+        tables.put("name", "tables");
+        tables.put("metricsPatterns", Arrays.asList("^" + PACKAGE_NAME + ".Table.+"));
+        final Map<String, Object> others = new HashMap<>();
+        others.put("name", "others");
+        others.put("period", 1);
+        others.put("timeunit", "MINUTES");
+        others.put("metricsPatterns", Arrays.asList("^" + PACKAGE_NAME + ".Other.+"));
+        final MetricsConfiguration config = MetricsConfiguration.create(options("metricsPackageNames",
+                Arrays.asList(PACKAGE_NAME), "metricsGroups", Arrays.asList(tables, others)));
+        collector = new MetricsCollector("metrics", config, GlobalConfiguration.getDefault());
+        register("Table", "first");
+        register("Other", "first");
+        assertThat(collector.connect()).isTrue();
+
+        final List<Measurement> tableMeasurements = collector.collectMeasurements(config.groups().get(0));
+        final List<Measurement> otherMeasurements = collector.collectMeasurements(config.groups().get(1));
+
+        assertThat(tableMeasurements).extracting("name").containsExactly("metrics.Table.first.Value",
+                "metrics.tables.collection");
+        assertThat(otherMeasurements).extracting("name").containsExactly("metrics.Other.first.Value",
+                "metrics.others.collection");
+    }
+
+    @Test
+    public void slow_group_does_not_delay_other_groups() throws Exception {
+        final Map<String, Object> tables = new HashMap<>();
+        tables.put("name", "tables");
+        tables.put("metricsPatterns", Arrays.asList("^" + PACKAGE_NAME + ".Table.+"));
+        final Map<String, Object> others = new HashMap<>();
+        others.put("name", "others");
+        others.put("metricsPatterns", Arrays.asList("^" + PACKAGE_NAME + ".Other.+"));
+        final MetricsConfiguration config = MetricsConfiguration.create(options("metricsPackageNames",
+                Arrays.asList(PACKAGE_NAME), "metricsGroups", Arrays.asList(tables, others)));
+        collector = new MetricsCollector("metrics", config, GlobalConfiguration.getDefault());
+        register("Table", "first");
+        final TestCounter slow = new TestCounter();
+        server.registerMBean(new StandardMBean(slow, TestCounterMBean.class), name("Other", "slow"));
+        assertThat(collector.connect()).isTrue();
+        slow.delay = 500;
+
+        final Thread slowCollection = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                collector.collectMeasurements(config.groups().get(1));
+            }
+        });
+        slowCollection.start();
+        assertThat(slow.reading.await(1000, TimeUnit.MILLISECONDS)).isTrue();
+        final long start = System.nanoTime();
+        final List<Measurement> measurements = collector.collectMeasurements(config.groups().get(0));
+        final long duration = System.nanoTime() - start;
+        slowCollection.join();
+
+        assertThat(duration).isLessThan(TimeUnit.MILLISECONDS.toNanos(250));
+        assertThat(measurements).extracting("name").containsExactly("metrics.Table.first.Value",
+                "metrics.tables.collection");
+    }
+
+    @Test
+    public void collects_only_attributes_with_number_values() throws Exception {
+        server.registerMBean(new StandardMBean(new TestTypes(), TestTypesMBean.class), name("Table", "types"));
+        assertThat(collector.connect()).isTrue();
+
+        final List<Measurement> measurements = collector.collectMeasurements();
+
+        assertThat(measurements).extracting("name").containsOnly("metrics.Table.types.Count",
+                "metrics.Table.types.Ratio", "metrics.Table.types.Load", "metrics.collection");
+        assertThat(values(measurements)).containsOnly(7.0, 0.5, 1024.0);
+    }
+
+    private MetricsCollector collector(Map<String, Object> options) throws Exception {
+        options.put("metricsPackageNames", Arrays.asList(PACKAGE_NAME));
+        options.put("metricsPatterns", Arrays.asList("^" + PACKAGE_NAME + ".Table.+"));
+        return new MetricsCollector("metrics", MetricsConfiguration.create(options), GlobalConfiguration.getDefault());
+    }
+
+    private Map<String, Object> options(Object... namesAndValues) {
+        final Map<String, Object> options = new HashMap<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            options.put((String) namesAndValues[i], namesAndValues[i + 1]);
+        }
+        return options;
+    }
+
+    private List<Double> values(List<Measurement> measurements) {
+        final List<Double> values = new ArrayList<>();
+        for (Measurement measurement : measurements.subList(0, measurements.size() - 1)) {
+            values.add(measurement.getValue());
+        }
+        return values;
+    }
+
+    private TestCounter registerCounter() throws Exception {
+        return registerCounter("counter");
+    }
+
+    private TestCounter registerCounter(String scope) throws Exception {
+        final TestCounter counter = new TestCounter();
+        server.registerMBean(new StandardMBean(counter, TestCounterMBean.class), name("Table", scope));
+        return counter;
+    }
+
+    private Measurement collection(List<Measurement> measurements) {
+        return measurements.get(measurements.size() - 1);
+    }
+
+    private void register(String type, String scope) throws Exception {
+        server.registerMBean(new StandardMBean(new TestMXBeanImpl(null), TestMXBean.class), name(type, scope));
+    }
+
+    private ObjectName name(String type, String scope) throws Exception {
+        return new ObjectName(PACKAGE_NAME + ":type=" + type + ",scope=" + scope);
+    }
+
+    public interface TestCounterMBean {
+
+        long getCount();
+
+    }
+
+    public static class TestCounter implements TestCounterMBean {
+
+        private volatile long count;
+
+        private volatile long delay;
+
+        private final CountDownLatch reading = new CountDownLatch(1);
+
+        @Override
+        public long getCount() {
+            reading.countDown();
+            if (delay > 0) {
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return count;
+        }
+    }
+
+    public interface TestTypesMBean {
+
+        long getCount();
+
+        Object getRatio();
+
+        String getLoad();
+
+        String getMode();
+
+        boolean isEnabled();
+
+    }
+
+    public static class TestTypes implements TestTypesMBean {
+
+        @Override
+        public long getCount() {
+            return 7;
+        }
+
+        @Override
+        public Object getRatio() {
+            return 0.5;
+        }
+
+        @Override
+        public String getLoad() {
+            return "1024";
+        }
+
+        @Override
+        public String getMode() {
+            return "NORMAL";
+        }
+
+        @Override
+        public boolean isEnabled() {
+            return true;
+        }
+    }
+
+}
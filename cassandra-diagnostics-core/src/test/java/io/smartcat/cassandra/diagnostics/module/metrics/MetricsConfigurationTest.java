@@ -10,6 +10,8 @@ import java.util.concurrent.TimeUnit;
 import org.junit.Test;
 import org.yaml.snakeyaml.constructor.ConstructorException;
 
+import io.smartcat.cassandra.diagnostics.config.ConfigurationException;
+
 public class MetricsConfigurationTest {
 
     @Test
@@ -21,9 +23,13 @@ public class MetricsConfigurationTest {
         assertThat(conf.jmxHost()).isEqualTo("127.0.0.1");
         assertThat(conf.jmxPort()).isEqualTo(7199);
         assertThat(conf.jmxSslEnabled()).isEqualTo(false);
+        assertThat(conf.jmxInProcess()).isEqualTo(true);
+        assertThat(conf.metricsRegistryEnabled()).isEqualTo(false);
         assertThat(conf.metricsPackageNames()).isEqualTo(Arrays.asList("org.apache.cassandra.metrics"));
         assertThat(conf.metricsPatterns()).isNotNull();
         assertThat(conf.metricsPatterns()).isEmpty();
+        assertThat(conf.collectionThreads()).isEqualTo(1);
+        assertThat(conf.collectionDeadlineInMillis()).isEqualTo(800);
     }
 
     @Test
@@ -48,4 +54,51 @@ public class MetricsConfigurationTest {
         }
     }
 
+    @Test
+    public void provides_module_level_group_without_configured_groups() throws Exception {
+        Map<String, Object> options = new HashMap<>();
+        options.put("period", 2);
+        options.put("metricsPatterns", Arrays.asList("^org.apache.cassandra.metrics.Cache.+"));
+        MetricsConfiguration conf = MetricsConfiguration.create(options);
+
+        assertThat(conf.groups()).hasSize(1);
+        final MetricsGroup group = conf.groups().get(0);
+        assertThat(group.name()).isNull();
+        assertThat(group.reportingRateInMillis()).isEqualTo(2000);
+        assertThat(group.metricsPatterns()).containsExactly("^org.apache.cassandra.metrics.Cache.+");
+        assertThat(group.collectionDeadlineInMillis()).isEqualTo(1600);
+    }
+
+    @Test
+    public void provides_configured_groups_with_module_level_defaults() throws Exception {
+        Map<String, Object> options = new HashMap<>();
+        options.put("period", 2);
+        Map<String, Object> requests = new HashMap<>();
+        requests.put("name", "requests");
+        requests.put("metricsPatterns", Arrays.asList("^org.apache.cassandra.metrics.ClientRequest.+"));
+        Map<String, Object> tables = new HashMap<>();
+        tables.put("name", "tables");
+        tables.put("period", 1);
+        tables.put("timeunit", "MINUTES");
+        tables.put("metricsPackageNames", Arrays.asList("org.apache.cassandra.db"));
+        options.put("metricsGroups", Arrays.asList(requests, tables));
+        MetricsConfiguration conf = MetricsConfiguration.create(options);
+
+        assertThat(conf.groups()).extracting("name").containsExactly("requests", "tables");
+        assertThat(conf.groups().get(0).reportingRateInMillis()).isEqualTo(2000);
+        assertThat(conf.groups().get(0).metricsPackageNames()).containsExactly("org.apache.cassandra.metrics");
+        assertThat(conf.groups().get(1).reportingRateInMillis()).isEqualTo(60000);
+        assertThat(conf.groups().get(1).metricsPackageNames()).containsExactly("org.apache.cassandra.db");
+        assertThat(conf.groups().get(1).metricsPatterns()).isEmpty();
+    }
+
+    @Test(expected = ConfigurationException.class)
+    public void fails_on_duplicate_group_names() throws Exception {
+        Map<String, Object> options = new HashMap<>();
+        Map<String, Object> group = new HashMap<>();
+        group.put("name", "requests");
+        options.put("metricsGroups", Arrays.asList(group, group));
+        MetricsConfiguration.create(options);
+    }
+
 }
@@ -3,6 +3,10 @@ package io.smartcat.cassandra.diagnostics.module.metrics;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.lang.management.ManagementFactory;
+import java.net.ServerSocket;
+import java.rmi.registry.LocateRegistry;
+import java.rmi.registry.Registry;
+import java.rmi.server.UnicastRemoteObject;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -17,6 +21,9 @@ import javax.management.MalformedObjectNameException;
 import javax.management.NotCompliantMBeanException;
 import javax.management.ObjectName;
 import javax.management.StandardMBean;
+import javax.management.remote.JMXConnectorServer;
+import javax.management.remote.JMXConnectorServerFactory;
+import javax.management.remote.JMXServiceURL;
 
 import org.junit.Test;
 
@@ -65,6 +72,42 @@ public class MetricsModuleTest {
         deinitializeTestMBean();
     }
 
+    @Test
+    public void should_report_metrics_over_jmx_connection() throws Exception {
+        final ModuleConfiguration config = testConfiguration();
+        TestMXBeanImpl bean = (TestMXBeanImpl) initializeTestMBean(config);
+
+        final int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        final Registry registry = LocateRegistry.createRegistry(port);
+        final JMXConnectorServer connectorServer = JMXConnectorServerFactory.newJMXConnectorServer(
+                new JMXServiceURL("service:jmx:rmi:///jndi/rmi://127.0.0.1:" + port + "/jmxrmi"), null,
+                ManagementFactory.getPlatformMBeanServer());
+        connectorServer.start();
+        config.options.put("jmxInProcess", false);
+        config.options.put("jmxPort", port);
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        final LatchTestReporter testReporter = new LatchTestReporter(null, GlobalConfiguration.getDefault(), latch);
+        final List<Reporter> reporters = new ArrayList<Reporter>() {
+            {
+                add(testReporter);
+            }
+        };
+
+        final MetricsModule module = new MetricsModule(config, reporters, GlobalConfiguration.getDefault());
+        boolean wait = latch.await(2000, TimeUnit.MILLISECONDS);
+        module.stop();
+        connectorServer.stop();
+        UnicastRemoteObject.unexportObject(registry, true);
+        assertThat(wait).isTrue();
+        assertThat(bean.called).isEqualTo(true);
+
+        deinitializeTestMBean();
+    }
+
     private ModuleConfiguration testConfiguration() {
         final ModuleConfiguration configuration = new ModuleConfiguration();
         configuration.measurement = "test_metrics";
@@ -0,0 +1,88 @@
+package io.smartcat.cassandra.diagnostics.module.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import io.smartcat.cassandra.diagnostics.GlobalConfiguration;
+import io.smartcat.cassandra.diagnostics.Measurement;
+import io.smartcat.cassandra.diagnostics.connector.MetricsRegistryReader;
+import io.smartcat.cassandra.diagnostics.connector.MetricsRegistryVisitor;
+
+public class RegistryMetricsCollectorTest {
+
+    @Test
+    public void reports_each_matching_metric_as_single_measurement() throws Exception {
+        final TestMetricsRegistryReader reader = new TestMetricsRegistryReader();
+        final MetricsConfiguration config = configuration("^org.apache.cassandra.metrics.ClientRequest.+");
+        final RegistryMetricsCollector collector = new RegistryMetricsCollector("metrics", config,
+                config.groups().get(0), reader, GlobalConfiguration.getDefault());
+
+        final List<Measurement> measurements = collector.collectMeasurements();
+
+        assertThat(measurements).hasSize(2);
+        final Measurement latency = measurements.get(0);
+        assertThat(latency.name()).isEqualTo("metrics_ClientRequest_Latency_Read");
+        assertThat(latency.isComplex()).isTrue();
+        assertThat(latency.longFieldName(0)).isEqualTo(MetricsRegistryReader.COUNT);
+        assertThat(latency.longFieldValue(0)).isEqualTo(10);
+        assertThat(latency.doubleFieldName(0)).isEqualTo(MetricsRegistryReader.P99);
+        assertThat(latency.doubleFieldValue(0)).isEqualTo(250.0);
+        assertThat(latency.tags()).containsKeys("host", "systemName");
+
+        final Measurement collection = measurements.get(1);
+        assertThat(collection.name()).isEqualTo("metrics_collection");
+        assertThat(collection.fields()).containsEntry("metrics", "1");
+    }
+
+    @Test
+    public void reads_metrics_of_configured_packages_on_every_collection() throws Exception {
+        final TestMetricsRegistryReader reader = new TestMetricsRegistryReader();
+        final MetricsConfiguration config = configuration();
+        final RegistryMetricsCollector collector = new RegistryMetricsCollector("metrics", config,
+                config.groups().get(0), reader, GlobalConfiguration.getDefault());
+
+        assertThat(collector.collectMeasurements()).hasSize(3);
+        assertThat(collector.collectMeasurements()).hasSize(3);
+        assertThat(reader.reads).isEqualTo(2);
+    }
+
+    private MetricsConfiguration configuration(String... patterns) throws Exception {
+        final Map<String, Object> options = new HashMap<>();
+        options.put("metricsRegistryEnabled", true);
+        options.put("metricsSeparator", "_");
+        options.put("metricsPatterns", Arrays.asList(patterns));
+        return MetricsConfiguration.create(options);
+    }
+
+    private static class TestMetricsRegistryReader implements MetricsRegistryReader {
+
+        private int reads;
+
+        @Override
+        public void read(MetricsRegistryVisitor visitor) {
+            reads++;
+            Measurement.Builder builder = visitor.accept("org.apache.cassandra.metrics.ClientRequest.Latency.Read");
+            if (builder != null) {
+                builder.field(COUNT, 10L).field(P99, 250.0);
+                visitor.visit("org.apache.cassandra.metrics.ClientRequest.Latency.Read", builder);
+            }
+            builder = visitor.accept("org.apache.cassandra.metrics.Storage.Load");
+            if (builder != null) {
+                builder.field(VALUE, 1024.0);
+                visitor.visit("org.apache.cassandra.metrics.Storage.Load", builder);
+            }
+            builder = visitor.accept("org.other.metrics.Test");
+            if (builder != null) {
+                builder.field(VALUE, 1.0);
+                visitor.visit("org.other.metrics.Test", builder);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,57 @@
+package io.smartcat.cassandra.diagnostics.module.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class SeriesCacheTest {
+
+    @Test
+    public void keeps_values_of_many_series() {
+        final SeriesCache cache = new SeriesCache();
+        for (long key = 1; key <= 1000; key++) {
+            cache.put(key << 16, key);
+        }
+
+        assertThat(cache.size()).isEqualTo(1000);
+        for (long key = 1; key <= 1000; key++) {
+            final int slot = cache.slot(key << 16);
+            assertThat(slot).isGreaterThanOrEqualTo(0);
+            assertThat(cache.value(slot)).isEqualTo(key);
+        }
+        assertThat(cache.slot(1001L << 16)).isEqualTo(-1);
+    }
+
+    @Test
+    public void updates_value_and_age() {
+        final SeriesCache cache = new SeriesCache();
+        cache.put(7, 1.5);
+
+        cache.update(cache.slot(7), 2.5, 3);
+
+        assertThat(cache.value(cache.slot(7))).isEqualTo(2.5);
+        assertThat(cache.age(cache.slot(7))).isEqualTo(3);
+    }
+
+    @Test
+    public void keeps_other_series_reachable_after_removal() {
+        final SeriesCache cache = new SeriesCache();
+        for (long key = 1; key <= 500; key++) {
+            cache.put(key, key);
+        }
+
+        for (long key = 1; key <= 500; key += 2) {
+            cache.remove(key);
+        }
+
+        assertThat(cache.size()).isEqualTo(250);
+        for (long key = 1; key <= 500; key++) {
+            if (key % 2 == 1) {
+                assertThat(cache.slot(key)).isEqualTo(-1);
+            } else {
+                assertThat(cache.value(cache.slot(key))).isEqualTo(key);
+            }
+        }
+    }
+
+}
@@ -268,6 +268,55 @@ public class RequestRateModuleTest {
         assertThat(totalRequests).isEqualTo(expectedNumberOfRequests);
     }
 
+    @Test
+    public void should_count_query_for_every_matching_overlapping_pattern()
+            throws ConfigurationException, InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(8);
+        final LatchTestReporter latchTestReporter = new LatchTestReporter(null, GlobalConfiguration.getDefault(),
+                latch);
+        final List<Reporter> reporters = new ArrayList<Reporter>() {
+            {
+                add(latchTestReporter);
+            }
+        };
+
+        final RequestRateModule module = new RequestRateModule(
+                testConfiguration(1, Arrays.asList("*:*", "SELECT:*", "*:ONE", "SELECT:ONE")), reporters,
+                GlobalConfiguration.getDefault());
+
+        for (int i = 0; i < 10; i++) {
+            module.count(Query.StatementType.SELECT, Query.ConsistencyLevel.ONE);
+            module.count(Query.StatementType.UPDATE, Query.ConsistencyLevel.ONE);
+            module.count(Query.StatementType.SELECT, Query.ConsistencyLevel.ALL);
+        }
+
+        long total = 0;
+        while (total < 80) {
+            latch.await(1100, TimeUnit.MILLISECONDS);
+            total = 0;
+            for (final Measurement measurement : latchTestReporter.getReported()) {
+                total += measurement.getValue();
+            }
+        }
+        module.stop();
+
+        assertThat(sumOf(latchTestReporter.getReported(), "*", "*")).isEqualTo(30);
+        assertThat(sumOf(latchTestReporter.getReported(), "SELECT", "*")).isEqualTo(20);
+        assertThat(sumOf(latchTestReporter.getReported(), "*", "ONE")).isEqualTo(20);
+        assertThat(sumOf(latchTestReporter.getReported(), "SELECT", "ONE")).isEqualTo(10);
+    }
+
+    private long sumOf(List<Measurement> measurements, String statementType, String consistencyLevel) {
+        long sum = 0;
+        for (final Measurement measurement : measurements) {
+            if (statementType.equals(measurement.tags().get("statementType"))
+                    && consistencyLevel.equals(measurement.tags().get("consistencyLevel"))) {
+                sum += measurement.getValue();
+            }
+        }
+        return sum;
+    }
+
     @Test
     public void should_report_using_log_reporter() throws ConfigurationException, InterruptedException {
         final CountDownLatch latch = new CountDownLatch(1);
@@ -56,6 +56,27 @@ public class SlowQueryModuleTest {
         assertThat(measurement.tags().get("statementType")).isEqualTo("SELECT");
     }
 
+    @Test
+    public void should_report_sub_millisecond_execution_time() throws ConfigurationException {
+        ModuleConfiguration conf = new ModuleConfiguration();
+        conf.options.put("slowQueryThresholdInMilliseconds", 0);
+        conf.options.put("slowQueryReportEnabled", true);
+        conf.options.put("slowQueryCountReportEnabled", false);
+        TestReporter reporter = new TestReporter(null, GlobalConfiguration.getDefault());
+        SlowQueryModule module = new SlowQueryModule(conf, testReporters(reporter), GlobalConfiguration.getDefault());
+
+        Query query = Query.create(1474741407205L, 750L, TimeUnit.MICROSECONDS, "/127.0.0.1:40042",
+                Query.StatementType.SELECT, "keyspace", "table", "select count(*) from keyspace.table",
+                ConsistencyLevel.LOCAL_QUORUM);
+
+        module.process(query);
+        module.stop();
+
+        assertThat(query.executionTimeInMilliseconds()).isEqualTo(0);
+        assertThat(query.executionTimeInMicroseconds()).isEqualTo(750);
+        assertThat(reporter.reported.get(0).getValue()).isEqualTo(0.75);
+    }
+
     @Test
     public void should_report_number_of_slow_queries() throws ConfigurationException, InterruptedException {
         final CountDownLatch latch = new CountDownLatch(110);
@@ -6,11 +6,15 @@ import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.Matchers;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
@@ -21,6 +25,8 @@ import io.smartcat.cassandra.diagnostics.config.ConfigurationException;
 import io.smartcat.cassandra.diagnostics.info.CompactionInfo;
 import io.smartcat.cassandra.diagnostics.info.CompactionSettingsInfo;
 import io.smartcat.cassandra.diagnostics.info.InfoProvider;
+import io.smartcat.cassandra.diagnostics.info.InfoSnapshot;
+import io.smartcat.cassandra.diagnostics.info.InfoSnapshot.Section;
 import io.smartcat.cassandra.diagnostics.info.NodeInfo;
 import io.smartcat.cassandra.diagnostics.info.TPStatsInfo;
 import io.smartcat.cassandra.diagnostics.module.LatchTestReporter;
@@ -40,6 +46,7 @@ public class StatusModuleTest {
         InfoProvider infoProvider = mock(InfoProvider.class);
         when(infoProvider.getCompactions()).thenReturn(new ArrayList<CompactionInfo>());
         when(infoProvider.getCompactionSettingsInfo()).thenReturn(getCompactionSettingsInfo());
+        stubSnapshot(infoProvider);
         PowerMockito.mockStatic(DiagnosticsAgent.class);
         PowerMockito.when(DiagnosticsAgent.getInfoProvider()).thenReturn(infoProvider);
 
@@ -55,6 +62,7 @@ public class StatusModuleTest {
         InfoProvider infoProvider = mock(InfoProvider.class);
         when(infoProvider.getCompactions()).thenReturn(getCompactions());
         when(infoProvider.getCompactionSettingsInfo()).thenReturn(getCompactionSettingsInfo());
+        stubSnapshot(infoProvider);
         PowerMockito.mockStatic(DiagnosticsAgent.class);
         PowerMockito.when(DiagnosticsAgent.getInfoProvider()).thenReturn(infoProvider);
 
@@ -78,6 +86,7 @@ public class StatusModuleTest {
     public void should_report_thread_pool_info_when_started() throws ConfigurationException, InterruptedException {
         InfoProvider infoProvider = mock(InfoProvider.class);
         when(infoProvider.getTPStats()).thenReturn(getTPStats());
+        stubSnapshot(infoProvider);
         PowerMockito.mockStatic(DiagnosticsAgent.class);
         PowerMockito.when(DiagnosticsAgent.getInfoProvider()).thenReturn(infoProvider);
 
@@ -101,6 +110,7 @@ public class StatusModuleTest {
     public void should_report_repair_info_when_started() throws ConfigurationException, InterruptedException {
         InfoProvider infoProvider = mock(InfoProvider.class);
         when(infoProvider.getRepairSessions()).thenReturn(getRepairSessions());
+        stubSnapshot(infoProvider);
         PowerMockito.mockStatic(DiagnosticsAgent.class);
         PowerMockito.when(DiagnosticsAgent.getInfoProvider()).thenReturn(infoProvider);
 
@@ -124,6 +134,7 @@ public class StatusModuleTest {
     public void should_not_report_compactions_when_disabled() throws ConfigurationException, InterruptedException {
         InfoProvider infoProvider = mock(InfoProvider.class);
         when(infoProvider.getCompactions()).thenReturn(getCompactions());
+        stubSnapshot(infoProvider);
         PowerMockito.mockStatic(DiagnosticsAgent.class);
         PowerMockito.when(DiagnosticsAgent.getInfoProvider()).thenReturn(infoProvider);
 
@@ -149,6 +160,7 @@ public class StatusModuleTest {
         InfoProvider infoProvider = mock(InfoProvider.class);
         NodeInfo nodeInfo = new NodeInfo(false, false, false, 0, 0);
         when(infoProvider.getNodeInfo()).thenReturn(nodeInfo);
+        stubSnapshot(infoProvider);
         PowerMockito.mockStatic(DiagnosticsAgent.class);
         PowerMockito.when(DiagnosticsAgent.getInfoProvider()).thenReturn(infoProvider);
 
@@ -174,6 +186,7 @@ public class StatusModuleTest {
         InfoProvider infoProvider = mock(InfoProvider.class);
         NodeInfo nodeInfo = new NodeInfo(true, false, true, 10, 10);
         when(infoProvider.getNodeInfo()).thenReturn(nodeInfo);
+        stubSnapshot(infoProvider);
         PowerMockito.mockStatic(DiagnosticsAgent.class);
         PowerMockito.when(DiagnosticsAgent.getInfoProvider()).thenReturn(infoProvider);
 
@@ -193,6 +206,20 @@ public class StatusModuleTest {
         assertThat(testReporter.getReported().size()).isEqualTo(1);
     }
 
+    private void stubSnapshot(final InfoProvider infoProvider) {
+        when(infoProvider.snapshot(Matchers.anySetOf(Section.class))).thenAnswer(new Answer<InfoSnapshot>() {
+            @Override
+            public InfoSnapshot answer(InvocationOnMock invocation) throws Throwable {
+                @SuppressWarnings("unchecked")
+                final Set<Section> sections = (Set<Section>) invocation.getArguments()[0];
+                return new InfoSnapshot(System.currentTimeMillis(), sections, infoProvider.getCompactions(),
+                        infoProvider.getCompactionSettingsInfo(), infoProvider.getTPStats(),
+                        infoProvider.getRepairSessions(), infoProvider.getNodeInfo(),
+                        infoProvider.getUnreachableNodes());
+            }
+        });
+    }
+
     private ModuleConfiguration testConfiguration(final int period, final boolean compactionsEnabled,
             final boolean tpStatsEnabled, final boolean repairsEnabled, final boolean nodeInfoEnabled) {
         final ModuleConfiguration configuration = new ModuleConfiguration();
@@ -0,0 +1,278 @@
+package io.smartcat.cassandra.diagnostics.reporter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+import io.smartcat.cassandra.diagnostics.GlobalConfiguration;
+import io.smartcat.cassandra.diagnostics.Measurement;
+import io.smartcat.cassandra.diagnostics.module.LatchTestReporter;
+
+/**
+ * Measurement bus test.
+ */
+public class MeasurementBusTest {
+
+    private final MeasurementBus bus = new MeasurementBus();
+
+    @After
+    public void tearDown() {
+        bus.stop();
+    }
+
+    @Test
+    public void should_deliver_measurements_on_reporter_thread() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(3);
+        final LatchTestReporter testReporter = new LatchTestReporter(null, GlobalConfiguration.getDefault(), latch);
+        final Reporter reporter = bus.register(testReporter, configuration(10, 10));
+
+        for (int i = 0; i < 3; i++) {
+            reporter.report(measurement(i));
+        }
+
+        assertThat(latch.await(1000, TimeUnit.MILLISECONDS)).isTrue();
+        assertThat(testReporter.getReported()).hasSize(3);
+        assertThat(testReporter.getReported().get(2).getValue()).isEqualTo(2);
+    }
+
+    @Test
+    public void should_hand_over_queued_measurements_in_batches() throws InterruptedException {
+        final BlockingReporter blockingReporter = new BlockingReporter();
+        final Reporter reporter = bus.register(blockingReporter, configuration(10, 3));
+
+        reporter.report(measurement(0));
+        assertThat(blockingReporter.entered.await(1000, TimeUnit.MILLISECONDS)).isTrue();
+        reporter.report(Arrays.asList(measurement(1), measurement(2), measurement(3), measurement(4)));
+        blockingReporter.release.countDown();
+        bus.stop();
+
+        assertThat(blockingReporter.batchSizes).containsExactly(1, 3, 1);
+    }
+
+    @Test
+    public void should_drop_measurements_when_queue_is_full() throws InterruptedException {
+        final BlockingReporter blockingReporter = new BlockingReporter();
+        final Reporter reporter = bus.register(blockingReporter, configuration(2, 1));
+
+        reporter.report(measurement(0));
+        assertThat(blockingReporter.entered.await(1000, TimeUnit.MILLISECONDS)).isTrue();
+        for (int i = 1; i < 6; i++) {
+            reporter.report(measurement(i));
+        }
+
+        ReporterStats stats = bus.stats().get(0);
+        assertThat(stats.reporter).isEqualTo("BlockingReporter");
+        assertThat(stats.queued).isEqualTo(2);
+        assertThat(stats.dropped).isEqualTo(3);
+
+        blockingReporter.release.countDown();
+        bus.stop();
+
+        assertThat(bus.stats()).isEmpty();
+        assertThat(blockingReporter.reported).isEqualTo(3);
+    }
+
+    @Test
+    public void should_queue_or_drop_measurements_reported_together_as_a_whole() throws InterruptedException {
+        final BlockingReporter blockingReporter = new BlockingReporter();
+        final Reporter reporter = bus.register(blockingReporter, configuration(4, 10));
+
+        reporter.report(measurement(0));
+        assertThat(blockingReporter.entered.await(1000, TimeUnit.MILLISECONDS)).isTrue();
+        reporter.report(Arrays.asList(measurement(1), measurement(2), measurement(3)));
+        reporter.report(Arrays.asList(measurement(4), measurement(5)));
+
+        ReporterStats stats = bus.stats().get(0);
+        assertThat(stats.queued).isEqualTo(3);
+        assertThat(stats.dropped).isEqualTo(2);
+
+        blockingReporter.release.countDown();
+        bus.stop();
+
+        assertThat(blockingReporter.reported).isEqualTo(4);
+    }
+
+    @Test
+    public void should_queue_measurements_reported_together_exceeding_capacity_when_queue_is_empty()
+            throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(5);
+        final LatchTestReporter testReporter = new LatchTestReporter(null, GlobalConfiguration.getDefault(), latch);
+        final Reporter reporter = bus.register(testReporter, configuration(2, 100));
+
+        reporter.report(Arrays.asList(measurement(0), measurement(1), measurement(2), measurement(3),
+                measurement(4)));
+
+        assertThat(latch.await(1000, TimeUnit.MILLISECONDS)).isTrue();
+        assertThat(bus.stats().get(0).dropped).isEqualTo(0);
+    }
+
+    @Test
+    public void should_reset_max_batch_report_time_only_on_request() throws InterruptedException {
+        final BlockingReporter blockingReporter = new BlockingReporter();
+        final Reporter reporter = bus.register(blockingReporter, configuration(10, 10));
+
+        reporter.report(measurement(0));
+        assertThat(blockingReporter.entered.await(1000, TimeUnit.MILLISECONDS)).isTrue();
+        Thread.sleep(20);
+        blockingReporter.release.countDown();
+        ReporterStats stats = bus.stats().get(0);
+        for (int i = 0; i < 100 && stats.maxBatchReportTimeInNanoseconds == 0; i++) {
+            Thread.sleep(10);
+            stats = bus.stats().get(0);
+        }
+
+        final long maxBatchReportTime = stats.maxBatchReportTimeInNanoseconds;
+        assertThat(maxBatchReportTime).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(20));
+        assertThat(bus.stats().get(0).maxBatchReportTimeInNanoseconds).isEqualTo(maxBatchReportTime);
+        assertThat(bus.statsThenReset().get(0).maxBatchReportTimeInNanoseconds).isEqualTo(maxBatchReportTime);
+        assertThat(bus.stats().get(0).maxBatchReportTimeInNanoseconds).isEqualTo(0);
+    }
+
+    @Test
+    public void should_isolate_failing_and_blocked_reporters() throws InterruptedException {
+        final BlockingReporter blockingReporter = new BlockingReporter();
+        final FailingReporter failingReporter = new FailingReporter();
+        final CountDownLatch latch = new CountDownLatch(5);
+        final LatchTestReporter testReporter = new LatchTestReporter(null, GlobalConfiguration.getDefault(), latch);
+        final Reporter blocking = bus.register(blockingReporter, configuration(1, 1));
+        final Reporter failing = bus.register(failingReporter, configuration(10, 10));
+        final Reporter working = bus.register(testReporter, configuration(10, 10));
+
+        for (int i = 0; i < 5; i++) {
+            final Measurement measurement = measurement(i);
+            blocking.report(measurement);
+            failing.report(measurement);
+            working.report(measurement);
+        }
+
+        assertThat(latch.await(1000, TimeUnit.MILLISECONDS)).isTrue();
+        // measurements are counted as delivered once the reporter returns
+        List<ReporterStats> stats = bus.stats();
+        for (int i = 0; i < 100 && stats.get(2).delivered < 5; i++) {
+            Thread.sleep(10);
+            stats = bus.stats();
+        }
+        assertThat(stats.get(0).dropped).isGreaterThan(0);
+        assertThat(stats.get(2).delivered).isEqualTo(5);
+        assertThat(stats.get(2).dropped).isEqualTo(0);
+        assertThat(stats.get(2).batches).isGreaterThan(0);
+        blockingReporter.release.countDown();
+    }
+
+    @Test
+    public void should_count_failed_measurements() throws InterruptedException {
+        final FailingReporter failingReporter = new FailingReporter();
+        final Reporter reporter = bus.register(failingReporter, configuration(10, 10));
+
+        reporter.report(measurement(0));
+        reporter.report(measurement(1));
+
+        ReporterStats stats = bus.stats().get(0);
+        for (int i = 0; i < 100 && stats.failed < 2; i++) {
+            Thread.sleep(10);
+            stats = bus.stats().get(0);
+        }
+        assertThat(stats.failed).isEqualTo(2);
+        assertThat(stats.delivered).isEqualTo(0);
+    }
+
+    @Test
+    public void should_keep_delivering_after_reporter_error() throws InterruptedException {
+        final ErrorReporter errorReporter = new ErrorReporter();
+        final Reporter reporter = bus.register(errorReporter, configuration(10, 1));
+
+        reporter.report(measurement(0));
+        reporter.report(measurement(1));
+
+        ReporterStats stats = bus.stats().get(0);
+        for (int i = 0; i < 100 && stats.delivered < 1; i++) {
+            Thread.sleep(10);
+            stats = bus.stats().get(0);
+        }
+        assertThat(stats.failed).isEqualTo(1);
+        assertThat(stats.delivered).isEqualTo(1);
+    }
+
+    private static ReporterConfiguration configuration(int queueCapacity, int batchSize) {
+        final ReporterConfiguration configuration = new ReporterConfiguration();
+        configuration.queueCapacity = queueCapacity;
+        configuration.batchSize = batchSize;
+        return configuration;
+    }
+
+    private static Measurement measurement(double value) {
+        return Measurement.createSimple("test_measurement", value, System.currentTimeMillis(),
+                TimeUnit.MILLISECONDS, new HashMap<String, String>(), new HashMap<String, String>());
+    }
+
+    private static class BlockingReporter extends Reporter {
+
+        private final CountDownLatch entered = new CountDownLatch(1);
+
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        private final List<Integer> batchSizes = new ArrayList<>();
+
+        private volatile int reported;
+
+        BlockingReporter() {
+            super(null, GlobalConfiguration.getDefault());
+        }
+
+        @Override
+        public void report(Collection<Measurement> measurements) {
+            batchSizes.add(measurements.size());
+            super.report(measurements);
+        }
+
+        @Override
+        public void report(Measurement measurement) {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            reported++;
+        }
+    }
+
+    private static class ErrorReporter extends Reporter {
+
+        private boolean failed;
+
+        ErrorReporter() {
+            super(null, GlobalConfiguration.getDefault());
+        }
+
+        @Override
+        public void report(Measurement measurement) {
+            if (!failed) {
+                failed = true;
+                throw new NoClassDefFoundError("missing/client/Class");
+            }
+        }
+    }
+
+    private static class FailingReporter extends Reporter {
+
+        FailingReporter() {
+            super(null, GlobalConfiguration.getDefault());
+        }
+
+        @Override
+        public void report(Measurement measurement) {
+            throw new IllegalStateException("Reporter is broken.");
+        }
+    }
+
+}
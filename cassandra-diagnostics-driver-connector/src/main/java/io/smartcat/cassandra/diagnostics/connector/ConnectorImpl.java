@@ -78,6 +78,33 @@ public class ConnectorImpl implements Connector {
         return null;
     }
 
+    /**
+     * Get statistics of the execute statement wrapper's event queue.
+     *
+     * @return event queue statistics
+     */
+    public EventQueueStats getEventQueueStats() {
+        return executeStatementWrapper.stats();
+    }
+
+    /**
+     * The driver connector does not parse query strings.
+     *
+     * @return <code>null</code>
+     */
+    public ParseCacheStats getParseCacheStats() {
+        return null;
+    }
+
+    /**
+     * The driver connector does not run in a Cassandra node.
+     *
+     * @return <code>null</code>
+     */
+    public MetricsRegistryReader getMetricsRegistryReader() {
+        return null;
+    }
+
     /**
      * Installs intercepter for the target classes.
      *
@@ -119,11 +146,11 @@ public class ConnectorImpl implements Connector {
 
         /**
          * Code executed before the intercepted method.
-         * @return execution start time
+         * @return execution start time, as returned by {@link System#nanoTime()}
          */
         @Advice.OnMethodEnter
         public static long enter() {
-            final long startTime = System.currentTimeMillis();
+            final long startTime = System.nanoTime();
             return startTime;
         }
 
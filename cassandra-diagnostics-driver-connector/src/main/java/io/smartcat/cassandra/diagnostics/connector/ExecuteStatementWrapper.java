@@ -1,5 +1,7 @@
 package io.smartcat.cassandra.diagnostics.connector;
 
+import java.util.concurrent.TimeUnit;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -16,7 +18,7 @@ import io.smartcat.cassandra.diagnostics.Query.ConsistencyLevel;
 /**
  * This class is a Diagnostics wrapper for driver session manager execute async method.
  */
-public class ExecuteStatementWrapper extends AbstractEventProcessor {
+public class ExecuteStatementWrapper extends AbstractEventProcessor<ExecuteStatementWrapper.StatementEvent> {
 
     private static final Logger logger = LoggerFactory.getLogger(ExecuteStatementWrapper.class);
 
@@ -31,7 +33,12 @@ public class ExecuteStatementWrapper extends AbstractEventProcessor {
      */
     public ExecuteStatementWrapper(QueryReporter queryReporter, ConnectorConfiguration configuration,
             GlobalConfiguration globalConfiguration) {
-        super(queryReporter, configuration);
+        super(queryReporter, configuration, new EventRingBuffer.Factory<StatementEvent>() {
+            @Override
+            public StatementEvent newSlot() {
+                return new StatementEvent();
+            }
+        });
         // obtain host address
         host = globalConfiguration.hostname;
     }
@@ -42,43 +49,60 @@ public class ExecuteStatementWrapper extends AbstractEventProcessor {
      * execution time and reports the query towards the diagnostics core.
      *
      * @param statement Statement
-     * @param startTime execution start time
+     * @param startNanoTime execution start time, as returned by {@link System#nanoTime()}
      * @param result    execution's result future
      */
-    public void processStatement(final Statement statement, long startTime, ResultSetFuture result) {
-        report(startTime, statement, result);
+    public void processStatement(final Statement statement, long startNanoTime, ResultSetFuture result) {
+        report(startNanoTime, statement, result);
     }
 
     /**
-     * Submits a query reports asynchronously.
+     * Captures a statement into a preallocated event slot and publishes it for asynchronous reporting.
      *
-     * @param startTime execution start time, in milliseconds
+     * @param startNanoTime execution start time, in nanoseconds
      * @param statement CQL statement
      * @param result    ResultSetFuture
      */
-    private void report(final long startTime, final Statement statement, final ResultSetFuture result) {
-        report(new Runnable() {
-            @Override
-            public void run() {
-                try {
-                    // wait for the statement to be executed
-                    result.getUninterruptibly();
-                    final long execTime = System.currentTimeMillis() - startTime;
-                    Query query = extractQuery(startTime, execTime, statement);
-                    logger.trace("Reporting query: {}.", query);
-                    queryReporter.report(query);
-                } catch (Exception e) {
-                    logger.warn("An error occured while reporting query", e);
-                }
-            }
-        });
+    private void report(final long startNanoTime, final Statement statement, final ResultSetFuture result) {
+        StatementEvent event = claim();
+        if (event == null) {
+            return;
+        }
+        event.startTime = System.currentTimeMillis()
+                - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanoTime);
+        event.startNanoTime = startNanoTime;
+        event.statement = statement;
+        event.result = result;
+        publish(event);
+    }
+
+    /**
+     * Waits for the captured statement to be executed and reports it. Execution time is known only once the
+     * statement is executed, so the query is counted and filtered here rather than on the request thread.
+     *
+     * @param event captured statement event
+     */
+    @Override
+    protected void process(StatementEvent event) {
+        // wait for the statement to be executed
+        event.result.getUninterruptibly();
+        final long execTime = System.nanoTime() - event.startNanoTime;
+        Query query = extractQuery(event.startTime, execTime, event.statement);
+        if (queryCounter != null) {
+            queryCounter.count(query.statementType(), query.consistencyLevel());
+        }
+        if (!queryFilter.accept(execTime)) {
+            return;
+        }
+        logger.trace("Reporting query: {}.", query);
+        queryReporter.report(query);
     }
 
     private Query extractQuery(final long startTime, final long execTime, final Statement statement) {
         final String queryString = statementQueryString(statement);
         final Query.StatementType queryType = queryType(queryString);
-        return Query.create(startTime, execTime, host, queryType, statement.getKeyspace(), "", queryString,
-                extractConsistencyLevel(statement));
+        return Query.create(startTime, execTime, TimeUnit.NANOSECONDS, host, queryType, statement.getKeyspace(), "",
+                queryString, extractConsistencyLevel(statement));
     }
 
     private String statementQueryString(final Statement statement) {
@@ -143,4 +167,20 @@ public class ExecuteStatementWrapper extends AbstractEventProcessor {
 
         return queryConsistencyLevel;
     }
+
+    /**
+     * Preallocated statement event slot.
+     */
+    static class StatementEvent extends EventRingBuffer.Slot {
+        long startTime;
+        long startNanoTime;
+        Statement statement;
+        ResultSetFuture result;
+
+        @Override
+        protected void clear() {
+            statement = null;
+            result = null;
+        }
+    }
 }
@@ -1,6 +1,7 @@
 package io.smartcat.cassandra.diagnostics.reporter;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -12,6 +13,7 @@ import com.timgroup.statsd.StatsDClient;
 
 import io.smartcat.cassandra.diagnostics.GlobalConfiguration;
 import io.smartcat.cassandra.diagnostics.Measurement;
+import io.smartcat.cassandra.diagnostics.Tags;
 
 /**
  * A Datadog based {@link Reporter} implementation. Query reports are reporter via Datadog HTTP API
@@ -75,33 +77,66 @@ public class DatadogReporter extends Reporter {
         }
 
         try {
-            if (measurement.isSimple()) {
-                client.recordGaugeValue(measurement.name(), measurement.getValue(), convertTagsMap(measurement.tags()));
-                logger.debug("Reporting measurement {}, value {} and tags {}", measurement.name(),
-                        measurement.getValue(), convertTagsMap(measurement.tags()));
-            } else {
-                for (String key : measurement.fields().keySet()) {
-                    if (!isNumeric(measurement.fields().get(key))) {
-                        continue;
-                    }
-
-                    client.recordGaugeValue(measurement.name() + "." + key,
-                            Double.parseDouble(measurement.fields().get(key)), convertTagsMap(measurement.tags()));
-                }
-            }
-
+            send(measurement);
         } catch (Exception e) {
             logger.warn("Sending measurement failed: execTime={}, exception: {}", measurement.time(), e.getMessage());
         }
     }
 
-    private String[] convertTagsMap(final Map<String, String> tags) {
+    /**
+     * Records gauges of all measurements. The non-blocking client packs gauges queued together into as few UDP
+     * packets as possible, so there is no separate batch write.
+     *
+     * @param measurements measurements to report
+     */
+    @Override
+    public void report(Collection<Measurement> measurements) {
+        if (client == null) {
+            logger.warn("Datadog client is not initialized. Skipping {} measurements.", measurements.size());
+            return;
+        }
+
+        for (Measurement measurement : measurements) {
+            try {
+                send(measurement);
+            } catch (Exception e) {
+                logger.warn("Sending measurement failed: execTime={}, exception: {}", measurement.time(),
+                        e.getMessage());
+            }
+        }
+    }
+
+    private void send(Measurement measurement) {
+        final String[] tags = convertTags(measurement.tagSet());
+        if (measurement.isSimple()) {
+            client.recordGaugeValue(measurement.name(), measurement.getValue(), tags);
+            logger.debug("Reporting measurement {}, value {} and tags {}", measurement.name(),
+                    measurement.getValue(), tags);
+        } else {
+            for (int i = 0; i < measurement.longFieldCount(); i++) {
+                client.recordGaugeValue(measurement.name() + "." + measurement.longFieldName(i),
+                        measurement.longFieldValue(i), tags);
+            }
+            for (int i = 0; i < measurement.doubleFieldCount(); i++) {
+                client.recordGaugeValue(measurement.name() + "." + measurement.doubleFieldName(i),
+                        measurement.doubleFieldValue(i), tags);
+            }
+            for (Map.Entry<String, String> field : measurement.stringFields().entrySet()) {
+                if (!isNumeric(field.getValue())) {
+                    continue;
+                }
+
+                client.recordGaugeValue(measurement.name() + "." + field.getKey(),
+                        Double.parseDouble(field.getValue()), tags);
+            }
+        }
+    }
+
+    private String[] convertTags(final Tags tags) {
         String[] result = new String[tags.size()];
 
-        int index = 0;
-        for (String key : tags.keySet()) {
-            result[index] = String.format("%s:%s", key, tags.get(key));
-            index++;
+        for (int i = 0; i < tags.size(); i++) {
+            result[i] = tags.name(i) + ":" + tags.value(i);
         }
 
         return result;
@@ -125,6 +125,28 @@ public class DatadogReporterTest {
                 eq(Double.parseDouble(measurement.fields().get("v4"))), eq("tag1:tv1"), eq("tag2:tv2"));
     }
 
+    @Test
+    public void should_send_all_measurements_in_batch() throws Exception {
+        Map<String, String> tags = new LinkedHashMap<>();
+        tags.put("tag1", "tv1");
+        tags.put("tag2", "tv2");
+
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("v1", "15.0");
+        fields.put("v2", "abc");
+
+        final Measurement simple = Measurement
+                .createSimple("simple-metric", 909.0, System.currentTimeMillis(), TimeUnit.MILLISECONDS, tags, fields);
+        final Measurement complex = Measurement
+                .createComplex("complex-metric", System.currentTimeMillis(), TimeUnit.MILLISECONDS, tags, fields);
+
+        datadogReporterWithMockClient.report(Arrays.asList(simple, complex));
+
+        verify(mockClient).recordGaugeValue(eq("simple-metric"), eq(909.0), eq("tag1:tv1"), eq("tag2:tv2"));
+        verify(mockClient).recordGaugeValue(eq("complex-metric.v1"), eq(15.0), eq("tag1:tv1"), eq("tag2:tv2"));
+        verify(mockClient, times(2)).recordGaugeValue(anyString(), anyDouble(), anyString(), anyString());
+    }
+
     private void setField(Object target, Field field, Object newValue) throws Exception {
         field.setAccessible(true);
         field.set(target, newValue);
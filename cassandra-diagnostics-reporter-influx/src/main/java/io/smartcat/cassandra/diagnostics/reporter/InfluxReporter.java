@@ -1,10 +1,12 @@
 package io.smartcat.cassandra.diagnostics.reporter;
 
+import java.util.Collection;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import org.influxdb.InfluxDB;
 import org.influxdb.InfluxDBFactory;
+import org.influxdb.dto.BatchPoints;
 import org.influxdb.dto.Point;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -106,23 +108,50 @@ public class InfluxReporter extends Reporter {
 
         logger.debug("Sending Query: {}", measurement.toString());
         try {
-            final Point.Builder builder = Point.measurement(measurement.name());
-            builder.time(measurement.time(), measurement.timeUnit());
-            builder.tag("type", measurement.type().toString());
-            for (Map.Entry<String, String> tag : measurement.tags().entrySet()) {
-                builder.tag(tag.getKey(), tag.getValue());
-            }
-            for (Map.Entry<String, String> field : measurement.fields().entrySet()) {
-                builder.addField(field.getKey(), field.getValue());
-            }
-            if (measurement.isSimple()) {
-                builder.addField("value", measurement.getValue());
-            }
+            influx.write(dbName, retentionPolicy, toPoint(measurement));
+        } catch (Exception e) {
+            logger.warn("Failed to send report to influx", e);
+        }
+    }
 
-            influx.write(dbName, retentionPolicy, builder.build());
+    /**
+     * Writes all measurements to InfluxDB in a single request, bypassing the client's own batching.
+     *
+     * @param measurements measurements to report
+     */
+    @Override
+    public void report(Collection<Measurement> measurements) {
+        if (influx == null) {
+            logger.warn("InfluxDB client is not initialized");
+            return;
+        }
+
+        logger.debug("Sending {} measurements", measurements.size());
+        try {
+            final BatchPoints batchPoints = BatchPoints.database(dbName).retentionPolicy(retentionPolicy).build();
+            for (Measurement measurement : measurements) {
+                batchPoints.point(toPoint(measurement));
+            }
+            influx.write(batchPoints);
         } catch (Exception e) {
             logger.warn("Failed to send report to influx", e);
         }
     }
 
+    private Point toPoint(Measurement measurement) {
+        final Point.Builder builder = Point.measurement(measurement.name());
+        builder.time(measurement.time(), measurement.timeUnit());
+        builder.tag("type", measurement.type().toString());
+        for (Map.Entry<String, String> tag : measurement.tags().entrySet()) {
+            builder.tag(tag.getKey(), tag.getValue());
+        }
+        for (Map.Entry<String, String> field : measurement.fields().entrySet()) {
+            builder.addField(field.getKey(), field.getValue());
+        }
+        if (measurement.isSimple()) {
+            builder.addField("value", measurement.getValue());
+        }
+        return builder.build();
+    }
+
 }
@@ -1,5 +1,6 @@
 package io.smartcat.cassandra.diagnostics.reporter;
 
+import java.util.Collection;
 import java.util.Properties;
 
 import org.apache.kafka.clients.producer.KafkaProducer;
@@ -71,6 +72,25 @@ public class KafkaReporter extends Reporter {
         producer.send(new ProducerRecord<>(topic, partitionKey, measurement.toJson()));
     }
 
+    /**
+     * Sends all measurements and flushes the producer. Records share the partition key, so the producer sends
+     * them in as few requests as its batch size allows, and returns when all of them are acknowledged.
+     *
+     * @param measurements measurements to report
+     */
+    @Override
+    public void report(Collection<Measurement> measurements) {
+        if (producer == null) {
+            logger.warn("Kafka producer is not initialized.");
+            return;
+        }
+
+        for (Measurement measurement : measurements) {
+            producer.send(new ProducerRecord<>(topic, partitionKey, measurement.toJson()));
+        }
+        producer.flush();
+    }
+
     @Override
     public void stop() {
         if (producer != null) {
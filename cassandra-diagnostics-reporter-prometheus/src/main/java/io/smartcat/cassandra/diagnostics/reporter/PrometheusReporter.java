@@ -11,6 +11,7 @@ import io.prometheus.client.Gauge;
 import io.prometheus.client.exporter.HTTPServer;
 import io.smartcat.cassandra.diagnostics.GlobalConfiguration;
 import io.smartcat.cassandra.diagnostics.Measurement;
+import io.smartcat.cassandra.diagnostics.Tags;
 
 /**
  * A Prometheus based {@link Reporter} implementation. Note that this reporter does not set the timestamp from the
@@ -51,27 +52,38 @@ public class PrometheusReporter extends Reporter {
 
     @Override
     public void report(Measurement measurement) {
+        String[] tagValues = convertTagValues(measurement.tagSet());
         if (measurement.isSimple()) {
             String name = measurement.name().replaceAll(ILLEGAL_CHARACTERS_REGEX, ALLOWED_DELIMITER);
             Gauge gauge = getOrCreateGaugeMeasurement(measurement, name);
-            String[] tagValues = convertTagValues(measurement.tags());
             double value = measurement.getValue();
             gauge.labels(tagValues).set(value);
         } else {
             String baseName = measurement.name().replaceAll(ILLEGAL_CHARACTERS_REGEX, ALLOWED_DELIMITER);
-            for (String key : measurement.fields().keySet()) {
-                if (!isNumeric(measurement.fields().get(key))) {
+            for (int i = 0; i < measurement.longFieldCount(); i++) {
+                setField(measurement, baseName, measurement.longFieldName(i), measurement.longFieldValue(i),
+                        tagValues);
+            }
+            for (int i = 0; i < measurement.doubleFieldCount(); i++) {
+                setField(measurement, baseName, measurement.doubleFieldName(i), measurement.doubleFieldValue(i),
+                        tagValues);
+            }
+            for (Map.Entry<String, String> field : measurement.stringFields().entrySet()) {
+                if (!isNumeric(field.getValue())) {
                     continue;
                 }
-                String metricName = baseName + ":" + key.replaceAll(ILLEGAL_CHARACTERS_REGEX, ALLOWED_DELIMITER);
-                Gauge gauge = getOrCreateGaugeMeasurement(measurement, metricName);
-                double value = Double.parseDouble(measurement.fields().get(key));
-                String[] tagValues = convertTagValues(measurement.tags());
-                gauge.labels(tagValues).set(value);
+                setField(measurement, baseName, field.getKey(), Double.parseDouble(field.getValue()), tagValues);
             }
         }
     }
 
+    private void setField(final Measurement measurement, final String baseName, final String key,
+            final double value, final String[] tagValues) {
+        String metricName = baseName + ":" + key.replaceAll(ILLEGAL_CHARACTERS_REGEX, ALLOWED_DELIMITER);
+        Gauge gauge = getOrCreateGaugeMeasurement(measurement, metricName);
+        gauge.labels(tagValues).set(value);
+    }
+
     /**
      * Get the Gauge object for the given measurementName from the metricNameGuageMap. If the object does not exist:
      * create and register the metric and put it into the metricNameGuageMap.
@@ -91,13 +103,10 @@ public class PrometheusReporter extends Reporter {
         return gauge;
     }
 
-    private String[] convertTagValues(Map<String, String> tags) {
-        String[] result = new String[tags.values().size()];
-        int i = 0;
-        for (String tagValue : tags.values()) {
-            String labelValidValue = tagValue.replaceAll(ILLEGAL_CHARACTERS_REGEX, ALLOWED_DELIMITER);
-            result[i] = labelValidValue;
-            i++;
+    private String[] convertTagValues(Tags tags) {
+        String[] result = new String[tags.size()];
+        for (int i = 0; i < tags.size(); i++) {
+            result[i] = tags.value(i).replaceAll(ILLEGAL_CHARACTERS_REGEX, ALLOWED_DELIMITER);
         }
         return result;
     }
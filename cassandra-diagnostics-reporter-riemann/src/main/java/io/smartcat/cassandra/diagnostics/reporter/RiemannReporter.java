@@ -2,11 +2,15 @@ package io.smartcat.cassandra.diagnostics.reporter;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.aphyr.riemann.Proto;
 import com.aphyr.riemann.client.EventDSL;
 import com.aphyr.riemann.client.IRiemannClient;
 import com.aphyr.riemann.client.RiemannBatchClient;
@@ -74,21 +78,16 @@ public class RiemannReporter extends Reporter {
 
     @Override
     public void report(Measurement measurement) {
-        if (!riemannClient.isConnected()) {
-            logger.warn("Riemann client dropped connection, reconnecting.");
-            try {
-                riemannClient.reconnect();
-            } catch (IOException e) {
-                logger.warn("Cannot reconnect, skipping measurement {} with value {}.", measurement.name(),
-                        measurement.getOrDefault(0d));
-                return;
-            }
+        if (!ensureConnected()) {
+            logger.warn("Cannot reconnect, skipping measurement {} with value {}.", measurement.name(),
+                    measurement.getOrDefault(0d));
+            return;
         }
 
         logger.debug("Sending Measurement: name={}, value={}, time={}", measurement.name(),
                 measurement.getOrDefault(0d), measurement.time());
         try {
-            sendEvent(measurement);
+            riemannClient.sendEvent(createEvent(measurement));
         } catch (Exception e) {
             logger.debug("Sending Query failed, trying one more time: execTime={}, exception: {}", measurement.time(),
                     e.getMessage());
@@ -96,12 +95,48 @@ public class RiemannReporter extends Reporter {
     }
 
     /**
-     * Method which is sending event.
+     * Sends all measurements as events of a single Riemann message.
+     *
+     * @param measurements measurements to report
+     */
+    @Override
+    public void report(Collection<Measurement> measurements) {
+        if (!ensureConnected()) {
+            logger.warn("Cannot reconnect, skipping {} measurements.", measurements.size());
+            return;
+        }
+
+        logger.debug("Sending {} measurements", measurements.size());
+        try {
+            final List<Proto.Event> events = new ArrayList<>(measurements.size());
+            for (Measurement measurement : measurements) {
+                events.add(createEvent(measurement));
+            }
+            riemannClient.sendEvents(events);
+        } catch (Exception e) {
+            logger.debug("Sending measurements failed, exception: {}", e.getMessage());
+        }
+    }
+
+    private boolean ensureConnected() {
+        if (!riemannClient.isConnected()) {
+            logger.warn("Riemann client dropped connection, reconnecting.");
+            try {
+                riemannClient.reconnect();
+            } catch (IOException e) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creates an event out of a measurement.
      *
      * @param measurement Measurement to send
-     * @throws IOException
+     * @return Riemann event
      */
-    private void sendEvent(Measurement measurement) throws IOException {
+    private Proto.Event createEvent(Measurement measurement) {
         final EventDSL event = riemannClient.event();
         event.service(measurement.name());
         event.state("ok");
@@ -120,7 +155,7 @@ public class RiemannReporter extends Reporter {
             event.attribute(field.getKey(), field.getValue());
         }
 
-        riemannClient.sendEvent(event.build());
+        return event.build();
     }
 
     @Override
@@ -2,11 +2,10 @@ package io.smartcat.cassandra.diagnostics.reporter;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
-import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
-import java.nio.charset.Charset;
 import java.nio.charset.CharsetEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.Collection;
 import java.util.Map;
 
 import org.influxdb.dto.Point;
@@ -26,6 +25,11 @@ public class TelegrafReporter extends Reporter {
 
     private static final int DEFAULT_PORT = 8084;
 
+    /**
+     * Maximum number of characters sent at once, kept well below the TCP client's write buffer size.
+     */
+    private static final int MAX_SEND_LENGTH = 0x10000;
+
     private static final Logger logger = LoggerFactory.getLogger(TelegrafReporter.class);
 
     private static TcpClient telegrafClient;
@@ -85,6 +89,40 @@ public class TelegrafReporter extends Reporter {
         }
     }
 
+    /**
+     * Sends lines of all measurements together, in as few writes as the TCP client's write buffer allows.
+     *
+     * @param measurements measurements to report
+     */
+    @Override
+    public void report(Collection<Measurement> measurements) {
+        if (telegrafClient == null || !telegrafClient.isConnected()) {
+            logger.warn("Telegraf client is not connected. Skipping {} measurements.", measurements.size());
+            return;
+        }
+
+        logger.debug("Sending {} measurements", measurements.size());
+        try {
+            final StringBuilder lines = new StringBuilder();
+            for (Measurement measurement : measurements) {
+                final String line = lineProtocol(measurement);
+                if (line == null) {
+                    continue;
+                }
+                if (lines.length() > 0 && lines.length() + line.length() > MAX_SEND_LENGTH) {
+                    send(lines);
+                    lines.setLength(0);
+                }
+                lines.append(line);
+            }
+            if (lines.length() > 0) {
+                send(lines);
+            }
+        } catch (Exception e) {
+            logger.debug("Sending measurements failed, exception: {}", e.getMessage());
+        }
+    }
+
     /**
      * Sends the given event.
      *
@@ -93,12 +131,17 @@ public class TelegrafReporter extends Reporter {
      * @throws InterruptedException
      */
     private void sendEvent(Measurement measurement) throws IOException, InterruptedException {
-        ByteBuffer line = lineProtocol(measurement);
+        String line = lineProtocol(measurement);
         if (line != null) {
-            telegrafClient.send(line);
+            send(line);
         }
     }
 
+    private void send(CharSequence lines) throws IOException, InterruptedException {
+        CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+        telegrafClient.send(encoder.encode(CharBuffer.wrap(lines)));
+    }
+
     @Override
     public void stop() {
         try {
@@ -110,7 +153,7 @@ public class TelegrafReporter extends Reporter {
         }
     }
 
-    private ByteBuffer lineProtocol(Measurement measurement) {
+    private String lineProtocol(Measurement measurement) {
         try {
             final Point.Builder builder = Point.measurement(measurement.name());
             builder.time(measurement.time(), measurement.timeUnit());
@@ -125,9 +168,7 @@ public class TelegrafReporter extends Reporter {
             for (Map.Entry<String, String> field : measurement.fields().entrySet()) {
                 builder.addField(field.getKey(), field.getValue());
             }
-            Charset charset = StandardCharsets.UTF_8;
-            CharsetEncoder encoder = charset.newEncoder();
-            return encoder.encode(CharBuffer.wrap(builder.build().lineProtocol().concat("\r\n").toCharArray()));
+            return builder.build().lineProtocol().concat("\r\n");
         } catch (Exception e) {
             logger.warn("Failed to send report to influx", e);
             return null;
@@ -5,12 +5,15 @@ import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetDecoder;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
@@ -68,4 +71,38 @@ public class TelegrafReporterTest {
         assertThat(line).isEqualTo("m1,tag1=tv1,tag2=tv2,type=SIMPLE v2=\"abc\",value=1.0 1434055662000000000\r\n");
 
     }
+
+    @Test
+    public void measurements_send_in_batch() throws Exception {
+
+        TcpClient tcpClientMock = mock(TcpClient.class);
+        when(tcpClientMock.isConnected()).thenReturn(true);
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                ByteBuffer buf = (ByteBuffer) invocation.getArguments()[0];
+                line = StandardCharsets.UTF_8.newDecoder().decode(buf).toString();
+                return null;
+            }
+        }).when(tcpClientMock).send(any(ByteBuffer.class));
+
+        ReporterConfiguration configuration = new ReporterConfiguration();
+        configuration.options.put("telegrafHost", "localhost");
+
+        TelegrafReporter reporter = new TelegrafReporter(configuration, GlobalConfiguration.getDefault());
+        MemberModifier.field(TelegrafReporter.class, "telegrafClient").set(reporter, tcpClientMock);
+
+        Map<String, String> tags = new HashMap<>();
+        tags.put("tag1", "tv1");
+
+        Measurement first = Measurement.createSimple("m1", 1.0, 1434055662, TimeUnit.SECONDS, tags,
+                new HashMap<String, String>());
+        Measurement second = Measurement.createSimple("m2", 2.0, 1434055662, TimeUnit.SECONDS, tags,
+                new HashMap<String, String>());
+
+        reporter.report(Arrays.asList(first, second));
+        verify(tcpClientMock, times(1)).send(any(ByteBuffer.class));
+        assertThat(line).isEqualTo("m1,tag1=tv1,type=SIMPLE value=1.0 1434055662000000000\r\n"
+                + "m2,tag1=tv1,type=SIMPLE value=2.0 1434055662000000000\r\n");
+    }
 }